@@ -0,0 +1,367 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.utils;
+
+/**
+ * A concurrent map of primitive long keys to objects.
+ * <p>
+ * Keys are neither boxed nor wrapped in entries: each segment keeps them in a long array, next to
+ * an array of values, using open addressing with linear probing. An entry costs less than half of
+ * the memory it costs in a {@link java.util.concurrent.ConcurrentHashMap} and no garbage, which
+ * matters for maps of millions of entries such as the records of a journal.
+ * <p>
+ * Segments are locked on every access, reads included. {@code null} values are not allowed.
+ */
+public class ConcurrentLongHashMap<V>
+{
+   private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+   private static final int DEFAULT_SEGMENT_CAPACITY = 16;
+
+   private static final float LOAD_FACTOR = 0.66f;
+
+   private final Segment<V>[] segments;
+
+   private final int segmentMask;
+
+   public ConcurrentLongHashMap()
+   {
+      this(DEFAULT_CONCURRENCY_LEVEL);
+   }
+
+   @SuppressWarnings("unchecked")
+   public ConcurrentLongHashMap(final int concurrencyLevel)
+   {
+      int numberOfSegments = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1) << 1);
+
+      segments = new Segment[numberOfSegments];
+
+      for (int i = 0; i < numberOfSegments; i++)
+      {
+         segments[i] = new Segment<V>(Integer.numberOfTrailingZeros(numberOfSegments));
+      }
+
+      segmentMask = numberOfSegments - 1;
+   }
+
+   public V get(final long key)
+   {
+      return segmentFor(key).get(key);
+   }
+
+   public boolean containsKey(final long key)
+   {
+      return get(key) != null;
+   }
+
+   /**
+    * @return the previous value of the key, or {@code null}
+    */
+   public V put(final long key, final V value)
+   {
+      if (value == null)
+      {
+         throw new NullPointerException("null values are not allowed");
+      }
+
+      return segmentFor(key).put(key, value);
+   }
+
+   /**
+    * @return the removed value, or {@code null}
+    */
+   public V remove(final long key)
+   {
+      return segmentFor(key).remove(key);
+   }
+
+   public int size()
+   {
+      int size = 0;
+
+      for (Segment<V> segment : segments)
+      {
+         size += segment.size;
+      }
+
+      return size;
+   }
+
+   public boolean isEmpty()
+   {
+      for (Segment<V> segment : segments)
+      {
+         if (segment.size != 0)
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   public void clear()
+   {
+      for (Segment<V> segment : segments)
+      {
+         segment.clear();
+      }
+   }
+
+   /**
+    * Returns a copy of the keys. Each segment is copied atomically but keys added or removed
+    * concurrently in other segments may or may not be included.
+    */
+   public long[] keys()
+   {
+      long[][] segmentKeys = new long[segments.length][];
+
+      int size = 0;
+
+      for (int i = 0; i < segments.length; i++)
+      {
+         segmentKeys[i] = segments[i].keys();
+
+         size += segmentKeys[i].length;
+      }
+
+      long[] keys = new long[size];
+
+      int offset = 0;
+
+      for (long[] part : segmentKeys)
+      {
+         System.arraycopy(part, 0, keys, offset, part.length);
+
+         offset += part.length;
+      }
+
+      return keys;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "ConcurrentLongHashMap(size=" + size() + ")";
+   }
+
+   private Segment<V> segmentFor(final long key)
+   {
+      return segments[hash(key) & segmentMask];
+   }
+
+   /**
+    * The low bits of the hash choose the segment and the following ones the bucket. Keys are
+    * scrambled, IDs allocated in sequence would otherwise fill runs of adjacent buckets that
+    * lookups and removals have to walk through.
+    */
+   private static int hash(final long key)
+   {
+      long hash = key * 0x9E3779B97F4A7C15L;
+
+      return (int)(hash ^ (hash >>> 32));
+   }
+
+   private static final class Segment<V>
+   {
+      private long[] keys;
+
+      private Object[] values;
+
+      private int threshold;
+
+      /**
+       * the bits of the hash used to choose the segment
+       */
+      private final int shift;
+
+      volatile int size;
+
+      Segment(final int shift)
+      {
+         this.shift = shift;
+
+         allocate(DEFAULT_SEGMENT_CAPACITY);
+      }
+
+      @SuppressWarnings("unchecked")
+      synchronized V get(final long key)
+      {
+         int bucket = find(key);
+
+         return bucket < 0 ? null : (V)values[bucket];
+      }
+
+      @SuppressWarnings("unchecked")
+      synchronized V put(final long key, final V value)
+      {
+         int mask = keys.length - 1;
+
+         int bucket = bucketHash(key) & mask;
+
+         while (values[bucket] != null)
+         {
+            if (keys[bucket] == key)
+            {
+               V previous = (V)values[bucket];
+
+               values[bucket] = value;
+
+               return previous;
+            }
+
+            bucket = (bucket + 1) & mask;
+         }
+
+         keys[bucket] = key;
+
+         values[bucket] = value;
+
+         if (++size > threshold)
+         {
+            rehash(keys.length << 1);
+         }
+
+         return null;
+      }
+
+      @SuppressWarnings("unchecked")
+      synchronized V remove(final long key)
+      {
+         int bucket = find(key);
+
+         if (bucket < 0)
+         {
+            return null;
+         }
+
+         V removed = (V)values[bucket];
+
+         values[bucket] = null;
+
+         size--;
+
+         // shift the following entries of the run back, so lookups never stop at the gap
+         int mask = keys.length - 1;
+
+         int gap = bucket;
+
+         int next = (bucket + 1) & mask;
+
+         while (values[next] != null)
+         {
+            int ideal = bucketHash(keys[next]) & mask;
+
+            if (((next - ideal) & mask) >= ((next - gap) & mask))
+            {
+               keys[gap] = keys[next];
+
+               values[gap] = values[next];
+
+               values[next] = null;
+
+               gap = next;
+            }
+
+            next = (next + 1) & mask;
+         }
+
+         return removed;
+      }
+
+      synchronized void clear()
+      {
+         allocate(DEFAULT_SEGMENT_CAPACITY);
+
+         size = 0;
+      }
+
+      synchronized long[] keys()
+      {
+         long[] result = new long[size];
+
+         int count = 0;
+
+         for (int i = 0; i < values.length; i++)
+         {
+            if (values[i] != null)
+            {
+               result[count++] = keys[i];
+            }
+         }
+
+         return result;
+      }
+
+      private int find(final long key)
+      {
+         int mask = keys.length - 1;
+
+         int bucket = bucketHash(key) & mask;
+
+         while (values[bucket] != null)
+         {
+            if (keys[bucket] == key)
+            {
+               return bucket;
+            }
+
+            bucket = (bucket + 1) & mask;
+         }
+
+         return -1;
+      }
+
+      private void rehash(final int capacity)
+      {
+         long[] oldKeys = keys;
+
+         Object[] oldValues = values;
+
+         allocate(capacity);
+
+         int mask = capacity - 1;
+
+         for (int i = 0; i < oldValues.length; i++)
+         {
+            if (oldValues[i] != null)
+            {
+               int bucket = bucketHash(oldKeys[i]) & mask;
+
+               while (values[bucket] != null)
+               {
+                  bucket = (bucket + 1) & mask;
+               }
+
+               keys[bucket] = oldKeys[i];
+
+               values[bucket] = oldValues[i];
+            }
+         }
+      }
+
+      private int bucketHash(final long key)
+      {
+         return hash(key) >>> shift;
+      }
+
+      private void allocate(final int capacity)
+      {
+         keys = new long[capacity];
+
+         values = new Object[capacity];
+
+         threshold = (int)(capacity * LOAD_FACTOR);
+      }
+   }
+}
@@ -69,6 +69,8 @@ public interface Message
 
    public static final SimpleString HDR_LARGE_BODY_SIZE = new SimpleString("_HQ_LARGE_SIZE");
 
+   public static final SimpleString HDR_BODY_CODEC = new SimpleString("_HQ_BODY_CODEC");
+
    public static final SimpleString HDR_SCHEDULED_DELIVERY_TIME = new SimpleString("_HQ_SCHED_DELIVERY");
 
    public static final SimpleString HDR_DUPLICATE_DETECTION_ID = new SimpleString("_HQ_DUPL_ID");
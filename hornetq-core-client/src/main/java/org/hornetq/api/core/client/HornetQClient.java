@@ -42,6 +42,10 @@ public final class HornetQClient
 
    public static final boolean DEFAULT_COMPRESS_LARGE_MESSAGES = false;
 
+   public static final String DEFAULT_MESSAGE_COMPRESSION_CODEC = null;
+
+   public static final int DEFAULT_MESSAGE_COMPRESSION_LEVEL = -1;
+
    public static final int DEFAULT_CONSUMER_WINDOW_SIZE = 1024 * 1024;
 
    public static final int DEFAULT_CONSUMER_MAX_RATE = -1;
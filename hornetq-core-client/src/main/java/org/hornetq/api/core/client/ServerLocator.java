@@ -730,6 +730,41 @@ public interface ServerLocator extends AutoCloseable
     */
    void setCompressLargeMessage(boolean compressLargeMessages);
 
+   /**
+    * Returns the codec compressing the bodies of regular messages sent by producers created from
+    * this locator, {@code null} if these are not compressed.
+    * <p>
+    * Default value is {@link HornetQClient#DEFAULT_MESSAGE_COMPRESSION_CODEC}.
+    * @return the codec name
+    */
+   String getMessageCompressionCodec();
+
+   /**
+    * Sets the codec compressing the bodies of regular messages, either {@code "deflate"},
+    * {@code "lzf"} or the class name of a {@link org.hornetq.spi.core.compression.CompressionCodec}.
+    * <p>
+    * Messages stay compressed on the server, in the journal and in paging, and are decompressed by
+    * the consumers, which must be able to load the same codec. Large messages keep being controlled
+    * by {@link #setCompressLargeMessage(boolean)}.
+    * @param codec the codec name, or {@code null} to send the bodies as they are
+    */
+   void setMessageCompressionCodec(String codec);
+
+   /**
+    * Returns the compression level passed to the message compression codec.
+    * <p>
+    * Default value is {@link HornetQClient#DEFAULT_MESSAGE_COMPRESSION_LEVEL}.
+    * @return the compression level
+    */
+   int getMessageCompressionLevel();
+
+   /**
+    * Sets the compression level passed to the message compression codec, for {@code "deflate"}
+    * from 0 (fastest) to 9 (smallest) or -1 for the zlib default.
+    * @param level the compression level
+    */
+   void setMessageCompressionLevel(int level);
+
    // XXX No javadocs
    void addClusterTopologyListener(ClusterTopologyListener listener);
 
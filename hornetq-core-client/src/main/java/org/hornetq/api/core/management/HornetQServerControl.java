@@ -83,6 +83,26 @@ public interface HornetQServerControl
     */
    long getSecurityInvalidationInterval();
 
+   /**
+    * Returns the number of authentications answered by the security cache.
+    */
+   long getAuthenticationCacheHitCount();
+
+   /**
+    * Returns the number of authentications validated by the security manager.
+    */
+   long getAuthenticationCacheMissCount();
+
+   /**
+    * Returns the number of permission checks answered by the security cache.
+    */
+   long getAuthorizationCacheHitCount();
+
+   /**
+    * Returns the number of permission checks validated by the security manager.
+    */
+   long getAuthorizationCacheMissCount();
+
    /**
     * Returns whether security is enabled for this server.
     */
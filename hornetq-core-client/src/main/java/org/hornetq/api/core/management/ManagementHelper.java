@@ -63,6 +63,12 @@ public final class ManagementHelper
 
    public static final SimpleString HDR_CONSUMER_COUNT = new SimpleString("_HQ_ConsumerCount");
 
+   public static final SimpleString HDR_NUMBER_OF_CONSUMERS = new SimpleString("_HQ_NumberOfConsumers");
+
+   public static final SimpleString HDR_MESSAGE_COUNT = new SimpleString("_HQ_MessageCount");
+
+   public static final SimpleString HDR_CONSUME_RATE = new SimpleString("_HQ_ConsumeRate");
+
    public static final SimpleString HDR_USER = new SimpleString("_HQ_User");
 
    public static final SimpleString HDR_CHECK_TYPE = new SimpleString("_HQ_CheckType");
@@ -295,6 +295,16 @@ public interface HornetQClientLogger extends BasicLogger
          format = Message.Format.MESSAGE_FORMAT)
    void compressedLargeMessageError(int length, int nReadBytes);
 
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 212051, value = "Unable to decompress the body of message {0} with codec {1}, delivering it as received",
+         format = Message.Format.MESSAGE_FORMAT)
+   void errorDecompressingBody(@Cause Throwable e, long messageID, String codec);
+
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 212052, value = "Message {0} declares a body of {1} bytes, more than {2} compressed bytes can hold with codec {3}, delivering it as received",
+         format = Message.Format.MESSAGE_FORMAT)
+   void invalidDecompressedBodySize(long messageID, int size, int compressedLength, String codec);
+
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 214000, value = "Failed to call onMessage", format = Message.Format.MESSAGE_FORMAT)
    void onMessageError(@Cause Throwable e);
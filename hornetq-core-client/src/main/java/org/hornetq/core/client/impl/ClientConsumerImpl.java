@@ -30,6 +30,8 @@ import org.hornetq.api.core.client.ClientMessage;
 import org.hornetq.api.core.client.ClientSessionFactory;
 import org.hornetq.api.core.client.MessageHandler;
 import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.core.compression.CompressionCodecs;
+import org.hornetq.core.message.impl.MessageImpl;
 import org.hornetq.core.protocol.core.Channel;
 import org.hornetq.core.protocol.core.impl.PacketImpl;
 import org.hornetq.core.protocol.core.impl.wireformat.SessionConsumerCloseMessage;
@@ -40,6 +42,8 @@ import org.hornetq.core.protocol.core.impl.wireformat.SessionReceiveLargeMessage
 import org.hornetq.core.protocol.core.impl.wireformat.SessionReceiveMessage;
 import org.hornetq.core.client.HornetQClientLogger;
 import org.hornetq.core.client.HornetQClientMessageBundle;
+import org.hornetq.spi.core.compression.CompressionCodec;
+import org.hornetq.utils.DataConstants;
 import org.hornetq.utils.FutureLatch;
 import org.hornetq.utils.PriorityLinkedList;
 import org.hornetq.utils.PriorityLinkedListImpl;
@@ -593,10 +597,59 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       }
       else
       {
+         if (message.getMessage().containsProperty(Message.HDR_BODY_CODEC))
+         {
+            decompressBody((ClientMessageImpl)message.getMessage());
+         }
+
          handleRegularMessage((ClientMessageInternal)message.getMessage(), message);
       }
    }
 
+   /**
+    * Restores the body of a message compressed by the producer, see {@link Message#HDR_BODY_CODEC}.
+    * If that fails the message is delivered as it came, property included, rather than lost.
+    */
+   private void decompressBody(final ClientMessageImpl message)
+   {
+      SimpleString codecName = message.getSimpleStringProperty(Message.HDR_BODY_CODEC);
+
+      try
+      {
+         CompressionCodec codec = CompressionCodecs.getCodec(codecName.toString());
+
+         HornetQBuffer buffer = message.getWholeBuffer();
+
+         int bodySize = buffer.getInt(MessageImpl.BODY_OFFSET);
+
+         byte[] compressed = new byte[message.getEndOfBodyPosition() - MessageImpl.BODY_OFFSET - DataConstants.SIZE_INT];
+
+         buffer.getBytes(MessageImpl.BODY_OFFSET + DataConstants.SIZE_INT, compressed);
+
+         // the size comes off the wire, check it before allocating so a corrupt one can't exhaust the heap
+         if (bodySize < 0 || bodySize > codec.getMaxDecompressedSize(compressed.length))
+         {
+            HornetQClientLogger.LOGGER.invalidDecompressedBodySize(message.getMessageID(), bodySize, compressed.length, codecName.toString());
+
+            return;
+         }
+
+         byte[] body = new byte[bodySize];
+
+         codec.decompress(compressed, 0, compressed.length, body);
+
+         message.resetBody(bodySize);
+
+         message.getBodyBuffer().writeBytes(body);
+
+         message.removeProperty(Message.HDR_BODY_CODEC);
+      }
+      catch (Exception e)
+      {
+         HornetQClientLogger.LOGGER.errorDecompressingBody(e, message.getMessageID(), String.valueOf(codecName));
+      }
+   }
+
    private void handleRegularMessage(final ClientMessageInternal message, final SessionReceiveMessage messagePacket) throws Exception
    {
       message.setDeliveryCount(messagePacket.getDeliveryCount());
@@ -69,6 +69,14 @@ public class ClientMessageImpl extends MessageImpl implements ClientMessageInter
       super(type, durable, expiration, timestamp, priority, initialMessageBufferSize);
    }
 
+   /*
+    * Copy constructor
+    */
+   public ClientMessageImpl(final ClientMessageImpl other)
+   {
+      super(other);
+   }
+
    public boolean isServerMessage()
    {
       return false;
@@ -25,13 +25,17 @@ import org.hornetq.api.core.Message;
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.api.core.client.SendAcknowledgementHandler;
 import org.hornetq.core.client.HornetQClientMessageBundle;
+import org.hornetq.core.compression.CompressionCodecs;
 import org.hornetq.core.message.BodyEncoder;
+import org.hornetq.core.message.impl.MessageImpl;
 import org.hornetq.core.message.impl.MessageInternal;
 import org.hornetq.core.protocol.core.Channel;
 import org.hornetq.core.protocol.core.impl.PacketImpl;
 import org.hornetq.core.protocol.core.impl.wireformat.SessionSendContinuationMessage;
 import org.hornetq.core.protocol.core.impl.wireformat.SessionSendLargeMessage;
 import org.hornetq.core.protocol.core.impl.wireformat.SessionSendMessage;
+import org.hornetq.spi.core.compression.CompressionCodec;
+import org.hornetq.utils.DataConstants;
 import org.hornetq.utils.DeflaterReader;
 import org.hornetq.utils.HornetQBufferInputStream;
 import org.hornetq.utils.TokenBucketLimiter;
@@ -67,8 +71,19 @@ public class ClientProducerImpl implements ClientProducerInternal
 
    private final ClientProducerCredits producerCredits;
 
+   private final SimpleString messageCompressionCodecName;
+
+   private final CompressionCodec messageCompressionCodec;
+
+   private final int messageCompressionLevel;
+
    // Static ---------------------------------------------------------------------------------------
 
+   /**
+    * Bodies smaller than this are not worth compressing.
+    */
+   private static final int MIN_COMPRESSED_BODY_SIZE = 1024;
+
    // Constructors ---------------------------------------------------------------------------------
 
    public ClientProducerImpl(final ClientSessionInternal session,
@@ -104,6 +119,21 @@ public class ClientProducerImpl implements ClientProducerInternal
 
       this.minLargeMessageSize = minLargeMessageSize;
 
+      String codecName = session.getMessageCompressionCodec();
+
+      if (codecName != null)
+      {
+         messageCompressionCodecName = new SimpleString(codecName);
+         messageCompressionCodec = CompressionCodecs.getCodec(codecName);
+      }
+      else
+      {
+         messageCompressionCodecName = null;
+         messageCompressionCodec = null;
+      }
+
+      messageCompressionLevel = session.getMessageCompressionLevel();
+
       if (address != null)
       {
          producerCredits = session.getCredits(address, false);
@@ -300,7 +330,7 @@ public class ClientProducerImpl implements ClientProducerInternal
          }
          else
          {
-            sendRegularMessage(msgI, sendBlocking, theCredits, handler);
+            sendRegularMessage(compressBody(msgI), msgI, sendBlocking, theCredits, handler);
          }
       }
       finally
@@ -310,6 +340,17 @@ public class ClientProducerImpl implements ClientProducerInternal
    }
 
    private void sendRegularMessage(final MessageInternal msgI,final boolean sendBlocking, final ClientProducerCredits theCredits,                                  final SendAcknowledgementHandler handler) throws HornetQException
+   {
+      sendRegularMessage(msgI, msgI, sendBlocking, theCredits, handler);
+   }
+
+   /**
+    * @param msgI the message to be sent
+    * @param originalMsg the message as given by the user, which {@code msgI} may be a transformed copy of
+    */
+   private void sendRegularMessage(final MessageInternal msgI, final MessageInternal originalMsg,
+                                   final boolean sendBlocking, final ClientProducerCredits theCredits,
+                                   final SendAcknowledgementHandler handler) throws HornetQException
    {
       try
       {
@@ -326,7 +367,7 @@ public class ClientProducerImpl implements ClientProducerInternal
          throw new HornetQInterruptedException(e);
       }
 
-      SessionSendMessage packet = new SessionSendMessage(msgI, sendBlocking, handler);
+      SessionSendMessage packet = new SessionSendMessage(msgI, originalMsg, sendBlocking, handler);
 
       if (sendBlocking)
       {
@@ -338,6 +379,53 @@ public class ClientProducerImpl implements ClientProducerInternal
       }
    }
 
+   /**
+    * Returns a copy of the message with its body compressed by the configured codec, or the message
+    * itself when compression is disabled or wouldn't make the body any smaller.
+    * <p>
+    * The compressed body is the original body size as an int followed by the codec output, and the
+    * codec name goes into {@link Message#HDR_BODY_CODEC} so the consumer knows how to restore it.
+    * The user's message is left untouched, as it may be sent again or inspected after sending.
+    */
+   private MessageInternal compressBody(final MessageInternal msgI)
+   {
+      if (messageCompressionCodec == null || !(msgI instanceof ClientMessageImpl) ||
+         msgI.containsProperty(Message.HDR_BODY_CODEC))
+      {
+         return msgI;
+      }
+
+      int bodySize = msgI.getEndOfBodyPosition() - MessageImpl.BODY_OFFSET;
+
+      if (bodySize < MIN_COMPRESSED_BODY_SIZE)
+      {
+         return msgI;
+      }
+
+      byte[] body = new byte[bodySize];
+
+      msgI.getWholeBuffer().getBytes(MessageImpl.BODY_OFFSET, body);
+
+      byte[] compressed = messageCompressionCodec.compress(body, messageCompressionLevel);
+
+      if (compressed.length + DataConstants.SIZE_INT >= bodySize)
+      {
+         return msgI;
+      }
+
+      ClientMessageImpl copy = new ClientMessageImpl((ClientMessageImpl)msgI);
+
+      copy.resetBody(compressed.length + DataConstants.SIZE_INT);
+
+      copy.getBodyBuffer().writeInt(bodySize);
+
+      copy.getBodyBuffer().writeBytes(compressed);
+
+      copy.putStringProperty(Message.HDR_BODY_CODEC, messageCompressionCodecName);
+
+      return copy;
+   }
+
    private void checkClosed() throws HornetQException
    {
       if (closed)
@@ -890,6 +890,8 @@ public class ClientSessionFactoryImpl implements ClientSessionFactoryInternal, C
                                                                      serverLocator.isCacheLargeMessagesClient(),
                                                                      serverLocator.getMinLargeMessageSize(),
                                                                      serverLocator.isCompressLargeMessage(),
+                                                                     serverLocator.getMessageCompressionCodec(),
+                                                                     serverLocator.getMessageCompressionLevel(),
                                                                      serverLocator.getInitialMessagePacketSize(),
                                                                      serverLocator.getGroupID(),
                                                                      connection,
@@ -160,6 +160,10 @@ final class ClientSessionImpl implements ClientSessionInternal, FailureListener,
 
    private final boolean compressLargeMessages;
 
+   private final String messageCompressionCodec;
+
+   private final int messageCompressionLevel;
+
    private volatile int initialMessagePacketSize;
 
    private final boolean cacheLargeMessageClient;
@@ -224,6 +228,8 @@ final class ClientSessionImpl implements ClientSessionInternal, FailureListener,
                             final boolean cacheLargeMessageClient,
                             final int minLargeMessageSize,
                             final boolean compressLargeMessages,
+                            final String messageCompressionCodec,
+                            final int messageCompressionLevel,
                             final int initialMessagePacketSize,
                             final String groupID,
                             final CoreRemotingConnection remotingConnection,
@@ -282,6 +288,10 @@ final class ClientSessionImpl implements ClientSessionInternal, FailureListener,
 
       this.compressLargeMessages = compressLargeMessages;
 
+      this.messageCompressionCodec = messageCompressionCodec;
+
+      this.messageCompressionLevel = messageCompressionLevel;
+
       this.initialMessagePacketSize = initialMessagePacketSize;
 
       this.groupID = groupID;
@@ -812,6 +822,16 @@ final class ClientSessionImpl implements ClientSessionInternal, FailureListener,
       return compressLargeMessages;
    }
 
+   public String getMessageCompressionCodec()
+   {
+      return messageCompressionCodec;
+   }
+
+   public int getMessageCompressionLevel()
+   {
+      return messageCompressionLevel;
+   }
+
    /**
     * @return the cacheLargeMessageClient
     */
@@ -1382,7 +1402,7 @@ final class ClientSessionImpl implements ClientSessionInternal, FailureListener,
       if (packet.getType() == PacketImpl.SESS_SEND)
       {
          SessionSendMessage ssm = (SessionSendMessage)packet;
-         callSendAck(ssm.getHandler(), ssm.getMessage());
+         callSendAck(ssm.getHandler(), ssm.getOriginalMessage());
       }
       else if (packet.getType() == PacketImpl.SESS_SEND_CONTINUATION)
       {
@@ -44,6 +44,13 @@ public interface ClientSessionInternal extends ClientSession
 
    boolean isCompressLargeMessages();
 
+   /**
+    * @return the name of the codec compressing the bodies of regular messages, or {@code null}
+    */
+   String getMessageCompressionCodec();
+
+   int getMessageCompressionLevel();
+
    void expire(long consumerID, long messageID) throws HornetQException;
 
    void addConsumer(ClientConsumerInternal consumer);
@@ -601,6 +601,16 @@ public class DelegatingSession implements ClientSessionInternal
       return session.isCompressLargeMessages();
    }
 
+   public String getMessageCompressionCodec()
+   {
+      return session.getMessageCompressionCodec();
+   }
+
+   public int getMessageCompressionLevel()
+   {
+      return session.getMessageCompressionLevel();
+   }
+
    @Override
    public String toString()
    {
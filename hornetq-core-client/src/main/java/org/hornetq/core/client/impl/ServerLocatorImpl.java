@@ -111,6 +111,10 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
 
    private boolean compressLargeMessage;
 
+   private String messageCompressionCodec;
+
+   private int messageCompressionLevel;
+
    // if the system should shutdown the pool when shutting down
    private transient boolean shutdownPool;
 
@@ -480,6 +484,10 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
 
       compressLargeMessage = HornetQClient.DEFAULT_COMPRESS_LARGE_MESSAGES;
 
+      messageCompressionCodec = HornetQClient.DEFAULT_MESSAGE_COMPRESSION_CODEC;
+
+      messageCompressionLevel = HornetQClient.DEFAULT_MESSAGE_COMPRESSION_LEVEL;
+
       clusterConnection = false;
    }
 
@@ -556,6 +564,8 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
       topologyArray = locator.topologyArray;
       receivedTopology = locator.receivedTopology;
       compressLargeMessage = locator.compressLargeMessage;
+      messageCompressionCodec = locator.messageCompressionCodec;
+      messageCompressionLevel = locator.messageCompressionLevel;
       cacheLargeMessagesClient = locator.cacheLargeMessagesClient;
       clientFailureCheckPeriod = locator.clientFailureCheckPeriod;
       connectionTTL = locator.connectionTTL;
@@ -1335,6 +1345,28 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
       this.compressLargeMessage = avoid;
    }
 
+   public String getMessageCompressionCodec()
+   {
+      return messageCompressionCodec;
+   }
+
+   public void setMessageCompressionCodec(final String codec)
+   {
+      checkWrite();
+      this.messageCompressionCodec = codec;
+   }
+
+   public int getMessageCompressionLevel()
+   {
+      return messageCompressionLevel;
+   }
+
+   public void setMessageCompressionLevel(final int level)
+   {
+      checkWrite();
+      this.messageCompressionLevel = level;
+   }
+
    private void checkWrite()
    {
       synchronized (stateGuard)
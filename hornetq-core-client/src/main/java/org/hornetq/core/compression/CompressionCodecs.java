@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.core.compression;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hornetq.spi.core.compression.CompressionCodec;
+import org.hornetq.utils.ClassloadingUtil;
+
+/**
+ * Looks up {@link CompressionCodec}s by the name configured on the producer and recorded on the
+ * messages it compressed.
+ */
+public final class CompressionCodecs
+{
+   /** The name of {@link DeflateCompressionCodec} */
+   public static final String DEFLATE = "deflate";
+
+   /** The name of {@link LZFCompressionCodec} */
+   public static final String LZF = "lzf";
+
+   private static final ConcurrentMap<String, CompressionCodec> codecs = new ConcurrentHashMap<String, CompressionCodec>();
+
+   static
+   {
+      codecs.put(DEFLATE, new DeflateCompressionCodec());
+      codecs.put(LZF, new LZFCompressionCodec());
+   }
+
+   private CompressionCodecs()
+   {
+   }
+
+   /**
+    * @param name {@link #DEFLATE}, {@link #LZF} or the class name of a custom codec
+    * @return the codec
+    * @throws IllegalStateException if the name is not a known codec nor a class that can be loaded
+    */
+   public static CompressionCodec getCodec(final String name)
+   {
+      CompressionCodec codec = codecs.get(name);
+
+      if (codec == null)
+      {
+         codec = AccessController.doPrivileged(new PrivilegedAction<CompressionCodec>()
+         {
+            public CompressionCodec run()
+            {
+               return (CompressionCodec)ClassloadingUtil.newInstanceFromClassLoader(name);
+            }
+         });
+
+         CompressionCodec existing = codecs.putIfAbsent(name, codec);
+
+         if (existing != null)
+         {
+            codec = existing;
+         }
+      }
+
+      return codec;
+   }
+}
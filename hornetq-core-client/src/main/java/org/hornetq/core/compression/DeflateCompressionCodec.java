@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.core.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.hornetq.spi.core.compression.CompressionCodec;
+
+/**
+ * A {@link CompressionCodec} using the JDK's zlib deflate, the level is the {@link Deflater} level.
+ */
+public final class DeflateCompressionCodec implements CompressionCodec
+{
+   // a deflate stream can't expand beyond 258 bytes per 2 bits, ie 1032:1
+   private static final int MAX_RATIO = 1032;
+
+   public byte[] compress(final byte[] data, final int level)
+   {
+      Deflater deflater = new Deflater(level);
+
+      try
+      {
+         deflater.setInput(data);
+
+         deflater.finish();
+
+         // deflate output is never much bigger than its input
+         byte[] output = new byte[data.length + data.length / 1000 + 64];
+
+         int length = 0;
+
+         while (!deflater.finished())
+         {
+            if (length == output.length)
+            {
+               output = Arrays.copyOf(output, output.length * 2);
+            }
+
+            length += deflater.deflate(output, length, output.length - length);
+         }
+
+         return Arrays.copyOf(output, length);
+      }
+      finally
+      {
+         deflater.end();
+      }
+   }
+
+   public long getMaxDecompressedSize(final int compressedLength)
+   {
+      return (long)compressedLength * MAX_RATIO;
+   }
+
+   public void decompress(final byte[] compressed, final int offset, final int length, final byte[] data) throws IOException
+   {
+      Inflater inflater = new Inflater();
+
+      try
+      {
+         inflater.setInput(compressed, offset, length);
+
+         int position = 0;
+
+         while (position < data.length && !inflater.finished())
+         {
+            int inflated = inflater.inflate(data, position, data.length - position);
+
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+            {
+               break;
+            }
+
+            position += inflated;
+         }
+
+         if (position != data.length)
+         {
+            throw new IOException("Compressed data is truncated, inflated " + position + " of " + data.length + " bytes");
+         }
+      }
+      catch (DataFormatException e)
+      {
+         throw new IOException(e.getMessage(), e);
+      }
+      finally
+      {
+         inflater.end();
+      }
+   }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.core.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.hornetq.spi.core.compression.CompressionCodec;
+
+/**
+ * A {@link CompressionCodec} writing the LZF format: a fast LZ77 variant trading compression ratio
+ * for speed, useful for text like JSON or XML bodies.
+ * <p>
+ * The data is a sequence of chunks, each starting with a control byte. Below 32 it is followed by
+ * {@code control + 1} literal bytes. Otherwise its top 3 bits hold the length of a back reference
+ * minus 2 (7 meaning an extra length byte follows), its low 5 bits and the next byte the distance
+ * of the reference minus 1. The compression level is ignored.
+ */
+public final class LZFCompressionCodec implements CompressionCodec
+{
+   private static final int MAX_LITERAL = 1 << 5;
+
+   private static final int MAX_OFFSET = 1 << 13;
+
+   private static final int MAX_REFERENCE = (1 << 8) + (1 << 3);
+
+   private static final int HASH_LOG = 14;
+
+   public byte[] compress(final byte[] data, final int level)
+   {
+      int[] hashTable = new int[1 << HASH_LOG];
+
+      // literals cost a control byte every 32 bytes, plus the one reserved at the end
+      byte[] output = new byte[data.length + data.length / MAX_LITERAL + 2];
+
+      int input = 0;
+
+      int literals = 0;
+
+      // the control byte of the current literal run is filled once the run ends
+      int literalsStart = 0;
+
+      int position = 1;
+
+      while (input < data.length - 2)
+      {
+         int hash = hash(data, input);
+
+         // positions are stored plus one, so zero means no entry
+         int reference = hashTable[hash] - 1;
+
+         hashTable[hash] = input + 1;
+
+         int offset = input - reference - 1;
+
+         if (reference >= 0 && offset < MAX_OFFSET &&
+             data[reference] == data[input] &&
+             data[reference + 1] == data[input + 1] &&
+             data[reference + 2] == data[input + 2])
+         {
+            int maxLength = Math.min(MAX_REFERENCE, data.length - input);
+
+            int length = 3;
+
+            while (length < maxLength && data[reference + length] == data[input + length])
+            {
+               length++;
+            }
+
+            if (literals > 0)
+            {
+               output[literalsStart] = (byte)(literals - 1);
+            }
+            else
+            {
+               // drop the control byte reserved for a run which never started
+               position--;
+            }
+
+            int encodedLength = length - 2;
+
+            if (encodedLength < 7)
+            {
+               output[position++] = (byte)((encodedLength << 5) + (offset >> 8));
+            }
+            else
+            {
+               output[position++] = (byte)((7 << 5) + (offset >> 8));
+               output[position++] = (byte)(encodedLength - 7);
+            }
+
+            output[position++] = (byte)offset;
+
+            input += length;
+
+            literals = 0;
+
+            literalsStart = position++;
+         }
+         else
+         {
+            output[position++] = data[input++];
+
+            if (++literals == MAX_LITERAL)
+            {
+               output[literalsStart] = (byte)(MAX_LITERAL - 1);
+
+               literals = 0;
+
+               literalsStart = position++;
+            }
+         }
+      }
+
+      while (input < data.length)
+      {
+         output[position++] = data[input++];
+
+         if (++literals == MAX_LITERAL)
+         {
+            output[literalsStart] = (byte)(MAX_LITERAL - 1);
+
+            literals = 0;
+
+            literalsStart = position++;
+         }
+      }
+
+      if (literals > 0)
+      {
+         output[literalsStart] = (byte)(literals - 1);
+      }
+      else
+      {
+         position--;
+      }
+
+      return Arrays.copyOf(output, position);
+   }
+
+   public long getMaxDecompressedSize(final int compressedLength)
+   {
+      // the longest back reference takes 3 bytes
+      return (long)compressedLength * MAX_REFERENCE / 3;
+   }
+
+   public void decompress(final byte[] compressed, final int offset, final int length, final byte[] data) throws IOException
+   {
+      int input = offset;
+
+      int end = offset + length;
+
+      int position = 0;
+
+      try
+      {
+         while (input < end)
+         {
+            int control = compressed[input++] & 0xff;
+
+            if (control < MAX_LITERAL)
+            {
+               int literals = control + 1;
+
+               System.arraycopy(compressed, input, data, position, literals);
+
+               input += literals;
+
+               position += literals;
+            }
+            else
+            {
+               int referenceLength = control >> 5;
+
+               if (referenceLength == 7)
+               {
+                  referenceLength += compressed[input++] & 0xff;
+               }
+
+               referenceLength += 2;
+
+               int reference = position - ((control & 0x1f) << 8) - (compressed[input++] & 0xff) - 1;
+
+               if (reference < 0)
+               {
+                  throw new IOException("Invalid back reference at " + (input - offset));
+               }
+
+               // the reference may overlap the bytes being written, so copy byte by byte
+               for (int i = 0; i < referenceLength; i++)
+               {
+                  data[position++] = data[reference++];
+               }
+            }
+         }
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         throw new IOException("Compressed data doesn't match the size of the body", e);
+      }
+
+      if (position != data.length)
+      {
+         throw new IOException("Compressed data is truncated, decompressed " + position + " of " + data.length + " bytes");
+      }
+   }
+
+   private static int hash(final byte[] data, final int index)
+   {
+      int value = (data[index] & 0xff) << 16 | (data[index + 1] & 0xff) << 8 | data[index + 2] & 0xff;
+
+      return value * 0x9E3779B1 >>> 32 - HASH_LOG;
+   }
+}
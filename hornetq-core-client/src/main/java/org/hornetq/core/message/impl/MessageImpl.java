@@ -30,6 +30,7 @@ import org.hornetq.core.protocol.core.impl.PacketImpl;
 import org.hornetq.utils.DataConstants;
 import org.hornetq.utils.TypedProperties;
 import org.hornetq.utils.UUID;
+import org.jboss.netty.buffer.ReadOnlyChannelBuffer;
 
 /**
  * A concrete implementation of a message
@@ -432,6 +433,15 @@ public abstract class MessageImpl implements MessageInternal
    {
       this.buffer = buffer;
 
+      if (buffer.channelBuffer() instanceof ReadOnlyChannelBuffer)
+      {
+         // The sender still holds this buffer (e.g. an InVM connection sharing buffers), so it must be
+         // copied before anything gets written into it
+         bufferUsed = true;
+
+         copied = false;
+      }
+
       decode();
    }
 
@@ -461,6 +471,43 @@ public abstract class MessageImpl implements MessageInternal
       copied = false;
    }
 
+   /**
+    * Replaces the body with an empty one of the given initial size, to be written through
+    * {@link #getBodyBuffer()}. Used when the body is transformed as a whole, e.g. on compression.
+    */
+   public synchronized void resetBody(final int bodySize)
+   {
+      createBody(BODY_OFFSET + bodySize + DataConstants.SIZE_INT + getHeadersAndPropertiesEncodeSize());
+
+      bodyBuffer = null;
+
+      bufferValid = false;
+
+      bufferUsed = false;
+
+      // nobody else can be holding the new buffer
+      copied = true;
+
+      endOfBodyPosition = -1;
+   }
+
+   /**
+    * @return {@code true} if the buffer is referenced somewhere else too and must not be written in place
+    */
+   protected synchronized boolean isBufferUsed()
+   {
+      return bufferUsed;
+   }
+
+   /**
+    * Makes the next encoding write the headers and properties again, into a copy of the buffer if it is
+    * {@link #isBufferUsed() used}.
+    */
+   protected synchronized void invalidateEncoding()
+   {
+      bufferValid = false;
+   }
+
    public int getEndOfMessagePosition()
    {
       return endOfMessagePosition;
@@ -12,6 +12,7 @@
  */
 package org.hornetq.core.protocol.core;
 
+import java.io.IOException;
 import java.util.concurrent.locks.Lock;
 
 import org.hornetq.api.core.HornetQException;
@@ -63,6 +64,19 @@ public interface Channel
     */
    boolean sendAndFlush(Packet packet);
 
+   /**
+    * Sends a packet on this channel letting the transport write its file region directly from the
+    * file.
+    * <p/>
+    * Nothing is sent if the packet has to go through outgoing interceptors, has to be kept for
+    * resending or the transport can't write file regions. The packet must then be sent as a regular
+    * packet instead.
+    * @param packet the packet to send
+    * @return true if the packet was sent
+    * @throws IOException if the file could not be read
+    */
+   boolean sendFileRegion(FileRegionPacket packet) throws IOException;
+
    /**
     * Sends a packet on this channel and then blocks until a response is received or a timeout
     * occurs.
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.core.protocol.core;
+
+import java.io.File;
+
+/**
+ * A Packet whose payload is a region of a file.
+ * <p/>
+ * {@link #encode(org.hornetq.spi.core.protocol.RemotingConnection)} leaves the region out of the
+ * returned buffer, it is inserted at {@link #getFileRegionIndex()} by the transport when the packet
+ * is written. The encoded length and {@link #getPacketSize()} do account for the region.
+ */
+public interface FileRegionPacket extends Packet
+{
+   /**
+    * @return the file containing the region
+    */
+   File getFile();
+
+   /**
+    * @return the position of the region in the file
+    */
+   long getFilePosition();
+
+   /**
+    * @return the number of bytes of the region
+    */
+   int getFileRegionSize();
+
+   /**
+    * Returns the index in the encoded buffer where the region belongs. Only valid after the packet
+    * was encoded.
+    *
+    * @return the index of the region
+    */
+   int getFileRegionIndex();
+}
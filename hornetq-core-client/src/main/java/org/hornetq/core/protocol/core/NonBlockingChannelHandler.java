@@ -0,0 +1,29 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.core.protocol.core;
+
+/**
+ * A {@link ChannelHandler} that can tell when a packet which would be handed off to the
+ * connection's executor ({@link Packet#isAsyncExec()}) won't block, so it can be handled on the
+ * remoting thread straight away.
+ */
+public interface NonBlockingChannelHandler extends ChannelHandler
+{
+   /**
+    * Called on the remoting thread, before the packet is handled.
+    *
+    * @param packet a packet for which {@link Packet#isAsyncExec()} is true
+    * @return true if handling the packet can't block the calling thread
+    */
+   boolean isNonBlocking(Packet packet);
+}
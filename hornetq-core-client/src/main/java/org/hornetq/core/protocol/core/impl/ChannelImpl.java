@@ -13,6 +13,7 @@
 
 package org.hornetq.core.protocol.core.impl;
 
+import java.io.IOException;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -32,6 +33,7 @@ import org.hornetq.core.protocol.core.Channel;
 import org.hornetq.core.protocol.core.ChannelHandler;
 import org.hornetq.core.protocol.core.CommandConfirmationHandler;
 import org.hornetq.core.protocol.core.CoreRemotingConnection;
+import org.hornetq.core.protocol.core.FileRegionPacket;
 import org.hornetq.core.protocol.core.Packet;
 import org.hornetq.core.protocol.core.impl.wireformat.HornetQExceptionMessage;
 import org.hornetq.core.protocol.core.impl.wireformat.PacketsConfirmedMessage;
@@ -270,6 +272,59 @@ public final class ChannelImpl implements Channel
       }
    }
 
+   public boolean sendFileRegion(final FileRegionPacket packet) throws IOException
+   {
+      // interceptors and the resend cache need the whole packet in memory
+      if (interceptors != null && !interceptors.isEmpty() || resendCache != null && packet.isRequiresConfirmations())
+      {
+         return false;
+      }
+
+      synchronized (sendLock)
+      {
+         packet.setChannelID(id);
+
+         if (isTrace)
+         {
+            HornetQClientLogger.LOGGER.trace("Sending file region packet nonblocking " + packet + " on channeID=" + id);
+         }
+
+         HornetQBuffer buffer = packet.encode(connection);
+
+         lock.lock();
+
+         try
+         {
+            if (failingOver)
+            {
+               try
+               {
+                  failoverCondition.await(10000, TimeUnit.MILLISECONDS);
+               }
+               catch (InterruptedException e)
+               {
+                  throw new HornetQInterruptedException(e);
+               }
+            }
+
+            if (transferring)
+            {
+               throw new IllegalStateException("Cannot send a packet while channel is doing failover");
+            }
+         }
+         finally
+         {
+            lock.unlock();
+         }
+
+         return connection.getTransportConnection().writeFileRegion(buffer,
+                                                                    packet.getFileRegionIndex(),
+                                                                    packet.getFile(),
+                                                                    packet.getFilePosition(),
+                                                                    packet.getFileRegionSize());
+      }
+   }
+
    /**
     * Due to networking issues or server issues the server may take longer to answer than expected.. the client may timeout the call throwing an exception
     * and the client could eventually retry another call, but the server could then answer a previous command issuing a class-cast-exception.
@@ -28,7 +28,9 @@ import org.hornetq.api.core.HornetQInterruptedException;
 import org.hornetq.api.core.Interceptor;
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.protocol.core.Channel;
+import org.hornetq.core.protocol.core.ChannelHandler;
 import org.hornetq.core.protocol.core.CoreRemotingConnection;
+import org.hornetq.core.protocol.core.NonBlockingChannelHandler;
 import org.hornetq.core.protocol.core.Packet;
 import org.hornetq.core.protocol.core.impl.ChannelImpl.CHANNEL_ID;
 import org.hornetq.core.protocol.core.impl.wireformat.DisconnectMessage;
@@ -489,7 +491,8 @@ public class RemotingConnectionImpl implements CoreRemotingConnection
             HornetQClientLogger.LOGGER.trace("handling packet " + packet);
          }
 
-         if (packet.isAsyncExec() && executor != null)
+         // a packet that won't block is handed off too if an earlier one is still executing, to keep the order
+         if (packet.isAsyncExec() && executor != null && (executing || !isNonBlocking(packet)))
          {
             executing = true;
 
@@ -549,6 +552,20 @@ public class RemotingConnectionImpl implements CoreRemotingConnection
       }
    }
 
+   private boolean isNonBlocking(final Packet packet)
+   {
+      Channel channel = channels.get(packet.getChannelID());
+
+      if (channel == null)
+      {
+         return false;
+      }
+
+      ChannelHandler handler = channel.getHandler();
+
+      return handler instanceof NonBlockingChannelHandler && ((NonBlockingChannelHandler)handler).isNonBlocking(packet);
+   }
+
    private void removeAllChannels()
    {
       // We get the transfer lock first - this ensures no packets are being processed AND
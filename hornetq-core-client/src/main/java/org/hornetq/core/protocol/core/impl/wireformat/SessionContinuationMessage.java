@@ -13,10 +13,13 @@
 
 package org.hornetq.core.protocol.core.impl.wireformat;
 
+import java.io.File;
 import java.util.Arrays;
 
 import org.hornetq.api.core.HornetQBuffer;
+import org.hornetq.core.protocol.core.FileRegionPacket;
 import org.hornetq.core.protocol.core.impl.PacketImpl;
+import org.hornetq.spi.core.protocol.RemotingConnection;
 import org.hornetq.utils.DataConstants;
 
 /**
@@ -28,7 +31,7 @@ import org.hornetq.utils.DataConstants;
  *
  *
  */
-public abstract class SessionContinuationMessage extends PacketImpl
+public abstract class SessionContinuationMessage extends PacketImpl implements FileRegionPacket
 {
 
    public static final int SESSION_CONTINUATION_BASE_SIZE = PACKET_HEADERS_SIZE + DataConstants.SIZE_INT +
@@ -38,6 +41,15 @@ public abstract class SessionContinuationMessage extends PacketImpl
 
    protected boolean continues;
 
+   // When set, the body is this region of the file and is not held in memory
+   private File file;
+
+   private long filePosition;
+
+   private int fileRegionSize;
+
+   private int fileRegionIndex = -1;
+
    public SessionContinuationMessage(final byte type, final byte[] body, final boolean continues)
    {
       super(type);
@@ -45,6 +57,19 @@ public abstract class SessionContinuationMessage extends PacketImpl
       this.continues = continues;
    }
 
+   public SessionContinuationMessage(final byte type,
+                                     final File file,
+                                     final long filePosition,
+                                     final int fileRegionSize,
+                                     final boolean continues)
+   {
+      super(type);
+      this.file = file;
+      this.filePosition = filePosition;
+      this.fileRegionSize = fileRegionSize;
+      this.continues = continues;
+   }
+
    public SessionContinuationMessage(final byte type)
    {
       super(type);
@@ -75,11 +100,55 @@ public abstract class SessionContinuationMessage extends PacketImpl
       return continues;
    }
 
+   public File getFile()
+   {
+      return file;
+   }
+
+   public long getFilePosition()
+   {
+      return filePosition;
+   }
+
+   public int getFileRegionSize()
+   {
+      return fileRegionSize;
+   }
+
+   public int getFileRegionIndex()
+   {
+      return fileRegionIndex;
+   }
+
+   @Override
+   public HornetQBuffer encode(final RemotingConnection connection)
+   {
+      HornetQBuffer buffer = super.encode(connection);
+
+      if (file != null)
+      {
+         // the region is written by the transport, but it is still part of the packet
+         size += fileRegionSize;
+
+         buffer.setInt(0, size - DataConstants.SIZE_INT);
+      }
+
+      return buffer;
+   }
+
    @Override
    public void encodeRest(final HornetQBuffer buffer)
    {
-      buffer.writeInt(body.length);
-      buffer.writeBytes(body);
+      if (file != null)
+      {
+         buffer.writeInt(fileRegionSize);
+         fileRegionIndex = buffer.writerIndex();
+      }
+      else
+      {
+         buffer.writeInt(body.length);
+         buffer.writeBytes(body);
+      }
       buffer.writeBoolean(continues);
    }
 
@@ -13,6 +13,8 @@
 
 package org.hornetq.core.protocol.core.impl.wireformat;
 
+import java.io.File;
+
 import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.utils.DataConstants;
 
@@ -70,6 +72,20 @@ public class SessionReceiveContinuationMessage extends SessionContinuationMessag
       this.size = packetSize;
    }
 
+   /**
+    * Creates a continuation whose body is sent straight from a region of the large message file.
+    * @see org.hornetq.core.protocol.core.FileRegionPacket
+    */
+   public SessionReceiveContinuationMessage(final long consumerID,
+                                            final File file,
+                                            final long position,
+                                            final int size,
+                                            final boolean continues)
+   {
+      super(SESS_RECEIVE_CONTINUATION, file, position, size, continues);
+      this.consumerID = consumerID;
+   }
+
    /**
     * @return the consumerID
     */
@@ -40,11 +40,26 @@ public class SessionSendMessage extends MessagePacket
     */
    private transient final SendAcknowledgementHandler handler;
 
+   /**
+    * The message as given to the producer, when a transformed copy of it (e.g. with a compressed
+    * body) is the one being sent. This is what the {@link SendAcknowledgementHandler} gets to see.
+    * <p>
+    * This field is only used at the client side.
+    */
+   private transient final MessageInternal originalMessage;
+
    public SessionSendMessage(final MessageInternal message, final boolean requiresResponse,
                              final SendAcknowledgementHandler handler)
+   {
+      this(message, message, requiresResponse, handler);
+   }
+
+   public SessionSendMessage(final MessageInternal message, final MessageInternal originalMessage,
+                             final boolean requiresResponse, final SendAcknowledgementHandler handler)
    {
       super(SESS_SEND, message);
       this.handler = handler;
+      this.originalMessage = originalMessage;
       this.requiresResponse = requiresResponse;
    }
 
@@ -52,6 +67,7 @@ public class SessionSendMessage extends MessagePacket
    {
       super(SESS_SEND, message);
       this.handler = null;
+      this.originalMessage = message;
    }
 
    // Public --------------------------------------------------------
@@ -66,6 +82,11 @@ public class SessionSendMessage extends MessagePacket
       return handler;
    }
 
+   public MessageInternal getOriginalMessage()
+   {
+      return originalMessage;
+   }
+
    @Override
    public HornetQBuffer encode(final RemotingConnection connection)
    {
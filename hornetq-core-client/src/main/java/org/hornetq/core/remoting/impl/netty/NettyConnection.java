@@ -13,12 +13,18 @@
 
 package org.hornetq.core.remoting.impl.netty;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hornetq.api.core.HornetQBuffer;
-import org.hornetq.api.core.HornetQBuffers;
 import org.hornetq.api.core.HornetQInterruptedException;
 import org.hornetq.api.core.TransportConfiguration;
 import org.hornetq.core.buffers.impl.ChannelBufferWrapper;
@@ -28,9 +34,15 @@ import org.hornetq.spi.core.remoting.Connection;
 import org.hornetq.spi.core.remoting.ConnectionLifeCycleListener;
 import org.hornetq.spi.core.remoting.ReadyListener;
 import org.hornetq.utils.ConcurrentHashSet;
+import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.DefaultFileRegion;
+import org.jboss.netty.handler.codec.http.HttpRequestEncoder;
+import org.jboss.netty.handler.codec.http.HttpResponseEncoder;
 import org.jboss.netty.handler.ssl.SslHandler;
 
 /**
@@ -42,7 +54,12 @@ import org.jboss.netty.handler.ssl.SslHandler;
 public class NettyConnection implements Connection
 {
    // Constants -----------------------------------------------------
-   private static final int BATCHING_BUFFER_SIZE = 8192;
+
+   /**
+    * Batched packets smaller than this are copied into a batch buffer, bigger ones are kept as they
+    * are and handed to the socket in a single gathering write.
+    */
+   private static final int GATHERING_THRESHOLD = 1024;
 
    // Attributes ----------------------------------------------------
 
@@ -54,9 +71,37 @@ public class NettyConnection implements Connection
 
    private final boolean batchingEnabled;
 
+   private final int batchSize;
+
+   private final boolean adaptiveBatching;
+
    private final boolean directDeliver;
 
-   private volatile HornetQBuffer batchBuffer;
+   // The fields below holding the batched writes are guarded by the writeLock
+
+   private ChannelBuffer batchBuffer;
+
+   private final List<ChannelBuffer> batchedWrites = new ArrayList<ChannelBuffer>();
+
+   // written under the writeLock only, volatile as it's checked without it to avoid contention
+   private volatile int batchedBytes;
+
+   /**
+    * Number of writes passed to Netty and not written to the socket yet, only tracked with adaptive
+    * batching.
+    */
+   private final AtomicInteger writesInProgress = new AtomicInteger();
+
+   private final ChannelFutureListener writeCompletionListener = new ChannelFutureListener()
+   {
+      public void operationComplete(final ChannelFuture future)
+      {
+         if (writesInProgress.decrementAndGet() == 0)
+         {
+            flushIfIdle();
+         }
+      }
+   };
 
    private final Map<String, Object> configuration;
 
@@ -73,6 +118,30 @@ public class NettyConnection implements Connection
                            final ConnectionLifeCycleListener listener,
                            boolean batchingEnabled,
                            boolean directDeliver)
+   {
+      this(configuration,
+           channel,
+           listener,
+           batchingEnabled,
+           directDeliver,
+           TransportConstants.DEFAULT_BATCH_SIZE,
+           TransportConstants.DEFAULT_ADAPTIVE_BATCHING);
+   }
+
+   /**
+    * @param batchSize number of batched bytes that causes them to be written without waiting any
+    *           longer
+    * @param adaptiveBatching if true, batched packets are only held while a previous write is still
+    *           waiting for the socket, and written as soon as it's done. Otherwise they are held until
+    *           {@code batchSize} is reached or {@link #checkFlushBatchBuffer()} is called.
+    */
+   public NettyConnection(final Map<String, Object> configuration,
+                           final Channel channel,
+                           final ConnectionLifeCycleListener listener,
+                           boolean batchingEnabled,
+                           boolean directDeliver,
+                           int batchSize,
+                           boolean adaptiveBatching)
    {
       this.configuration = configuration;
 
@@ -83,6 +152,10 @@ public class NettyConnection implements Connection
       this.batchingEnabled = batchingEnabled;
 
       this.directDeliver = directDeliver;
+
+      this.batchSize = batchSize;
+
+      this.adaptiveBatching = adaptiveBatching;
    }
 
    // Public --------------------------------------------------------
@@ -144,15 +217,13 @@ public class NettyConnection implements Connection
          return;
       }
 
-      if (writeLock.tryAcquire())
+      if (batchedBytes > 0 && writeLock.tryAcquire())
       {
          try
          {
-            if (batchBuffer != null && batchBuffer.readable())
+            if (batchedBytes > 0)
             {
-               channel.write(batchBuffer.channelBuffer());
-
-               batchBuffer = HornetQBuffers.dynamicBuffer(BATCHING_BUFFER_SIZE);
+               writeBatch();
             }
          }
          finally
@@ -167,82 +238,135 @@ public class NettyConnection implements Connection
       write(buffer, false, false);
    }
 
-   public void write(HornetQBuffer buffer, final boolean flush, final boolean batched)
+   public void write(final HornetQBuffer buffer, final boolean flush, final boolean batched)
    {
 
       try
       {
          writeLock.acquire();
+      }
+      catch (InterruptedException e)
+      {
+         throw new HornetQInterruptedException(e);
+      }
 
-         try
+      try
+      {
+         if (batchingEnabled && batched && !flush)
          {
-            if (batchBuffer == null && batchingEnabled && batched && !flush)
-            {
-               // Lazily create batch buffer
-
-               batchBuffer = HornetQBuffers.dynamicBuffer(BATCHING_BUFFER_SIZE);
-            }
+            addToBatch(buffer.channelBuffer());
 
-            if (batchBuffer != null)
+            // With adaptive batching there is no point in holding on to the batch if nothing is
+            // waiting for the socket, as nothing would trigger its write sooner
+            if (batchedBytes >= batchSize || adaptiveBatching && writesInProgress.get() == 0)
             {
-               batchBuffer.writeBytes(buffer, 0, buffer.writerIndex());
-
-               if (batchBuffer.writerIndex() >= BATCHING_BUFFER_SIZE || !batched || flush)
-               {
-                  // If the batch buffer is full or it's flush param or not batched then flush the buffer
+               writeBatch();
+            }
 
-                  buffer = batchBuffer;
-               }
-               else
-               {
-                  return;
-               }
+            return;
+         }
 
-               if (!batched || flush)
-               {
-                  batchBuffer = null;
-               }
-               else
-               {
-                  // Create a new buffer
+         ChannelFuture future;
 
-                  batchBuffer = HornetQBuffers.dynamicBuffer(BATCHING_BUFFER_SIZE);
-               }
-            }
+         if (batchedBytes > 0)
+         {
+            // anything batched so far must go out first
+            addToBatch(buffer.channelBuffer());
 
-            ChannelFuture future = channel.write(buffer.channelBuffer());
+            future = writeBatch();
+         }
+         else
+         {
+            future = doWrite(buffer.channelBuffer());
+         }
 
-            if (flush)
+         if (flush)
+         {
+            while (true)
             {
-               while (true)
+               try
                {
-                  try
-                  {
-                     boolean ok = future.await(10000);
-
-                     if (!ok)
-                     {
-                        HornetQClientLogger.LOGGER.timeoutFlushingPacket();
-                     }
+                  boolean ok = future.await(10000);
 
-                     break;
-                  }
-                  catch (InterruptedException e)
+                  if (!ok)
                   {
-                     throw new HornetQInterruptedException(e);
+                     HornetQClientLogger.LOGGER.timeoutFlushingPacket();
                   }
+
+                  break;
+               }
+               catch (InterruptedException e)
+               {
+                  throw new HornetQInterruptedException(e);
                }
             }
          }
-         finally
+      }
+      finally
+      {
+         writeLock.release();
+
+         if (adaptiveBatching)
          {
-            writeLock.release();
+            // the last write may have completed while we were holding the lock, in which case its
+            // listener couldn't write the batch
+            flushIfIdle();
          }
       }
+   }
+
+   public boolean writeFileRegion(final HornetQBuffer buffer,
+                                  final int regionIndex,
+                                  final File file,
+                                  final long position,
+                                  final long count) throws IOException
+   {
+      if (!isFileRegionSupported())
+      {
+         return false;
+      }
+
+      // the region closes the file channel once it has been transferred, or discarded
+      FileChannel fileChannel = new RandomAccessFile(file, "r").getChannel();
+
+      try
+      {
+         writeLock.acquire();
+      }
       catch (InterruptedException e)
       {
+         fileChannel.close();
+
          throw new HornetQInterruptedException(e);
       }
+
+      try
+      {
+         // anything batched so far must go out first
+         if (batchedBytes > 0)
+         {
+            writeBatch();
+         }
+
+         ChannelBuffer frame = buffer.channelBuffer();
+
+         doWrite(frame.slice(0, regionIndex));
+
+         doWrite(new DefaultFileRegion(fileChannel, position, count, true));
+
+         doWrite(frame.slice(regionIndex, frame.writerIndex() - regionIndex));
+      }
+      finally
+      {
+         writeLock.release();
+
+         if (adaptiveBatching)
+         {
+            flushIfIdle();
+         }
+      }
+
+      return true;
    }
 
    public String getRemoteAddress()
@@ -308,6 +432,119 @@ public class NettyConnection implements Connection
 
    // Private -------------------------------------------------------
 
+   /**
+    * Must be called holding the writeLock.
+    */
+   private void addToBatch(final ChannelBuffer buffer)
+   {
+      int size = buffer.readableBytes();
+
+      if (size < GATHERING_THRESHOLD)
+      {
+         if (batchBuffer == null)
+         {
+            batchBuffer = ChannelBuffers.dynamicBuffer(Math.min(batchSize, TransportConstants.DEFAULT_BATCH_SIZE));
+         }
+
+         batchBuffer.writeBytes(buffer, buffer.readerIndex(), size);
+      }
+      else
+      {
+         // the packets are encoded in buffers of their own, so this one can be written later as it is
+         if (batchBuffer != null)
+         {
+            batchedWrites.add(batchBuffer);
+
+            batchBuffer = null;
+         }
+
+         batchedWrites.add(buffer);
+      }
+
+      batchedBytes += size;
+   }
+
+   /**
+    * Writes everything batched so far in a single write. Must be called holding the writeLock.
+    */
+   private ChannelFuture writeBatch()
+   {
+      if (batchBuffer != null)
+      {
+         batchedWrites.add(batchBuffer);
+
+         batchBuffer = null;
+      }
+
+      ChannelBuffer batch;
+
+      if (batchedWrites.size() == 1)
+      {
+         batch = batchedWrites.get(0);
+      }
+      else
+      {
+         batch = ChannelBuffers.wrappedBuffer(true, batchedWrites.toArray(new ChannelBuffer[batchedWrites.size()]));
+      }
+
+      batchedWrites.clear();
+
+      batchedBytes = 0;
+
+      return doWrite(batch);
+   }
+
+   private ChannelFuture doWrite(final Object message)
+   {
+      if (!adaptiveBatching)
+      {
+         return channel.write(message);
+      }
+
+      writesInProgress.incrementAndGet();
+
+      ChannelFuture future = channel.write(message);
+
+      future.addListener(writeCompletionListener);
+
+      return future;
+   }
+
+   /**
+    * Writes the batch if there is nothing else waiting for the socket. Never blocks, so it can be
+    * called from Netty's I/O threads: if another thread holds the writeLock, it is that thread's job
+    * to call this again once it releases it.
+    */
+   private void flushIfIdle()
+   {
+      if (batchedBytes > 0 && writesInProgress.get() == 0 && writeLock.tryAcquire())
+      {
+         try
+         {
+            if (batchedBytes > 0 && writesInProgress.get() == 0)
+            {
+               writeBatch();
+            }
+         }
+         finally
+         {
+            writeLock.release();
+         }
+      }
+   }
+
+   /**
+    * File regions are written to the socket as they are, so no handler may need to transform the
+    * outgoing bytes.
+    */
+   private boolean isFileRegionSupported()
+   {
+      ChannelPipeline pipeline = channel.getPipeline();
+
+      return pipeline.get(SslHandler.class) == null && pipeline.get(HttpRequestEncoder.class) == null &&
+             pipeline.get(HttpResponseEncoder.class) == null;
+   }
+
    // Inner classes -------------------------------------------------
 
 }
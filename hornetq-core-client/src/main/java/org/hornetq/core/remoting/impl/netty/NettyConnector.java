@@ -155,6 +155,10 @@ public class NettyConnector extends AbstractConnector
 
    private final long batchDelay;
 
+   private final int batchSize;
+
+   private final boolean adaptiveBatching;
+
    private final ConcurrentMap<Object, Connection> connections = new ConcurrentHashMap<Object, Connection>();
 
    private final String servletPath;
@@ -311,6 +315,14 @@ public class NettyConnector extends AbstractConnector
          TransportConstants.DEFAULT_BATCH_DELAY,
          configuration);
 
+      batchSize = ConfigurationHelper.getIntProperty(TransportConstants.BATCH_SIZE,
+         TransportConstants.DEFAULT_BATCH_SIZE,
+         configuration);
+
+      adaptiveBatching = ConfigurationHelper.getBooleanProperty(TransportConstants.ADAPTIVE_BATCHING,
+         TransportConstants.DEFAULT_ADAPTIVE_BATCHING,
+         configuration);
+
       connectTimeoutMillis = ConfigurationHelper.getIntProperty(TransportConstants.NETTY_CONNECT_TIMEOUT,
          TransportConstants.DEFAULT_NETTY_CONNECT_TIMEOUT,
          configuration);
@@ -682,7 +694,13 @@ public class NettyConnector extends AbstractConnector
 
          // No acceptor on a client connection
          Listener connectionListener = new Listener();
-         NettyConnection conn = new NettyConnection(configuration, ch, connectionListener, !httpEnabled && batchDelay > 0, false);
+         NettyConnection conn = new NettyConnection(configuration,
+                                                    ch,
+                                                    connectionListener,
+                                                    !httpEnabled && (batchDelay > 0 || adaptiveBatching),
+                                                    false,
+                                                    batchSize,
+                                                    adaptiveBatching);
          connectionListener.connectionCreated(null, conn, HornetQClient.DEFAULT_CORE_PROTOCOL);
 
          return conn;
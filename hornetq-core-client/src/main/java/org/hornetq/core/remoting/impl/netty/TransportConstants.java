@@ -92,6 +92,10 @@ public class TransportConstants
 
    public static final String BATCH_DELAY = "batch-delay";
 
+   public static final String BATCH_SIZE = "batch-size";
+
+   public static final String ADAPTIVE_BATCHING = "adaptive-batching";
+
    public static final String DIRECT_DELIVER = "direct-deliver";
 
    public static final String CLUSTER_CONNECTION = "cluster-connection";
@@ -157,6 +161,10 @@ public class TransportConstants
 
    public static final long DEFAULT_BATCH_DELAY = 0;
 
+   public static final int DEFAULT_BATCH_SIZE = 8192;
+
+   public static final boolean DEFAULT_ADAPTIVE_BATCHING = false;
+
    public static final boolean DEFAULT_DIRECT_DELIVER = true;
 
    public static final Set<String> ALLOWABLE_CONNECTOR_KEYS;
@@ -195,6 +203,8 @@ public class TransportConstants
       allowableAcceptorKeys.add(TransportConstants.TCP_RECEIVEBUFFER_SIZE_PROPNAME);
       allowableAcceptorKeys.add(TransportConstants.NIO_REMOTING_THREADS_PROPNAME);
       allowableAcceptorKeys.add(TransportConstants.BATCH_DELAY);
+      allowableAcceptorKeys.add(TransportConstants.BATCH_SIZE);
+      allowableAcceptorKeys.add(TransportConstants.ADAPTIVE_BATCHING);
       allowableAcceptorKeys.add(TransportConstants.DIRECT_DELIVER);
       allowableAcceptorKeys.add(TransportConstants.CLUSTER_CONNECTION);
       allowableAcceptorKeys.add(TransportConstants.STOMP_CONSUMERS_CREDIT);
@@ -229,6 +239,8 @@ public class TransportConstants
       allowableConnectorKeys.add(TransportConstants.TCP_RECEIVEBUFFER_SIZE_PROPNAME);
       allowableConnectorKeys.add(TransportConstants.NIO_REMOTING_THREADS_PROPNAME);
       allowableConnectorKeys.add(TransportConstants.BATCH_DELAY);
+      allowableConnectorKeys.add(TransportConstants.BATCH_SIZE);
+      allowableConnectorKeys.add(TransportConstants.ADAPTIVE_BATCHING);
       allowableConnectorKeys.add(HornetQDefaultConfiguration.getPropMaskPassword());
       allowableConnectorKeys.add(HornetQDefaultConfiguration.getPropPasswordCodec());
       allowableConnectorKeys.add(TransportConstants.NETTY_CONNECT_TIMEOUT);
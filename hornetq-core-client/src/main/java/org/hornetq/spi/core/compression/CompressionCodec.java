@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.spi.core.compression;
+
+import java.io.IOException;
+
+/**
+ * Compresses the bodies of regular messages.
+ * <p>
+ * A producer configured with a codec sends the body compressed and records the codec on the
+ * message, the consumer looks the codec up by the same name to restore the body. Custom codecs are
+ * configured by class name and must have a public constructor without arguments. Implementations
+ * must be thread safe.
+ * @see org.hornetq.api.core.client.ServerLocator#setMessageCompressionCodec(String)
+ */
+public interface CompressionCodec
+{
+   /**
+    * Compresses the data.
+    * @param data the data to compress
+    * @param level the compression level configured for the producer, codecs without levels ignore it
+    * @return the compressed data
+    */
+   byte[] compress(byte[] data, int level);
+
+   /**
+    * Decompresses data compressed by {@link #compress(byte[], int)}.
+    * @param compressed the buffer containing the compressed data
+    * @param offset the offset of the compressed data
+    * @param length the length of the compressed data
+    * @param data the array to fill, its length is the size of the original data
+    * @throws IOException if the compressed data is corrupt
+    */
+   void decompress(byte[] compressed, int offset, int length, byte[] data) throws IOException;
+
+   /**
+    * Returns the largest size the data compressed into the given length can have. Consumers reject
+    * messages declaring a bigger body before allocating it.
+    * @param compressedLength the length of the compressed data
+    * @return the largest size of the decompressed data
+    */
+   long getMaxDecompressedSize(int compressedLength);
+}
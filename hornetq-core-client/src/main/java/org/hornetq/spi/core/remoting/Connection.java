@@ -13,6 +13,9 @@
 
 package org.hornetq.spi.core.remoting;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.api.core.TransportConfiguration;
 import org.hornetq.core.security.HornetQPrincipal;
@@ -55,6 +58,24 @@ public interface Connection
     */
    void write(HornetQBuffer buffer);
 
+   /**
+    * writes the buffer to the connection with a region of a file inserted at {@code regionIndex},
+    * letting the transport send the file content without copying it through the heap.
+    * <p>
+    * Transports which cannot write file regions (e.g. when the connection is encrypted or
+    * tunnelled) return {@code false} and write nothing, in which case the caller must copy the
+    * region into a buffer and use {@link #write(HornetQBuffer, boolean, boolean)} instead.
+    *
+    * @param buffer the encoded data, not including the region
+    * @param regionIndex the index in the buffer where the region is inserted
+    * @param file the file to read the region from
+    * @param position the position of the region in the file
+    * @param count the number of bytes of the region
+    * @return {@code true} if the data was written
+    * @throws IOException if the file could not be opened
+    */
+   boolean writeFileRegion(HornetQBuffer buffer, int regionIndex, File file, long position, long count) throws IOException;
+
    /**
     * Closes the connection.
     */
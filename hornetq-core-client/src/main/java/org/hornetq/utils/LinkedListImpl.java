@@ -21,6 +21,11 @@ import java.util.NoSuchElementException;
  * A linked list implementation which allows multiple iterators to exist at the same time on the queue, and which see any
  * elements added or removed from the queue either directly or via iterators.
  *
+ * Elements are stored in chunks of {@value #CHUNK_SIZE} slots rather than in one node per element, which keeps the
+ * overhead of very deep queues to a few bytes per element. A removed element leaves an empty slot behind and a chunk is
+ * unlinked once all its elements are gone, slots are never reused so an iterator position always designates the same
+ * element. Null elements are not supported.
+ *
  * This class is not thread safe.
  *
  * @author Tim Fox
@@ -31,9 +36,11 @@ public class LinkedListImpl<E> implements LinkedList<E>
 {
    private static final int INITIAL_ITERATOR_ARRAY_SIZE = 10;
 
-   private final Node<E> head = new Node<E>(null);
+   private static final int CHUNK_SIZE = 32;
+
+   private Chunk head;
 
-   private Node<E> tail = null;
+   private Chunk tail;
 
    private int size;
 
@@ -51,56 +58,76 @@ public class LinkedListImpl<E> implements LinkedList<E>
 
    public void addHead(E e)
    {
-      Node<E> node = new Node<E>(e);
-
-      node.next = head.next;
+      if (head == null || head.start == 0)
+      {
+         // the new chunk is filled from its end so it can take further elements added at the head
+         Chunk chunk = new Chunk(CHUNK_SIZE);
 
-      node.prev = head;
+         chunk.next = head;
 
-      head.next = node;
+         if (head == null)
+         {
+            tail = chunk;
+         }
+         else
+         {
+            head.prev = chunk;
+         }
 
-      if (size == 0)
-      {
-         tail = node;
-      }
-      else
-      {
-         // Need to set the previous element on the former head
-         node.next.prev = node;
+         head = chunk;
       }
 
+      head.start--;
+
+      head.vals[head.start] = e;
+
+      head.first = head.start;
+
+      head.live++;
+
       size++;
    }
 
    public void addTail(E e)
    {
-      if (size == 0)
-      {
-         addHead(e);
-      }
-      else
+      if (tail == null || tail.end == CHUNK_SIZE)
       {
-         Node<E> node = new Node<E>(e);
-
-         node.prev = tail;
+         Chunk chunk = new Chunk(0);
 
-         tail.next = node;
+         chunk.prev = tail;
 
-         tail = node;
+         if (tail == null)
+         {
+            head = chunk;
+         }
+         else
+         {
+            tail.next = chunk;
+         }
 
-         size++;
+         tail = chunk;
       }
+
+      tail.vals[tail.end++] = e;
+
+      tail.live++;
+
+      size++;
    }
 
    public E poll()
    {
-      Node<E> ret = head.next;
-
-      if (ret != null)
+      if (head != null)
       {
-         removeAfter(head);
+         Chunk chunk = head;
+
+         int index = chunk.first;
 
-         return ret.val;
+         E e = chunk.get(index);
+
+         remove(chunk, index);
+
+         return e;
       }
       else
       {
@@ -110,9 +137,11 @@ public class LinkedListImpl<E> implements LinkedList<E>
 
    public void clear()
    {
-      tail = head.next = null;
+      head = tail = null;
 
       size = 0;
+
+      resetIterators();
    }
 
    public int size()
@@ -129,21 +158,27 @@ public class LinkedListImpl<E> implements LinkedList<E>
    {
       StringBuilder str = new StringBuilder("LinkedListImpl [ ");
 
-      Node<E> node = head;
+      boolean empty = true;
 
-      while (node != null)
+      for (Chunk chunk = head; chunk != null; chunk = chunk.next)
       {
-         str.append(node.toString());
-
-         if (node.next != null)
+         for (int i = chunk.first; i < chunk.end; i++)
          {
-            str.append(", ");
-         }
+            if (chunk.vals[i] != null)
+            {
+               if (!empty)
+               {
+                  str.append(", ");
+               }
+
+               str.append(chunk.vals[i]);
 
-         node = node.next;
+               empty = false;
+            }
+         }
       }
 
-      return str.toString();
+      return str.append(" ]").toString();
    }
 
    public int numIters()
@@ -156,42 +191,78 @@ public class LinkedListImpl<E> implements LinkedList<E>
       return (Iterator[])Array.newInstance(Iterator.class, size);
    }
 
-   private void removeAfter(Node<E> node)
+   private void remove(Chunk chunk, int index)
    {
-      Node<E> toRemove = node.next;
+      chunk.vals[index] = null;
 
-      node.next = toRemove.next;
+      chunk.live--;
 
-      if (toRemove.next != null)
+      if (index == chunk.first)
       {
-         toRemove.next.prev = node;
+         while (chunk.first < chunk.end && chunk.vals[chunk.first] == null)
+         {
+            chunk.first++;
+         }
       }
 
-      if (toRemove == tail)
+      size--;
+
+      if (chunk.iterCount != 0)
       {
-         tail = node;
+         nudgeIterators(chunk, index);
       }
 
-      size--;
+      if (chunk.live == 0)
+      {
+         unlink(chunk);
+      }
+   }
 
-      if (toRemove.iterCount != 0)
+   private void unlink(Chunk chunk)
+   {
+      if (chunk.prev == null)
       {
-         LinkedListImpl.this.nudgeIterators(toRemove);
+         head = chunk.next;
+      }
+      else
+      {
+         chunk.prev.next = chunk.next;
+      }
+
+      if (chunk.next == null)
+      {
+         tail = chunk.prev;
+      }
+      else
+      {
+         chunk.next.prev = chunk.prev;
       }
 
       //Help GC - otherwise GC potentially has to traverse a very long list to see if elements are reachable, this can result in OOM
       //https://jira.jboss.org/browse/HORNETQ-469
-      toRemove.next = toRemove.prev = null;
+      chunk.next = chunk.prev = null;
+   }
+
+   private synchronized void nudgeIterators(Chunk chunk, int index)
+   {
+      for (int i = 0; i < numIters; i++)
+      {
+         Iterator iter = iters[i];
+         if (iter != null)
+         {
+            iter.nudged(chunk, index);
+         }
+      }
    }
 
-   private synchronized void nudgeIterators(Node<E> node)
+   private synchronized void resetIterators()
    {
       for (int i = 0; i < numIters; i++)
       {
          Iterator iter = iters[i];
          if (iter != null)
          {
-            iter.nudged(node);
+            iter.reset();
          }
       }
    }
@@ -248,40 +319,87 @@ public class LinkedListImpl<E> implements LinkedList<E>
       throw new IllegalStateException("Cannot find iter to remove");
    }
 
-   private static final class Node<E>
+   private final class Chunk
    {
-      Node<E> next;
+      final Object[] vals = new Object[CHUNK_SIZE];
 
-      Node<E> prev;
+      Chunk next;
 
-      final E val;
+      Chunk prev;
 
+      // slots in [start, end) have been used, first is the lowest slot still holding an element
+      int start;
+
+      int end;
+
+      int first;
+
+      // number of elements still in the chunk
+      int live;
+
+      // number of iterators positioned on this chunk
       int iterCount;
 
-      Node(E e)
+      Chunk(final int index)
+      {
+         start = end = first = index;
+      }
+
+      @SuppressWarnings("unchecked")
+      E get(final int index)
+      {
+         return (E)vals[index];
+      }
+
+      int nextElement(final int index)
       {
-         val = e;
+         for (int i = index + 1; i < end; i++)
+         {
+            if (vals[i] != null)
+            {
+               return i;
+            }
+         }
+         return -1;
+      }
+
+      int previousElement(final int index)
+      {
+         for (int i = index - 1; i >= first; i--)
+         {
+            if (vals[i] != null)
+            {
+               return i;
+            }
+         }
+         return -1;
       }
 
       public String toString()
       {
-         return "Node, value = " + val;
+         return "Chunk, live = " + live;
       }
    }
 
    private class Iterator implements LinkedListIterator<E>
    {
-      Node<E> last;
+      // position of the last element returned, lastChunk is null if there is none
+      Chunk lastChunk;
+
+      int lastIndex;
+
+      // position of the current element, chunk is null if there is none
+      Chunk chunk;
 
-      Node<E> current = head.next;
+      int index;
 
       boolean repeat;
 
       Iterator()
       {
-         if (current != null)
+         if (head != null)
          {
-            current.iterCount++;
+            moveTo(head, head.first);
          }
 
          addIter(this);
@@ -294,9 +412,7 @@ public class LinkedListImpl<E> implements LinkedList<E>
 
       public boolean hasNext()
       {
-         Node<E> e = getNode();
-
-         if (e != null && (e != last || repeat))
+         if (locate() && (!atLast() || repeat))
          {
             return true;
          }
@@ -306,40 +422,27 @@ public class LinkedListImpl<E> implements LinkedList<E>
 
       public E next()
       {
-         Node<E> e = getNode();
+         boolean located = locate();
 
          if (repeat)
          {
             repeat = false;
 
-            if (e != null)
+            if (located)
             {
-               return e.val;
+               return chunk.get(index);
             }
             else
             {
-               if (canAdvance())
-               {
-                  advance();
-
-                  e = getNode();
-
-                  return e.val;
-               }
-               else
-               {
-                  throw new NoSuchElementException();
-               }
+               throw new NoSuchElementException();
             }
          }
 
-         if (e == null || e == last)
+         if (!located || atLast())
          {
             if (canAdvance())
             {
                advance();
-
-               e = getNode();
             }
             else
             {
@@ -347,28 +450,30 @@ public class LinkedListImpl<E> implements LinkedList<E>
             }
          }
 
-         last = e;
+         lastChunk = chunk;
+
+         lastIndex = index;
 
          repeat = false;
 
-         return e.val;
+         return chunk.get(index);
       }
 
       public void remove()
       {
-         if (last == null)
+         if (lastChunk == null)
          {
             throw new NoSuchElementException();
          }
 
-         if (current == null)
+         if (chunk == null)
          {
             throw new NoSuchElementException();
          }
 
-         LinkedListImpl.this.removeAfter(current.prev);
+         LinkedListImpl.this.remove(chunk, index);
 
-         last = null;
+         lastChunk = null;
       }
 
       public void close()
@@ -376,9 +481,9 @@ public class LinkedListImpl<E> implements LinkedList<E>
          removeIter(this);
       }
 
-      public void nudged(Node<E> node)
+      void nudged(Chunk removedChunk, int removedIndex)
       {
-         if (current == node)
+         if (chunk == removedChunk && index == removedIndex)
          {
             if (canAdvance())
             {
@@ -386,71 +491,90 @@ public class LinkedListImpl<E> implements LinkedList<E>
             }
             else
             {
-               if (current.prev != head)
-               {
-                  current.iterCount--;
+               int previous = chunk.previousElement(index);
 
-                  current = current.prev;
-
-                  current.iterCount++;
+               if (previous != -1)
+               {
+                  index = previous;
+               }
+               else if (chunk.prev != null)
+               {
+                  moveTo(chunk.prev, chunk.prev.previousElement(chunk.prev.end));
                }
                else
                {
-                  current = null;
+                  moveTo(null, -1);
                }
             }
          }
       }
 
-      private Node<E> getNode()
+      void reset()
       {
-         if (current == null)
+         chunk = lastChunk = null;
+      }
+
+      private void moveTo(Chunk newChunk, int newIndex)
+      {
+         if (chunk != newChunk)
          {
-            current = head.next;
+            if (chunk != null)
+            {
+               chunk.iterCount--;
+            }
 
-            if (current != null)
+            if (newChunk != null)
             {
-               current.iterCount++;
+               newChunk.iterCount++;
             }
-         }
 
-         if (current != null)
-         {
-            return current;
-         }
-         else
-         {
-            return null;
+            chunk = newChunk;
          }
+
+         index = newIndex;
       }
 
-      private boolean canAdvance()
+      private boolean atLast()
       {
-         if (current == null)
-         {
-            current = head.next;
+         return chunk == lastChunk && index == lastIndex;
+      }
 
-            if (current != null)
-            {
-               current.iterCount++;
-            }
+      private boolean locate()
+      {
+         if (chunk == null && head != null)
+         {
+            moveTo(head, head.first);
          }
 
-         return current != null && current.next != null;
+         return chunk != null;
+      }
+
+      private boolean canAdvance()
+      {
+         return locate() && (chunk.nextElement(index) != -1 || chunk.next != null);
       }
 
       private void advance()
       {
-         if (current == null || current.next == null)
+         if (chunk == null)
          {
             throw new NoSuchElementException();
          }
 
-         current.iterCount--;
-
-         current = current.next;
+         int next = chunk.nextElement(index);
 
-         current.iterCount++;
+         if (next != -1)
+         {
+            index = next;
+         }
+         else if (chunk.next != null)
+         {
+            moveTo(chunk.next, chunk.next.first);
+         }
+         else
+         {
+            throw new NoSuchElementException();
+         }
       }
 
    }
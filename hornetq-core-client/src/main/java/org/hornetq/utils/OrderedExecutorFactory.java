@@ -18,6 +18,7 @@ import org.hornetq.core.client.HornetQClientLogger;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
@@ -57,13 +58,15 @@ public final class OrderedExecutorFactory implements ExecutorFactory
     * <p/>
     * More specifically, any call B to the {@link #execute(Runnable)} method that happens-after another call A to the
     * same method, will result in B's task running after A's.
+    * <p/>
+    * No locks are taken: whoever flips {@code running} from {@code false} to {@code true} submits the runner, which
+    * then drains every queued task in a single go before giving {@code running} back.
     */
    private static final class OrderedExecutor implements Executor
    {
       private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
 
-      // @protected by tasks
-      private boolean running;
+      private final AtomicBoolean running = new AtomicBoolean(false);
 
       private final Executor parent;
 
@@ -81,41 +84,32 @@ public final class OrderedExecutorFactory implements ExecutorFactory
          {
             public void run()
             {
-               for (;;)
+               do
                {
-                   // Optimization, first try without any locks
-                   Runnable task = tasks.poll();
-                   if (task == null)
-                   {
-                      synchronized (tasks)
-                      {
-                         // if it's null we need to retry now holding the lock on tasks
-                         // this is because running=false and tasks.empty must be an atomic operation
-                         // so we have to retry before setting the tasks to false
-                         // this is a different approach to the anti-pattern on synchronize-retry,
-                         // as this is just guaranteeing the running=false and tasks.empty being an atomic operation
-                         task = tasks.poll();
-                         if (task == null)
-                         {
-                            running = false;
-                            return;
-                         }
-                      }
-                   }
-                  try
-                  {
-                     task.run();
-                  }
-                  catch (HornetQInterruptedException e)
-                  {
-                     // This could happen during shutdowns. Nothing to be concerned about here
-                     HornetQClientLogger.LOGGER.debug("Interrupted Thread", e);
-                  }
-                  catch (Throwable t)
+                  Runnable task;
+                  while ((task = tasks.poll()) != null)
                   {
-                     HornetQClientLogger.LOGGER.caughtunexpectedThrowable(t);
+                     try
+                     {
+                        task.run();
+                     }
+                     catch (HornetQInterruptedException e)
+                     {
+                        // This could happen during shutdowns. Nothing to be concerned about here
+                        HornetQClientLogger.LOGGER.debug("Interrupted Thread", e);
+                     }
+                     catch (Throwable t)
+                     {
+                        HornetQClientLogger.LOGGER.caughtunexpectedThrowable(t);
+                     }
                   }
+
+                  running.set(false);
+
+                  // a task added after the last poll whose execute() still saw running=true is ours to run,
+                  // unless a new runner got submitted for it in the meantime
                }
+               while (!tasks.isEmpty() && running.compareAndSet(false, true));
             }
          };
       }
@@ -127,14 +121,11 @@ public final class OrderedExecutorFactory implements ExecutorFactory
        */
       public void execute(final Runnable command)
       {
-         synchronized (tasks)
+         tasks.add(command);
+
+         if (running.compareAndSet(false, true))
          {
-            tasks.add(command);
-            if (!running)
-            {
-               running = true;
-               parent.execute(runner);
-            }
+            parent.execute(runner);
          }
       }
 
@@ -637,6 +637,26 @@ public class HornetQConnectionFactory implements Serializable, Referenceable, Co
       serverLocator.setCompressLargeMessage(avoidLargeMessages);
    }
 
+   public String getMessageCompressionCodec()
+   {
+      return serverLocator.getMessageCompressionCodec();
+   }
+
+   public void setMessageCompressionCodec(final String messageCompressionCodec)
+   {
+      serverLocator.setMessageCompressionCodec(messageCompressionCodec);
+   }
+
+   public int getMessageCompressionLevel()
+   {
+      return serverLocator.getMessageCompressionLevel();
+   }
+
+   public void setMessageCompressionLevel(final int messageCompressionLevel)
+   {
+      serverLocator.setMessageCompressionLevel(messageCompressionLevel);
+   }
+
    public void close()
    {
       ServerLocator locator0 = serverLocator;
@@ -86,6 +86,24 @@ public interface JMSBridge extends HornetQComponent
 
    void setClientID(String clientID);
 
+   int getWorkers();
+
+   /**
+    * Sets the number of sessions the bridge sends through when the target is on a different server.
+    * <p>
+    * Each batch is split between them by the value of the {@link #setPartitionProperty(String)
+    * partition property} so that messages with the same value keep their order, and the batch is
+    * still committed or acknowledged as a whole.
+    */
+   void setWorkers(int workers);
+
+   String getPartitionProperty();
+
+   /**
+    * Sets the message property used to split batches between workers, {@code JMSXGroupID} by default.
+    */
+   void setPartitionProperty(String partitionProperty);
+
    String getTransactionManagerLocatorClass();
 
    void setTransactionManagerLocatorClass(String transactionManagerLocatorClass);
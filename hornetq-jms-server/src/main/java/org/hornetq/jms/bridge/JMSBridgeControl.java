@@ -75,6 +75,14 @@ public interface JMSBridgeControl extends HornetQComponentControl
 
    void setClientID(String clientID);
 
+   int getWorkers();
+
+   void setWorkers(int workers);
+
+   String getPartitionProperty();
+
+   void setPartitionProperty(String partitionProperty);
+
    String getTransactionManagerLocatorClass();
 
    void setTransactionManagerLocatorClass(String transactionManagerLocatorClass);
@@ -70,6 +70,16 @@ public class JMSBridgeControlImpl extends StandardMBean implements JMSBridgeCont
       return bridge.getClientID();
    }
 
+   public int getWorkers()
+   {
+      return bridge.getWorkers();
+   }
+
+   public String getPartitionProperty()
+   {
+      return bridge.getPartitionProperty();
+   }
+
    public long getFailureRetryInterval()
    {
       return bridge.getFailureRetryInterval();
@@ -168,6 +178,16 @@ public class JMSBridgeControlImpl extends StandardMBean implements JMSBridgeCont
       bridge.setClientID(clientID);
    }
 
+   public void setWorkers(final int workers)
+   {
+      bridge.setWorkers(workers);
+   }
+
+   public void setPartitionProperty(final String partitionProperty)
+   {
+      bridge.setPartitionProperty(partitionProperty);
+   }
+
    public void setFailureRetryInterval(final long interval)
    {
       bridge.setFailureRetryInterval(interval);
@@ -16,14 +16,19 @@ package org.hornetq.jms.bridge.impl;
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import javax.jms.Connection;
@@ -89,6 +94,8 @@ public final class JMSBridgeImpl implements JMSBridge
 
    private static final long DEFAULT_FAILOVER_TIMEOUT = 60 * 1000;
 
+   private static final String DEFAULT_PARTITION_PROPERTY = "JMSXGroupID";
+
    private final Object lock = new Object();
 
    private String sourceUsername;
@@ -150,10 +157,21 @@ public final class JMSBridgeImpl implements JMSBridge
 
    private MessageProducer targetProducer;
 
+   private int workers = 1;
+
+   private String partitionProperty = JMSBridgeImpl.DEFAULT_PARTITION_PROPERTY;
+
+   // null unless the bridge sends through more than one target session
+   private TargetWorker[] targetWorkers;
+
+   private int nextWorker;
+
    private BatchTimeChecker timeChecker;
 
    private ExecutorService executor;
 
+   private ExecutorService workerExecutor;
+
    private long batchExpiryTime;
 
    private boolean paused;
@@ -397,6 +415,11 @@ public final class JMSBridgeImpl implements JMSBridge
          executor = createExecutor();
       }
 
+      if (workers > 1 && (workerExecutor == null || workerExecutor.isShutdown()))
+      {
+         workerExecutor = Executors.newFixedThreadPool(workers - 1);
+      }
+
       initPasswords();
 
       checkParams();
@@ -526,6 +549,11 @@ public final class JMSBridgeImpl implements JMSBridge
             throw new Exception("fail to stop JMS Bridge");
          }
 
+         if (workerExecutor != null)
+         {
+            workerExecutor.shutdown();
+         }
+
          if (tx != null)
          {
             // Terminate any transaction
@@ -579,6 +607,8 @@ public final class JMSBridgeImpl implements JMSBridge
             }
          }
 
+         closeTargetWorkers();
+
          if (JMSBridgeImpl.trace)
          {
             HornetQJMSServerLogger.LOGGER.trace("Stopped " + this);
@@ -825,6 +855,32 @@ public final class JMSBridgeImpl implements JMSBridge
       this.clientID = clientID;
    }
 
+   public synchronized int getWorkers()
+   {
+      return workers;
+   }
+
+   public synchronized void setWorkers(final int workers)
+   {
+      checkBridgeNotStarted();
+      JMSBridgeImpl.checkWorkers(workers);
+
+      this.workers = workers;
+   }
+
+   public synchronized String getPartitionProperty()
+   {
+      return partitionProperty;
+   }
+
+   public synchronized void setPartitionProperty(final String partitionProperty)
+   {
+      checkBridgeNotStarted();
+      JMSBridgeImpl.checkNotNull(partitionProperty, "PartitionProperty");
+
+      this.partitionProperty = partitionProperty;
+   }
+
    public String getTransactionManagerLocatorClass()
    {
       return transactionManagerLocatorClass;
@@ -906,6 +962,8 @@ public final class JMSBridgeImpl implements JMSBridge
       checkMaxBatchSize(maxBatchSize);
       checkValidValue(maxBatchTime, "maxBatchTime");
       checkNotNull(qualityOfServiceMode, "qualityOfServiceMode");
+      checkWorkers(workers);
+      checkNotNull(partitionProperty, "partitionProperty");
    }
 
    /**
@@ -955,6 +1013,14 @@ public final class JMSBridgeImpl implements JMSBridge
       }
    }
 
+   private static void checkWorkers(final int workers)
+   {
+      if (!(workers >= 1))
+      {
+         throw new IllegalArgumentException("workers must be >= 1");
+      }
+   }
+
    private void enlistResources(final Transaction tx) throws Exception
    {
       if (JMSBridgeImpl.trace)
@@ -970,6 +1036,14 @@ public final class JMSBridgeImpl implements JMSBridge
 
       tx.enlistResource(resDest);
 
+      if (targetWorkers != null)
+      {
+         for (int i = 1; i < targetWorkers.length; i++)
+         {
+            tx.enlistResource(((XASession)targetWorkers[i].session).getXAResource());
+         }
+      }
+
       if (JMSBridgeImpl.trace)
       {
          HornetQJMSServerLogger.LOGGER.trace("Enlisted resources in tx");
@@ -1011,6 +1085,24 @@ public final class JMSBridgeImpl implements JMSBridge
          }
       }
 
+      if (targetWorkers != null)
+      {
+         for (int i = 1; i < targetWorkers.length; i++)
+         {
+            try
+            {
+               tx.delistResource(((XASession)targetWorkers[i].session).getXAResource(), XAResource.TMSUCCESS);
+            }
+            catch (Exception e)
+            {
+               if (JMSBridgeImpl.trace)
+               {
+                  HornetQJMSServerLogger.LOGGER.trace("Failed to delist target resource", e);
+               }
+            }
+         }
+      }
+
       if (JMSBridgeImpl.trace)
       {
          HornetQJMSServerLogger.LOGGER.trace("Delisted resources from tx");
@@ -1190,6 +1282,18 @@ public final class JMSBridgeImpl implements JMSBridge
     * When bridging a batch, we make sure to manually acknowledge the consuming session, if it is CLIENT_ACKNOWLEDGE
     * *before* the batch has been sent
     *
+    * Parallel workers
+    * ----------------
+    * If workers > 1 and the target is on a different server, there is one sending session (and connection) per
+    * worker. Each batch is split between them by the partition property and they send their part concurrently, the
+    * batch is then committed or acknowledged as above. With ONCE_AND_ONLY_ONCE all the sending XAResources are
+    * enlisted in the same JTA transaction.
+    *
+    * Otherwise the workers' sessions are committed one after another, which is not atomic. If a commit fails
+    * the parts of the batch committed before it stay delivered while the rest is rolled back: with
+    * DUPLICATES_OK the source messages are not acknowledged and the whole batch is sent again, so those parts
+    * are duplicated, with AT_MOST_ONCE the source messages were already acknowledged and the rest is lost.
+    *
     */
    private boolean setupJMSObjects()
    {
@@ -1306,8 +1410,6 @@ public final class JMSBridgeImpl implements JMSBridge
                // Create an XA session for sending to the destination
 
                targetConn = createConnection(targetUsername, targetPassword, targetCff, null, true);
-
-               targetSession = ((XAConnection)targetConn).createXASession();
             }
             else
             {
@@ -1316,17 +1418,17 @@ public final class JMSBridgeImpl implements JMSBridge
                   HornetQJMSServerLogger.LOGGER.trace("Creating non XA dest session");
                }
 
-               // Create a standard session for sending to the target
-
-               // If batch size > 1 we use a transacted session since is more efficient
+               targetConn = createConnection(targetUsername, targetPassword, targetCff, null, false);
+            }
 
-               boolean transacted = maxBatchSize > 1;
+            targetSession = createTargetSession(targetConn);
+         }
 
-               targetConn = createConnection(targetUsername, targetPassword, targetCff, null, false);
+         targetProducer = targetSession.createProducer(null);
 
-               targetSession = targetConn.createSession(transacted, transacted ? Session.SESSION_TRANSACTED
-                  : Session.AUTO_ACKNOWLEDGE);
-            }
+         if (forwardMode != JMSBridgeImpl.FORWARD_MODE_LOCALTX && workers > 1)
+         {
+            createTargetWorkers();
          }
 
          if (forwardMode == JMSBridgeImpl.FORWARD_MODE_XA)
@@ -1341,8 +1443,6 @@ public final class JMSBridgeImpl implements JMSBridge
             enlistResources(tx);
          }
 
-         targetProducer = targetSession.createProducer(null);
-
          return true;
       }
       catch (Exception e)
@@ -1428,6 +1528,90 @@ public final class JMSBridgeImpl implements JMSBridge
             HornetQJMSServerLogger.LOGGER.trace("Failed to close target connection", ignore);
          }
       }
+
+      closeTargetWorkers();
+   }
+
+   /**
+    * Creates the session used to send to the target, an XA session for ONCE_AND_ONLY_ONCE and a
+    * local transacted session if batches contain more than one message, since this is more
+    * efficient.
+    */
+   private Session createTargetSession(final Connection conn) throws JMSException
+   {
+      if (forwardMode == JMSBridgeImpl.FORWARD_MODE_XA)
+      {
+         return ((XAConnection)conn).createXASession();
+      }
+
+      boolean transacted = maxBatchSize > 1;
+
+      return conn.createSession(transacted, transacted ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE);
+   }
+
+   /**
+    * The first worker sends through the target session, each of the others has its own connection
+    * to the target.
+    */
+   private void createTargetWorkers() throws Exception
+   {
+      if (JMSBridgeImpl.trace)
+      {
+         HornetQJMSServerLogger.LOGGER.trace("Creating " + (workers - 1) + " additional target sessions");
+      }
+
+      targetWorkers = new TargetWorker[workers];
+
+      targetWorkers[0] = new TargetWorker(null, targetSession, targetProducer);
+
+      for (int i = 1; i < workers; i++)
+      {
+         Connection conn = createConnection(targetUsername,
+                                            targetPassword,
+                                            targetCff,
+                                            null,
+                                            forwardMode == JMSBridgeImpl.FORWARD_MODE_XA);
+         try
+         {
+            Session session = createTargetSession(conn);
+
+            targetWorkers[i] = new TargetWorker(conn, session, session.createProducer(null));
+         }
+         catch (Exception e)
+         {
+            conn.close();
+
+            throw e;
+         }
+      }
+   }
+
+   private void closeTargetWorkers()
+   {
+      if (targetWorkers == null)
+      {
+         return;
+      }
+
+      for (TargetWorker worker : targetWorkers)
+      {
+         if (worker != null && worker.conn != null)
+         {
+            try
+            {
+               worker.conn.close();
+            }
+            catch (Throwable ignore)
+            {
+               if (JMSBridgeImpl.trace)
+               {
+                  HornetQJMSServerLogger.LOGGER.trace("Failed to close target connection", ignore);
+               }
+            }
+         }
+      }
+
+      targetWorkers = null;
    }
 
    private void pause(final long interval)
@@ -1545,6 +1729,9 @@ public final class JMSBridgeImpl implements JMSBridge
             {
                HornetQJMSServerLogger.LOGGER.warn(e.getMessage() + ", retrying TX", e);
                exHappened = true;
+
+               // only the failing worker's session got rolled back, the batch is sent again to all of them
+               rollbackTargetWorkers();
             }
          }
          while (exHappened);
@@ -1560,6 +1747,16 @@ public final class JMSBridgeImpl implements JMSBridge
 
             targetSession.commit();
 
+            if (targetWorkers != null)
+            {
+               // Not atomic: if one of these fails the parts committed before it stay delivered, see
+               // setupJMSObjects
+               for (int i = 1; i < targetWorkers.length; i++)
+               {
+                  targetWorkers[i].session.commit();
+               }
+            }
+
             if (JMSBridgeImpl.trace)
             {
                HornetQJMSServerLogger.LOGGER.trace("Committed source session");
@@ -1593,6 +1790,9 @@ public final class JMSBridgeImpl implements JMSBridge
          // We don't call failure otherwise failover would be broken with HornetQ
          // We let the ExceptionListener to deal with failures
 
+         // don't let what a worker sent before another one failed be committed with the next batch
+         rollbackTargetWorkers();
+
          try
          {
             sourceSession.recover();
@@ -1610,6 +1810,27 @@ public final class JMSBridgeImpl implements JMSBridge
       }
    }
 
+   /**
+    * Rolls back what the target workers sent in the current batch, their sessions are only
+    * transacted if batches contain more than one message.
+    */
+   private void rollbackTargetWorkers()
+   {
+      if (maxBatchSize > 1 && targetWorkers != null)
+      {
+         for (TargetWorker worker : targetWorkers)
+         {
+            try
+            {
+               worker.session.rollback();
+            }
+            catch (Throwable ignored)
+            {
+            }
+         }
+      }
+   }
+
    private void sendBatchXA()
    {
       try
@@ -1718,6 +1939,13 @@ public final class JMSBridgeImpl implements JMSBridge
 
    private void sendMessages() throws Exception
    {
+      if (targetWorkers != null)
+      {
+         sendMessagesInParallel();
+
+         return;
+      }
+
       Iterator<Message> iter = messages.iterator();
 
       Message msg = null;
@@ -1726,37 +1954,116 @@ public final class JMSBridgeImpl implements JMSBridge
       {
          msg = iter.next();
 
-         if (addMessageIDInHeader)
-         {
-            addMessageIDInHeader(msg);
-         }
+         sendMessage(targetProducer, msg);
+      }
+   }
 
-         if (JMSBridgeImpl.trace)
+   /**
+    * Splits the batch between the target workers by the value of the partition property, so that
+    * messages with the same value are sent in order by the same worker. Messages which don't have
+    * the property are spread evenly between the workers.
+    * <p>
+    * The batch is complete once every worker has sent its part, it is then committed or acknowledged
+    * as a whole as with a single target session.
+    */
+   private void sendMessagesInParallel() throws Exception
+   {
+      for (Message msg : messages)
+      {
+         targetWorkers[partition(msg)].messages.add(msg);
+      }
+
+      List<Future<Object>> futures = new ArrayList<Future<Object>>(targetWorkers.length - 1);
+
+      try
+      {
+         for (int i = 1; i < targetWorkers.length; i++)
          {
-            HornetQJMSServerLogger.LOGGER.trace("Sending message " + msg);
+            if (!targetWorkers[i].messages.isEmpty())
+            {
+               futures.add(workerExecutor.submit(targetWorkers[i]));
+            }
          }
 
-         // Make sure the correct time to live gets propagated
-
-         long timeToLive = msg.getJMSExpiration();
+         targetWorkers[0].call();
+      }
+      finally
+      {
+         Exception failure = null;
 
-         if (timeToLive != 0)
+         for (Future<Object> future : futures)
          {
-            timeToLive -= System.currentTimeMillis();
-
-            if (timeToLive <= 0)
+            try
             {
-               timeToLive = 1; // Should have already expired - set to 1 so it expires when it is consumed or delivered
+               future.get();
+            }
+            catch (ExecutionException e)
+            {
+               if (failure == null)
+               {
+                  failure = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+               }
             }
          }
 
-         targetProducer.send(targetDestination, msg, msg.getJMSDeliveryMode(), msg.getJMSPriority(), timeToLive);
+         for (TargetWorker worker : targetWorkers)
+         {
+            worker.messages.clear();
+         }
 
-         if (JMSBridgeImpl.trace)
+         if (failure != null)
+         {
+            throw failure;
+         }
+      }
+   }
+
+   private int partition(final Message msg) throws JMSException
+   {
+      String key = msg.getStringProperty(partitionProperty);
+
+      if (key == null)
+      {
+         nextWorker = (nextWorker + 1) % targetWorkers.length;
+
+         return nextWorker;
+      }
+
+      return (key.hashCode() & Integer.MAX_VALUE) % targetWorkers.length;
+   }
+
+   private void sendMessage(final MessageProducer producer, final Message msg) throws Exception
+   {
+      if (addMessageIDInHeader)
+      {
+         addMessageIDInHeader(msg);
+      }
+
+      if (JMSBridgeImpl.trace)
+      {
+         HornetQJMSServerLogger.LOGGER.trace("Sending message " + msg);
+      }
+
+      // Make sure the correct time to live gets propagated
+
+      long timeToLive = msg.getJMSExpiration();
+
+      if (timeToLive != 0)
+      {
+         timeToLive -= System.currentTimeMillis();
+
+         if (timeToLive <= 0)
          {
-            HornetQJMSServerLogger.LOGGER.trace("Sent message " + msg);
+            timeToLive = 1; // Should have already expired - set to 1 so it expires when it is consumed or delivered
          }
       }
+
+      producer.send(targetDestination, msg, msg.getJMSDeliveryMode(), msg.getJMSPriority(), timeToLive);
+
+      if (JMSBridgeImpl.trace)
+      {
+         HornetQJMSServerLogger.LOGGER.trace("Sent message " + msg);
+      }
    }
 
    private void handleFailureOnSend()
@@ -1877,6 +2184,38 @@ public final class JMSBridgeImpl implements JMSBridge
 
    // Inner classes ---------------------------------------------------------------
 
+   /**
+    * A target session with its producer, sending its share of each batch
+    */
+   private final class TargetWorker implements Callable<Object>
+   {
+      // null for the first worker which uses the bridge's target connection
+      final Connection conn;
+
+      final Session session;
+
+      final MessageProducer producer;
+
+      final List<Message> messages = new ArrayList<Message>();
+
+      TargetWorker(final Connection conn, final Session session, final MessageProducer producer)
+      {
+         this.conn = conn;
+         this.session = session;
+         this.producer = producer;
+      }
+
+      public Object call() throws Exception
+      {
+         for (Message msg : messages)
+         {
+            sendMessage(producer, msg);
+         }
+
+         return null;
+      }
+   }
+
    /**
     * We use a Thread which polls the sourceDestination instead of a MessageListener
     * to ensure that message delivery does not happen concurrently with
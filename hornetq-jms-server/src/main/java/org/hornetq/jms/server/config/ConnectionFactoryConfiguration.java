@@ -79,6 +79,14 @@ public interface ConnectionFactoryConfiguration extends EncodingSupport
 
    void setCompressLargeMessages(boolean avoidLargeMessages);
 
+   String getMessageCompressionCodec();
+
+   void setMessageCompressionCodec(String messageCompressionCodec);
+
+   int getMessageCompressionLevel();
+
+   void setMessageCompressionLevel(int messageCompressionLevel);
+
    int getConsumerWindowSize();
 
    void setConsumerWindowSize(int consumerWindowSize);
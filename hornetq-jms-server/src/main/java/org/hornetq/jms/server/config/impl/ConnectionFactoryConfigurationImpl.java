@@ -69,6 +69,10 @@ public class ConnectionFactoryConfigurationImpl implements ConnectionFactoryConf
    
    private boolean compressLargeMessage = HornetQClient.DEFAULT_COMPRESS_LARGE_MESSAGES;
 
+   private String messageCompressionCodec = HornetQClient.DEFAULT_MESSAGE_COMPRESSION_CODEC;
+
+   private int messageCompressionLevel = HornetQClient.DEFAULT_MESSAGE_COMPRESSION_LEVEL;
+
    private int consumerWindowSize = HornetQClient.DEFAULT_CONSUMER_WINDOW_SIZE;
 
    private int consumerMaxRate = HornetQClient.DEFAULT_CONSUMER_MAX_RATE;
@@ -589,6 +593,14 @@ public class ConnectionFactoryConfigurationImpl implements ConnectionFactoryConf
       groupID = BufferHelper.readNullableSimpleStringAsString(buffer);
 
       factoryType = JMSFactoryType.valueOf(buffer.readInt());
+
+      // configurations persisted before message compression existed end here
+      if (buffer.readable())
+      {
+         messageCompressionCodec = BufferHelper.readNullableSimpleStringAsString(buffer);
+
+         messageCompressionLevel = buffer.readInt();
+      }
    }
 
    @Override
@@ -677,6 +689,10 @@ public class ConnectionFactoryConfigurationImpl implements ConnectionFactoryConf
       BufferHelper.writeAsNullableSimpleString(buffer, groupID);
 
       buffer.writeInt(factoryType.intValue());
+
+      BufferHelper.writeAsNullableSimpleString(buffer, messageCompressionCodec);
+
+      buffer.writeInt(messageCompressionLevel);
    }
 
    @Override
@@ -786,7 +802,11 @@ public class ConnectionFactoryConfigurationImpl implements ConnectionFactoryConf
 
               BufferHelper.sizeOfNullableSimpleString(groupID) +
 
-              DataConstants.SIZE_INT; // factoryType
+              DataConstants.SIZE_INT + // factoryType
+
+              BufferHelper.sizeOfNullableSimpleString(messageCompressionCodec) +
+
+              DataConstants.SIZE_INT; // messageCompressionLevel
 
       return size;
    }
@@ -813,6 +833,30 @@ public class ConnectionFactoryConfigurationImpl implements ConnectionFactoryConf
       return this.compressLargeMessage;
    }
 
+   @Override
+   public String getMessageCompressionCodec()
+   {
+      return messageCompressionCodec;
+   }
+
+   @Override
+   public void setMessageCompressionCodec(final String messageCompressionCodec)
+   {
+      this.messageCompressionCodec = messageCompressionCodec;
+   }
+
+   @Override
+   public int getMessageCompressionLevel()
+   {
+      return messageCompressionLevel;
+   }
+
+   @Override
+   public void setMessageCompressionLevel(final int messageCompressionLevel)
+   {
+      this.messageCompressionLevel = messageCompressionLevel;
+   }
+
    // Public --------------------------------------------------------
 
    // Package protected ---------------------------------------------
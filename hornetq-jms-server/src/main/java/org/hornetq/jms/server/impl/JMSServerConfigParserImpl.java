@@ -264,6 +264,16 @@ final public class JMSServerConfigParserImpl implements JMSServerConfigParser
                                                                 "compress-large-messages",
                                                                 HornetQClient.DEFAULT_COMPRESS_LARGE_MESSAGES);
 
+      String messageCompressionCodec = XMLConfigurationUtil.getString(e,
+                                                                      "message-compression-codec",
+                                                                      HornetQClient.DEFAULT_MESSAGE_COMPRESSION_CODEC,
+                                                                      Validators.NO_CHECK);
+
+      int messageCompressionLevel = XMLConfigurationUtil.getInteger(e,
+                                                                    "message-compression-level",
+                                                                    HornetQClient.DEFAULT_MESSAGE_COMPRESSION_LEVEL,
+                                                                    Validators.MINUS_ONE_OR_GE_ZERO);
+
       boolean blockOnAcknowledge = XMLConfigurationUtil.getBoolean(e,
                                                                    "block-on-acknowledge",
                                                                    HornetQClient.DEFAULT_BLOCK_ON_ACKNOWLEDGE);
@@ -390,6 +400,8 @@ final public class JMSServerConfigParserImpl implements JMSServerConfigParser
       cfConfig.setCacheLargeMessagesClient(cacheLargeMessagesClient);
       cfConfig.setMinLargeMessageSize(minLargeMessageSize);
       cfConfig.setCompressLargeMessages(compressLargeMessages);
+      cfConfig.setMessageCompressionCodec(messageCompressionCodec);
+      cfConfig.setMessageCompressionLevel(messageCompressionLevel);
       cfConfig.setConsumerWindowSize(consumerWindowSize);
       cfConfig.setConsumerMaxRate(consumerMaxRate);
       cfConfig.setConfirmationWindowSize(confirmationWindowSize);
@@ -1409,6 +1409,8 @@ public class JMSServerManagerImpl implements JMSServerManager, ActivateCallback
       cf.setReconnectAttempts(cfConfig.getReconnectAttempts());
       cf.setFailoverOnInitialConnection(cfConfig.isFailoverOnInitialConnection());
       cf.setCompressLargeMessage(cfConfig.isCompressLargeMessages());
+      cf.setMessageCompressionCodec(cfConfig.getMessageCompressionCodec());
+      cf.setMessageCompressionLevel(cfConfig.getMessageCompressionLevel());
       cf.setGroupID(cfConfig.getGroupID());
       return cf;
    }
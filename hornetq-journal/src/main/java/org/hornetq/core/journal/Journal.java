@@ -225,4 +225,21 @@ public interface Journal extends HornetQComponent
     * only be called once the synchronization of the backup and live servers is completed.
     */
    void replicationSyncFinished();
+
+   /**
+    * Whether the add record with the given id can be read back with {@link #readAddRecord(long)}.
+    * <p>
+    * That is the case for records appended outside of a transaction, as long as they are not
+    * deleted.
+    */
+   boolean isRecordReadable(long id);
+
+   /**
+    * Reads an add record back from its journal file.
+    * <p>
+    * The record must have been synced to disk, the caller is responsible for this.
+    * @return the record, or {@code null} if it can't be read back
+    * @see #isRecordReadable(long)
+    */
+   RecordInfo readAddRecord(long id) throws Exception;
 }
@@ -330,4 +330,16 @@ public final class FileWrapperJournal extends JournalBase
    {
       throw new UnsupportedOperationException();
    }
+
+   @Override
+   public boolean isRecordReadable(final long id)
+   {
+      return false;
+   }
+
+   @Override
+   public RecordInfo readAddRecord(final long id) throws Exception
+   {
+      throw new UnsupportedOperationException();
+   }
 }
@@ -13,8 +13,12 @@
 
 package org.hornetq.core.journal.impl;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -66,6 +70,7 @@ import org.hornetq.core.journal.impl.dataformat.JournalRollbackRecordTX;
 import org.hornetq.journal.HornetQJournalBundle;
 import org.hornetq.journal.HornetQJournalLogger;
 import org.hornetq.utils.ConcurrentHashSet;
+import org.hornetq.utils.ConcurrentLongHashMap;
 import org.hornetq.utils.DataConstants;
 
 /**
@@ -180,11 +185,14 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    private final JournalFilesRepository filesRepository;
 
    // Compacting may replace this structure
-   private final ConcurrentMap<Long, JournalRecord> records = new ConcurrentHashMap<Long, JournalRecord>();
+   private final ConcurrentLongHashMap<JournalRecord> records = new ConcurrentLongHashMap<JournalRecord>();
 
    // Compacting may replace this structure
    private final ConcurrentMap<Long, JournalTransaction> transactions = new ConcurrentHashMap<Long, JournalTransaction>();
 
+   // channels used to read add records back, by the record ID of their file
+   private final ConcurrentMap<Integer, FileChannel> readChannels = new ConcurrentHashMap<Integer, FileChannel>();
+
    // This will be set only while the JournalCompactor is being executed
    private volatile JournalCompactor compactor;
 
@@ -349,7 +357,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       latch.await();
    }
 
-   public Map<Long, JournalRecord> getRecords()
+   public ConcurrentLongHashMap<JournalRecord> getRecords()
    {
       return records;
    }
@@ -783,7 +791,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
       try
       {
-         JournalInternalRecord addRecord = new JournalAddRecord(true, id, recordType, record);
+         JournalAddRecord addRecord = new JournalAddRecord(true, id, recordType, record);
 
          if (callback != null)
          {
@@ -804,7 +812,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                                        usedFile);
             }
 
-            records.put(id, new JournalRecord(usedFile, addRecord.getEncodeSize()));
+            records.put(id, new JournalRecord(usedFile, addRecord.getPosition(), addRecord.getEncodeSize()));
          }
          finally
          {
@@ -1502,7 +1510,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             compactor = new JournalCompactor(fileFactory,
                                              this,
                                              filesRepository,
-                                             records.keySet(),
+                                             records.keys(),
                                              dataFilesToProcess.get(0).getFileID());
 
             for (Map.Entry<Long, JournalTransaction> entry : transactions.entrySet())
@@ -1564,9 +1572,10 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             newDatafiles = localCompactor.getNewDataFiles();
 
             // Restore newRecords created during compacting
-            for (Map.Entry<Long, JournalRecord> newRecordEntry : localCompactor.getNewRecords().entrySet())
+            ConcurrentLongHashMap<JournalRecord> newRecords = localCompactor.getNewRecords();
+            for (long id : newRecords.keys())
             {
-               records.put(newRecordEntry.getKey(), newRecordEntry.getValue());
+               records.put(id, newRecords.get(id));
             }
 
             // Restore compacted dataFiles
@@ -2092,6 +2101,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                filesRepository.removeDataFile(file);
 
+               closeReadChannel(file);
+
                filesRepository.addFreeFile(file, false);
             }
          }
@@ -2441,6 +2452,11 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             currentFile.getFile().close();
          }
 
+         for (Integer fileID : readChannels.keySet())
+         {
+            closeReadChannel(readChannels.remove(fileID));
+         }
+
          filesRepository.clear();
 
          fileFactory.stop();
@@ -2505,6 +2521,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             {
                for (JournalFile file : oldFiles)
                {
+                  closeReadChannel(file);
+
                   try
                   {
                      filesRepository.addFreeFile(file, false);
@@ -2795,6 +2813,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       // Adding fileID
       encoder.setFileID(currentFile.getRecordID());
 
+      encoder.setFile(currentFile.getFile());
+
       if (callback != null)
       {
          currentFile.getFile().write(encoder, sync, callback);
@@ -3216,6 +3236,177 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       setAutoReclaim(true);
    }
 
+   /**
+    * Whether a record with the given id was added and not deleted yet, also while compacting.
+    */
+   public boolean containsRecord(final long id)
+   {
+      journalLock.readLock().lock();
+
+      try
+      {
+         return records.containsKey(id) || compactor != null && compactor.lookupRecord(id);
+      }
+      finally
+      {
+         journalLock.readLock().unlock();
+      }
+   }
+
+   @Override
+   public boolean isRecordReadable(final long id)
+   {
+      JournalRecord record = records.get(id);
+
+      return record != null && record.getPosition() >= 0;
+   }
+
+   @Override
+   public RecordInfo readAddRecord(final long id) throws Exception
+   {
+      checkJournalIsLoaded();
+
+      // the record is read without holding any lock, what is read is checked against the record instead
+      RecordInfo info = readAddRecordFromFile(id);
+
+      if (info == null)
+      {
+         // the record may have been moved by a compacting whose files are not renamed yet, wait for it this time
+         compactorLock.readLock().lock();
+
+         try
+         {
+            info = readAddRecordFromFile(id);
+         }
+         finally
+         {
+            compactorLock.readLock().unlock();
+         }
+      }
+
+      return info;
+   }
+
+   private RecordInfo readAddRecordFromFile(final long id) throws Exception
+   {
+      JournalRecord record = records.get(id);
+
+      if (record == null || record.getPosition() < 0)
+      {
+         return null;
+      }
+
+      JournalFile file = record.getAddFile();
+
+      ByteBuffer bytes = ByteBuffer.allocate(record.getSize());
+
+      try
+      {
+         FileChannel channel = getReadChannel(file);
+
+         long position = record.getPosition();
+
+         while (bytes.hasRemaining())
+         {
+            int read = channel.read(bytes, position + bytes.position());
+
+            if (read < 0)
+            {
+               return null;
+            }
+         }
+      }
+      catch (IOException e)
+      {
+         // the file is gone or was reused, or its channel was closed meanwhile
+         closeReadChannel(file);
+
+         return null;
+      }
+
+      bytes.flip();
+
+      if (bytes.get() != JournalImpl.ADD_RECORD || bytes.getInt() != file.getRecordID())
+      {
+         // the name of the file now belongs to another one
+         closeReadChannel(file);
+
+         return null;
+      }
+
+      short compactCount = bytes.get();
+
+      if (bytes.getLong() != id)
+      {
+         return null;
+      }
+
+      int dataSize = bytes.getInt();
+
+      byte userRecordType = bytes.get();
+
+      if (dataSize != record.getSize() - JournalImpl.SIZE_ADD_RECORD - 1)
+      {
+         return null;
+      }
+
+      byte[] data = new byte[dataSize];
+
+      bytes.get(data);
+
+      if (bytes.getInt() != record.getSize())
+      {
+         return null;
+      }
+
+      return new RecordInfo(id, userRecordType, data, false, compactCount);
+   }
+
+   /**
+    * The data files are read through channels of their own, as AIO files can only be read at
+    * aligned positions. They are kept open until the file is reclaimed.
+    */
+   private FileChannel getReadChannel(final JournalFile file) throws IOException
+   {
+      FileChannel channel = readChannels.get(file.getRecordID());
+
+      if (channel == null)
+      {
+         channel = new RandomAccessFile(new File(fileFactory.getDirectory(), file.getFile().getFileName()), "r").getChannel();
+
+         FileChannel existing = readChannels.putIfAbsent(file.getRecordID(), channel);
+
+         if (existing != null)
+         {
+            channel.close();
+
+            channel = existing;
+         }
+      }
+
+      return channel;
+   }
+
+   private void closeReadChannel(final JournalFile file)
+   {
+      closeReadChannel(readChannels.remove(file.getRecordID()));
+   }
+
+   private void closeReadChannel(final FileChannel channel)
+   {
+      if (channel != null)
+      {
+         try
+         {
+            channel.close();
+         }
+         catch (IOException e)
+         {
+            HornetQJournalLogger.LOGGER.warn(e.getMessage(), e);
+         }
+      }
+   }
+
    @Override
    public void testCompact()
    {
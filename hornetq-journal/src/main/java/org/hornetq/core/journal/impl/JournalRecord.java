@@ -13,10 +13,7 @@
 
 package org.hornetq.core.journal.impl;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import org.hornetq.api.core.Pair;
+import java.util.Arrays;
 
 /**
  * This holds the relationship a record has with other files in regard to reference counting.
@@ -24,20 +21,37 @@ import org.hornetq.api.core.Pair;
  *
  * Used on the ref-count for reclaiming
  *
+ * There is one instance per live record of the journal, so the files and sizes of its updates are
+ * kept in arrays rather than in a list of pairs.
+ *
  * @author <a href="mailto:clebert.suconic@jboss.org">Clebert Suconic</a>
  * */
 public class JournalRecord
 {
    private final JournalFile addFile;
 
+   // position of the add record in its file, or -1 if it is not known
+   private final int position;
+
    private final int size;
 
-   private List<Pair<JournalFile, Integer>> updateFiles;
+   private JournalFile[] updateFiles;
+
+   private int[] updateSizes;
+
+   private int updateCount;
 
    public JournalRecord(final JournalFile addFile, final int size)
+   {
+      this(addFile, -1, size);
+   }
+
+   public JournalRecord(final JournalFile addFile, final int position, final int size)
    {
       this.addFile = addFile;
 
+      this.position = position;
+
       this.size = size;
 
       addFile.incPosCount();
@@ -45,14 +59,37 @@ public class JournalRecord
       addFile.addSize(size);
    }
 
+   JournalFile getAddFile()
+   {
+      return addFile;
+   }
+
+   int getPosition()
+   {
+      return position;
+   }
+
+   int getSize()
+   {
+      return size;
+   }
+
    void addUpdateFile(final JournalFile updateFile, final int size)
    {
       if (updateFiles == null)
       {
-         updateFiles = new ArrayList<Pair<JournalFile, Integer>>();
+         updateFiles = new JournalFile[2];
+         updateSizes = new int[2];
+      }
+      else if (updateCount == updateFiles.length)
+      {
+         updateFiles = Arrays.copyOf(updateFiles, updateCount << 1);
+         updateSizes = Arrays.copyOf(updateSizes, updateCount << 1);
       }
 
-      updateFiles.add(new Pair<JournalFile, Integer>(updateFile, size));
+      updateFiles[updateCount] = updateFile;
+      updateSizes[updateCount] = size;
+      updateCount++;
 
       updateFile.incPosCount();
 
@@ -64,13 +101,10 @@ public class JournalRecord
       file.incNegCount(addFile);
       addFile.decSize(size);
 
-      if (updateFiles != null)
+      for (int i = 0; i < updateCount; i++)
       {
-         for (Pair<JournalFile, Integer> updFile : updateFiles)
-         {
-            file.incNegCount(updFile.getA());
-            updFile.getA().decSize(updFile.getB());
-         }
+         file.incNegCount(updateFiles[i]);
+         updateFiles[i].decSize(updateSizes[i]);
       }
    }
 
@@ -80,14 +114,9 @@ public class JournalRecord
       StringBuilder buffer = new StringBuilder();
       buffer.append("JournalRecord(add=" + addFile.getFile().getFileName());
 
-      if (updateFiles != null)
+      for (int i = 0; i < updateCount; i++)
       {
-
-         for (Pair<JournalFile, Integer> update : updateFiles)
-         {
-            buffer.append(", update=" + update.getA().getFile().getFileName());
-         }
-
+         buffer.append(", update=" + updateFiles[i].getFile().getFileName());
       }
 
       buffer.append(")");
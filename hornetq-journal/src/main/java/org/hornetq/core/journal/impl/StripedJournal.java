@@ -0,0 +1,952 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.core.journal.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hornetq.core.journal.EncodingSupport;
+import org.hornetq.core.journal.IOCompletion;
+import org.hornetq.core.journal.JournalLoadInformation;
+import org.hornetq.core.journal.LoaderCallback;
+import org.hornetq.core.journal.PreparedTransactionInfo;
+import org.hornetq.core.journal.RecordInfo;
+import org.hornetq.core.journal.SequentialFileFactory;
+import org.hornetq.core.journal.TransactionFailureCallback;
+import org.hornetq.core.journal.impl.dataformat.ByteArrayEncoding;
+
+/**
+ * A journal spreading its records over several {@link JournalImpl}s, each with its own directory
+ * and file factory, hence its own timed buffer and disk.
+ * <p>
+ * Records are assigned to a stripe by a hash of their ID and updates and deletes follow the stripe
+ * holding the record. The records added by a transaction go to the stripe of the transaction, so a
+ * transaction only spans several stripes when it updates or deletes records of other stripes.
+ * <p>
+ * Such a transaction is committed in two phases: its part on each stripe is prepared, then an
+ * outcome record with the ID of the transaction is synced to the stripe of the transaction, then
+ * every part is committed and synced. The outcome record is deleted once all the parts are. When loading, the
+ * parts prepared by a commit are committed if the outcome record exists and rolled back otherwise,
+ * and the parts of a transaction prepared by the user are merged back into one.
+ * <p>
+ * Transaction IDs must not be used as record IDs. Replication is not supported.
+ */
+public final class StripedJournal extends JournalBase
+{
+   /**
+    * The user record type of outcome records.
+    */
+   public static final byte OUTCOME_RECORD = Byte.MAX_VALUE;
+
+   /**
+    * The data of the prepare records written when committing a transaction spanning stripes.
+    */
+   public static final byte[] COMMIT_PREPARE_DATA = { 'S', 'T', 'R', 'I', 'P', 'E', 'D' };
+
+   private final JournalImpl[] stripes;
+
+   private final ConcurrentMap<Long, StripedTransaction> transactions =
+      new ConcurrentHashMap<Long, StripedTransaction>();
+
+   /**
+    * the IDs of the outcome records whose transaction is committed on every stripe
+    */
+   private final Queue<Long> committedOutcomes = new ConcurrentLinkedQueue<Long>();
+
+   /**
+    * completions waiting for the previous appends of their callback to complete
+    */
+   private final Map<IOCompletion, Deque<OrderedCompletion>> pendingCompletions =
+      new IdentityHashMap<IOCompletion, Deque<OrderedCompletion>>();
+
+   /**
+    * completions lined up by {@link #lineUpContext(IOCompletion)} for the commits appended without
+    * lining up their callback, guarded by pendingCompletions
+    */
+   private final Map<IOCompletion, Deque<OrderedCompletion>> linedUpCompletions =
+      new IdentityHashMap<IOCompletion, Deque<OrderedCompletion>>();
+
+   private volatile boolean loaded;
+
+   public StripedJournal(final JournalImpl... stripes)
+   {
+      super(stripes[0].getFileFactory().isSupportsCallbacks(), stripes[0].getFileSize());
+
+      this.stripes = stripes;
+   }
+
+   // Non transactional operations
+
+   @Override
+   public void appendAddRecord(final long id,
+                               final byte recordType,
+                               final EncodingSupport record,
+                               final boolean sync,
+                               final IOCompletion callback) throws Exception
+   {
+      stripes[stripeOf(id)].appendAddRecord(id, recordType, record, sync, ordered(callback));
+   }
+
+   @Override
+   public void appendUpdateRecord(final long id,
+                                  final byte recordType,
+                                  final EncodingSupport record,
+                                  final boolean sync,
+                                  final IOCompletion callback) throws Exception
+   {
+      stripes[locate(id)].appendUpdateRecord(id, recordType, record, sync, ordered(callback));
+   }
+
+   @Override
+   public void appendDeleteRecord(final long id, final boolean sync, final IOCompletion callback) throws Exception
+   {
+      stripes[locate(id)].appendDeleteRecord(id, sync, ordered(callback));
+   }
+
+   // Transactional operations
+
+   @Override
+   public void appendAddRecordTransactional(final long txID,
+                                            final long id,
+                                            final byte recordType,
+                                            final EncodingSupport record) throws Exception
+   {
+      StripedTransaction tx = getTransaction(txID);
+
+      stripes[tx.join(tx.home)].appendAddRecordTransactional(txID, id, recordType, record);
+   }
+
+   @Override
+   public void appendUpdateRecordTransactional(final long txID,
+                                               final long id,
+                                               final byte recordType,
+                                               final EncodingSupport record) throws Exception
+   {
+      StripedTransaction tx = getTransaction(txID);
+
+      stripes[tx.join(locate(id, tx.home))].appendUpdateRecordTransactional(txID, id, recordType, record);
+   }
+
+   @Override
+   public void appendDeleteRecordTransactional(final long txID, final long id, final EncodingSupport record) throws Exception
+   {
+      StripedTransaction tx = getTransaction(txID);
+
+      stripes[tx.join(locate(id, tx.home))].appendDeleteRecordTransactional(txID, id, record);
+   }
+
+   @Override
+   public void appendPrepareRecord(final long txID,
+                                   final EncodingSupport transactionData,
+                                   final boolean sync,
+                                   final IOCompletion callback) throws Exception
+   {
+      StripedTransaction tx = getTransaction(txID);
+
+      int[] parts = tx.prepare();
+
+      if (parts.length == 1)
+      {
+         stripes[parts[0]].appendPrepareRecord(txID, transactionData, sync, ordered(callback));
+
+         return;
+      }
+
+      IOCompletion completion = lineUp(ordered(callback));
+
+      TransactionCompletion partsCompletion = new TransactionCompletion(txID, parts.length, completion, false);
+
+      for (int part : parts)
+      {
+         stripes[part].appendPrepareRecord(txID, transactionData, sync, partsCompletion);
+      }
+   }
+
+   @Override
+   public void appendCommitRecord(final long txID,
+                                  final boolean sync,
+                                  final IOCompletion callback,
+                                  final boolean lineUpContext) throws Exception
+   {
+      StripedTransaction tx = transactions.remove(txID);
+
+      int[] parts = tx == null ? new int[] { stripeOf(txID) } : tx.parts();
+
+      if (parts.length == 1)
+      {
+         stripes[parts[0]].appendCommitRecord(txID,
+                                              sync,
+                                              lineUpContext ? ordered(callback) : takeLinedUp(callback),
+                                              lineUpContext);
+
+         return;
+      }
+
+      deleteCommittedOutcomes();
+
+      if (!tx.isPrepared())
+      {
+         SimpleWaitIOCallback prepared = new SimpleWaitIOCallback();
+
+         TransactionCompletion partsCompletion = new TransactionCompletion(txID, parts.length, prepared, false);
+
+         for (int part : parts)
+         {
+            stripes[part].appendPrepareRecord(txID, new ByteArrayEncoding(COMMIT_PREPARE_DATA), true, partsCompletion);
+         }
+
+         prepared.waitCompletion();
+      }
+
+      // once synced, the transaction is committed whatever happens to the commit records
+      stripes[tx.home].appendAddRecord(txID, OUTCOME_RECORD, new byte[0], true);
+
+      IOCompletion completion = lineUpContext ? lineUp(ordered(callback)) : takeLinedUp(callback);
+
+      TransactionCompletion partsCompletion = new TransactionCompletion(txID, parts.length, completion, true);
+
+      // the commit records are always synced, the outcome record is deleted once they all are and
+      // loading would otherwise roll back the parts not yet on disk
+      for (int part : parts)
+      {
+         stripes[part].appendCommitRecord(txID, true, partsCompletion, false);
+      }
+   }
+
+   @Override
+   public void appendRollbackRecord(final long txID, final boolean sync, final IOCompletion callback) throws Exception
+   {
+      StripedTransaction tx = transactions.remove(txID);
+
+      int[] parts = tx == null ? new int[] { stripeOf(txID) } : tx.parts();
+
+      if (parts.length == 1)
+      {
+         stripes[parts[0]].appendRollbackRecord(txID, sync, ordered(callback));
+
+         return;
+      }
+
+      IOCompletion completion = lineUp(ordered(callback));
+
+      TransactionCompletion partsCompletion = new TransactionCompletion(txID, parts.length, completion, false);
+
+      for (int part : parts)
+      {
+         stripes[part].appendRollbackRecord(txID, sync, partsCompletion);
+      }
+   }
+
+   @Override
+   public void lineUpContext(final IOCompletion callback)
+   {
+      IOCompletion completion = lineUp(ordered(callback));
+
+      if (completion instanceof OrderedCompletion)
+      {
+         synchronized (pendingCompletions)
+         {
+            Deque<OrderedCompletion> linedUp = linedUpCompletions.get(callback);
+
+            if (linedUp == null)
+            {
+               linedUp = new ArrayDeque<OrderedCompletion>();
+
+               linedUpCompletions.put(callback, linedUp);
+            }
+
+            linedUp.add((OrderedCompletion)completion);
+         }
+      }
+   }
+
+   // Load
+
+   @Override
+   public JournalLoadInformation load(final LoaderCallback loadManager) throws Exception
+   {
+      List<RecordInfo> records = new ArrayList<RecordInfo>();
+
+      List<PreparedTransactionInfo> preparedTransactions = new ArrayList<PreparedTransactionInfo>();
+
+      JournalLoadInformation info = load(records, preparedTransactions, loadManager);
+
+      for (RecordInfo record : records)
+      {
+         if (record.isUpdate)
+         {
+            loadManager.updateRecord(record);
+         }
+         else
+         {
+            loadManager.addRecord(record);
+         }
+      }
+
+      for (PreparedTransactionInfo preparedTransaction : preparedTransactions)
+      {
+         loadManager.addPreparedTransaction(preparedTransaction);
+      }
+
+      return info;
+   }
+
+   @Override
+   public JournalLoadInformation loadInternalOnly() throws Exception
+   {
+      return load(new ArrayList<RecordInfo>(), new ArrayList<PreparedTransactionInfo>(), null);
+   }
+
+   @Override
+   public JournalLoadInformation loadSyncOnly(final JournalState state) throws Exception
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public JournalLoadInformation load(final List<RecordInfo> committedRecords,
+                                      final List<PreparedTransactionInfo> preparedTransactions,
+                                      final TransactionFailureCallback transactionFailure) throws Exception
+   {
+      JournalLoadInformation info = new JournalLoadInformation();
+
+      List<List<RecordInfo>> stripeRecords = new ArrayList<List<RecordInfo>>();
+
+      List<List<PreparedTransactionInfo>> stripeTransactions = new ArrayList<List<PreparedTransactionInfo>>();
+
+      // the stripe of each outcome record
+      Map<Long, Integer> outcomes = new HashMap<Long, Integer>();
+
+      for (int i = 0; i < stripes.length; i++)
+      {
+         List<RecordInfo> records = new ArrayList<RecordInfo>();
+
+         List<PreparedTransactionInfo> prepared = new ArrayList<PreparedTransactionInfo>();
+
+         JournalLoadInformation stripeInfo = stripes[i].load(records, prepared, transactionFailure);
+
+         info.setNumberOfRecords(info.getNumberOfRecords() + stripeInfo.getNumberOfRecords());
+
+         info.setMaxID(Math.max(info.getMaxID(), stripeInfo.getMaxID()));
+
+         Iterator<RecordInfo> iterator = records.iterator();
+
+         while (iterator.hasNext())
+         {
+            RecordInfo record = iterator.next();
+
+            if (record.userRecordType == OUTCOME_RECORD)
+            {
+               outcomes.put(record.id, i);
+
+               iterator.remove();
+            }
+         }
+
+         stripeRecords.add(records);
+
+         stripeTransactions.add(prepared);
+      }
+
+      Map<Long, PreparedTransactionInfo> userPrepared = new LinkedHashMap<Long, PreparedTransactionInfo>();
+
+      for (int i = 0; i < stripes.length; i++)
+      {
+         List<RecordInfo> records = stripeRecords.get(i);
+
+         for (PreparedTransactionInfo prepared : stripeTransactions.get(i))
+         {
+            if (outcomes.containsKey(prepared.id))
+            {
+               // the other parts of the transaction may already be committed
+               stripes[i].appendCommitRecord(prepared.id, true);
+
+               commit(records, prepared);
+            }
+            else if (Arrays.equals(prepared.extraData, COMMIT_PREPARE_DATA))
+            {
+               stripes[i].appendRollbackRecord(prepared.id, true);
+            }
+            else
+            {
+               PreparedTransactionInfo merged = userPrepared.get(prepared.id);
+
+               if (merged == null)
+               {
+                  merged = new PreparedTransactionInfo(prepared.id, prepared.extraData);
+
+                  userPrepared.put(prepared.id, merged);
+               }
+
+               merged.records.addAll(prepared.records);
+
+               merged.recordsToDelete.addAll(prepared.recordsToDelete);
+
+               StripedTransaction tx = getTransaction(prepared.id);
+
+               tx.join(i);
+
+               tx.prepare();
+            }
+         }
+
+         committedRecords.addAll(records);
+      }
+
+      for (Map.Entry<Long, Integer> outcome : outcomes.entrySet())
+      {
+         stripes[outcome.getValue()].appendDeleteRecord(outcome.getKey(), false);
+      }
+
+      preparedTransactions.addAll(userPrepared.values());
+
+      loaded = true;
+
+      return info;
+   }
+
+   // Other operations
+
+   @Override
+   public int getAlignment() throws Exception
+   {
+      return stripes[0].getAlignment();
+   }
+
+   @Override
+   public int getNumberOfRecords()
+   {
+      int numberOfRecords = 0;
+
+      for (JournalImpl stripe : stripes)
+      {
+         numberOfRecords += stripe.getNumberOfRecords();
+      }
+
+      return numberOfRecords;
+   }
+
+   @Override
+   public int getUserVersion()
+   {
+      return stripes[0].getUserVersion();
+   }
+
+   @Override
+   public void perfBlast(final int pages)
+   {
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.perfBlast(pages);
+      }
+   }
+
+   @Override
+   public void runDirectJournalBlast() throws Exception
+   {
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.runDirectJournalBlast();
+      }
+   }
+
+   @Override
+   public Map<Long, JournalFile> createFilesForBackupSync(final long[] fileIds) throws Exception
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void synchronizationLock()
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void synchronizationUnlock()
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void forceMoveNextFile() throws Exception
+   {
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.forceMoveNextFile();
+      }
+   }
+
+   @Override
+   public JournalFile[] getDataFiles()
+   {
+      List<JournalFile> dataFiles = new ArrayList<JournalFile>();
+
+      for (JournalImpl stripe : stripes)
+      {
+         dataFiles.addAll(Arrays.asList(stripe.getDataFiles()));
+      }
+
+      return dataFiles.toArray(new JournalFile[dataFiles.size()]);
+   }
+
+   /**
+    * Returns the file factory of the first stripe.
+    */
+   @Override
+   public SequentialFileFactory getFileFactory()
+   {
+      return stripes[0].getFileFactory();
+   }
+
+   @Override
+   public void scheduleCompactAndBlock(final int timeout) throws Exception
+   {
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.scheduleCompactAndBlock(timeout);
+      }
+   }
+
+   @Override
+   public void replicationSyncPreserveOldFiles()
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public void replicationSyncFinished()
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public boolean isRecordReadable(final long id)
+   {
+      return stripes[locate(id)].isRecordReadable(id);
+   }
+
+   @Override
+   public RecordInfo readAddRecord(final long id) throws Exception
+   {
+      return stripes[locate(id)].readAddRecord(id);
+   }
+
+   @Override
+   void scheduleReclaim()
+   {
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.scheduleReclaim();
+      }
+   }
+
+   public int getNumberOfStripes()
+   {
+      return stripes.length;
+   }
+
+   // HornetQComponent implementation
+
+   public void start() throws Exception
+   {
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.start();
+      }
+   }
+
+   public void stop() throws Exception
+   {
+      if (loaded)
+      {
+         deleteCommittedOutcomes();
+
+         loaded = false;
+      }
+
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.stop();
+      }
+   }
+
+   public boolean isStarted()
+   {
+      return stripes[0].isStarted();
+   }
+
+   @Override
+   public String toString()
+   {
+      return "StripedJournal(" + Arrays.toString(stripes) + ")";
+   }
+
+   // Private
+
+   /**
+    * The stripe of the records added outside of a transaction and of the transactions.
+    */
+   private int stripeOf(final long id)
+   {
+      return (int)((id * 0x9E3779B97F4A7C15L >>> 1) % stripes.length);
+   }
+
+   /**
+    * @return the stripe holding a record, or the stripe it would be added to if no stripe does
+    */
+   private int locate(final long id)
+   {
+      return locate(id, stripeOf(id));
+   }
+
+   private int locate(final long id, final int defaultStripe)
+   {
+      int stripe = stripeOf(id);
+
+      if (stripes[stripe].containsRecord(id))
+      {
+         return stripe;
+      }
+
+      for (int i = 0; i < stripes.length; i++)
+      {
+         if (i != stripe && stripes[i].containsRecord(id))
+         {
+            return i;
+         }
+      }
+
+      return defaultStripe;
+   }
+
+   private StripedTransaction getTransaction(final long txID)
+   {
+      StripedTransaction tx = transactions.get(txID);
+
+      if (tx == null)
+      {
+         tx = new StripedTransaction(stripeOf(txID));
+
+         StripedTransaction previous = transactions.putIfAbsent(txID, tx);
+
+         if (previous != null)
+         {
+            tx = previous;
+         }
+      }
+
+      return tx;
+   }
+
+   private void deleteCommittedOutcomes() throws Exception
+   {
+      Long id;
+
+      while ((id = committedOutcomes.poll()) != null)
+      {
+         stripes[stripeOf(id)].appendDeleteRecord(id, false);
+      }
+   }
+
+   /**
+    * Commits a prepared transaction to the records loaded from its stripe.
+    */
+   private static void commit(final List<RecordInfo> records, final PreparedTransactionInfo prepared)
+   {
+      Set<Long> deleted = new HashSet<Long>();
+
+      for (RecordInfo record : prepared.recordsToDelete)
+      {
+         deleted.add(record.id);
+      }
+
+      Iterator<RecordInfo> iterator = records.iterator();
+
+      while (iterator.hasNext())
+      {
+         if (deleted.contains(iterator.next().id))
+         {
+            iterator.remove();
+         }
+      }
+
+      for (RecordInfo record : prepared.records)
+      {
+         if (!deleted.contains(record.id))
+         {
+            records.add(record);
+         }
+      }
+   }
+
+   /**
+    * Callbacks count their completions, and the stripes complete their appends in a different order
+    * than they were lined up. The completions of a callback are delivered in order so that its
+    * n<sup>th</sup> completion still means the first n appends are done.
+    * @return the callback to pass to a stripe
+    */
+   private IOCompletion ordered(final IOCompletion callback)
+   {
+      if (callback == null || callback instanceof SyncIOCompletion)
+      {
+         return callback;
+      }
+
+      return new OrderedCompletion(callback);
+   }
+
+   private static IOCompletion lineUp(final IOCompletion callback)
+   {
+      if (callback != null)
+      {
+         callback.storeLineUp();
+      }
+
+      return callback;
+   }
+
+   /**
+    * @return the completion lined up for a commit by {@link #lineUpContext(IOCompletion)}, or the
+    * callback if none was
+    */
+   private IOCompletion takeLinedUp(final IOCompletion callback)
+   {
+      if (callback == null)
+      {
+         return null;
+      }
+
+      synchronized (pendingCompletions)
+      {
+         Deque<OrderedCompletion> linedUp = linedUpCompletions.get(callback);
+
+         if (linedUp == null)
+         {
+            return callback;
+         }
+
+         OrderedCompletion completion = linedUp.poll();
+
+         if (linedUp.isEmpty())
+         {
+            linedUpCompletions.remove(callback);
+         }
+
+         return completion;
+      }
+   }
+
+   private void complete(final OrderedCompletion completion, final int errorCode, final String errorMessage)
+   {
+      List<OrderedCompletion> completed = new ArrayList<OrderedCompletion>();
+
+      synchronized (pendingCompletions)
+      {
+         completion.completed = true;
+         completion.errorCode = errorCode;
+         completion.errorMessage = errorMessage;
+
+         Deque<OrderedCompletion> pending = pendingCompletions.get(completion.delegate);
+
+         while (!pending.isEmpty() && pending.peek().completed)
+         {
+            completed.add(pending.poll());
+         }
+
+         if (pending.isEmpty())
+         {
+            pendingCompletions.remove(completion.delegate);
+         }
+      }
+
+      for (OrderedCompletion done : completed)
+      {
+         if (done.errorMessage == null)
+         {
+            done.delegate.done();
+         }
+         else
+         {
+            done.delegate.onError(done.errorCode, done.errorMessage);
+         }
+      }
+   }
+
+   // Inner classes
+
+   private static final class StripedTransaction
+   {
+      private final int home;
+
+      private final BitSet parts = new BitSet();
+
+      private boolean prepared;
+
+      StripedTransaction(final int home)
+      {
+         this.home = home;
+      }
+
+      synchronized int join(final int stripe)
+      {
+         parts.set(stripe);
+
+         return stripe;
+      }
+
+      synchronized int[] prepare()
+      {
+         prepared = true;
+
+         if (parts.isEmpty())
+         {
+            parts.set(home);
+         }
+
+         return parts();
+      }
+
+      synchronized boolean isPrepared()
+      {
+         return prepared;
+      }
+
+      synchronized int[] parts()
+      {
+         int[] result = new int[parts.cardinality()];
+
+         int count = 0;
+
+         for (int i = parts.nextSetBit(0); i >= 0; i = parts.nextSetBit(i + 1))
+         {
+            result[count++] = i;
+         }
+
+         return result;
+      }
+   }
+
+   private final class OrderedCompletion implements IOCompletion
+   {
+      private final IOCompletion delegate;
+
+      // guarded by pendingCompletions
+      private boolean completed;
+
+      private int errorCode;
+
+      private String errorMessage;
+
+      OrderedCompletion(final IOCompletion delegate)
+      {
+         this.delegate = delegate;
+      }
+
+      public void storeLineUp()
+      {
+         synchronized (pendingCompletions)
+         {
+            Deque<OrderedCompletion> pending = pendingCompletions.get(delegate);
+
+            if (pending == null)
+            {
+               pending = new ArrayDeque<OrderedCompletion>();
+
+               pendingCompletions.put(delegate, pending);
+            }
+
+            pending.add(this);
+         }
+
+         delegate.storeLineUp();
+      }
+
+      public void done()
+      {
+         complete(this, 0, null);
+      }
+
+      public void onError(final int errorCode1, final String errorMessage1)
+      {
+         complete(this, errorCode1, errorMessage1 == null ? "" : errorMessage1);
+      }
+   }
+
+   /**
+    * Completes a callback once the parts of a transaction on all its stripes are done.
+    */
+   private final class TransactionCompletion implements IOCompletion
+   {
+      private final long txID;
+
+      private final AtomicInteger pendingParts;
+
+      private final IOCompletion delegate;
+
+      private final boolean commit;
+
+      TransactionCompletion(final long txID, final int parts, final IOCompletion delegate, final boolean commit)
+      {
+         this.txID = txID;
+         this.pendingParts = new AtomicInteger(parts);
+         this.delegate = delegate;
+         this.commit = commit;
+      }
+
+      public void storeLineUp()
+      {
+      }
+
+      public void done()
+      {
+         if (pendingParts.decrementAndGet() == 0)
+         {
+            if (commit)
+            {
+               committedOutcomes.add(txID);
+            }
+
+            if (delegate != null)
+            {
+               delegate.done();
+            }
+         }
+      }
+
+      public void onError(final int errorCode, final String errorMessage)
+      {
+         // the outcome record of a failed commit is kept, loading will commit the parts again
+         if (pendingParts.getAndSet(Integer.MIN_VALUE) > 0 && delegate != null)
+         {
+            delegate.onError(errorCode, errorMessage);
+         }
+      }
+   }
+}
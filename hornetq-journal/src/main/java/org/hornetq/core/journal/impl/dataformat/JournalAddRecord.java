@@ -15,6 +15,7 @@ package org.hornetq.core.journal.impl.dataformat;
 
 import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.core.journal.EncodingSupport;
+import org.hornetq.core.journal.SequentialFile;
 import org.hornetq.core.journal.impl.JournalImpl;
 
 /**
@@ -35,6 +36,10 @@ public class JournalAddRecord extends JournalInternalRecord
 
    private final boolean add;
 
+   private SequentialFile file;
+
+   private int position = -1;
+
    /**
     * @param id
     * @param recordType
@@ -51,9 +56,30 @@ public class JournalAddRecord extends JournalInternalRecord
       this.add = add;
    }
 
+   @Override
+   public void setFile(final SequentialFile file)
+   {
+      this.file = file;
+   }
+
+   /**
+    * @return the position the record was written to in its file, or -1 if it is not known
+    */
+   public int getPosition()
+   {
+      return position;
+   }
+
    @Override
    public void encode(final HornetQBuffer buffer)
    {
+      if (file != null)
+      {
+         // the buffer is either the timed buffer or a buffer of its own, which are both written at
+         // the current position of the file
+         position = (int)(file.position() + buffer.writerIndex());
+      }
+
       if (add)
       {
          buffer.writeByte(JournalImpl.ADD_RECORD);
@@ -15,6 +15,7 @@ package org.hornetq.core.journal.impl.dataformat;
 
 import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.core.journal.EncodingSupport;
+import org.hornetq.core.journal.SequentialFile;
 
 /**
  * A InternalEncoder
@@ -48,6 +49,13 @@ public abstract class JournalInternalRecord implements EncodingSupport
    {
    }
 
+   /**
+    * The file the record is about to be appended to.
+    */
+   public void setFile(final SequentialFile file)
+   {
+   }
+
    public int getNumberOfRecords()
    {
       return 0;
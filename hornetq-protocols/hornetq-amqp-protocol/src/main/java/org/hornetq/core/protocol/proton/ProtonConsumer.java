@@ -206,12 +206,13 @@ public class ProtonConsumer implements ProtonDeliveryHandler
       boolean preSettle = sender.getRemoteSenderSettleMode() == SenderSettleMode.SETTLED;
       //we only need a tag if we are going to ack later
       byte[] tag = preSettle ? new byte[0] : protonSession.getTag();
-      //encode the message
-      EncodedMessage encodedMessage = ProtonUtils.OUTBOUND.transform(message, deliveryCount);
+      //encode the message, only the header is specific to this delivery
+      byte[] header = ProtonUtils.OUTBOUND.encodeHeader(message, deliveryCount);
+      EncodedMessage sections = ProtonUtils.OUTBOUND.encodeSections(message);
       //now handle the delivery
-      protonProtocolManager.handleDelivery(sender, tag, encodedMessage, message, connection, preSettle);
+      protonProtocolManager.handleDelivery(sender, tag, header, sections, message, connection, preSettle);
 
-      return encodedMessage.getLength();
+      return header.length + sections.getLength();
    }
 
    @Override
@@ -41,6 +41,14 @@ import org.hornetq.core.server.QueueQueryResult;
  */
 public class ProtonProducer implements ProtonDeliveryHandler
 {
+   /*
+   * the credit given to the sender when the link is attached, it is given back in batches of half the window as
+   * messages are handled rather than one at a time
+   * */
+   static final int CREDIT_WINDOW = 100;
+
+   private static final int CREDIT_BATCH = CREDIT_WINDOW / 2;
+
    private final ProtonRemotingConnection connection;
 
    private final ProtonSession protonSession;
@@ -53,6 +61,9 @@ public class ProtonProducer implements ProtonDeliveryHandler
 
    private HornetQBuffer buffer;
 
+   // guarded by the connection's delivery lock
+   private int handledMessages;
+
    public ProtonProducer(ProtonRemotingConnection connection, ProtonSession protonSession, ProtonProtocolManager protonProtocolManager, Receiver receiver)
    {
       this.connection = connection;
@@ -81,7 +92,7 @@ public class ProtonProducer implements ProtonDeliveryHandler
             return;
          }
 
-         protonProtocolManager.handleMessage(receiver, buffer, delivery, connection, protonSession, address);
+         protonProtocolManager.handleMessage(this, receiver, buffer, delivery, connection, protonSession, address);
 
       }
       catch (Exception e)
@@ -96,6 +107,20 @@ public class ProtonProducer implements ProtonDeliveryHandler
       }
    }
 
+   /*
+   * called under the delivery lock once a message has been handled, returns true if credit was given back to the sender
+   * */
+   boolean replenishCredit()
+   {
+      if (++handledMessages < CREDIT_BATCH)
+      {
+         return false;
+      }
+      receiver.flow(handledMessages);
+      handledMessages = 0;
+      return true;
+   }
+
    @Override
    public void checkState()
    {
@@ -56,6 +56,7 @@ import org.hornetq.spi.core.remoting.Acceptor;
 import org.hornetq.spi.core.remoting.BufferDecoder;
 import org.hornetq.spi.core.remoting.Connection;
 import org.hornetq.utils.UUIDGenerator;
+import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.ChannelHandler;
 
 import java.nio.ByteBuffer;
@@ -79,6 +80,8 @@ public class ProtonProtocolManager implements ProtocolManager, NotificationListe
 
    public static final EnumSet<EndpointState> ANY_ENDPOINT_STATE = EnumSet.of(EndpointState.CLOSED, EndpointState.ACTIVE, EndpointState.UNINITIALIZED);
 
+   private static final int RECEIVE_SIZE = 1024;
+
    private final HornetQServer server;
 
    public ProtonProtocolManager(HornetQServer server)
@@ -112,10 +115,21 @@ public class ProtonProtocolManager implements ProtocolManager, NotificationListe
    {
       ProtonRemotingConnection protonRemotingConnection = (ProtonRemotingConnection) connection;
       protonRemotingConnection.setDataReceived();
-      byte[] frame = new byte[buffer.capacity()];
-      buffer.readBytes(frame);
+      ChannelBuffer channelBuffer = buffer.channelBuffer();
+      if (channelBuffer.hasArray())
+      {
+         // let proton read straight from the transport buffer
+         int length = buffer.readableBytes();
+         protonRemotingConnection.handleFrame(channelBuffer.array(), channelBuffer.arrayOffset() + buffer.readerIndex(), length);
+         buffer.skipBytes(length);
+      }
+      else
+      {
+         byte[] frame = new byte[buffer.readableBytes()];
+         buffer.readBytes(frame);
 
-      protonRemotingConnection.handleFrame(frame);
+         protonRemotingConnection.handleFrame(frame);
+      }
    }
 
    @Override
@@ -141,19 +155,39 @@ public class ProtonProtocolManager implements ProtocolManager, NotificationListe
       return new ServerMessageImpl(server.getStorageManager().generateUniqueID(), 512);
    }
 
-   public void handleMessage(final Receiver receiver, HornetQBuffer buffer, final Delivery delivery,
+   public void handleMessage(final ProtonProducer producer, final Receiver receiver, HornetQBuffer buffer, final Delivery delivery,
                              final ProtonRemotingConnection connection, ProtonSession protonSession,
                              String address) throws Exception
    {
       synchronized (connection.getDeliveryLock())
       {
+         // proton copies the transfer frames of the delivery straight into the producer's buffer
+         ChannelBuffer channelBuffer = buffer.channelBuffer();
          int count;
-         byte data[] = new byte[1024];
-         //todo an optimisation here would be to only use the buffer if we need more that one recv
-         while ((count = receiver.recv(data, 0, data.length)) > 0)
+         do
          {
-            buffer.writeBytes(data, 0, count);
+            channelBuffer.ensureWritableBytes(RECEIVE_SIZE);
+            if (channelBuffer.hasArray())
+            {
+               count = receiver.recv(channelBuffer.array(),
+                                     channelBuffer.arrayOffset() + channelBuffer.writerIndex(),
+                                     channelBuffer.writableBytes());
+               if (count > 0)
+               {
+                  channelBuffer.writerIndex(channelBuffer.writerIndex() + count);
+               }
+            }
+            else
+            {
+               byte[] data = new byte[RECEIVE_SIZE];
+               count = receiver.recv(data, 0, data.length);
+               if (count > 0)
+               {
+                  buffer.writeBytes(data, 0, count);
+               }
+            }
          }
+         while (count > 0);
 
          // we keep reading until we get end of messages, i.e. -1
          if (count == 0)
@@ -161,11 +195,29 @@ public class ProtonProtocolManager implements ProtocolManager, NotificationListe
             return;
          }
          receiver.advance();
-         byte[] bytes = new byte[buffer.readableBytes()];
-         buffer.readBytes(bytes);
-         buffer.clear();
-         EncodedMessage encodedMessage = new EncodedMessage(delivery.getMessageFormat(), bytes, 0, bytes.length);
-         ServerMessage message = ProtonUtils.INBOUND.transform(connection, encodedMessage);
+         EncodedMessage encodedMessage;
+         if (channelBuffer.hasArray())
+         {
+            // the message is decoded into a new server message so there is no need to copy it first
+            encodedMessage = new EncodedMessage(delivery.getMessageFormat(), channelBuffer.array(),
+                                                channelBuffer.arrayOffset() + channelBuffer.readerIndex(),
+                                                channelBuffer.readableBytes());
+         }
+         else
+         {
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            encodedMessage = new EncodedMessage(delivery.getMessageFormat(), bytes, 0, bytes.length);
+         }
+         ServerMessage message;
+         try
+         {
+            message = ProtonUtils.INBOUND.transform(connection, encodedMessage);
+         }
+         finally
+         {
+            buffer.clear();
+         }
          //use the address on the receiver if not null, if null let's hope it was set correctly on the message
          if (address != null)
          {
@@ -180,8 +232,11 @@ public class ProtonProtocolManager implements ProtocolManager, NotificationListe
             {
                synchronized (connection.getDeliveryLock())
                {
-                  receiver.flow(1);
                   delivery.settle();
+                  if (producer.replenishCredit())
+                  {
+                     connection.write();
+                  }
                }
             }
 
@@ -194,14 +249,19 @@ public class ProtonProtocolManager implements ProtocolManager, NotificationListe
       }
    }
 
-   public void handleDelivery(final Sender sender, byte[] tag, EncodedMessage encodedMessage, ServerMessage message, ProtonRemotingConnection connection, final boolean preSettle)
+   /*
+   * the header is encoded for every delivery, the rest of the message may be shared with the other consumers it is
+   * delivered to. Both go into the same delivery, which proton splits into as many transfer frames as needed.
+   * */
+   public void handleDelivery(final Sender sender, byte[] tag, byte[] header, EncodedMessage sections, ServerMessage message, ProtonRemotingConnection connection, final boolean preSettle)
    {
       synchronized (connection.getDeliveryLock())
       {
          final Delivery delivery;
          delivery = sender.delivery(tag, 0, tag.length);
          delivery.setContext(message);
-         sender.send(encodedMessage.getArray(), 0, encodedMessage.getLength());
+         sender.send(header, 0, header.length);
+         sender.send(sections.getArray(), sections.getArrayOffset(), sections.getLength());
          server.getStorageManager().afterCompleteOperations(new IOAsyncTask()
          {
             @Override
@@ -245,7 +305,7 @@ public class ProtonProtocolManager implements ProtocolManager, NotificationListe
             protonSession.initialise(false);
             protonSession.addProducer(receiver);
             //todo do this using the server session flow control
-            receiver.flow(100);
+            receiver.flow(ProtonProducer.CREDIT_WINDOW);
          }
       }
       else
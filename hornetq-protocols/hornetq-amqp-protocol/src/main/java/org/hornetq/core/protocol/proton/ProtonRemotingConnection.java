@@ -40,6 +40,7 @@ import org.hornetq.core.server.impl.ServerMessageImpl;
 import org.hornetq.spi.core.protocol.RemotingConnection;
 import org.hornetq.spi.core.remoting.Acceptor;
 import org.hornetq.spi.core.remoting.Connection;
+import org.jboss.netty.buffer.ChannelBuffer;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -97,6 +98,11 @@ public class ProtonRemotingConnection implements RemotingConnection
 
    private boolean dataReceived;
 
+   private static final int OUTPUT_BUFFER_SIZE = 16 * 1024;
+
+   // guarded by deliveryLock
+   private final byte[] outputBuffer = new byte[OUTPUT_BUFFER_SIZE];
+
    public ProtonRemotingConnection(Acceptor acceptorUsed, Connection connection, ProtonProtocolManager protonProtocolManager)
    {
       this.protonProtocolManager = protonProtocolManager;
@@ -380,27 +386,63 @@ public class ProtonRemotingConnection implements RemotingConnection
       return true;
    }
 
+   /**
+    * Flushes whatever proton has to send as a single write on the transport.
+    * <p>
+    * Output is first taken into a reusable buffer so nothing is allocated when there is nothing to send. When there
+    * is more than that buffer can hold, proton writes the rest straight into the transport buffer.
+    */
    void write()
    {
       synchronized (deliveryLock)
       {
-         int size = 1024 * 64;
-         byte data[] = new byte[size];
-         boolean done = false;
-         while (!done)
+         int count = protonTransport.output(outputBuffer, 0, outputBuffer.length);
+         if (count <= 0)
+         {
+            return;
+         }
+
+         if (count < outputBuffer.length)
+         {
+            HornetQBuffer buffer = connection.createBuffer(count);
+            buffer.writeBytes(outputBuffer, 0, count);
+            connection.write(buffer);
+            return;
+         }
+
+         HornetQBuffer buffer = connection.createBuffer(4 * OUTPUT_BUFFER_SIZE);
+         buffer.writeBytes(outputBuffer, 0, count);
+
+         int requested;
+         do
          {
-            int count = protonTransport.output(data, 0, size);
-            if (count > 0)
+            ChannelBuffer channelBuffer = buffer.channelBuffer();
+            channelBuffer.ensureWritableBytes(OUTPUT_BUFFER_SIZE);
+            if (channelBuffer.hasArray())
             {
-               final HornetQBuffer buffer;
-               buffer = connection.createBuffer(count);
-               buffer.writeBytes(data, 0, count);
-               connection.write(buffer);
-            } else
+               requested = channelBuffer.writableBytes();
+               count = protonTransport.output(channelBuffer.array(),
+                                              channelBuffer.arrayOffset() + channelBuffer.writerIndex(),
+                                              requested);
+               if (count > 0)
+               {
+                  channelBuffer.writerIndex(channelBuffer.writerIndex() + count);
+               }
+            }
+            else
             {
-               done = true;
+               requested = outputBuffer.length;
+               count = protonTransport.output(outputBuffer, 0, requested);
+               if (count > 0)
+               {
+                  buffer.writeBytes(outputBuffer, 0, count);
+               }
             }
          }
+         // proton fills the whole space given unless it has nothing more to send
+         while (count == requested);
+
+         connection.write(buffer);
       }
    }
 
@@ -425,15 +467,20 @@ public class ProtonRemotingConnection implements RemotingConnection
    }
 
    public void handleFrame(byte[] frame)
+   {
+      handleFrame(frame, 0, frame.length);
+   }
+
+   public void handleFrame(byte[] frame, int offset, int length)
    {
       int read = 0;
-      while (read < frame.length)
+      while (read < length)
       {
          synchronized (deliveryLock)
          {
             try
             {
-               int count = protonTransport.input(frame, read, frame.length - read);
+               int count = protonTransport.input(frame, offset + read, length - read);
                read += count;
             }
             catch (Exception e)
@@ -38,6 +38,7 @@ import org.hornetq.core.server.ServerSession;
 import org.hornetq.spi.core.protocol.SessionCallback;
 import org.hornetq.spi.core.remoting.ReadyListener;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -153,6 +154,12 @@ public class ProtonSession implements SessionCallback
       return 0;
    }
 
+   @Override
+   public int sendLargeMessageContinuation(long consumerID, File file, long position, int size, boolean continues)
+   {
+      return -1;
+   }
+
    @Override
    public void closed()
    {
@@ -342,12 +342,63 @@ public class ProtonUtils
 
    public static class OUTBOUND
    {
+      // the encoded header section is at most 20 bytes
+      private static final int HEADER_SIZE = 64;
+
       public static EncodedMessage transform(ServerMessage message, int deliveryCount)
       {
          long messageFormat = message.getLongProperty(MESSAGE_FORMAT);
          Integer size = message.getIntProperty(PROTON_MESSAGE_SIZE_SS);
 
          Header header = populateHeader(message, deliveryCount);
+         MessageImpl protonMessage = createMessage(message, header);
+         ByteBuffer buffer = encode(protonMessage, size);
+
+         return new EncodedMessage(messageFormat, buffer.array(), 0, buffer.position());
+      }
+
+      /**
+       * Encodes the header section, the only part of the message that changes from one delivery to
+       * the next.
+       */
+      public static byte[] encodeHeader(ServerMessage message, int deliveryCount)
+      {
+         MessageImpl protonMessage = new MessageImpl(populateHeader(message, deliveryCount), null, null, null, null, null, null);
+         ByteBuffer buffer = encode(protonMessage, HEADER_SIZE);
+         byte[] header = new byte[buffer.position()];
+         System.arraycopy(buffer.array(), 0, header, 0, header.length);
+         return header;
+      }
+
+      /**
+       * Encodes every section but the header. The encoding is kept on a message routed to more than
+       * one queue so that it is done only once whatever the number of AMQP consumers it is delivered to.
+       */
+      public static EncodedMessage encodeSections(ServerMessage message)
+      {
+         Object cached = message.getProtocolData();
+         if (cached instanceof EncodedMessage)
+         {
+            return (EncodedMessage) cached;
+         }
+
+         long messageFormat = message.getLongProperty(MESSAGE_FORMAT);
+         Integer size = message.getIntProperty(PROTON_MESSAGE_SIZE_SS);
+
+         ByteBuffer buffer = encode(createMessage(message, null), size);
+         EncodedMessage encodedMessage = new EncodedMessage(messageFormat, buffer.array(), 0, buffer.position());
+
+         if (message.getRefCount() > 1)
+         {
+            // the whole array is kept, so that is what counts against the address
+            message.setProtocolData(encodedMessage, buffer.capacity());
+         }
+
+         return encodedMessage;
+      }
+
+      private static MessageImpl createMessage(ServerMessage message, Header header)
+      {
          DeliveryAnnotations deliveryAnnotations = populateDeliveryAnnotations(message);
          MessageAnnotations messageAnnotations = populateMessageAnnotations(message);
          Properties props = populateProperties(message);
@@ -369,16 +420,23 @@ public class ProtonUtils
          }
          MessageImpl protonMessage = new MessageImpl(header, deliveryAnnotations, messageAnnotations, props, applicationProperties, section, footer);
          protonMessage.setMessageFormat(getMessageFormat(message.getLongProperty(new SimpleString(PROTON_MESSAGE_FORMAT))));
+         return protonMessage;
+      }
+
+      /*
+      * the returned buffer is positioned at the end of the encoded message
+      * */
+      private static ByteBuffer encode(MessageImpl protonMessage, int size)
+      {
          ByteBuffer buffer = ByteBuffer.wrap(new byte[size]);
          final DroppingWritableBuffer overflow = new DroppingWritableBuffer();
-         int c = protonMessage.encode(new CompositeWritableBuffer(new WritableBuffer.ByteBufferWrapper(buffer), overflow));
+         protonMessage.encode(new CompositeWritableBuffer(new WritableBuffer.ByteBufferWrapper(buffer), overflow));
          if (overflow.position() > 0)
          {
-            buffer = ByteBuffer.wrap(new byte[1024 * 4 + overflow.position()]);
-            c = protonMessage.encode(new WritableBuffer.ByteBufferWrapper(buffer));
+            buffer = ByteBuffer.wrap(new byte[size + overflow.position()]);
+            protonMessage.encode(new WritableBuffer.ByteBufferWrapper(buffer));
          }
-
-         return new EncodedMessage(messageFormat, buffer.array(), 0, c);
+         return buffer;
       }
 
       private static Header populateHeader(ServerMessage message, int deliveryCount)
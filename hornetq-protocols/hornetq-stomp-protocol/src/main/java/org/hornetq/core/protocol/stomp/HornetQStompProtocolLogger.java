@@ -43,4 +43,8 @@ public interface HornetQStompProtocolLogger
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 224023, value = "Unable to send frame {0}", format = Message.Format.MESSAGE_FORMAT)
    void errorSendingFrame(@Cause Exception e, StompFrame frame);
+
+   @LogMessage(level = Logger.Level.ERROR)
+   @Message(id = 224068, value = "Unable to stream large message {0}", format = Message.Format.MESSAGE_FORMAT)
+   void errorStreamingLargeMessage(@Cause Exception e, long messageID);
 }
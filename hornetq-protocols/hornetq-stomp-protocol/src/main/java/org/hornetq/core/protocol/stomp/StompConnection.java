@@ -91,6 +91,12 @@ public final class StompConnection implements RemotingConnection
 
    private int minLargeMessageSize;
 
+   // while the body of a large message is being streamed, other frames are deferred
+   // so that they are not written in the middle of it
+   private boolean streamingLargeMessage;
+
+   private final List<HornetQBuffer> deferredFrames = new ArrayList<HornetQBuffer>();
+
    public StompFrame decode(HornetQBuffer buffer) throws HornetQStompException
    {
       StompFrame frame = null;
@@ -782,7 +788,14 @@ public final class StompConnection implements RemotingConnection
       HornetQBuffer buffer = frame.toHornetQBuffer();
       synchronized (sendLock)
       {
-         getTransportConnection().write(buffer, false, false);
+         if (streamingLargeMessage)
+         {
+            deferredFrames.add(buffer);
+         }
+         else
+         {
+            getTransportConnection().write(buffer, false, false);
+         }
       }
 
       if (stompListener != null)
@@ -792,6 +805,38 @@ public final class StompConnection implements RemotingConnection
 
    }
 
+   void beginLargeMessageStream(HornetQBuffer headers)
+   {
+      synchronized (sendLock)
+      {
+         streamingLargeMessage = true;
+         getTransportConnection().write(headers, false, false);
+      }
+   }
+
+   void writeLargeMessageStream(HornetQBuffer body)
+   {
+      synchronized (sendLock)
+      {
+         getTransportConnection().write(body, false, false);
+      }
+   }
+
+   void endLargeMessageStream(HornetQBuffer endOfFrame)
+   {
+      synchronized (sendLock)
+      {
+         Connection transport = getTransportConnection();
+         transport.write(endOfFrame, false, false);
+         streamingLargeMessage = false;
+         for (HornetQBuffer deferred : deferredFrames)
+         {
+            transport.write(deferred, false, false);
+         }
+         deferredFrames.clear();
+      }
+   }
+
    public VersionedStompFrameHandler getFrameHandler()
    {
       return this.frameHandler;
@@ -148,6 +148,17 @@ public class StompFrame
       return buffer;
    }
 
+   /**
+    * Encodes the command and the headers only, for frames whose body is written separately.
+    */
+   public HornetQBuffer toHornetQBufferHeaders() throws Exception
+   {
+      HornetQBuffer headersBuffer = toHornetQBuffer();
+      // every frame version terminates the encoding with END_OF_FRAME, which is sent after the body
+      headersBuffer.writerIndex(headersBuffer.writerIndex() - END_OF_FRAME.length);
+      return headersBuffer;
+   }
+
    public String getHeader(String key)
    {
       return headers.get(key);
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2010 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.core.protocol.stomp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.hornetq.api.core.HornetQBuffer;
+import org.hornetq.api.core.HornetQBuffers;
+import org.hornetq.utils.DataConstants;
+
+/**
+ * The MESSAGE frame of a large message being delivered to a STOMP subscription.
+ * <p>
+ * The body is encoded chunk by chunk as the server consumer reads it from the large message file,
+ * inflating it incrementally if it was compressed and converting text bodies to UTF-8, so the
+ * whole body is never held in memory.
+ * <p>
+ * Only one large message at a time can be streamed on a connection. A stream created while another
+ * one is in progress keeps its encoded chunks until it is {@link #activate() activated}. Its consumer
+ * is paused meanwhile, so it keeps at most one chunk.
+ */
+final class StompLargeMessageStream
+{
+   private static final byte[] END_OF_FRAME = new byte[] { 0, '\n' };
+
+   // the nullable SimpleString prefix of a text body: the null flag followed by the length
+   private static final int TEXT_PREFIX_SIZE = DataConstants.SIZE_BOOLEAN + DataConstants.SIZE_INT;
+
+   private final StompConnection connection;
+
+   private final long consumerID;
+
+   private final long messageID;
+
+   private final HornetQBuffer headers;
+
+   private final boolean text;
+
+   private final Inflater inflater;
+
+   private final byte[] inflated;
+
+   private final List<HornetQBuffer> pending = new ArrayList<HornetQBuffer>();
+
+   private boolean active;
+
+   private boolean complete;
+
+   // the size of what the current call to encode wrote or kept
+   private int encodedSize;
+
+   private int textPrefixRead;
+
+   private boolean nullText;
+
+   // low byte of a text character split between two chunks
+   private int lowByte = -1;
+
+   // high surrogate waiting for its low surrogate in the next character
+   private char highSurrogate;
+
+   StompLargeMessageStream(final StompConnection connection,
+                           final long consumerID,
+                           final long messageID,
+                           final HornetQBuffer headers,
+                           final boolean text,
+                           final boolean compressed,
+                           final int chunkSize)
+   {
+      this.connection = connection;
+      this.consumerID = consumerID;
+      this.messageID = messageID;
+      this.headers = headers;
+      this.text = text;
+      if (compressed)
+      {
+         inflater = new Inflater();
+         inflated = new byte[chunkSize];
+      }
+      else
+      {
+         inflater = null;
+         inflated = null;
+      }
+   }
+
+   long getConsumerID()
+   {
+      return consumerID;
+   }
+
+   long getMessageID()
+   {
+      return messageID;
+   }
+
+   boolean isActive()
+   {
+      return active;
+   }
+
+   boolean isComplete()
+   {
+      return complete;
+   }
+
+   /**
+    * Starts writing this frame to the wire, including whatever was encoded while it was waiting.
+    * @return the size of the chunks encoded while waiting
+    */
+   int activate()
+   {
+      active = true;
+      connection.beginLargeMessageStream(headers);
+      int pendingSize = 0;
+      for (HornetQBuffer buffer : pending)
+      {
+         pendingSize += buffer.readableBytes();
+         connection.writeLargeMessageStream(buffer);
+      }
+      pending.clear();
+      if (complete)
+      {
+         connection.endLargeMessageStream(HornetQBuffers.wrappedBuffer(END_OF_FRAME));
+      }
+      return pendingSize;
+   }
+
+   /**
+    * Encodes the next chunk of the large message body.
+    * @return the size of the chunk once encoded
+    */
+   int encode(final byte[] chunk) throws DataFormatException
+   {
+      encodedSize = 0;
+      if (inflater == null)
+      {
+         encodeBody(chunk, 0, chunk.length, false);
+      }
+      else
+      {
+         inflater.setInput(chunk);
+         int inflatedLength;
+         while ((inflatedLength = inflater.inflate(inflated)) > 0)
+         {
+            encodeBody(inflated, 0, inflatedLength, true);
+         }
+      }
+      return encodedSize;
+   }
+
+   /**
+    * Terminates the frame, this is also used when the body could not be fully delivered.
+    */
+   void end()
+   {
+      if (complete)
+      {
+         return;
+      }
+
+      complete = true;
+
+      if (highSurrogate != 0)
+      {
+         HornetQBuffer buffer = connection.getTransportConnection().createBuffer(1);
+         writeCodePoint(buffer, '?');
+         write(buffer);
+      }
+
+      if (inflater != null)
+      {
+         inflater.end();
+      }
+
+      if (active)
+      {
+         connection.endLargeMessageStream(HornetQBuffers.wrappedBuffer(END_OF_FRAME));
+      }
+   }
+
+   private void encodeBody(final byte[] bytes, final int offset, final int length, final boolean copy)
+   {
+      if (text)
+      {
+         encodeText(bytes, offset, length);
+      }
+      else if (copy)
+      {
+         HornetQBuffer buffer = connection.getTransportConnection().createBuffer(length);
+         buffer.writeBytes(bytes, offset, length);
+         write(buffer);
+      }
+      else
+      {
+         write(HornetQBuffers.wrappedBuffer(bytes));
+      }
+   }
+
+   /**
+    * Text bodies are nullable SimpleStrings (two bytes per character, low byte first)
+    * that are sent as UTF-8.
+    */
+   private void encodeText(final byte[] bytes, final int offset, final int length)
+   {
+      int pos = offset;
+      int end = offset + length;
+
+      while (textPrefixRead < TEXT_PREFIX_SIZE && pos < end)
+      {
+         if (textPrefixRead == 0 && bytes[pos] == DataConstants.NULL)
+         {
+            nullText = true;
+         }
+         textPrefixRead++;
+         pos++;
+      }
+
+      if (nullText || pos == end)
+      {
+         return;
+      }
+
+      HornetQBuffer buffer = connection.getTransportConnection().createBuffer((end - pos + 1) / 2 * 3 + 4);
+
+      while (pos < end)
+      {
+         if (lowByte == -1)
+         {
+            lowByte = bytes[pos++] & 0xFF;
+            continue;
+         }
+
+         char c = (char)(lowByte | bytes[pos++] << 8 & 0xFF00);
+         lowByte = -1;
+
+         if (highSurrogate != 0)
+         {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c))
+            {
+               writeCodePoint(buffer, Character.toCodePoint(high, c));
+               continue;
+            }
+            writeCodePoint(buffer, '?');
+         }
+
+         if (Character.isHighSurrogate(c))
+         {
+            highSurrogate = c;
+         }
+         else if (Character.isLowSurrogate(c))
+         {
+            writeCodePoint(buffer, '?');
+         }
+         else
+         {
+            writeCodePoint(buffer, c);
+         }
+      }
+
+      if (buffer.writerIndex() > 0)
+      {
+         write(buffer);
+      }
+   }
+
+   private static void writeCodePoint(final HornetQBuffer buffer, final int codePoint)
+   {
+      if (codePoint < 0x80)
+      {
+         buffer.writeByte((byte)codePoint);
+      }
+      else if (codePoint < 0x800)
+      {
+         buffer.writeByte((byte)(0xC0 | codePoint >> 6));
+         buffer.writeByte((byte)(0x80 | codePoint & 0x3F));
+      }
+      else if (codePoint < 0x10000)
+      {
+         buffer.writeByte((byte)(0xE0 | codePoint >> 12));
+         buffer.writeByte((byte)(0x80 | codePoint >> 6 & 0x3F));
+         buffer.writeByte((byte)(0x80 | codePoint & 0x3F));
+      }
+      else
+      {
+         buffer.writeByte((byte)(0xF0 | codePoint >> 18));
+         buffer.writeByte((byte)(0x80 | codePoint >> 12 & 0x3F));
+         buffer.writeByte((byte)(0x80 | codePoint >> 6 & 0x3F));
+         buffer.writeByte((byte)(0x80 | codePoint & 0x3F));
+      }
+   }
+
+   private void write(final HornetQBuffer buffer)
+   {
+      encodedSize += buffer.readableBytes();
+      if (active)
+      {
+         connection.writeLargeMessageStream(buffer);
+      }
+      else
+      {
+         pending.add(buffer);
+      }
+   }
+
+   @Override
+   public String toString()
+   {
+      return "StompLargeMessageStream[consumerID=" + consumerID + ", messageID=" + messageID + "]";
+   }
+}
@@ -12,7 +12,9 @@
  */
 package org.hornetq.core.protocol.stomp;
 
+import java.io.File;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,14 +24,13 @@ import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.api.core.Message;
 import org.hornetq.api.core.Pair;
 import org.hornetq.api.core.SimpleString;
-import org.hornetq.core.message.BodyEncoder;
 import org.hornetq.core.message.impl.MessageImpl;
 import org.hornetq.core.persistence.OperationContext;
 import org.hornetq.core.persistence.StorageManager;
-import org.hornetq.core.persistence.impl.journal.LargeServerMessageImpl;
 import org.hornetq.core.remoting.impl.netty.TransportConstants;
 import org.hornetq.core.server.LargeServerMessage;
 import org.hornetq.core.server.QueueQueryResult;
+import org.hornetq.core.server.ServerConsumer;
 import org.hornetq.core.server.ServerMessage;
 import org.hornetq.core.server.ServerSession;
 import org.hornetq.core.server.impl.ServerMessageImpl;
@@ -64,6 +65,22 @@ public class StompSession implements SessionCallback
 
    private final int consumerCredits;
 
+   // key = consumer ID, value = the large message being delivered to that consumer
+   private final Map<Long, StompLargeMessageStream> largeMessageStreams = new ConcurrentHashMap<Long, StompLargeMessageStream>();
+
+   // large messages waiting for the one being streamed on the connection to be complete
+   private final LinkedList<StompLargeMessageStream> waitingStreams = new LinkedList<StompLargeMessageStream>();
+
+   private StompLargeMessageStream currentStream;
+
+   private final Object streamLock = new Object();
+
+   // key = consumer ID, used to pause the delivery of large messages that have to wait for the wire
+   private final Map<Long, ConsumerReadyListener> consumerReadyListeners = new ConcurrentHashMap<Long, ConsumerReadyListener>();
+
+   // the last writability of the transport connection
+   private volatile boolean writable = true;
+
    StompSession(final StompConnection connection, final StompProtocolManager manager, OperationContext sessionContext)
    {
       this.connection = connection;
@@ -94,29 +111,18 @@ public class StompSession implements SessionCallback
 
    public int sendMessage(ServerMessage serverMessage, long consumerID, int deliveryCount)
    {
-      LargeServerMessageImpl largeMessage = null;
       ServerMessage newServerMessage = serverMessage;
       try
       {
          StompSubscription subscription = subscriptions.get(consumerID);
          StompFrame frame = null;
-         if (serverMessage.isLargeMessage())
-         {
-            newServerMessage = serverMessage.copy();
-
-            largeMessage = (LargeServerMessageImpl)serverMessage;
-            BodyEncoder encoder = largeMessage.getBodyEncoder();
-            encoder.open();
-            int bodySize = (int)encoder.getLargeBodySize();
-
-            //large message doesn't have a body.
-            ((ServerMessageImpl)newServerMessage).createBody(bodySize);
-            encoder.encode(newServerMessage.getBodyBuffer(), bodySize);
-            encoder.close();
-         }
 
+         // large messages are streamed through sendLargeMessage, this is a compressed
+         // large message that ended up small enough to be sent as a regular message
          if (serverMessage.getBooleanProperty(Message.HDR_LARGE_COMPRESSED))
          {
+            newServerMessage = serverMessage.copy();
+
             //decompress
             HornetQBuffer qbuff = newServerMessage.getBodyBuffer();
             int bytesToRead = qbuff.writerIndex() - MessageImpl.BODY_OFFSET;
@@ -161,25 +167,212 @@ public class StompSession implements SessionCallback
       {
          return 0;
       }
-      finally
+
+   }
+
+   /**
+    * Sends the headers of a large message, its body follows through {@link #sendLargeMessageContinuation}
+    * as the server consumer reads it from the large message file.
+    * <p>
+    * Each chunk of the body is taken out of the consumer credits, which are given back once the chunk is on
+    * the wire as the client cannot ack and send credits back before it has received the whole frame.
+    */
+   public int sendLargeMessage(ServerMessage msg, long consumerID, long bodySize, int deliveryCount)
+   {
+      try
       {
-         if (largeMessage != null)
+         if (connection.isDestroyed())
+         {
+            return 0;
+         }
+
+         StompSubscription subscription = subscriptions.get(consumerID);
+
+         boolean compressed = msg.getBooleanProperty(Message.HDR_LARGE_COMPRESSED);
+
+         boolean text = !msg.containsProperty(Stomp.Headers.CONTENT_LENGTH) && msg.getType() != Message.BYTES_TYPE;
+
+         long contentLength = -1;
+         if (!text)
          {
-            largeMessage.releaseResources();
-            largeMessage = null;
+            contentLength = compressed ? msg.getLongProperty(Message.HDR_LARGE_BODY_SIZE) : bodySize;
+         }
+
+         StompFrame frame = connection.getFrameHandler().createLargeMessageFrame(msg,
+                                                                                 subscription,
+                                                                                 deliveryCount,
+                                                                                 contentLength);
+
+         StompLargeMessageStream stream = new StompLargeMessageStream(connection,
+                                                                      consumerID,
+                                                                      msg.getMessageID(),
+                                                                      frame.toHornetQBufferHeaders(),
+                                                                      text,
+                                                                      compressed,
+                                                                      session.getMinLargeMessageSize());
+
+         if (!subscription.getAck().equals(Stomp.Headers.Subscribe.AckModeValues.AUTO))
+         {
+            messagesToAck.put(msg.getMessageID(), new Pair<Long, Integer>(consumerID, 0));
+         }
+
+         synchronized (streamLock)
+         {
+            largeMessageStreams.put(consumerID, stream);
+
+            if (currentStream == null)
+            {
+               currentStream = stream;
+               stream.activate();
+            }
+            else
+            {
+               waitingStreams.add(stream);
+               setConsumerReady(consumerID, false);
+            }
          }
       }
+      catch (Exception e)
+      {
+         HornetQStompProtocolLogger.LOGGER.errorStreamingLargeMessage(e, msg.getMessageID());
+      }
 
+      return 0;
    }
 
    public int sendLargeMessageContinuation(long consumerID, byte[] body, boolean continues, boolean requiresResponse)
    {
-      return 0;
+      StompLargeMessageStream stream = largeMessageStreams.get(consumerID);
+
+      if (stream == null)
+      {
+         return 0;
+      }
+
+      int size = 0;
+
+      try
+      {
+         boolean written;
+
+         synchronized (streamLock)
+         {
+            size = stream.encode(body);
+            written = stream.isActive();
+         }
+
+         if (written)
+         {
+            chunksWritten(stream, size);
+         }
+
+         if (!continues)
+         {
+            endLargeMessageStream(stream);
+
+            StompSubscription subscription = subscriptions.get(consumerID);
+
+            if (subscription.getAck().equals(Stomp.Headers.Subscribe.AckModeValues.AUTO) && !connection.isDestroyed())
+            {
+               session.acknowledge(consumerID, stream.getMessageID());
+               session.commit();
+            }
+         }
+      }
+      catch (Exception e)
+      {
+         HornetQStompProtocolLogger.LOGGER.errorStreamingLargeMessage(e, stream.getMessageID());
+
+         endLargeMessageStream(stream);
+      }
+
+      return size;
    }
 
-   public int sendLargeMessage(ServerMessage msg, long consumerID, long bodySize, int deliveryCount)
+   public int sendLargeMessageContinuation(long consumerID, File file, long position, int size, boolean continues)
    {
-      return 0;
+      // the body is re-encoded into STOMP frames
+      return -1;
+   }
+
+   /**
+    * Completes the frame and hands the wire over to the next large message waiting for it.
+    */
+   private void endLargeMessageStream(StompLargeMessageStream stream)
+   {
+      largeMessageStreams.remove(stream.getConsumerID());
+
+      synchronized (streamLock)
+      {
+         stream.end();
+
+         if (stream != currentStream)
+         {
+            return;
+         }
+
+         currentStream = null;
+
+         while (currentStream == null && !waitingStreams.isEmpty())
+         {
+            StompLargeMessageStream next = waitingStreams.removeFirst();
+
+            chunksWritten(next, next.activate());
+
+            if (next.isComplete())
+            {
+               continue;
+            }
+
+            currentStream = next;
+
+            setConsumerReady(next.getConsumerID(), true);
+         }
+      }
+   }
+
+   /**
+    * Gives back the credits taken by chunks of a large message that are now on the wire.
+    */
+   private void chunksWritten(StompLargeMessageStream stream, int size)
+   {
+      StompSubscription subscription = subscriptions.get(stream.getConsumerID());
+
+      if (size <= 0 || consumerCredits == -1 || subscription == null ||
+          subscription.getAck().equals(Stomp.Headers.Subscribe.AckModeValues.AUTO))
+      {
+         return;
+      }
+
+      try
+      {
+         session.receiveConsumerCredits(stream.getConsumerID(), size);
+      }
+      catch (Exception e)
+      {
+         HornetQStompProtocolLogger.LOGGER.errorStreamingLargeMessage(e, stream.getMessageID());
+      }
+   }
+
+   private void setConsumerReady(long consumerID, boolean ready)
+   {
+      ConsumerReadyListener listener = consumerReadyListeners.get(consumerID);
+      if (listener != null)
+      {
+         listener.delegate.readyForWriting(ready && writable);
+      }
+   }
+
+   /**
+    * @return whether the consumer has a large message waiting for the one being streamed on the connection
+    */
+   private boolean isWaiting(long consumerID)
+   {
+      synchronized (streamLock)
+      {
+         StompLargeMessageStream stream = largeMessageStreams.get(consumerID);
+         return stream != null && !stream.isActive();
+      }
    }
 
    public void closed()
@@ -188,12 +381,29 @@ public class StompSession implements SessionCallback
 
    public void addReadyListener(final ReadyListener listener)
    {
-      connection.getTransportConnection().addReadyListener(listener);
+      ReadyListener transportListener = listener;
+      if (listener instanceof ServerConsumer)
+      {
+         long consumerID = ((ServerConsumer)listener).getID();
+         ConsumerReadyListener consumerListener = new ConsumerReadyListener(consumerID, listener);
+         consumerReadyListeners.put(consumerID, consumerListener);
+         transportListener = consumerListener;
+      }
+      connection.getTransportConnection().addReadyListener(transportListener);
    }
 
    public void removeReadyListener(final ReadyListener listener)
    {
-      connection.getTransportConnection().removeReadyListener(listener);
+      ReadyListener transportListener = listener;
+      if (listener instanceof ServerConsumer)
+      {
+         ConsumerReadyListener consumerListener = consumerReadyListeners.remove(((ServerConsumer)listener).getID());
+         if (consumerListener != null)
+         {
+            transportListener = consumerListener;
+         }
+      }
+      connection.getTransportConnection().removeReadyListener(transportListener);
    }
 
    public void acknowledge(String messageID, String subscriptionID) throws Exception
@@ -219,7 +429,7 @@ public class StompSession implements SessionCallback
          }
       }
 
-      if (this.consumerCredits != -1)
+      if (this.consumerCredits != -1 && credits > 0)
       {
          session.receiveConsumerCredits(consumerID, credits);
       }
@@ -266,11 +476,11 @@ public class StompSession implements SessionCallback
             queue = UUIDGenerator.getInstance().generateSimpleStringUUID();
             session.createQueue(SimpleString.toSimpleString(destination), queue, SimpleString.toSimpleString(selector), true, false);
          }
-        ((ServerSessionImpl)session).createConsumer(consumerID, queue, null, false, false);
+        ((ServerSessionImpl)session).createConsumer(consumerID, queue, null, false, true);
       } 
       else 
       {
-        ((ServerSessionImpl)session).createConsumer(consumerID, queue, SimpleString.toSimpleString(selector), false, false);
+        ((ServerSessionImpl)session).createConsumer(consumerID, queue, SimpleString.toSimpleString(selector), false, true);
       }
 
       StompSubscription subscription = new StompSubscription(subscriptionID, ack);
@@ -300,6 +510,12 @@ public class StompSession implements SessionCallback
          {
             iterator.remove();
             session.closeConsumer(consumerID);
+            StompLargeMessageStream stream = largeMessageStreams.get(consumerID);
+            if (stream != null)
+            {
+               // the consumer will not send the rest of the body, the frame is terminated as is
+               endLargeMessageStream(stream);
+            }
             SimpleString queueName;
             if (durableSubscriptionName != null && durableSubscriptionName.trim().length() != 0) {
                 queueName = SimpleString.toSimpleString(id + "." + durableSubscriptionName);
@@ -384,4 +600,26 @@ public class StompSession implements SessionCallback
       largeMessage = null;
    }
 
+   /**
+    * Keeps a consumer whose large message waits for the wire paused when the transport connection
+    * becomes writable again, so it does not read the body ahead.
+    */
+   private final class ConsumerReadyListener implements ReadyListener
+   {
+      private final long consumerID;
+
+      private final ReadyListener delegate;
+
+      ConsumerReadyListener(final long consumerID, final ReadyListener delegate)
+      {
+         this.consumerID = consumerID;
+         this.delegate = delegate;
+      }
+
+      public void readyForWriting(final boolean ready)
+      {
+         writable = ready;
+         delegate.readyForWriting(ready && !isWaiting(consumerID));
+      }
+   }
 }
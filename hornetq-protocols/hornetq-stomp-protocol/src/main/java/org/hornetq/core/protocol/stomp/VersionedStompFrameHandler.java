@@ -373,6 +373,33 @@ public abstract class VersionedStompFrameHandler
       return frame;
    }
 
+   /**
+    * Creates the MESSAGE frame of a large message without its body, which is streamed afterwards.
+    *
+    * @param contentLength the length of the body or -1 if it is unknown (text bodies are re-encoded as UTF-8)
+    */
+   public StompFrame createLargeMessageFrame(ServerMessage serverMessage,
+         StompSubscription subscription, int deliveryCount, long contentLength) throws Exception
+   {
+      StompFrame frame = createStompFrame(Stomp.Responses.MESSAGE);
+
+      if (subscription.getID() != null)
+      {
+         frame.addHeader(Stomp.Headers.Message.SUBSCRIPTION,
+               subscription.getID());
+      }
+
+      if (contentLength != -1)
+      {
+         frame.addHeader(Headers.CONTENT_LENGTH, String.valueOf(contentLength));
+      }
+
+      StompUtils.copyStandardHeadersFromMessageToFrame(serverMessage, frame,
+            deliveryCount);
+
+      return frame;
+   }
+
    /**
     * this method is called when a newer version of handler is created. It should
     * take over the state of the decoder of the existingHandler so that
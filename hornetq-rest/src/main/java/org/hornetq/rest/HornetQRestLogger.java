@@ -75,6 +75,10 @@ public interface HornetQRestLogger extends BasicLogger
    @Message(id = 182001, value = "shutdown REST subscription because of timeout for: {0}", format = Message.Format.MESSAGE_FORMAT)
    void shutdownRestSubscription(String id);
 
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 182002, value = "Failed to push message to {0}", format = Message.Format.MESSAGE_FORMAT)
+   void failedToPushMessage(@Cause Exception e, String uri);
+
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 184000, value = "Failed to load push store {0}, it is probably corrupted", format = Message.Format.MESSAGE_FORMAT)
    void errorLoadingStore(@Cause Exception e, String name);
@@ -90,4 +94,8 @@ public interface HornetQRestLogger extends BasicLogger
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 184003, value = "Error deleting Subscriber queue", format = Message.Format.MESSAGE_FORMAT)
    void errorDeletingSubscriberQueue(@Cause HornetQException e);
+
+   @LogMessage(level = Logger.Level.ERROR)
+   @Message(id = 184004, value = "Failed to acknowledge or roll back messages pushed to {0}", format = Message.Format.MESSAGE_FORMAT)
+   void errorCompletingPush(@Cause HornetQException e, XmlLink link);
 }
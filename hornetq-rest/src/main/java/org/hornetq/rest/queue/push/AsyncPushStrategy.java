@@ -0,0 +1,29 @@
+package org.hornetq.rest.queue.push;
+
+import org.hornetq.api.core.client.ClientMessage;
+
+/**
+ * A {@link PushStrategy} which can push a message without blocking the calling thread, so that a
+ * push consumer can have several messages in flight to a slow target.
+ */
+public interface AsyncPushStrategy extends PushStrategy
+{
+   /**
+    * Pushes the message in the background, retrying as {@link #push(ClientMessage)} does, and
+    * calls the callback once from another thread when done.
+    */
+   void push(ClientMessage message, Callback callback);
+
+   interface Callback
+   {
+      /**
+       * @param acknowledge {@code false} if unable to connect, as returned by {@link PushStrategy#push(ClientMessage)}
+       */
+      void completed(boolean acknowledge);
+
+      /**
+       * The message was not accepted by the target.
+       */
+      void failed(Exception e);
+   }
+}
@@ -15,11 +15,12 @@ import org.jboss.resteasy.spi.Link;
  */
 public class HornetQPushStrategy extends UriTemplateStrategy
 {
-   protected boolean initialized = false;
+   protected volatile boolean initialized = false;
 
    public void start() throws Exception
    {
       // initialize();
+      startPushExecutor();
    }
 
    protected void initialize()
@@ -58,7 +59,28 @@ public class HornetQPushStrategy extends UriTemplateStrategy
    @Override
    public boolean push(ClientMessage message)
    {
-      // we initialize lazily just in case target is in same VM
+      ensureInitialized();
+      return super.push(message);
+   }
+
+   @Override
+   public void push(ClientMessage message, Callback callback)
+   {
+      try
+      {
+         ensureInitialized();
+      }
+      catch (RuntimeException e)
+      {
+         callback.failed(e);
+         return;
+      }
+      super.push(message, callback);
+   }
+
+   // we initialize lazily just in case target is in same VM
+   private synchronized void ensureInitialized()
+   {
       if (!initialized)
       {
          try
@@ -71,6 +93,5 @@ public class HornetQPushStrategy extends UriTemplateStrategy
             throw new RuntimeException("Failed to initialize.", e);
          }
       }
-      return super.push(message);
    }
 }
@@ -11,6 +11,15 @@ public class PushConsumerMessageHandler implements MessageHandler
    private ClientSession session;
    private PushConsumer pushConsumer;
 
+   // serializes the acknowledgements and rollbacks of messages pushed asynchronously
+   private final Object sessionLock = new Object();
+
+   // state of the messages pushed asynchronously, guarded by itself
+   private final Object window = new Object();
+   private int inFlight;
+   private boolean rollbackPending;
+   private boolean disablePending;
+
    PushConsumerMessageHandler(PushConsumer pushConsumer, ClientSession session)
    {
       this.pushConsumer = pushConsumer;
@@ -22,6 +31,12 @@ public class PushConsumerMessageHandler implements MessageHandler
    {
       HornetQRestLogger.LOGGER.debug(this + ": receiving " + clientMessage);
 
+      if (pushConsumer.getRegistration().getMaxInFlight() > 1 && pushConsumer.getStrategy() instanceof AsyncPushStrategy)
+      {
+         pushAsync(clientMessage);
+         return;
+      }
+
       try
       {
          clientMessage.acknowledge();
@@ -66,4 +81,129 @@ public class PushConsumerMessageHandler implements MessageHandler
          }
       }
    }
+
+   /**
+    * Pushes the message without waiting for the target, unless there are already as many messages
+    * in flight as the registration allows.
+    * <p>
+    * A message is acknowledged on its own once pushed. When a push fails, no more messages are
+    * pushed until the ones in flight are done, the session is then rolled back so the failed
+    * messages, and those received in the meantime, are delivered again.
+    */
+   private void pushAsync(final ClientMessage clientMessage)
+   {
+      int maxInFlight = pushConsumer.getRegistration().getMaxInFlight();
+      synchronized (window)
+      {
+         while (!rollbackPending && inFlight >= maxInFlight)
+         {
+            try
+            {
+               window.wait();
+            }
+            catch (InterruptedException e)
+            {
+               throw new RuntimeException("Interrupted");
+            }
+         }
+         if (rollbackPending)
+         {
+            // the rollback will send it back to the queue
+            return;
+         }
+         inFlight++;
+      }
+
+      HornetQRestLogger.LOGGER.debug(this + ": pushing " + clientMessage + " via " + pushConsumer.getStrategy());
+      ((AsyncPushStrategy) pushConsumer.getStrategy()).push(clientMessage, new AsyncPushStrategy.Callback()
+      {
+         public void completed(boolean acknowledge)
+         {
+            pushed(clientMessage, acknowledge, !acknowledge);
+         }
+
+         public void failed(Exception e)
+         {
+            HornetQRestLogger.LOGGER.debug(PushConsumerMessageHandler.this + ": failed to push " + clientMessage, e);
+            pushed(clientMessage, false, false);
+         }
+      });
+   }
+
+   private void pushed(final ClientMessage clientMessage, boolean acknowledge, final boolean unableToConnect)
+   {
+      if (acknowledge)
+      {
+         try
+         {
+            synchronized (sessionLock)
+            {
+               HornetQRestLogger.LOGGER.debug("Acknowledging: " + clientMessage.getMessageID());
+               clientMessage.individualAcknowledge();
+               session.commit();
+            }
+         }
+         catch (HornetQException e)
+         {
+            HornetQRestLogger.LOGGER.errorCompletingPush(e, pushConsumer.getRegistration().getTarget());
+            acknowledge = false;
+         }
+      }
+
+      boolean rollback;
+      synchronized (window)
+      {
+         inFlight--;
+         if (!acknowledge)
+         {
+            rollbackPending = true;
+            disablePending |= unableToConnect;
+         }
+         rollback = rollbackPending && inFlight == 0;
+         window.notifyAll();
+      }
+
+      if (rollback)
+      {
+         rollback();
+      }
+   }
+
+   private void rollback()
+   {
+      boolean disable;
+      synchronized (sessionLock)
+      {
+         try
+         {
+            // the session is stopped first so that nothing is delivered until the rollback is done
+            session.stop();
+            session.rollback();
+         }
+         catch (HornetQException e)
+         {
+            HornetQRestLogger.LOGGER.errorCompletingPush(e, pushConsumer.getRegistration().getTarget());
+         }
+         synchronized (window)
+         {
+            rollbackPending = false;
+            disable = disablePending;
+            disablePending = false;
+         }
+         try
+         {
+            session.start();
+         }
+         catch (HornetQException e)
+         {
+            HornetQRestLogger.LOGGER.errorCompletingPush(e, pushConsumer.getRegistration().getTarget());
+         }
+      }
+
+      if (disable && pushConsumer.getRegistration().isDisableOnFailure())
+      {
+         HornetQRestLogger.LOGGER.errorPushingMessage(pushConsumer.getRegistration().getTarget());
+         pushConsumer.disableFromFailure();
+      }
+   }
 }
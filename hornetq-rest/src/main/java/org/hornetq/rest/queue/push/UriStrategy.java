@@ -32,12 +32,16 @@ import org.jboss.resteasy.client.core.executors.ApacheHttpClient4Executor;
 import org.jboss.resteasy.specimpl.UriBuilderImpl;
 
 import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
  * @version $Revision: 1 $
  */
-public class UriStrategy implements PushStrategy
+public class UriStrategy implements AsyncPushStrategy
 {
    ThreadSafeClientConnManager connManager = new ThreadSafeClientConnManager();
    protected HttpClient client = new DefaultHttpClient(connManager);
@@ -47,6 +51,7 @@ public class UriStrategy implements PushStrategy
    protected UriBuilder targetUri;
    protected String method;
    protected String contentType;
+   protected ScheduledExecutorService pushExecutor;
 
    UriStrategy()
    {
@@ -66,6 +71,21 @@ public class UriStrategy implements PushStrategy
       if (method == null) method = "POST";
       contentType = registration.getTarget().getType();
       targetUri = UriBuilderImpl.fromTemplate(registration.getTarget().getHref());
+      startPushExecutor();
+   }
+
+   /**
+    * Messages pushed asynchronously are sent by a pool with a thread and a connection for each
+    * message that can be in flight.
+    */
+   protected void startPushExecutor()
+   {
+      if (pushExecutor == null && registration.getMaxInFlight() > 1)
+      {
+         int maxInFlight = registration.getSessionCount() * registration.getMaxInFlight();
+         connManager.setDefaultMaxPerRoute(Math.max(connManager.getDefaultMaxPerRoute(), maxInFlight));
+         pushExecutor = Executors.newScheduledThreadPool(maxInFlight);
+      }
    }
 
    protected void initAuthentication()
@@ -94,104 +114,147 @@ public class UriStrategy implements PushStrategy
 
    public void stop()
    {
+      if (pushExecutor != null)
+      {
+         pushExecutor.shutdown();
+      }
       connManager.shutdown();
    }
 
    public boolean push(ClientMessage message)
    {
       HornetQRestLogger.LOGGER.debug("Pushing " + message);
-      String uri = createUri(message);
+      PushAttempt attempt = new PushAttempt(createUri(message));
       for (int i = 0; i < registration.getMaxRetries(); i++)
       {
-         long wait = registration.getRetryWaitMillis();
-         System.out.println("Creating request from " + uri);
-         ClientRequest request = executor.createRequest(uri);
-         request.followRedirects(false);
-         HornetQRestLogger.LOGGER.debug("Created request " + request);
-
-         for (XmlHttpHeader header : registration.getHeaders())
+         Boolean acknowledge = attempt(message, attempt);
+         if (acknowledge != null)
          {
-            HornetQRestLogger.LOGGER.debug("Setting XmlHttpHeader: " + header.getName() + "=" + header.getValue());
-            request.header(header.getName(), header.getValue());
+            return acknowledge;
          }
-         HttpMessageHelper.buildMessage(message, request, contentType);
-         ClientResponse<?> res = null;
          try
          {
-            HornetQRestLogger.LOGGER.debug(method + " " + uri);
-            res = request.httpMethod(method);
-            int status = res.getStatus();
-            HornetQRestLogger.LOGGER.debug("Status of push: " + status);
-            if (status == 503)
-            {
-               String retryAfter = res.getHeaders().getFirst("Retry-After");
-               if (retryAfter != null)
-               {
-                  wait = Long.parseLong(retryAfter) * 1000;
-               }
-            }
-            else if (status == 307)
-            {
-               uri = res.getLocation().getHref();
-               wait = 0;
-            }
-            else if ((status >= 200 && status < 299) || status == 303 || status == 304)
-            {
-               HornetQRestLogger.LOGGER.debug("Success");
-               return true;
-            }
-            else if (status >= 400)
-            {
-               switch (status)
-               {
-                  case 400: // these usually mean the message you are trying to send is crap, let dead letter logic take over
-                  case 411:
-                  case 412:
-                  case 413:
-                  case 414:
-                  case 415:
-                  case 416:
-                     throw new RuntimeException("Something is wrong with the message, status returned: " + status + " for push registration of URI: " + uri);
-                  case 401: // might as well consider these critical failures and abort.  Immediately signal to disable push registration depending on config
-                  case 402:
-                  case 403:
-                  case 405:
-                  case 406:
-                  case 407:
-                  case 417:
-                  case 505:
-                     return false;
-                  case 404:  // request timeout, gone, and not found treat as a retry
-                  case 408:
-                  case 409:
-                  case 410:
-                     break;
-                  default: // all 50x requests just retry (except 505)
-                     break;
-               }
-            }
+            if (attempt.wait > 0) Thread.sleep(attempt.wait);
          }
-         catch (Exception e)
+         catch (InterruptedException e)
          {
-            HornetQRestLogger.LOGGER.debug("failed to push message to " + uri, e);
-            e.printStackTrace();
-            return false;
+            throw new RuntimeException("Interrupted");
          }
-         finally
+      }
+      return false;
+   }
+
+   public void push(ClientMessage message, Callback callback)
+   {
+      HornetQRestLogger.LOGGER.debug("Pushing asynchronously " + message);
+      try
+      {
+         pushExecutor.execute(new AsyncPush(message, new PushAttempt(createUri(message)), callback));
+      }
+      catch (RuntimeException e)
+      {
+         callback.failed(e);
+      }
+   }
+
+   /**
+    * Makes one attempt at pushing the message.
+    *
+    * @return whether the message can be acknowledged, or {@code null} if it has to be pushed again
+    * after {@link PushAttempt#wait}, possibly to another {@link PushAttempt#uri}
+    */
+   protected Boolean attempt(ClientMessage message, PushAttempt attempt)
+   {
+      String uri = attempt.uri;
+      attempt.wait = registration.getRetryWaitMillis();
+      HornetQRestLogger.LOGGER.debug("Creating request from " + uri);
+      ClientRequest request = createRequest(uri);
+      request.followRedirects(false);
+      HornetQRestLogger.LOGGER.debug("Created request " + request);
+
+      for (XmlHttpHeader header : registration.getHeaders())
+      {
+         HornetQRestLogger.LOGGER.debug("Setting XmlHttpHeader: " + header.getName() + "=" + header.getValue());
+         request.header(header.getName(), header.getValue());
+      }
+      HttpMessageHelper.buildMessage(message, request, contentType);
+      ClientResponse<?> res = null;
+      try
+      {
+         HornetQRestLogger.LOGGER.debug(method + " " + uri);
+         res = request.httpMethod(method);
+         int status = res.getStatus();
+         HornetQRestLogger.LOGGER.debug("Status of push: " + status);
+         if (status == 503)
          {
-            if (res != null)
-               res.releaseConnection();
+            String retryAfter = res.getHeaders().getFirst("Retry-After");
+            if (retryAfter != null)
+            {
+               attempt.wait = Long.parseLong(retryAfter) * 1000;
+            }
          }
-         try
+         else if (status == 307)
          {
-            if (wait > 0) Thread.sleep(wait);
+            attempt.uri = res.getLocation().getHref();
+            attempt.wait = 0;
          }
-         catch (InterruptedException e)
+         else if ((status >= 200 && status < 299) || status == 303 || status == 304)
          {
-            throw new RuntimeException("Interrupted");
+            HornetQRestLogger.LOGGER.debug("Success");
+            return true;
+         }
+         else if (status >= 400)
+         {
+            switch (status)
+            {
+               case 400: // these usually mean the message you are trying to send is crap, let dead letter logic take over
+               case 411:
+               case 412:
+               case 413:
+               case 414:
+               case 415:
+               case 416:
+                  throw new RuntimeException("Something is wrong with the message, status returned: " + status + " for push registration of URI: " + uri);
+               case 401: // might as well consider these critical failures and abort.  Immediately signal to disable push registration depending on config
+               case 402:
+               case 403:
+               case 405:
+               case 406:
+               case 407:
+               case 417:
+               case 505:
+                  return false;
+               case 404:  // request timeout, gone, and not found treat as a retry
+               case 408:
+               case 409:
+               case 410:
+                  break;
+               default: // all 50x requests just retry (except 505)
+                  break;
+            }
          }
       }
-      return false;
+      catch (Exception e)
+      {
+         HornetQRestLogger.LOGGER.failedToPushMessage(e, uri);
+         return false;
+      }
+      finally
+      {
+         if (res != null)
+            res.releaseConnection();
+      }
+      return null;
+   }
+
+   protected ClientRequest createRequest(String uri)
+   {
+      if (localContext == null)
+      {
+         return executor.createRequest(uri);
+      }
+      // the context keeps the state of the request it is used for, concurrent requests can't share it
+      return new ApacheHttpClient4Executor(client, new BasicHttpContext(localContext)).createRequest(uri);
    }
 
    protected String createUri(ClientMessage message)
@@ -200,6 +263,73 @@ public class UriStrategy implements PushStrategy
       return uri;
    }
 
+   protected static class PushAttempt
+   {
+      protected String uri;
+      protected long wait;
+
+      PushAttempt(String uri)
+      {
+         this.uri = uri;
+      }
+   }
+
+   /**
+    * Pushes a message without holding a thread between its attempts, the next one is scheduled
+    * once the wait is over.
+    */
+   private class AsyncPush implements Runnable
+   {
+      private final ClientMessage message;
+      private final PushAttempt attempt;
+      private final Callback callback;
+      private int attempts;
+
+      AsyncPush(ClientMessage message, PushAttempt attempt, Callback callback)
+      {
+         this.message = message;
+         this.attempt = attempt;
+         this.callback = callback;
+      }
+
+      public void run()
+      {
+         if (attempts++ >= registration.getMaxRetries())
+         {
+            callback.completed(false);
+            return;
+         }
+
+         Boolean acknowledge;
+         try
+         {
+            acknowledge = attempt(message, attempt);
+         }
+         catch (RuntimeException e)
+         {
+            callback.failed(e);
+            return;
+         }
+
+         if (acknowledge != null)
+         {
+            callback.completed(acknowledge);
+         }
+         else
+         {
+            try
+            {
+               pushExecutor.schedule(this, attempt.wait, TimeUnit.MILLISECONDS);
+            }
+            catch (RejectedExecutionException e)
+            {
+               // the strategy has been stopped
+               callback.completed(false);
+            }
+         }
+      }
+   }
+
    static class PreemptiveAuth implements HttpRequestInterceptor
    {
       public void process(final HttpRequest request, final HttpContext context) throws HttpException, IOException
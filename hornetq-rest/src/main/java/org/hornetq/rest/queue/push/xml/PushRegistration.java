@@ -19,7 +19,7 @@ import javax.xml.bind.annotation.XmlType;
  */
 @XmlRootElement(name = "push-registration")
 @XmlAccessorType(XmlAccessType.PROPERTY)
-@XmlType(propOrder = {"enabled", "destination", "durable", "selector", "target", "maxRetries", "retryWaitMillis", "disableOnFailure", "authenticationMechanism", "headers", "sessionCount"})
+@XmlType(propOrder = {"enabled", "destination", "durable", "selector", "target", "maxRetries", "retryWaitMillis", "disableOnFailure", "authenticationMechanism", "headers", "sessionCount", "maxInFlight"})
 public class PushRegistration implements Serializable
 {
    private static final long serialVersionUID = -2749818399978544262L;
@@ -36,6 +36,7 @@ public class PushRegistration implements Serializable
    private int maxRetries = 10;
    private boolean enabled = true;
    private int sessionCount = 1;
+   private int maxInFlight = 1;
 
    @XmlElement
    public int getMaxRetries()
@@ -179,6 +180,22 @@ public class PushRegistration implements Serializable
       this.sessionCount = sessionCount;
    }
 
+   /**
+    * The number of messages each session may have pushed to the target and not yet acknowledged
+    * by it. With more than one, messages are pushed concurrently and may reach the target out of
+    * order.
+    */
+   @XmlElement
+   public int getMaxInFlight()
+   {
+      return maxInFlight;
+   }
+
+   public void setMaxInFlight(int maxInFlight)
+   {
+      this.maxInFlight = maxInFlight;
+   }
+
    @Override
    public String toString()
    {
@@ -194,6 +211,7 @@ public class PushRegistration implements Serializable
               ", disableOnFailure=" + disableOnFailure +
               ", maxRetries=" + maxRetries +
               ", sessionCount=" + sessionCount +
+              ", maxInFlight=" + maxInFlight +
               ", enabled=" + enabled +
               '}';
    }
@@ -198,6 +198,38 @@ public class PushQueueConsumerTest extends MessageTestBase
       }
    }
 
+   @Path("/myInFlight")
+   public static class MyInFlightResource
+   {
+      public static AtomicInteger receivedInvocations = new AtomicInteger();
+      public static AtomicInteger concurrentInvocations = new AtomicInteger();
+      public static AtomicInteger maxConcurrentInvocations = new AtomicInteger();
+
+      @PUT
+      public void put(String str)
+      {
+         int concurrent = concurrentInvocations.incrementAndGet();
+
+         int max = maxConcurrentInvocations.get();
+         while (concurrent > max && !maxConcurrentInvocations.compareAndSet(max, concurrent))
+         {
+            max = maxConcurrentInvocations.get();
+         }
+         try
+         {
+            // sleep here so the in-flight pushes can stack up
+            Thread.sleep(1000);
+         }
+         catch (InterruptedException e)
+         {
+            e.printStackTrace();
+         }
+
+         concurrentInvocations.getAndDecrement();
+         receivedInvocations.getAndIncrement();
+      }
+   }
+
    @Test
    public void testUri() throws Exception
    {
@@ -276,6 +308,135 @@ public class PushQueueConsumerTest extends MessageTestBase
       }
    }
 
+   @Test
+   public void testUriWithMaxInFlight() throws Exception
+   {
+      Link pushSubscription = null;
+      String messageContent = "1";
+      final int IN_FLIGHT = 10;
+      final int MESSAGES = 5 * IN_FLIGHT;
+
+      try
+      {
+         // The name of the queue used for the test should match the name of the test
+         String queue = "testUriWithMaxInFlight";
+         String queueToPushTo = "pushedFrom-" + queue;
+         System.out.println("\n" + queue);
+
+         deployQueue(queue);
+         deployQueue(queueToPushTo);
+         server.getJaxrsServer().getDeployment().getRegistry().addPerRequestResource(MyInFlightResource.class);
+
+         ClientResponse queueResponse = Util.head(new ClientRequest(generateURL(Util.getUrlPath(queue))));
+         Link destinationForSend = MessageTestBase.getLinkByTitle(manager.getQueueManager().getLinkStrategy(), queueResponse, "create");
+         Link pushSubscriptions = MessageTestBase.getLinkByTitle(manager.getQueueManager().getLinkStrategy(), queueResponse, "push-consumers");
+
+         // a single session keeps IN_FLIGHT pushes outstanding against the slow target
+         pushSubscription = createPushRegistration(generateURL("/myInFlight"), pushSubscriptions, PushRegistrationType.URI, 1, IN_FLIGHT);
+
+         long start = System.currentTimeMillis();
+         for (int i = 0; i < MESSAGES; i++)
+         {
+            sendMessage(destinationForSend, messageContent);
+         }
+
+         // wait until all the invocations have completed
+         long timeout = System.currentTimeMillis() + 60000;
+         while (MyInFlightResource.receivedInvocations.get() < MESSAGES && System.currentTimeMillis() < timeout)
+         {
+            Thread.sleep(100);
+         }
+         long end = System.currentTimeMillis() - start;
+         System.out.println(MESSAGES + " pushes with " + IN_FLIGHT + " in flight took " + end + "ms");
+
+         Assert.assertEquals(MESSAGES, MyInFlightResource.receivedInvocations.get());
+         Assert.assertEquals(IN_FLIGHT, MyInFlightResource.maxConcurrentInvocations.get());
+      }
+      finally
+      {
+         cleanupSubscription(pushSubscription);
+      }
+   }
+
+   @Path("/myLatency")
+   public static class MyLatencyResource
+   {
+      public static AtomicInteger receivedInvocations = new AtomicInteger();
+
+      @PUT
+      public void put(String str)
+      {
+         try
+         {
+            // stands in for a remote target with a fixed round trip time
+            Thread.sleep(50);
+         }
+         catch (InterruptedException e)
+         {
+            e.printStackTrace();
+         }
+
+         receivedInvocations.getAndIncrement();
+      }
+   }
+
+   /**
+    * Compares pushing one message at a time with keeping a window of pushes in flight against the
+    * same slow target.
+    */
+   @Test
+   public void testUriMaxInFlightThroughput() throws Exception
+   {
+      server.getJaxrsServer().getDeployment().getRegistry().addPerRequestResource(MyLatencyResource.class);
+
+      final int MESSAGES = 40;
+
+      long synchronous = pushToLatencyTarget("testUriMaxInFlightThroughputSync", MESSAGES, 1);
+      long windowed = pushToLatencyTarget("testUriMaxInFlightThroughputWindowed", MESSAGES, 10);
+
+      System.out.println(MESSAGES + " pushes took " + synchronous + "ms one at a time and " + windowed + "ms with 10 in flight");
+
+      Assert.assertTrue("windowed " + windowed + "ms, synchronous " + synchronous + "ms", windowed < synchronous);
+   }
+
+   private long pushToLatencyTarget(String queue, int messages, int maxInFlight) throws Exception
+   {
+      Link pushSubscription = null;
+
+      try
+      {
+         deployQueue(queue);
+         MyLatencyResource.receivedInvocations.set(0);
+
+         ClientResponse queueResponse = Util.head(new ClientRequest(generateURL(Util.getUrlPath(queue))));
+         Link destinationForSend = MessageTestBase.getLinkByTitle(manager.getQueueManager().getLinkStrategy(), queueResponse, "create");
+         Link pushSubscriptions = MessageTestBase.getLinkByTitle(manager.getQueueManager().getLinkStrategy(), queueResponse, "push-consumers");
+
+         // send everything first so only the pushes are timed
+         for (int i = 0; i < messages; i++)
+         {
+            sendMessage(destinationForSend, Integer.toString(i));
+         }
+
+         long start = System.currentTimeMillis();
+         pushSubscription = createPushRegistration(generateURL("/myLatency"), pushSubscriptions, PushRegistrationType.URI, 1, maxInFlight);
+
+         long timeout = System.currentTimeMillis() + 60000;
+         while (MyLatencyResource.receivedInvocations.get() < messages && System.currentTimeMillis() < timeout)
+         {
+            Thread.sleep(10);
+         }
+         long taken = System.currentTimeMillis() - start;
+
+         Assert.assertEquals(messages, MyLatencyResource.receivedInvocations.get());
+         return taken;
+      }
+      finally
+      {
+         cleanupSubscription(pushSubscription);
+      }
+   }
+
    private void deployQueue(String queueName) throws Exception
    {
       QueueDeployment deployment = new QueueDeployment();
@@ -328,6 +489,11 @@ public class PushQueueConsumerTest extends MessageTestBase
    }
 
    private Link createPushRegistration(String queueToPushTo, Link pushSubscriptions, PushRegistrationType pushRegistrationType, int sessionCount) throws Exception
+   {
+      return createPushRegistration(queueToPushTo, pushSubscriptions, pushRegistrationType, sessionCount, 1);
+   }
+
+   private Link createPushRegistration(String queueToPushTo, Link pushSubscriptions, PushRegistrationType pushRegistrationType, int sessionCount, int maxInFlight) throws Exception
    {
       PushRegistration reg = new PushRegistration();
       reg.setDurable(false);
@@ -354,6 +520,7 @@ public class PushQueueConsumerTest extends MessageTestBase
       }
       reg.setTarget(target);
       reg.setSessionCount(sessionCount);
+      reg.setMaxInFlight(maxInFlight);
       ClientResponse pushRegistrationResponse = pushSubscriptions.request().body("application/xml", reg).post();
       pushRegistrationResponse.releaseConnection();
       Assert.assertEquals(201, pushRegistrationResponse.getStatus());
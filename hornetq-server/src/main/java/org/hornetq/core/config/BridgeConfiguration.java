@@ -16,6 +16,7 @@ package org.hornetq.core.config;
 import java.io.Serializable;
 import java.util.List;
 
+import org.hornetq.api.config.HornetQDefaultConfiguration;
 import org.hornetq.api.core.client.HornetQClient;
 
 /**
@@ -70,6 +71,10 @@ public final class BridgeConfiguration implements Serializable
    // The bridge shouldn't be sending blocking anyways
    private long callTimeout = HornetQClient.DEFAULT_CALL_TIMEOUT;
 
+   private int batchSize = HornetQDefaultConfiguration.getDefaultBridgeBatchSize();
+
+   private long batchTime = HornetQDefaultConfiguration.getDefaultBridgeBatchTime();
+
 
    /**
     * A default constructor for embedded users or testcases to setup defaults
@@ -430,11 +435,41 @@ public final class BridgeConfiguration implements Serializable
       this.callTimeout = callTimeout;
    }
 
+   public int getBatchSize()
+   {
+      return batchSize;
+   }
+
+   /**
+    * @param batchSize how many messages are forwarded in a transaction, -1 to confirm each message
+    *           on its own
+    */
+   public void setBatchSize(int batchSize)
+   {
+      this.batchSize = batchSize;
+   }
+
+   public long getBatchTime()
+   {
+      return batchTime;
+   }
+
+   /**
+    * @param batchTime how long, in milliseconds, a batch that is not full is held before it is
+    *           committed
+    */
+   public void setBatchTime(long batchTime)
+   {
+      this.batchTime = batchTime;
+   }
+
    @Override
    public int hashCode()
    {
       final int prime = 31;
       int result = 1;
+      result = prime * result + batchSize;
+      result = prime * result + (int)(batchTime ^ (batchTime >>> 32));
       result = prime * result + (int)(callTimeout ^ (callTimeout >>> 32));
       result = prime * result + (int)(clientFailureCheckPeriod ^ (clientFailureCheckPeriod >>> 32));
       result = prime * result + confirmationWindowSize;
@@ -470,6 +505,10 @@ public final class BridgeConfiguration implements Serializable
       if (getClass() != obj.getClass())
          return false;
       BridgeConfiguration other = (BridgeConfiguration)obj;
+      if (batchSize != other.batchSize)
+         return false;
+      if (batchTime != other.batchTime)
+         return false;
       if (callTimeout != other.callTimeout)
          return false;
       if (clientFailureCheckPeriod != other.clientFailureCheckPeriod)
@@ -72,6 +72,12 @@ public final class ClusterConnectionConfiguration implements Serializable
 
    private final int clusterNotificationAttempts;
 
+   private long loadNotificationInterval = HornetQDefaultConfiguration.getDefaultClusterLoadNotificationInterval();
+
+   private int batchSize = HornetQDefaultConfiguration.getDefaultBridgeBatchSize();
+
+   private long batchTime = HornetQDefaultConfiguration.getDefaultBridgeBatchTime();
+
    public ClusterConnectionConfiguration(final String name,
                                          final String address,
                                          final String connectorName,
@@ -450,6 +456,48 @@ public final class ClusterConnectionConfiguration implements Serializable
       return clusterNotificationAttempts;
    }
 
+   public long getLoadNotificationInterval()
+   {
+      return loadNotificationInterval;
+   }
+
+   /**
+    * @param loadNotificationInterval how often the load of the queues is sent to the cluster, -1 to
+    *           disable load aware load balancing
+    */
+   public void setLoadNotificationInterval(long loadNotificationInterval)
+   {
+      this.loadNotificationInterval = loadNotificationInterval;
+   }
+
+   public int getBatchSize()
+   {
+      return batchSize;
+   }
+
+   /**
+    * @param batchSize how many messages are forwarded in a transaction, -1 to confirm each message
+    *           on its own
+    */
+   public void setBatchSize(int batchSize)
+   {
+      this.batchSize = batchSize;
+   }
+
+   public long getBatchTime()
+   {
+      return batchTime;
+   }
+
+   /**
+    * @param batchTime how long, in milliseconds, a batch that is not full is held before it is
+    *           committed
+    */
+   public void setBatchTime(long batchTime)
+   {
+      this.batchTime = batchTime;
+   }
+
    @Override
    public int hashCode()
    {
@@ -468,6 +516,9 @@ public final class ClusterConnectionConfiguration implements Serializable
       result = prime * result + ((discoveryGroupName == null) ? 0 : discoveryGroupName.hashCode());
       result = prime * result + (duplicateDetection ? 1231 : 1237);
       result = prime * result + (forwardWhenNoConsumers ? 1231 : 1237);
+      result = prime * result + (int)(loadNotificationInterval ^ (loadNotificationInterval >>> 32));
+      result = prime * result + batchSize;
+      result = prime * result + (int)(batchTime ^ (batchTime >>> 32));
       result = prime * result + maxHops;
       result = prime * result + (int)(maxRetryInterval ^ (maxRetryInterval >>> 32));
       result = prime * result + minLargeMessageSize;
@@ -532,6 +583,12 @@ public final class ClusterConnectionConfiguration implements Serializable
          return false;
       if (forwardWhenNoConsumers != other.forwardWhenNoConsumers)
          return false;
+      if (loadNotificationInterval != other.loadNotificationInterval)
+         return false;
+      if (batchSize != other.batchSize)
+         return false;
+      if (batchTime != other.batchTime)
+         return false;
       if (maxHops != other.maxHops)
          return false;
       if (maxRetryInterval != other.maxRetryInterval)
@@ -176,6 +176,31 @@ public interface Configuration extends Serializable
     */
    void setSecurityInvalidationInterval(long interval);
 
+   /**
+    * Returns the interval time (in milliseconds) to invalidate failed authentications and
+    * authorizations, they are not cached if it is not positive. <br>
+    * Default value is {@value HornetQDefaultConfiguration#DEFAULT_SECURITY_NEGATIVE_INVALIDATION_INTERVAL}.
+    */
+   long getSecurityNegativeInvalidationInterval();
+
+   /**
+    * Sets the interval time (in milliseconds) to invalidate failed authentications and
+    * authorizations.
+    */
+   void setSecurityNegativeInvalidationInterval(long interval);
+
+   /**
+    * Returns the maximum number of entries of each of the authentication and authorization
+    * caches. <br>
+    * Default value is {@value HornetQDefaultConfiguration#DEFAULT_SECURITY_CACHE_SIZE}.
+    */
+   int getSecurityCacheSize();
+
+   /**
+    * Sets the maximum number of entries of each of the authentication and authorization caches.
+    */
+   void setSecurityCacheSize(int size);
+
    /**
     * Returns whether security is enabled for this server. <br>
     * Default value is {@value HornetQDefaultConfiguration#DEFAULT_SECURITY_ENABLED}.
@@ -289,6 +314,20 @@ public interface Configuration extends Serializable
     */
    void setEnabledAsyncConnectionExecution(boolean enabled);
 
+   /**
+    * Returns whether the packets that would be executed asynchronously are executed on the remoting
+    * thread anyway when they can't block. <br>
+    * Default value is
+    * {@value HornetQDefaultConfiguration#DEFAULT_REMOTING_THREAD_EXECUTION_ENABLED}.
+    */
+   boolean isRemotingThreadExecutionEnabled();
+
+   /**
+    * Sets whether the packets that would be executed asynchronously are executed on the remoting
+    * thread anyway when they can't block.
+    */
+   void setRemotingThreadExecutionEnabled(boolean enabled);
+
    /**
     * Returns the acceptors configured for this server.
     */
@@ -506,6 +545,19 @@ public interface Configuration extends Serializable
     */
    void setJournalDirectory(String dir);
 
+   /**
+    * Returns the directories of the additional stripes of the message journal. <br>
+    * When not empty, messages are spread over the journal directory and each of these directories.
+    * <br>
+    * Default value is an empty list.
+    */
+   List<String> getJournalStripeDirectories();
+
+   /**
+    * Sets the directories of the additional stripes of the message journal.
+    */
+   void setJournalStripeDirectories(List<String> directories);
+
    /**
     * Returns the type of journal used by this server (either {@code NIO} or {@code ASYNCIO}).
     * <br>
@@ -76,6 +76,10 @@ public class ConfigurationImpl implements Configuration
 
    private long securityInvalidationInterval = HornetQDefaultConfiguration.getDefaultSecurityInvalidationInterval();
 
+   private long securityNegativeInvalidationInterval = HornetQDefaultConfiguration.getDefaultSecurityNegativeInvalidationInterval();
+
+   private int securityCacheSize = HornetQDefaultConfiguration.getDefaultSecurityCacheSize();
+
    private boolean securityEnabled = HornetQDefaultConfiguration.isDefaultSecurityEnabled();
 
    protected boolean jmxManagementEnabled = HornetQDefaultConfiguration.isDefaultJmxManagementEnabled();
@@ -86,6 +90,8 @@ public class ConfigurationImpl implements Configuration
 
    protected boolean asyncConnectionExecutionEnabled = HornetQDefaultConfiguration.isDefaultAsyncConnectionExecutionEnabled();
 
+   protected boolean remotingThreadExecutionEnabled = HornetQDefaultConfiguration.isDefaultRemotingThreadExecutionEnabled();
+
    private long messageExpiryScanPeriod = HornetQDefaultConfiguration.getDefaultMessageExpiryScanPeriod();
 
    private int messageExpiryThreadPriority = HornetQDefaultConfiguration.getDefaultMessageExpiryThreadPriority();
@@ -130,6 +136,8 @@ public class ConfigurationImpl implements Configuration
 
    protected String journalDirectory = HornetQDefaultConfiguration.getDefaultJournalDir();
 
+   protected List<String> journalStripeDirectories = new ArrayList<String>();
+
    protected boolean createJournalDir = HornetQDefaultConfiguration.isDefaultCreateJournalDir();
 
    public JournalType journalType = ConfigurationImpl.DEFAULT_JOURNAL_TYPE;
@@ -327,6 +335,26 @@ public class ConfigurationImpl implements Configuration
       securityInvalidationInterval = interval;
    }
 
+   public long getSecurityNegativeInvalidationInterval()
+   {
+      return securityNegativeInvalidationInterval;
+   }
+
+   public void setSecurityNegativeInvalidationInterval(final long interval)
+   {
+      securityNegativeInvalidationInterval = interval;
+   }
+
+   public int getSecurityCacheSize()
+   {
+      return securityCacheSize;
+   }
+
+   public void setSecurityCacheSize(final int size)
+   {
+      securityCacheSize = size;
+   }
+
    public long getConnectionTTLOverride()
    {
       return connectionTTLOverride;
@@ -347,6 +375,16 @@ public class ConfigurationImpl implements Configuration
       asyncConnectionExecutionEnabled = enabled;
    }
 
+   public boolean isRemotingThreadExecutionEnabled()
+   {
+      return remotingThreadExecutionEnabled;
+   }
+
+   public void setRemotingThreadExecutionEnabled(final boolean enabled)
+   {
+      remotingThreadExecutionEnabled = enabled;
+   }
+
    @Deprecated
    @Override
    public List<String> getInterceptorClassNames()
@@ -525,6 +563,16 @@ public class ConfigurationImpl implements Configuration
       journalDirectory = dir;
    }
 
+   public List<String> getJournalStripeDirectories()
+   {
+      return journalStripeDirectories;
+   }
+
+   public void setJournalStripeDirectories(final List<String> directories)
+   {
+      journalStripeDirectories = directories;
+   }
+
    public JournalType getJournalType()
    {
       return journalType;
@@ -1071,6 +1119,7 @@ public class ConfigurationImpl implements Configuration
       result = prime * result + ((addressesSettings == null) ? 0 : addressesSettings.hashCode());
       result = prime * result + (allowAutoFailBack ? 1231 : 1237);
       result = prime * result + (asyncConnectionExecutionEnabled ? 1231 : 1237);
+      result = prime * result + (remotingThreadExecutionEnabled ? 1231 : 1237);
       result = prime * result + (backup ? 1231 : 1237);
       result = prime * result + ((bindingsDirectory == null) ? 0 : bindingsDirectory.hashCode());
       result = prime * result + ((bridgeConfigurations == null) ? 0 : bridgeConfigurations.hashCode());
@@ -1106,6 +1155,7 @@ public class ConfigurationImpl implements Configuration
       result = prime * result + journalCompactMinFiles;
       result = prime * result + journalCompactPercentage;
       result = prime * result + ((journalDirectory == null) ? 0 : journalDirectory.hashCode());
+      result = prime * result + ((journalStripeDirectories == null) ? 0 : journalStripeDirectories.hashCode());
       result = prime * result + journalFileSize;
       result = prime * result + journalMaxIO_AIO;
       result = prime * result + journalMaxIO_NIO;
@@ -1144,6 +1194,8 @@ public class ConfigurationImpl implements Configuration
       result = prime * result + scheduledThreadPoolMaxSize;
       result = prime * result + (securityEnabled ? 1231 : 1237);
       result = prime * result + (int)(securityInvalidationInterval ^ (securityInvalidationInterval >>> 32));
+      result = prime * result + (int)(securityNegativeInvalidationInterval ^ (securityNegativeInvalidationInterval >>> 32));
+      result = prime * result + securityCacheSize;
       result = prime * result + ((securitySettings == null) ? 0 : securitySettings.hashCode());
       result = prime * result + (int)(serverDumpInterval ^ (serverDumpInterval >>> 32));
       result = prime * result + (sharedStore ? 1231 : 1237);
@@ -1183,6 +1235,8 @@ public class ConfigurationImpl implements Configuration
          return false;
       if (asyncConnectionExecutionEnabled != other.asyncConnectionExecutionEnabled)
          return false;
+      if (remotingThreadExecutionEnabled != other.remotingThreadExecutionEnabled)
+         return false;
       if (backup != other.backup)
          return false;
       if (bindingsDirectory == null)
@@ -1315,6 +1369,13 @@ public class ConfigurationImpl implements Configuration
       }
       else if (!journalDirectory.equals(other.journalDirectory))
          return false;
+      if (journalStripeDirectories == null)
+      {
+         if (other.journalStripeDirectories != null)
+            return false;
+      }
+      else if (!journalStripeDirectories.equals(other.journalStripeDirectories))
+         return false;
       if (journalFileSize != other.journalFileSize)
          return false;
       if (journalMaxIO_AIO != other.journalMaxIO_AIO)
@@ -1428,6 +1489,10 @@ public class ConfigurationImpl implements Configuration
          return false;
       if (securityInvalidationInterval != other.securityInvalidationInterval)
          return false;
+      if (securityNegativeInvalidationInterval != other.securityNegativeInvalidationInterval)
+         return false;
+      if (securityCacheSize != other.securityCacheSize)
+         return false;
       if (securitySettings == null)
       {
          if (other.securitySettings != null)
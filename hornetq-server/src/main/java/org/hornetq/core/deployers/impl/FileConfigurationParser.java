@@ -133,6 +133,14 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
 
    private static final String SEND_TO_DLA_ON_NO_ROUTE = "send-to-dla-on-no-route";
 
+   private static final String LAZY_BODY_THRESHOLD_BYTES_NODE_NAME = "lazy-body-threshold-bytes";
+
+   private static final String GROUP_TIMEOUT_NODE_NAME = "group-timeout";
+
+   private static final String GROUP_BUCKETS_NODE_NAME = "group-buckets";
+
+   private static final String GROUP_REBALANCE_NODE_NAME = "group-rebalance";
+
    // Attributes ----------------------------------------------------
 
    private boolean validateAIO = false;
@@ -229,6 +237,14 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
                                                                           config.getSecurityInvalidationInterval(),
                                                                           Validators.GT_ZERO));
 
+      config.setSecurityNegativeInvalidationInterval(getLong(e, "security-negative-invalidation-interval",
+                                                             config.getSecurityNegativeInvalidationInterval(),
+                                                             Validators.GE_ZERO));
+
+      config.setSecurityCacheSize(getInteger(e, "security-cache-size",
+                                             config.getSecurityCacheSize(),
+                                             Validators.GT_ZERO));
+
       config.setConnectionTTLOverride(getLong(e,
                                                                    "connection-ttl-override",
                                                                    config.getConnectionTTLOverride(),
@@ -238,6 +254,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
                                                                                 "async-connection-execution-enabled",
                                                                                 config.isAsyncConnectionExecutionEnabled()));
 
+      config.setRemotingThreadExecutionEnabled(getBoolean(e,
+                                                          "remoting-thread-execution-enabled",
+                                                          config.isRemotingThreadExecutionEnabled()));
+
       config.setTransactionTimeout(getLong(e,
                                                                 "transaction-timeout",
                                                                 config.getTransactionTimeout(),
@@ -473,6 +493,25 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
       config.setJournalDirectory(getString(e, "journal-directory", config.getJournalDirectory(),
                                            Validators.NOT_NULL_OR_EMPTY));
 
+      NodeList stripeDirectoriesNodes = e.getElementsByTagName("journal-stripe-directories");
+
+      if (stripeDirectoriesNodes.getLength() > 0)
+      {
+         ArrayList<String> stripeDirectories = new ArrayList<String>();
+
+         NodeList directories = stripeDirectoriesNodes.item(0).getChildNodes();
+
+         for (int i = 0; i < directories.getLength(); i++)
+         {
+            if ("directory".equalsIgnoreCase(directories.item(i).getNodeName()))
+            {
+               stripeDirectories.add(getTrimmedTextContent(directories.item(i)));
+            }
+         }
+
+         config.setJournalStripeDirectories(stripeDirectories);
+      }
+
 
       config.setPageMaxConcurrentIO(getInteger(e,
                                                                     "page-max-concurrent-io",
@@ -865,6 +904,22 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
          {
             addressSettings.setSendToDLAOnNoRoute(XMLUtil.parseBoolean(child));
          }
+         else if (LAZY_BODY_THRESHOLD_BYTES_NODE_NAME.equalsIgnoreCase(name))
+         {
+            addressSettings.setLazyBodyThresholdBytes(XMLUtil.parseLong(child));
+         }
+         else if (GROUP_TIMEOUT_NODE_NAME.equalsIgnoreCase(name))
+         {
+            addressSettings.setGroupTimeout(XMLUtil.parseLong(child));
+         }
+         else if (GROUP_BUCKETS_NODE_NAME.equalsIgnoreCase(name))
+         {
+            addressSettings.setGroupBuckets(XMLUtil.parseInt(child));
+         }
+         else if (GROUP_REBALANCE_NODE_NAME.equalsIgnoreCase(name))
+         {
+            addressSettings.setGroupRebalance(XMLUtil.parseBoolean(child));
+         }
       }
       return setting;
    }
@@ -1099,6 +1154,12 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
 
       int clusterNotificationAttempts = getInteger(e, "notification-attempts", HornetQDefaultConfiguration.getDefaultClusterNotificationAttempts(), Validators.GT_ZERO);
 
+      long loadNotificationInterval = getLong(e, "load-notification-interval", HornetQDefaultConfiguration.getDefaultClusterLoadNotificationInterval(), Validators.MINUS_ONE_OR_GT_ZERO);
+
+      int batchSize = getInteger(e, "batch-size", HornetQDefaultConfiguration.getDefaultBridgeBatchSize(), Validators.MINUS_ONE_OR_GT_ZERO);
+
+      long batchTime = getLong(e, "batch-time", HornetQDefaultConfiguration.getDefaultBridgeBatchTime(), Validators.GT_ZERO);
+
       String discoveryGroupName = null;
 
       List<String> staticConnectorNames = new ArrayList<String>();
@@ -1163,6 +1224,12 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
                                                      clusterNotificationAttempts);
       }
 
+      config.setLoadNotificationInterval(loadNotificationInterval);
+
+      config.setBatchSize(batchSize);
+
+      config.setBatchTime(batchTime);
+
       mainConfig.getClusterConfigurations().add(config);
    }
 
@@ -1172,12 +1239,14 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
       String type = getString(node, "type", null, Validators.NOT_NULL_OR_EMPTY);
       String address = getString(node, "address", null, Validators.NOT_NULL_OR_EMPTY);
       Integer timeout = getInteger(node, "timeout", GroupingHandlerConfiguration.DEFAULT_TIMEOUT, Validators.GT_ZERO);
+      Integer groupBuckets = getInteger(node, "group-buckets", GroupingHandlerConfiguration.DEFAULT_GROUP_BUCKETS, Validators.MINUS_ONE_OR_GT_ZERO);
       mainConfiguration.setGroupingHandlerConfiguration(new GroupingHandlerConfiguration(new SimpleString(name),
                                                                                          type.equals(GroupingHandlerConfiguration.TYPE.LOCAL.getType())
                                                                                                                                                        ? GroupingHandlerConfiguration.TYPE.LOCAL
                                                                                                                                                        : GroupingHandlerConfiguration.TYPE.REMOTE,
                                                                                          new SimpleString(address),
-                                                                                         timeout));
+                                                                                         timeout,
+                                                                                         groupBuckets));
    }
 
    private void parseBridgeConfiguration(final Element brNode, final Configuration mainConfig) throws Exception
@@ -1257,6 +1326,12 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
 
       boolean ha = getBoolean(brNode, "ha", false);
 
+      int batchSize = getInteger(brNode, "batch-size", HornetQDefaultConfiguration.getDefaultBridgeBatchSize(),
+                                 Validators.MINUS_ONE_OR_GT_ZERO);
+
+      long batchTime = getLong(brNode, "batch-time", HornetQDefaultConfiguration.getDefaultBridgeBatchTime(),
+                               Validators.GT_ZERO);
+
       String filterString = null;
 
       List<String> staticConnectorNames = new ArrayList<String>();
@@ -1330,6 +1405,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
                                           password);
       }
 
+      config.setBatchSize(batchSize);
+
+      config.setBatchTime(batchTime);
+
       mainConfig.getBridgeConfigurations().add(config);
    }
 
@@ -488,6 +488,66 @@ public class HornetQServerControlImpl extends AbstractControl implements HornetQ
       }
    }
 
+   public long getAuthenticationCacheHitCount()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return server.getSecurityStore().getAuthenticationCacheHitCount();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public long getAuthenticationCacheMissCount()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return server.getSecurityStore().getAuthenticationCacheMissCount();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public long getAuthorizationCacheHitCount()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return server.getSecurityStore().getAuthorizationCacheHitCount();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public long getAuthorizationCacheMissCount()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return server.getSecurityStore().getAuthorizationCacheMissCount();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
    public boolean isClustered()
    {
       checkStarted();
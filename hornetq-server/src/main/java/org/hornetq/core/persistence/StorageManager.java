@@ -21,6 +21,7 @@ import java.util.concurrent.Executor;
 
 import javax.transaction.xa.Xid;
 
+import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.api.core.Pair;
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.journal.IOAsyncTask;
@@ -149,8 +150,34 @@ public interface StorageManager extends HornetQComponent
 
    void deleteMessage(long messageID) throws Exception;
 
+   /**
+    * Deletes the messages whose last reference was acknowledged by a batch of acknowledgements,
+    * together and without syncing like {@link #deleteMessage(long)}.
+    */
+   void deleteMessages(List<Long> messageIDs) throws Exception;
+
    void storeAcknowledge(long queueID, long messageID) throws Exception;
 
+   /**
+    * Releases the body of a message from memory if it can be read back from storage, which requires
+    * the message to have been synced outside of a transaction.
+    * @return the number of bytes the memory estimate of the message went down by
+    * @see ServerMessage#releaseBody(StorageManager)
+    */
+   int releaseMessageBody(ServerMessage message);
+
+   /**
+    * Takes back the buffer of a message whose body was released recently enough to still be cached.
+    * @return null if it is not cached anymore, the message must then be read with {@link #readMessage(long)}
+    */
+   HornetQBuffer takeReleasedBody(long messageID);
+
+   /**
+    * Reads back the encoding of a message whose body was released.
+    * @return null if the message can't be read back
+    */
+   HornetQBuffer readMessage(long messageID) throws Exception;
+
    void storeCursorAcknowledge(long queueID, PagePosition position) throws Exception;
 
    void updateDeliveryCount(MessageReference ref) throws Exception;
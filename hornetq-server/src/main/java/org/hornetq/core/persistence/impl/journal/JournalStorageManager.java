@@ -23,7 +23,11 @@ import static org.hornetq.core.persistence.impl.journal.JournalRecordIds.SET_SCH
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.AccessController;
 import java.security.DigestInputStream;
 import java.security.InvalidParameterException;
@@ -34,6 +38,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -74,6 +79,7 @@ import org.hornetq.core.journal.impl.AIOSequentialFileFactory;
 import org.hornetq.core.journal.impl.JournalFile;
 import org.hornetq.core.journal.impl.JournalImpl;
 import org.hornetq.core.journal.impl.NIOSequentialFileFactory;
+import org.hornetq.core.journal.impl.StripedJournal;
 import org.hornetq.core.message.impl.MessageInternal;
 import org.hornetq.core.paging.PageTransactionInfo;
 import org.hornetq.core.paging.PagedMessage;
@@ -204,6 +210,8 @@ public class JournalStorageManager implements StorageManager
 
    private final String journalDir;
 
+   private final List<String> journalStripeDirectories;
+
    private final String largeMessagesDirectory;
 
    private boolean journalLoaded = false;
@@ -217,6 +225,15 @@ public class JournalStorageManager implements StorageManager
 
    private final Set<Long> largeMessagesToDelete = new HashSet<Long>();
 
+   // the most recently released message bodies are kept up to this size, so a queue drained soon after it filled
+   // up does not read them back from the journal
+   private static final int HOT_BODIES_MAX_SIZE = 10 * 1024 * 1024;
+
+   // guarded by itself, in the order the bodies were released
+   private final LinkedHashMap<Long, HornetQBuffer> hotBodies = new LinkedHashMap<Long, HornetQBuffer>();
+
+   private int hotBodiesSize;
+
    public JournalStorageManager(final Configuration config, final ExecutorFactory executorFactory)
    {
       this(config, executorFactory, null);
@@ -272,39 +289,46 @@ public class JournalStorageManager implements StorageManager
       if (config.getJournalType() == JournalType.ASYNCIO)
       {
          HornetQServerLogger.LOGGER.journalUseAIO();
-
-         journalFF = new AIOSequentialFileFactory(journalDir,
-            config.getJournalBufferSize_AIO(),
-            config.getJournalBufferTimeout_AIO(),
-            config.isLogJournalWriteRate(),
-            criticalErrorListener);
       }
       else if (config.getJournalType() == JournalType.NIO)
       {
          HornetQServerLogger.LOGGER.journalUseNIO();
-         journalFF = new NIOSequentialFileFactory(journalDir,
-            true,
-            config.getJournalBufferSize_NIO(),
-            config.getJournalBufferTimeout_NIO(),
-            config.isLogJournalWriteRate(),
-            criticalErrorListener);
       }
       else
       {
          throw HornetQMessageBundle.BUNDLE.invalidJournalType2(config.getJournalType());
       }
 
+      journalFF = createJournalFactory(config, journalDir, criticalErrorListener);
+
       idGenerator = new BatchingIDGenerator(0, JournalStorageManager.CHECKPOINT_BATCH_SIZE, this);
 
-      Journal localMessage = new JournalImpl(config.getJournalFileSize(),
-         config.getJournalMinFiles(),
-         config.getJournalCompactMinFiles(),
-         config.getJournalCompactPercentage(),
-         journalFF,
-         "hornetq-data",
-         "hq",
-         config.getJournalType() == JournalType.ASYNCIO ? config.getJournalMaxIO_AIO()
-            : config.getJournalMaxIO_NIO());
+      journalStripeDirectories = config.getJournalStripeDirectories();
+
+      Journal localMessage;
+
+      if (journalStripeDirectories.isEmpty())
+      {
+         localMessage = createMessageJournal(config, journalFF);
+      }
+      else
+      {
+         // each stripe has its own file factory, hence its own buffer and disk
+         JournalImpl[] stripes = new JournalImpl[journalStripeDirectories.size() + 1];
+
+         stripes[0] = createMessageJournal(config, journalFF);
+
+         for (int i = 1; i < stripes.length; i++)
+         {
+            SequentialFileFactory stripeFF = createJournalFactory(config,
+                                                                  journalStripeDirectories.get(i - 1),
+                                                                  criticalErrorListener);
+
+            stripes[i] = createMessageJournal(config, stripeFF);
+         }
+
+         localMessage = new StripedJournal(stripes);
+      }
 
       messageJournal = localMessage;
       originalMessageJournal = localMessage;
@@ -325,6 +349,42 @@ public class JournalStorageManager implements StorageManager
       }
    }
 
+   private static SequentialFileFactory createJournalFactory(final Configuration config,
+                                                             final String directory,
+                                                             final IOCriticalErrorListener criticalErrorListener)
+   {
+      if (config.getJournalType() == JournalType.ASYNCIO)
+      {
+         return new AIOSequentialFileFactory(directory,
+            config.getJournalBufferSize_AIO(),
+            config.getJournalBufferTimeout_AIO(),
+            config.isLogJournalWriteRate(),
+            criticalErrorListener);
+      }
+      else
+      {
+         return new NIOSequentialFileFactory(directory,
+            true,
+            config.getJournalBufferSize_NIO(),
+            config.getJournalBufferTimeout_NIO(),
+            config.isLogJournalWriteRate(),
+            criticalErrorListener);
+      }
+   }
+
+   private static JournalImpl createMessageJournal(final Configuration config, final SequentialFileFactory factory)
+   {
+      return new JournalImpl(config.getJournalFileSize(),
+         config.getJournalMinFiles(),
+         config.getJournalCompactMinFiles(),
+         config.getJournalCompactPercentage(),
+         factory,
+         "hornetq-data",
+         "hq",
+         config.getJournalType() == JournalType.ASYNCIO ? config.getJournalMaxIO_AIO()
+            : config.getJournalMaxIO_NIO());
+   }
+
    public void clearContext()
    {
       OperationContextImpl.clearContext();
@@ -953,6 +1013,69 @@ public class JournalStorageManager implements StorageManager
       }
    }
 
+   public int releaseMessageBody(final ServerMessage message)
+   {
+      // the message record is only known to be on disk by now if non-transactional operations are synced
+      if (!syncNonTransactional || !messageJournal.isRecordReadable(message.getMessageID()))
+      {
+         return 0;
+      }
+
+      int memoryEstimate = message.getMemoryEstimate();
+
+      HornetQBuffer body = message.releaseBody(this);
+
+      if (body == null)
+      {
+         return 0;
+      }
+
+      synchronized (hotBodies)
+      {
+         hotBodies.put(message.getMessageID(), body);
+
+         hotBodiesSize += body.capacity();
+
+         Iterator<HornetQBuffer> iterator = hotBodies.values().iterator();
+
+         while (hotBodiesSize > HOT_BODIES_MAX_SIZE && iterator.hasNext())
+         {
+            hotBodiesSize -= iterator.next().capacity();
+
+            iterator.remove();
+         }
+      }
+
+      return memoryEstimate - message.getMemoryEstimate();
+   }
+
+   public HornetQBuffer takeReleasedBody(final long messageID)
+   {
+      synchronized (hotBodies)
+      {
+         HornetQBuffer body = hotBodies.remove(messageID);
+
+         if (body != null)
+         {
+            hotBodiesSize -= body.capacity();
+         }
+
+         return body;
+      }
+   }
+
+   public HornetQBuffer readMessage(final long messageID) throws Exception
+   {
+      RecordInfo record = messageJournal.readAddRecord(messageID);
+
+      if (record == null || record.getUserRecordType() != JournalRecordIds.ADD_MESSAGE)
+      {
+         return null;
+      }
+
+      return HornetQBuffers.wrappedBuffer(record.data);
+   }
+
    public void storeCursorAcknowledge(long queueID, PagePosition position) throws Exception
    {
       readLock();
@@ -974,6 +1097,9 @@ public class JournalStorageManager implements StorageManager
 
    public void deleteMessage(final long messageID) throws Exception
    {
+      // a body released and never read back again is of no use anymore
+      takeReleasedBody(messageID);
+
       readLock();
       try
       {
@@ -989,6 +1115,44 @@ public class JournalStorageManager implements StorageManager
       }
    }
 
+   public void deleteMessages(final List<Long> messageIDs) throws Exception
+   {
+      if (messageIDs.size() == 1)
+      {
+         deleteMessage(messageIDs.get(0));
+         return;
+      }
+
+      for (Long messageID : messageIDs)
+      {
+         takeReleasedBody(messageID);
+      }
+
+      readLock();
+      try
+      {
+         // not synced either, see deleteMessage
+         long txID = generateUniqueID();
+         try
+         {
+            for (Long messageID : messageIDs)
+            {
+               messageJournal.appendDeleteRecordTransactional(txID, messageID);
+            }
+         }
+         catch (Exception e)
+         {
+            messageJournal.appendRollbackRecord(txID, false);
+            throw e;
+         }
+         messageJournal.appendCommitRecord(txID, false);
+      }
+      finally
+      {
+         readUnLock();
+      }
+   }
+
    public void updateScheduledDeliveryTime(final MessageReference ref) throws Exception
    {
       ScheduledDeliveryEncoding encoding = new ScheduledDeliveryEncoding(ref.getScheduledDeliveryTime(), ref.getQueue()
@@ -1300,18 +1464,15 @@ public class JournalStorageManager implements StorageManager
       readLock();
       try
       {
-         messageJournal.appendCommitRecord(txID, syncTransactional, getContext(syncTransactional), lineUpContext);
-         if (!lineUpContext && !syncTransactional)
-         {
-            /**
-             * If {@code lineUpContext == false}, it means that we have previously lined up a
-             * context somewhere else (specifically see @{link TransactionImpl#asyncAppendCommit}),
-             * hence we need to mark it as done even if {@code syncTransactional = false} as in this
-             * case {@code getContext(syncTransactional=false)} would pass a dummy context to the
-             * {@code messageJournal.appendCommitRecord(...)} call above.
-             */
-            getContext(true).done();
-         }
+         /**
+          * If {@code lineUpContext == false}, it means that we have previously lined up a
+          * context somewhere else (specifically see @{link TransactionImpl#asyncAppendCommit}),
+          * hence we need to pass it even if {@code syncTransactional = false} as in this case
+          * {@code getContext(syncTransactional=false)} would be a dummy context. The journal then
+          * completes it in order with the other appends of the context.
+          */
+         OperationContext context = lineUpContext ? getContext(syncTransactional) : getContext();
+         messageJournal.appendCommitRecord(txID, syncTransactional, context, lineUpContext);
       }
       finally
       {
@@ -2241,6 +2402,11 @@ public class JournalStorageManager implements StorageManager
 
       checkAndCreateDir(journalDir, createJournalDir);
 
+      for (String stripeDirectory : journalStripeDirectories)
+      {
+         checkAndCreateDir(stripeDirectory, createJournalDir);
+      }
+
       checkAndCreateDir(largeMessagesDirectory, createJournalDir);
 
       cleanupIncompleteFiles();
@@ -2498,6 +2664,50 @@ public class JournalStorageManager implements StorageManager
       return largeMessagesFactory.createSequentialFile(messageID + extension.getExtension(), -1);
    }
 
+   /**
+    * Makes the target file a hard link to the body of the source, so a copy of a large message
+    * shares the body on disk with the original instead of writing it again.
+    * <p>
+    * The file system counts the links: the body stays until the last message using it deletes its
+    * own file, and every message still finds its body under its own id on restart.
+    * @return {@code false} if the file system can't link the files, the body must then be copied
+    */
+   boolean linkLargeMessageFile(final SequentialFile source, final SequentialFile target)
+   {
+      try
+      {
+         Files.createLink(target.getJavaFile().toPath(), source.getJavaFile().toPath());
+
+         return true;
+      }
+      catch (UnsupportedOperationException e)
+      {
+         return false;
+      }
+      catch (IOException e)
+      {
+         HornetQServerLogger.LOGGER.debug("Could not link " + target + " to " + source + ", copying it instead", e);
+
+         return false;
+      }
+   }
+
+   /**
+    * Gives a large message file linked by {@link #linkLargeMessageFile(SequentialFile, SequentialFile)}
+    * its own copy of the body, leaving the other messages sharing it untouched. The file must be
+    * closed.
+    */
+   void unlinkLargeMessageFile(final SequentialFile file) throws IOException
+   {
+      Path shared = file.getJavaFile().toPath();
+
+      Path copy = shared.resolveSibling(shared.getFileName() + ".cow");
+
+      Files.copy(shared, copy, StandardCopyOption.REPLACE_EXISTING);
+
+      Files.move(copy, shared, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
 
    // Private ----------------------------------------------------------------------------------
 
@@ -2545,7 +2755,7 @@ public class JournalStorageManager implements StorageManager
          if (!currentFile.exists())
          {
             SequentialFile linkedFile = createFileForLargeMessage(originalMessageID, true);
-            if (linkedFile.exists())
+            if (linkedFile.exists() && !linkLargeMessageFile(linkedFile, currentFile))
             {
                linkedFile.copyTo(currentFile);
                linkedFile.close();
@@ -57,6 +57,10 @@ public final class LargeServerMessageImpl extends ServerMessageImpl implements L
 
    private long bodySize = -1;
 
+   // set when finishCopy linked the file to the body of the original message
+   // The body is copied before it is written to
+   private boolean sharedBody;
+
    private final AtomicInteger delayDeletionCount = new AtomicInteger(0);
 
    // Static --------------------------------------------------------
@@ -108,6 +112,13 @@ public final class LargeServerMessageImpl extends ServerMessageImpl implements L
    {
       validateFile();
 
+      if (sharedBody)
+      {
+         closeFile();
+         storageManager.unlinkLargeMessageFile(file);
+         sharedBody = false;
+      }
+
       if (!file.isOpen())
       {
          file.open();
@@ -319,9 +330,16 @@ public final class LargeServerMessageImpl extends ServerMessageImpl implements L
          try
          {
             this.pendingRecordID = storageManager.storePendingLargeMessage(this.messageID);
-            copyTo.open();
-            pendingCopy.open();
-            pendingCopy.copyTo(copyTo);
+            if (storageManager.linkLargeMessageFile(pendingCopy, copyTo))
+            {
+               sharedBody = true;
+            }
+            else
+            {
+               copyTo.open();
+               pendingCopy.open();
+               pendingCopy.copyTo(copyTo);
+            }
          }
          finally
          {
@@ -337,7 +355,8 @@ public final class LargeServerMessageImpl extends ServerMessageImpl implements L
    }
 
    /**
-    * The copy of the file itself will be done later by {@link LargeServerMessageImpl#finishCopy()}
+    * The copy of the file itself will be done later by {@link LargeServerMessageImpl#finishCopy()},
+    * which shares the body with this message where the file system allows it.
     * */
    @Override
    public synchronized ServerMessage copy(final long newID)
@@ -23,6 +23,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import javax.transaction.xa.Xid;
 
+import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.api.core.Pair;
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.journal.IOAsyncTask;
@@ -172,6 +173,24 @@ public class NullStorageManager implements StorageManager
    {
    }
 
+   @Override
+   public int releaseMessageBody(final ServerMessage message)
+   {
+      return 0;
+   }
+
+   @Override
+   public HornetQBuffer takeReleasedBody(final long messageID)
+   {
+      return null;
+   }
+
+   @Override
+   public HornetQBuffer readMessage(final long messageID) throws Exception
+   {
+      return null;
+   }
+
    @Override
    public void storeAcknowledgeTransactional(final long txID, final long queueID, final long messageiD)
                                                                                                        throws Exception
@@ -182,6 +201,11 @@ public class NullStorageManager implements StorageManager
    public void deleteMessage(final long messageID) throws Exception
    {
    }
+
+   @Override
+   public void deleteMessages(final List<Long> messageIDs) throws Exception
+   {
+   }
    @Override
    public void storeMessage(final ServerMessage message) throws Exception
    {
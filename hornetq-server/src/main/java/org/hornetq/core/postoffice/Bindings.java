@@ -39,6 +39,8 @@ public interface Bindings
 
    void setRouteWhenNoConsumers(boolean takePriorityIntoAccount);
 
+   void setLoadAware(boolean loadAware);
+
    boolean redistribute(ServerMessage message, Queue originatingQueue, RoutingContext context) throws Exception;
 
    void route(ServerMessage message, RoutingContext context) throws Exception;
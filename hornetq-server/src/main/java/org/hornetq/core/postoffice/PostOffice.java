@@ -13,6 +13,8 @@
 
 package org.hornetq.core.postoffice;
 
+import java.util.Map;
+
 import org.hornetq.api.core.Pair;
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.server.HornetQComponent;
@@ -61,6 +63,8 @@ public interface PostOffice extends HornetQComponent
 
    Bindings getMatchingBindings(SimpleString address) throws Exception;
 
+   Map<SimpleString, Binding> getAllBindings();
+
    void route(ServerMessage message, boolean direct) throws Exception;
 
    void route(ServerMessage message, Transaction tx, boolean direct) throws Exception;
@@ -35,6 +35,7 @@ import org.hornetq.core.server.HornetQServerLogger;
 import org.hornetq.core.server.Queue;
 import org.hornetq.core.server.RoutingContext;
 import org.hornetq.core.server.ServerMessage;
+import org.hornetq.core.server.cluster.RemoteQueueBinding;
 import org.hornetq.core.server.group.GroupingHandler;
 import org.hornetq.core.server.group.impl.Proposal;
 import org.hornetq.core.server.group.impl.Response;
@@ -62,6 +63,8 @@ public final class BindingsImpl implements Bindings
 
    private volatile boolean routeWhenNoConsumers;
 
+   private volatile boolean loadAware;
+
    private final GroupingHandler groupingHandler;
 
    private final PagingStore pageStore;
@@ -80,6 +83,11 @@ public final class BindingsImpl implements Bindings
       this.routeWhenNoConsumers = routeWhenNoConsumers;
    }
 
+   public void setLoadAware(final boolean loadAware)
+   {
+      this.loadAware = loadAware;
+   }
+
    public Collection<Binding> getBindings()
    {
       return bindingsMap.values();
@@ -221,7 +229,8 @@ public final class BindingsImpl implements Bindings
 
          boolean highPrior = binding.isHighAcceptPriority(message);
 
-         if (highPrior && binding.getBindable() != originatingQueue && (filter == null || filter.match(message)))
+         if (highPrior && binding.getBindable() != originatingQueue && (filter == null || filter.match(message)) &&
+             !isBacklogged(binding))
          {
             theBinding = binding;
 
@@ -337,6 +346,8 @@ public final class BindingsImpl implements Bindings
 
       int lastLowPriorityBinding = -1;
 
+      int lastBackloggedBinding = -1;
+
       while (true)
       {
          Binding binding;
@@ -369,11 +380,22 @@ public final class BindingsImpl implements Bindings
             // unnecessary overhead)
             if (length == 1 || routeWhenNoConsumers || binding.isHighAcceptPriority(message))
             {
-               theBinding = binding;
+               if (length > 1 && isBacklogged(binding))
+               {
+                  // the other bindings are given a chance to take the message first
+                  if (lastBackloggedBinding == -1)
+                  {
+                     lastBackloggedBinding = pos;
+                  }
+               }
+               else
+               {
+                  theBinding = binding;
 
-               pos = incrementPos(pos, length);
+                  pos = incrementPos(pos, length);
 
-               break;
+                  break;
+               }
             }
             else
             {
@@ -391,6 +413,12 @@ public final class BindingsImpl implements Bindings
          if (pos == startPos)
          {
 
+            // a backlogged binding still has consumers so it is preferred to the ones without any
+            if (lastBackloggedBinding != -1)
+            {
+               lastLowPriorityBinding = lastBackloggedBinding;
+            }
+
             // if no bindings were found, we will apply a secondary level on the routing logic
             if (lastLowPriorityBinding != -1)
             {
@@ -407,6 +435,8 @@ public final class BindingsImpl implements Bindings
 
                      lastLowPriorityBinding = -1;
 
+                     lastBackloggedBinding = -1;
+
                      continue;
                   }
                   else
@@ -427,11 +457,21 @@ public final class BindingsImpl implements Bindings
       return theBinding;
    }
 
+   /**
+    * A remote binding is backlogged when its node last reported more messages than its consumers
+    * take, this is only taken into account when the cluster connection exchanges the queue loads.
+    */
+   private boolean isBacklogged(final Binding binding)
+   {
+      return loadAware && binding instanceof RemoteQueueBinding && ((RemoteQueueBinding)binding).isBacklogged();
+   }
+
    private void routeUsingStrictOrdering(final ServerMessage message,
                                          final RoutingContext context,
                                          final GroupingHandler groupingGroupingHandler) throws Exception
    {
-      SimpleString groupId = message.getSimpleStringProperty(Message.HDR_GROUP_ID);
+      // groups sharing a key are bound together, so this may not need a proposal even for a new group
+      SimpleString groupId = groupingGroupingHandler.getGroupKey(message.getSimpleStringProperty(Message.HDR_GROUP_ID));
 
       for (Map.Entry<SimpleString, List<Binding>> entry : routingNameBindingMap.entrySet())
       {
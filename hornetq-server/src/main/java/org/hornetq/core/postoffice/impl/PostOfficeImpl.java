@@ -88,8 +88,20 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
    public static final SimpleString HDR_RESET_QUEUE_DATA = new SimpleString("_HQ_RESET_QUEUE_DATA");
 
+   public static final SimpleString HDR_RESET_QUEUE_DATA_COMPLETE = new SimpleString("_HQ_RESET_QUEUE_DATA_COMPLETE");
+
+   // set on the reset message by the nodes that end their queue info with HDR_RESET_QUEUE_DATA_COMPLETE
+   public static final SimpleString HDR_RESET_QUEUE_DATA_RESYNC = new SimpleString("_HQ_RESET_QUEUE_DATA_RESYNC");
+
    public static final SimpleString BRIDGE_CACHE_STR = new SimpleString("BRIDGE.");
 
+   // the prefix of the notification queues of the cluster connections
+   public static final String NOTIFICATION_QUEUE_PREFIX = "notif.";
+
+   // the prefix of the notification queues of the cluster connections that read ManagementHelper.HDR_NUMBER_OF_CONSUMERS,
+   // the others are sent a consumer notification per consumer
+   public static final String COUNTED_NOTIFICATION_QUEUE_PREFIX = "notif.counted.";
+
    private final AddressManager addressManager;
 
    private final QueueFactory queueFactory;
@@ -310,7 +322,12 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                   throw new IllegalStateException("Cannot find queue info for queue " + clusterName);
                }
 
-               info.incrementConsumers();
+               int numberOfConsumers = getNumberOfConsumers(props);
+
+               for (int i = 0; i < numberOfConsumers; i++)
+               {
+                  info.incrementConsumers();
+               }
 
                if (filterString != null)
                {
@@ -323,7 +340,10 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                      info.setFilterStrings(filterStrings);
                   }
 
-                  filterStrings.add(filterString);
+                  for (int i = 0; i < numberOfConsumers; i++)
+                  {
+                     filterStrings.add(filterString);
+                  }
                }
 
                if (!props.containsProperty(ManagementHelper.HDR_DISTANCE))
@@ -383,13 +403,21 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                   return;
                }
 
-               info.decrementConsumers();
+               int numberOfConsumers = getNumberOfConsumers(props);
+
+               for (int i = 0; i < numberOfConsumers; i++)
+               {
+                  info.decrementConsumers();
+               }
 
                if (filterString != null)
                {
                   List<SimpleString> filterStrings = info.getFilterStrings();
 
-                  filterStrings.remove(filterString);
+                  for (int i = 0; i < numberOfConsumers; i++)
+                  {
+                     filterStrings.remove(filterString);
+                  }
                }
 
                if (info.getNumberOfConsumers() == 0)
@@ -570,6 +598,11 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       return addressManager.getMatchingBindings(address);
    }
 
+   public Map<SimpleString, Binding> getAllBindings()
+   {
+      return addressManager.getBindings();
+   }
+
    public void route(final ServerMessage message, final boolean direct) throws Exception
    {
       route(message, (Transaction)null, direct);
@@ -821,6 +854,8 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
       Queue queue = (Queue)binding.getBindable();
 
+      boolean counted = queueName.toString().startsWith(PostOfficeImpl.COUNTED_NOTIFICATION_QUEUE_PREFIX);
+
       // Need to lock to make sure all queue info and notifications are in the correct order with no gaps
       synchronized (notificationLock)
       {
@@ -830,6 +865,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
          message.setAddress(queueName);
          message.putBooleanProperty(PostOfficeImpl.HDR_RESET_QUEUE_DATA, true);
+         message.putBooleanProperty(PostOfficeImpl.HDR_RESET_QUEUE_DATA_RESYNC, true);
          routeQueueInfo(message, queue, false);
 
          for (QueueInfo info : queueInfos.values())
@@ -853,7 +889,12 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
                int consumersWithFilters = info.getFilterStrings() != null ? info.getFilterStrings().size() : 0;
 
-               for (int i = 0; i < info.getNumberOfConsumers() - consumersWithFilters; i++)
+               int consumersWithoutFilters = info.getNumberOfConsumers() - consumersWithFilters;
+
+               // the consumers without a filter are all sent in a single message if the receiver can count them
+               int messagesWithoutFilters = counted ? Math.min(consumersWithoutFilters, 1) : consumersWithoutFilters;
+
+               for (int i = 0; i < messagesWithoutFilters; i++)
                {
                   message = createQueueInfoMessage(NotificationType.CONSUMER_CREATED, queueName);
 
@@ -861,6 +902,10 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                   message.putStringProperty(ManagementHelper.HDR_CLUSTER_NAME, info.getClusterName());
                   message.putStringProperty(ManagementHelper.HDR_ROUTING_NAME, info.getRoutingName());
                   message.putIntProperty(ManagementHelper.HDR_DISTANCE, info.getDistance());
+                  if (counted)
+                  {
+                     message.putIntProperty(ManagementHelper.HDR_NUMBER_OF_CONSUMERS, consumersWithoutFilters);
+                  }
 
                   routeQueueInfo(message, queue, true);
                }
@@ -882,6 +927,13 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                }
             }
          }
+
+         // Then tell the receiver it has everything, it can remove the queues it did not hear about
+         message = new ServerMessageImpl(storageManager.generateUniqueID(), 50);
+
+         message.setAddress(queueName);
+         message.putBooleanProperty(PostOfficeImpl.HDR_RESET_QUEUE_DATA_COMPLETE, true);
+         routeQueueInfo(message, queue, false);
       }
 
    }
@@ -1297,6 +1349,19 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       }
    }
 
+   /**
+    * @return how many consumers a consumer notification stands for
+    */
+   private static int getNumberOfConsumers(final TypedProperties props)
+   {
+      if (props.containsProperty(ManagementHelper.HDR_NUMBER_OF_CONSUMERS))
+      {
+         return props.getIntProperty(ManagementHelper.HDR_NUMBER_OF_CONSUMERS);
+      }
+
+      return 1;
+   }
+
    private ServerMessage createQueueInfoMessage(final NotificationType type, final SimpleString queueName)
    {
       ServerMessage message = new ServerMessageImpl(storageManager.generateUniqueID(), 50);
@@ -106,6 +106,7 @@ import org.hornetq.core.server.HornetQMessageBundle;
 import org.hornetq.core.server.QueueQueryResult;
 import org.hornetq.core.server.ServerMessage;
 import org.hornetq.core.server.ServerSession;
+import org.hornetq.core.transaction.Transaction;
 import org.hornetq.spi.core.remoting.Connection;
 
 /**
@@ -116,7 +117,7 @@ import org.hornetq.spi.core.remoting.Connection;
  * @author <a href="mailto:andy.taylor@jboss.org>Andy Taylor</a>
  * @author <a href="mailto:clebert.suconic@jboss.org>Clebert Suconic</a>
  */
-public class ServerSessionPacketHandler implements ChannelHandler
+public class ServerSessionPacketHandler implements NonBlockingChannelHandler
 {
    private final ServerSession session;
 
@@ -128,12 +129,28 @@ public class ServerSessionPacketHandler implements ChannelHandler
 
    private final boolean direct;
 
+   private final boolean remotingThreadExecution;
+
    public ServerSessionPacketHandler(final ServerSession session,
                                      final StorageManager storageManager,
                                      final Channel channel)
+   {
+      this(session, storageManager, channel, false);
+   }
+
+   /**
+    * @param remotingThreadExecution whether the packets that can't block are handled on the remoting
+    *           thread even if they are flagged for asynchronous execution
+    */
+   public ServerSessionPacketHandler(final ServerSession session,
+                                     final StorageManager storageManager,
+                                     final Channel channel,
+                                     final boolean remotingThreadExecution)
    {
       this.session = session;
 
+      this.remotingThreadExecution = remotingThreadExecution;
+
       this.storageManager = storageManager;
 
       this.channel = channel;
@@ -198,6 +215,19 @@ public class ServerSessionPacketHandler implements ChannelHandler
       return channel;
    }
 
+   public boolean isNonBlocking(final Packet packet)
+   {
+      if (remotingThreadExecution && packet.getType() == SESS_COMMIT)
+      {
+         // Committing only blocks when the transaction has to be written to the journal
+         Transaction tx = session.getCurrentTransaction();
+
+         return tx != null && !tx.isContainsPersistent();
+      }
+
+      return false;
+   }
+
    public void handlePacket(final Packet packet)
    {
       byte type = packet.getType();
@@ -12,6 +12,9 @@
  */
 package org.hornetq.core.protocol.core.impl;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.protocol.core.Channel;
 import org.hornetq.core.protocol.core.Packet;
@@ -67,6 +70,22 @@ public final class CoreSessionCallback implements SessionCallback
       return packet.getPacketSize();
    }
 
+   public int sendLargeMessageContinuation(long consumerID, File file, long position, int size, boolean continues) throws IOException
+   {
+      SessionReceiveContinuationMessage packet = new SessionReceiveContinuationMessage(consumerID,
+                                                                                       file,
+                                                                                       position,
+                                                                                       size,
+                                                                                       continues);
+
+      if (!channel.sendFileRegion(packet))
+      {
+         return -1;
+      }
+
+      return packet.getPacketSize();
+   }
+
    public int sendMessage(ServerMessage message, long consumerID, int deliveryCount)
    {
       Packet packet = new SessionReceiveMessage(consumerID, message, deliveryCount);
@@ -164,7 +164,9 @@ public class HornetQPacketHandler implements ChannelHandler
 
          ServerSessionPacketHandler handler = new ServerSessionPacketHandler(session,
                                                                              server.getStorageManager(),
-                                                                             channel);
+                                                                             channel,
+                                                                             server.getConfiguration()
+                                                                                   .isRemotingThreadExecutionEnabled());
          channel.setHandler(handler);
 
          // TODO - where is this removed?
@@ -47,6 +47,8 @@ public final class InVMAcceptor implements Acceptor
 {
    private final int id;
 
+   private final boolean shareBuffers;
+
    private final BufferHandler handler;
 
    private final ConnectionLifeCycleListener listener;
@@ -83,6 +85,10 @@ public final class InVMAcceptor implements Acceptor
 
       id = ConfigurationHelper.getIntProperty(TransportConstants.SERVER_ID_PROP_NAME, 0, configuration);
 
+      shareBuffers = ConfigurationHelper.getBooleanProperty(TransportConstants.SHARE_BUFFERS_PROP_NAME,
+                                                            TransportConstants.DEFAULT_SHARE_BUFFERS,
+                                                            configuration);
+
       executorFactory = new OrderedExecutorFactory(threadPool);
    }
 
@@ -214,7 +220,7 @@ public final class InVMAcceptor implements Acceptor
 
       Listener connectionListener = new Listener(connector);
 
-      InVMConnection inVMConnection = new InVMConnection(id, connectionID, remoteHandler, connectionListener, clientExecutor, defaultHornetQPrincipal);
+      InVMConnection inVMConnection = new InVMConnection(id, connectionID, remoteHandler, connectionListener, clientExecutor, defaultHornetQPrincipal, shareBuffers);
 
       connectionListener.connectionCreated(this, inVMConnection, HornetQClient.DEFAULT_CORE_PROTOCOL);
    }
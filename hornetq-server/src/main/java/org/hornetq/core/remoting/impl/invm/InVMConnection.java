@@ -12,6 +12,7 @@
  */
 package org.hornetq.core.remoting.impl.invm;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -23,6 +24,7 @@ import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.api.core.HornetQBuffers;
 import org.hornetq.api.core.HornetQInterruptedException;
 import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.core.buffers.impl.ChannelBufferWrapper;
 import org.hornetq.core.security.HornetQPrincipal;
 import org.hornetq.core.server.HornetQServerLogger;
 import org.hornetq.spi.core.remoting.BufferHandler;
@@ -30,6 +32,7 @@ import org.hornetq.spi.core.remoting.Connection;
 import org.hornetq.spi.core.remoting.ConnectionLifeCycleListener;
 import org.hornetq.spi.core.remoting.ReadyListener;
 import org.hornetq.utils.UUIDGenerator;
+import org.jboss.netty.buffer.ChannelBuffers;
 
 /**
  * A InVMConnection
@@ -60,6 +63,8 @@ public class InVMConnection implements Connection
 
    private final HornetQPrincipal defaultHornetQPrincipal;
 
+   private final boolean shareBuffers;
+
    public InVMConnection(final int serverID,
                          final BufferHandler handler,
                          final ConnectionLifeCycleListener listener,
@@ -83,6 +88,21 @@ public class InVMConnection implements Connection
                          final ConnectionLifeCycleListener listener,
                          final Executor executor,
                          final HornetQPrincipal defaultHornetQPrincipal)
+   {
+      this(serverID, id, handler, listener, executor, defaultHornetQPrincipal, false);
+   }
+
+   /**
+    * @param shareBuffers if {@code true} the written buffers are handed over to the other side as
+    *           read only views instead of copies, see {@link TransportConstants#SHARE_BUFFERS_PROP_NAME}
+    */
+   public InVMConnection(final int serverID,
+                         final String id,
+                         final BufferHandler handler,
+                         final ConnectionLifeCycleListener listener,
+                         final Executor executor,
+                         final HornetQPrincipal defaultHornetQPrincipal,
+                         final boolean shareBuffers)
    {
       this.serverID = serverID;
 
@@ -95,6 +115,8 @@ public class InVMConnection implements Connection
       this.executor = executor;
 
       this.defaultHornetQPrincipal = defaultHornetQPrincipal;
+
+      this.shareBuffers = shareBuffers;
    }
 
    public void close()
@@ -136,11 +158,33 @@ public class InVMConnection implements Connection
       write(buffer, false, false);
    }
 
+   public boolean writeFileRegion(final HornetQBuffer buffer,
+                                  final int regionIndex,
+                                  final File file,
+                                  final long position,
+                                  final long count)
+   {
+      // buffers are copied anyway when handed over to the other side
+      return false;
+   }
+
    public void write(final HornetQBuffer buffer, final boolean flush, final boolean batch)
    {
-      final HornetQBuffer copied = buffer.copy(0, buffer.capacity());
+      final HornetQBuffer copied;
 
-      copied.setIndex(buffer.readerIndex(), buffer.writerIndex());
+      if (shareBuffers)
+      {
+         // Writers never touch a buffer again once written (Netty has the same requirement), and a read
+         // only view keeps the receiver from writing into it too: messages decoded from it copy their
+         // buffer before changing it, see MessageImpl#decodeFromBuffer
+         copied = new ChannelBufferWrapper(ChannelBuffers.unmodifiableBuffer(buffer.channelBuffer()));
+      }
+      else
+      {
+         copied = buffer.copy(0, buffer.capacity());
+
+         copied.setIndex(buffer.readerIndex(), buffer.writerIndex());
+      }
 
       try
       {
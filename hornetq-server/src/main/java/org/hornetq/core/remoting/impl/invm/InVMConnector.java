@@ -30,6 +30,7 @@ import org.hornetq.spi.core.remoting.Connection;
 import org.hornetq.spi.core.remoting.ConnectionLifeCycleListener;
 import org.hornetq.utils.ConfigurationHelper;
 import org.hornetq.utils.OrderedExecutorFactory;
+import org.hornetq.utils.UUIDGenerator;
 
 /**
  * A InVMConnector
@@ -78,6 +79,8 @@ public class InVMConnector extends AbstractConnector
 
    private final Executor closeExecutor;
 
+   private final boolean shareBuffers;
+
    public InVMConnector(final Map<String, Object> configuration,
                         final BufferHandler handler,
                         final ConnectionLifeCycleListener listener,
@@ -89,6 +92,10 @@ public class InVMConnector extends AbstractConnector
 
       id = ConfigurationHelper.getIntProperty(TransportConstants.SERVER_ID_PROP_NAME, 0, configuration);
 
+      shareBuffers = ConfigurationHelper.getBooleanProperty(TransportConstants.SHARE_BUFFERS_PROP_NAME,
+                                                            TransportConstants.DEFAULT_SHARE_BUFFERS,
+                                                            configuration);
+
       this.handler = handler;
 
       this.closeExecutor = closeExecutor;
@@ -175,7 +182,9 @@ public class InVMConnector extends AbstractConnector
                                                  final Executor serverExecutor)
    {
       // No acceptor on a client connection
-      InVMConnection inVMConnection = new InVMConnection(id, handler, listener, serverExecutor);
+      String connectionID = UUIDGenerator.getInstance().generateSimpleStringUUID().toString();
+      InVMConnection inVMConnection =
+               new InVMConnection(id, connectionID, handler, listener, serverExecutor, null, shareBuffers);
       listener.connectionCreated(null, inVMConnection, HornetQClient.DEFAULT_CORE_PROTOCOL);
       return inVMConnection;
    }
@@ -28,6 +28,14 @@ public final class TransportConstants
 {
    public static final String SERVER_ID_PROP_NAME = "server-id";
 
+   /**
+    * Whether the buffers written on a connection are handed over to the other side without copying
+    * them. Each side applies its own setting to what it writes.
+    */
+   public static final String SHARE_BUFFERS_PROP_NAME = "share-buffers";
+
+   public static final boolean DEFAULT_SHARE_BUFFERS = false;
+
    public static final Set<String> ALLOWABLE_CONNECTOR_KEYS;
 
    public static final Set<String> ALLOWABLE_ACCEPTOR_KEYS;
@@ -36,6 +44,7 @@ public final class TransportConstants
    {
       Set<String> allowableAcceptorKeys = new HashSet<String>();
       allowableAcceptorKeys.add(TransportConstants.SERVER_ID_PROP_NAME);
+      allowableAcceptorKeys.add(TransportConstants.SHARE_BUFFERS_PROP_NAME);
       allowableAcceptorKeys.add(org.hornetq.core.remoting.impl.netty.TransportConstants.CLUSTER_CONNECTION);
       allowableAcceptorKeys.add(HornetQDefaultConfiguration.getPropMaskPassword());
       allowableAcceptorKeys.add(HornetQDefaultConfiguration.getPropPasswordCodec());
@@ -44,6 +53,7 @@ public final class TransportConstants
 
       Set<String> allowableConnectorKeys = new HashSet<String>();
       allowableConnectorKeys.add(TransportConstants.SERVER_ID_PROP_NAME);
+      allowableConnectorKeys.add(TransportConstants.SHARE_BUFFERS_PROP_NAME);
       allowableConnectorKeys.add(HornetQDefaultConfiguration.getPropMaskPassword());
       allowableConnectorKeys.add(HornetQDefaultConfiguration.getPropPasswordCodec());
 
@@ -170,6 +170,10 @@ public class NettyAcceptor implements Acceptor
 
    private final long batchDelay;
 
+   private final int batchSize;
+
+   private final boolean adaptiveBatching;
+
    private final boolean directDeliver;
 
 
@@ -309,6 +313,14 @@ public class NettyAcceptor implements Acceptor
                                                        TransportConstants.DEFAULT_BATCH_DELAY,
                                                        configuration);
 
+      batchSize = ConfigurationHelper.getIntProperty(TransportConstants.BATCH_SIZE,
+                                                     TransportConstants.DEFAULT_BATCH_SIZE,
+                                                     configuration);
+
+      adaptiveBatching = ConfigurationHelper.getBooleanProperty(TransportConstants.ADAPTIVE_BATCHING,
+                                                                TransportConstants.DEFAULT_ADAPTIVE_BATCHING,
+                                                                configuration);
+
       directDeliver = ConfigurationHelper.getBooleanProperty(TransportConstants.DIRECT_DELIVER,
                                                              TransportConstants.DEFAULT_DIRECT_DELIVER,
                                                              configuration);
@@ -670,7 +682,13 @@ public class NettyAcceptor implements Acceptor
       {
          Listener connectionListener = new Listener();
 
-         NettyConnection nc = new NettyConnection(configuration, e.getChannel(), connectionListener, !httpEnabled && batchDelay > 0, directDeliver);
+         NettyConnection nc = new NettyConnection(configuration,
+                                                  e.getChannel(),
+                                                  connectionListener,
+                                                  !httpEnabled && (batchDelay > 0 || adaptiveBatching),
+                                                  directDeliver,
+                                                  batchSize,
+                                                  adaptiveBatching);
 
          connectionListener.connectionCreated(NettyAcceptor.this, nc, HornetQClient.DEFAULT_CORE_PROTOCOL);
 
@@ -558,4 +558,16 @@ public class ReplicatedJournal implements Journal
    {
       throw new UnsupportedOperationException("should never get called");
    }
+
+   @Override
+   public boolean isRecordReadable(final long id)
+   {
+      return localJournal.isRecordReadable(id);
+   }
+
+   @Override
+   public RecordInfo readAddRecord(final long id) throws Exception
+   {
+      return localJournal.readAddRecord(id);
+   }
 }
@@ -28,4 +28,12 @@ public interface SecurityStore
    void check(SimpleString address, CheckType checkType, ServerSession session) throws Exception;
 
    void stop();
+
+   long getAuthenticationCacheHitCount();
+
+   long getAuthenticationCacheMissCount();
+
+   long getAuthorizationCacheHitCount();
+
+   long getAuthorizationCacheMissCount();
 }
@@ -15,9 +15,12 @@ package org.hornetq.core.security.impl;
 
 import static org.hornetq.api.core.management.NotificationType.SECURITY_AUTHENTICATION_VIOLATION;
 
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.api.core.management.ManagementHelper;
@@ -33,11 +36,15 @@ import org.hornetq.core.server.management.NotificationService;
 import org.hornetq.core.settings.HierarchicalRepository;
 import org.hornetq.core.settings.HierarchicalRepositoryChangeListener;
 import org.hornetq.spi.core.security.HornetQSecurityManager;
-import org.hornetq.utils.ConcurrentHashSet;
 import org.hornetq.utils.TypedProperties;
 
 /**
  * The HornetQ SecurityStore implementation
+ * <p>
+ * Successful authentications and authorization decisions are cached for the invalidation interval,
+ * failed ones for the negative invalidation interval. Each cache holds at most the configured
+ * number of entries. A change of the security settings only evicts the decisions of the addresses
+ * whose roles changed.
  *
  * @author <a href="mailto:tim.fox@jboss.com">Tim Fox</a>
  * @author <a href="ataylor@redhat.com">Andy Taylor</a>
@@ -60,11 +67,23 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
 
    private final HornetQSecurityManager securityManager;
 
-   private final ConcurrentMap<String, ConcurrentHashSet<SimpleString>> cache = new ConcurrentHashMap<String, ConcurrentHashSet<SimpleString>>();
+   private final ConcurrentMap<String, Authentication> authenticationCache = new ConcurrentHashMap<String, Authentication>();
+
+   private final ConcurrentMap<AuthorizationKey, Authorization> authorizationCache = new ConcurrentHashMap<AuthorizationKey, Authorization>();
 
    private final long invalidationInterval;
 
-   private volatile long lastCheck;
+   private final long negativeInvalidationInterval;
+
+   private final int cacheSize;
+
+   private final AtomicLong authenticationHits = new AtomicLong();
+
+   private final AtomicLong authenticationMisses = new AtomicLong();
+
+   private final AtomicLong authorizationHits = new AtomicLong();
+
+   private final AtomicLong authorizationMisses = new AtomicLong();
 
    private final boolean securityEnabled;
 
@@ -82,6 +101,8 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
    public SecurityStoreImpl(final HierarchicalRepository<Set<Role>> securityRepository,
                             final HornetQSecurityManager securityManager,
                             final long invalidationInterval,
+                            final long negativeInvalidationInterval,
+                            final int cacheSize,
                             final boolean securityEnabled,
                             final String managementClusterUser,
                             final String managementClusterPassword,
@@ -90,6 +111,8 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
       this.securityRepository = securityRepository;
       this.securityManager = securityManager;
       this.invalidationInterval = invalidationInterval;
+      this.negativeInvalidationInterval = negativeInvalidationInterval;
+      this.cacheSize = cacheSize;
       this.securityEnabled = securityEnabled;
       this.managementClusterUser = managementClusterUser;
       this.managementClusterPassword = managementClusterPassword;
@@ -130,7 +153,7 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
             }
          }
 
-         if (!securityManager.validateUser(user, password))
+         if (!validateUser(user, password))
          {
             if (notificationService != null)
             {
@@ -158,23 +181,44 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
          }
 
          String user = session.getUsername();
-         if (checkCached(address, user, checkType))
+
+         AuthorizationKey key = new AuthorizationKey(user, checkType, address);
+
+         Authorization authorization = authorizationCache.get(key);
+
+         if (authorization != null && authorization.expiry - System.currentTimeMillis() > 0)
          {
-            // OK
-            return;
+            authorizationHits.incrementAndGet();
          }
+         else
+         {
+            String saddress = address.toString();
 
-         String saddress = address.toString();
+            Set<Role> roles = securityRepository.getMatch(saddress);
 
-         Set<Role> roles = securityRepository.getMatch(saddress);
+            // bypass permission checks for management cluster user
+            if (managementClusterUser.equals(user) && session.getPassword().equals(managementClusterPassword))
+            {
+               return;
+            }
 
-         // bypass permission checks for management cluster user
-         if (managementClusterUser.equals(user) && session.getPassword().equals(managementClusterPassword))
-         {
-            return;
+            authorizationMisses.incrementAndGet();
+
+            boolean granted = securityManager.validateUserAndRole(user, session.getPassword(), roles, checkType);
+
+            authorization = new Authorization(granted, roles, expiry(granted));
+
+            if (authorization.expiry > 0)
+            {
+               put(authorizationCache, key, authorization);
+            }
+            else
+            {
+               authorizationCache.remove(key);
+            }
          }
 
-         if (!securityManager.validateUserAndRole(user, session.getPassword(), roles, checkType))
+         if (!authorization.granted)
          {
             if (notificationService != null)
             {
@@ -189,23 +233,47 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
                notificationService.sendNotification(notification);
             }
 
-            throw HornetQMessageBundle.BUNDLE.userNoPermissions(session.getUsername(), checkType, saddress);
+            throw HornetQMessageBundle.BUNDLE.userNoPermissions(session.getUsername(), checkType, address.toString());
          }
-         // if we get here we're granted, add to the cache
-         ConcurrentHashSet<SimpleString> set = new ConcurrentHashSet<SimpleString>();
-         ConcurrentHashSet<SimpleString> act = cache.putIfAbsent(user + "." + checkType.name(), set);
-         if (act != null)
+      }
+   }
+
+   /**
+    * Evicts the authorization decisions of the addresses whose roles have changed.
+    */
+   public void onChange()
+   {
+      Iterator<Map.Entry<AuthorizationKey, Authorization>> iterator = authorizationCache.entrySet().iterator();
+
+      while (iterator.hasNext())
+      {
+         Map.Entry<AuthorizationKey, Authorization> entry = iterator.next();
+
+         if (securityRepository.getMatch(entry.getKey().address.toString()) != entry.getValue().roles)
          {
-            set = act;
+            iterator.remove();
          }
-         set.add(address);
-
       }
    }
 
-   public void onChange()
+   public long getAuthenticationCacheHitCount()
    {
-      invalidateCache();
+      return authenticationHits.get();
+   }
+
+   public long getAuthenticationCacheMissCount()
+   {
+      return authenticationMisses.get();
+   }
+
+   public long getAuthorizationCacheHitCount()
+   {
+      return authorizationHits.get();
+   }
+
+   public long getAuthorizationCacheMissCount()
+   {
+      return authorizationMisses.get();
    }
 
    // Public --------------------------------------------------------
@@ -215,35 +283,169 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
    // Package Private -----------------------------------------------
 
    // Private -------------------------------------------------------
-   private void invalidateCache()
-   {
-      cache.clear();
-   }
 
-   private boolean checkCached(final SimpleString dest, final String user, final CheckType checkType)
+   private boolean validateUser(final String user, final String password)
    {
-      long now = System.currentTimeMillis();
+      if (user == null)
+      {
+         return securityManager.validateUser(user, password);
+      }
 
-      boolean granted = false;
+      Authentication authentication = authenticationCache.get(user);
 
-      if (now - lastCheck > invalidationInterval)
+      if (authentication != null && authentication.expiry - System.currentTimeMillis() > 0 &&
+         (password == null ? authentication.password == null : password.equals(authentication.password)))
       {
-         invalidateCache();
+         authenticationHits.incrementAndGet();
+
+         return authentication.valid;
+      }
+
+      authenticationMisses.incrementAndGet();
+
+      boolean valid = securityManager.validateUser(user, password);
+
+      authentication = new Authentication(password, valid, expiry(valid));
 
-         lastCheck = now;
+      if (authentication.expiry > 0)
+      {
+         put(authenticationCache, user, authentication);
       }
       else
       {
-         ConcurrentHashSet<SimpleString> act = cache.get(user + "." + checkType.name());
-         if (act != null)
+         authenticationCache.remove(user);
+      }
+
+      return valid;
+   }
+
+   /**
+    * @return when a decision expires, or 0 if it must not be cached
+    */
+   private long expiry(final boolean granted)
+   {
+      long interval = granted ? invalidationInterval : negativeInvalidationInterval;
+
+      return interval > 0 ? System.currentTimeMillis() + interval : 0;
+   }
+
+   /**
+    * Caches a decision, making room by removing the expired ones and then arbitrary ones if the
+    * cache is full.
+    */
+   private <K, V extends Expiring> void put(final ConcurrentMap<K, V> cache, final K key, final V value)
+   {
+      if (cache.size() >= cacheSize && !cache.containsKey(key))
+      {
+         long now = System.currentTimeMillis();
+
+         Iterator<V> iterator = cache.values().iterator();
+
+         while (iterator.hasNext())
          {
-            granted = act.contains(dest);
+            if (iterator.next().expiry - now <= 0)
+            {
+               iterator.remove();
+            }
+         }
+
+         iterator = cache.values().iterator();
+
+         while (cache.size() >= cacheSize && iterator.hasNext())
+         {
+            iterator.next();
+
+            iterator.remove();
          }
       }
 
-      return granted;
+      cache.put(key, value);
    }
 
    // Inner class ---------------------------------------------------
 
+   private abstract static class Expiring
+   {
+      final long expiry;
+
+      Expiring(final long expiry)
+      {
+         this.expiry = expiry;
+      }
+   }
+
+   private static final class Authentication extends Expiring
+   {
+      final String password;
+
+      final boolean valid;
+
+      Authentication(final String password, final boolean valid, final long expiry)
+      {
+         super(expiry);
+         this.password = password;
+         this.valid = valid;
+      }
+   }
+
+   /**
+    * The roles are those of the address when the decision was made, they tell whether a change of
+    * the security settings affects it.
+    */
+   private static final class Authorization extends Expiring
+   {
+      final boolean granted;
+
+      final Set<Role> roles;
+
+      Authorization(final boolean granted, final Set<Role> roles, final long expiry)
+      {
+         super(expiry);
+         this.granted = granted;
+         this.roles = roles;
+      }
+   }
+
+   private static final class AuthorizationKey
+   {
+      final String user;
+
+      final CheckType checkType;
+
+      final SimpleString address;
+
+      private final int hash;
+
+      AuthorizationKey(final String user, final CheckType checkType, final SimpleString address)
+      {
+         this.user = user;
+         this.checkType = checkType;
+         this.address = address;
+         hash = 31 * (31 * (user == null ? 0 : user.hashCode()) + checkType.hashCode()) + address.hashCode();
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+
+      @Override
+      public boolean equals(final Object obj)
+      {
+         if (this == obj)
+         {
+            return true;
+         }
+         if (!(obj instanceof AuthorizationKey))
+         {
+            return false;
+         }
+         AuthorizationKey other = (AuthorizationKey)obj;
+         return hash == other.hash && checkType == other.checkType &&
+            (user == null ? other.user == null : user.equals(other.user)) &&
+            address.equals(other.address);
+      }
+   }
+
 }
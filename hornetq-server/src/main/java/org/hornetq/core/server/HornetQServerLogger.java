@@ -990,6 +990,10 @@ public interface HornetQServerLogger extends BasicLogger
    @Message(id = 222166, value = "Error stopping naming server", format = Message.Format.MESSAGE_FORMAT)
    void unableToStopNamingServer(@Cause Exception e);
 
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 222167, value = "Bridge {0} unable to commit a batch of {1} messages, they will be sent again once the bridge reconnects", format = Message.Format.MESSAGE_FORMAT)
+   void bridgeUnableToCommitBatch(@Cause Exception e, String bridge, int count);
+
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 224000, value = "Failure in initialisation", format = Message.Format.MESSAGE_FORMAT)
    void initializationError(@Cause Throwable e);
@@ -1283,4 +1287,9 @@ public interface HornetQServerLogger extends BasicLogger
     @Message(id = 224067, value = "Adding protocol support {0}",
             format = Message.Format.MESSAGE_FORMAT)
     void addingProtocolSupport(String protocolKey);
+
+   @LogMessage(level = Logger.Level.ERROR)
+   @Message(id = 224068, value = "Failed to send the queue load of cluster connection {0}",
+            format = Message.Format.MESSAGE_FORMAT)
+   void errorSendingQueueLoad(String clusterConnectionName, @Cause Exception e);
 }
@@ -77,6 +77,12 @@ public interface Queue extends Bindable
 
    void acknowledge(MessageReference ref) throws Exception;
 
+   /**
+    * Acknowledges references that are not paged outside of a transaction. The acknowledgements are
+    * stored all together or not at all, and the references are only acknowledged once they are stored.
+    */
+   void acknowledge(List<MessageReference> refs) throws Exception;
+
    void acknowledge(Transaction tx, MessageReference ref) throws Exception;
 
    void reacknowledge(Transaction tx, MessageReference ref) throws Exception;
@@ -191,6 +197,18 @@ public interface Queue extends Bindable
 
    void cancelRedistributor() throws Exception;
 
+   /**
+    * Adds a redistributor to a queue that has consumers, so it takes its turn with them and moves
+    * messages to other nodes of the cluster that are not backlogged.
+    */
+   void addBacklogRedistributor();
+
+   /**
+    * Removes the redistributor added by {@link #addBacklogRedistributor()}, the one added when the
+    * queue has no consumers is kept.
+    */
+   void cancelBacklogRedistributor() throws Exception;
+
    boolean hasMatchingConsumer(ServerMessage message);
 
    Collection<Consumer> getConsumers();
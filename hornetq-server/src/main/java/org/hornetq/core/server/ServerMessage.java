@@ -13,10 +13,12 @@
 
 package org.hornetq.core.server;
 
+import org.hornetq.api.core.HornetQBuffer;
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.journal.EncodingSupport;
 import org.hornetq.core.message.impl.MessageInternal;
 import org.hornetq.core.paging.PagingStore;
+import org.hornetq.core.persistence.StorageManager;
 
 /**
  *
@@ -75,4 +77,31 @@ public interface ServerMessage extends MessageInternal, EncodingSupport
    byte [] getDuplicateIDBytes();
 
    Object getDuplicateProperty();
+
+   /**
+    * Protocol managers may keep a protocol specific form of the message here, such as its wire
+    * encoding, so that it is computed once and shared by every consumer the message is delivered to.
+    * <p>
+    * It is neither persisted nor copied, and it must only be set once the message has been routed.
+    * The given memory estimate is counted against the message's paging store until the last
+    * reference to the message is gone, at which point the protocol data is dropped.
+    */
+   Object getProtocolData();
+
+   void setProtocolData(Object protocolData, int memoryEstimate);
+
+   /**
+    * Releases the body of a stored message from memory, keeping only its headers and properties.
+    * The body is read back from storage the next time it is needed.
+    * <p>
+    * This must be called before the message is visible to other threads, as the body is read
+    * without locking.
+    * <p>
+    * From then on the memory estimate of the message no longer includes the body, and the paging
+    * store of the message is updated accordingly. A body read back stays with the message until it
+    * is acknowledged.
+    * @return the buffer that was released, or null if the body can't be released, such as for large
+    *         messages
+    */
+   HornetQBuffer releaseBody(StorageManager storageManager);
 }
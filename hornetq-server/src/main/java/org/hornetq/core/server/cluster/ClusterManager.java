@@ -620,6 +620,8 @@ public final class ClusterManager implements HornetQComponent
                                      config.isUseDuplicateDetection(),
                                      config.getUser(),
                                      config.getPassword(),
+                                     config.getBatchSize(),
+                                     config.getBatchTime(),
                                      !backup,
                                      server.getStorageManager());
 
@@ -817,7 +819,10 @@ public final class ClusterManager implements HornetQComponent
                                                        server.getConfiguration().getClusterPassword(),
                                                        config.isAllowDirectConnectionsOnly(),
                                                        config.getClusterNotificationInterval(),
-                                                       config.getClusterNotificationAttempts());
+                                                       config.getClusterNotificationAttempts(),
+                                                       config.getLoadNotificationInterval(),
+                                                       config.getBatchSize(),
+                                                       config.getBatchTime());
       }
       else
       {
@@ -859,7 +864,10 @@ public final class ClusterManager implements HornetQComponent
                                                        server.getConfiguration().getClusterPassword(),
                                                        config.isAllowDirectConnectionsOnly(),
                                                        config.getClusterNotificationInterval(),
-                                                       config.getClusterNotificationAttempts());
+                                                       config.getClusterNotificationAttempts(),
+                                                       config.getLoadNotificationInterval(),
+                                                       config.getBatchSize(),
+                                                       config.getBatchTime());
       }
 
       if (defaultClusterConnection == null)
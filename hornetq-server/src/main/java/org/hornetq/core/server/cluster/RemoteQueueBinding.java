@@ -13,6 +13,8 @@
 
 package org.hornetq.core.server.cluster;
 
+import java.util.Map;
+
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.postoffice.QueueBinding;
 
@@ -30,4 +32,25 @@ public interface RemoteQueueBinding extends QueueBinding
    void addConsumer(SimpleString filterString) throws Exception;
 
    void removeConsumer(SimpleString filterString) throws Exception;
+
+   /**
+    * @return the number of consumers of the remote queue for each filter string, the consumers
+    *         without a filter are counted under the {@code null} key
+    */
+   Map<SimpleString, Integer> getConsumerCounts();
+
+   long getRemoteQueueID();
+
+   /**
+    * Updates the load last reported by the node of the remote queue.
+    * @param messageCount the number of messages in the remote queue
+    * @param consumeRate the number of messages per second consumed from the remote queue
+    */
+   void updateLoad(long messageCount, long consumeRate);
+
+   /**
+    * @return {@code true} if the last load reported for the remote queue shows more messages than
+    *         its consumers can take in a second
+    */
+   boolean isBacklogged();
 }
@@ -120,6 +120,10 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
    private final long maxRetryInterval;
 
+   private final int batchSize;
+
+   private final long batchTime;
+
    /** Used when there's a scheduled reconnection */
    protected ScheduledFuture<?> futureScheduledReconnection;
 
@@ -141,6 +145,14 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
    private boolean deliveringLargeMessage;
 
+   /** Messages sent in the current transaction of a batching bridge */
+   private int batchCount;
+
+   private ScheduledFuture<?> batchFuture;
+
+   /** Set while a batch is being committed, the session is not used for anything else meanwhile */
+   private boolean committing;
+
    private boolean activated;
 
    private int reconnectAttemptsInUse;
@@ -168,6 +180,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
                      final boolean useDuplicateDetection,
                      final String user,
                      final String password,
+                     final int batchSize,
+                     final long batchTime,
                      final boolean activated,
                      final StorageManager storageManager)
    {
@@ -208,6 +222,10 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
       this.password = password;
 
+      this.batchSize = batchSize;
+
+      this.batchTime = batchTime;
+
       this.activated = activated;
    }
 
@@ -483,24 +501,151 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
    {
       if (active)
       {
-         try
-         {
-            final MessageReference ref = refs.poll();
+         acknowledgeNextReference();
+      }
+   }
+
+   private void acknowledgeNextReference()
+   {
+      try
+      {
+         final MessageReference ref = refs.poll();
 
-            if (ref != null)
+         if (ref != null)
+         {
+            if (isTrace)
             {
-               if (isTrace)
-               {
-                  HornetQServerLogger.LOGGER.trace(this + " Acking " + ref + " on queue " + ref.getQueue());
-               }
-               ref.getQueue().acknowledge(ref);
-               pendingAcks.countDown();
+               HornetQServerLogger.LOGGER.trace(this + " Acking " + ref + " on queue " + ref.getQueue());
             }
+            ref.getQueue().acknowledge(ref);
+            pendingAcks.countDown();
          }
-         catch (Exception e)
+      }
+      catch (Exception e)
+      {
+         HornetQServerLogger.LOGGER.bridgeFailedToAck(e);
+      }
+   }
+
+   private boolean isBatching()
+   {
+      return batchSize > 0;
+   }
+
+   /**
+    * Counts a message sent in the current transaction of the session, which is committed once the
+    * batch is full or when the batch time has elapsed since its first message.
+    * <p>
+    * Must be called while holding the lock of the bridge.
+    */
+   private void addToBatch()
+   {
+      batchCount++;
+
+      if (batchCount >= batchSize)
+      {
+         scheduleCommit();
+      }
+      else if (batchCount == 1)
+      {
+         batchFuture = scheduledExecutor.schedule(new BatchTimer(), batchTime, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   /**
+    * Hands the commit of the current batch to the executor, so that it doesn't happen on the
+    * delivery path. {@link #handle(MessageReference)} returns BUSY until it is done.
+    * <p>
+    * Must be called while holding the lock of the bridge.
+    */
+   private void scheduleCommit()
+   {
+      if (batchFuture != null)
+      {
+         batchFuture.cancel(false);
+         batchFuture = null;
+      }
+
+      if (committing || batchCount == 0)
+      {
+         return;
+      }
+
+      committing = true;
+
+      executor.execute(new BatchCommitter());
+   }
+
+   /**
+    * Commits the messages sent since the last commit and acknowledges their references, the
+    * commit acknowledges the whole batch at once.
+    * <p>
+    * Must be called from the executor, without holding the lock of the bridge.
+    */
+   private void commitBatch()
+   {
+      int count;
+
+      synchronized (this)
+      {
+         if (batchFuture != null)
          {
-            HornetQServerLogger.LOGGER.bridgeFailedToAck(e);
+            batchFuture.cancel(false);
+            batchFuture = null;
          }
+
+         count = batchCount;
+
+         batchCount = 0;
+
+         if (!active || count == 0)
+         {
+            committing = false;
+
+            return;
+         }
+
+         committing = true;
+      }
+
+      try
+      {
+         session.commit();
+      }
+      catch (HornetQException e)
+      {
+         HornetQServerLogger.LOGGER.bridgeUnableToCommitBatch(e, name.toString(), count);
+
+         // the references of the batch are cancelled and will be sent again once the bridge reconnects,
+         // duplicate detection will cope with any messages of the batch that did make it
+         for (int i = 0; i < count; i++)
+         {
+            pendingAcks.countDown();
+         }
+
+         synchronized (this)
+         {
+            committing = false;
+         }
+
+         connectionFailed(e, false);
+
+         return;
+      }
+
+      synchronized (this)
+      {
+         for (int i = 0; i < count; i++)
+         {
+            acknowledgeNextReference();
+         }
+
+         committing = false;
+      }
+
+      if (queue != null)
+      {
+         queue.deliverAsync();
       }
    }
 
@@ -559,7 +704,7 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
             return HandleStatus.BUSY;
          }
 
-         if (deliveringLargeMessage )
+         if (deliveringLargeMessage || committing)
          {
             return HandleStatus.BUSY;
          }
@@ -599,7 +744,14 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
             }
             else
             {
-               return deliverStandardMessage(dest, ref, message);
+               HandleStatus status = deliverStandardMessage(dest, ref, message);
+
+               if (status == HandleStatus.HANDLED && isBatching())
+               {
+                  addToBatch();
+               }
+
+               return status;
             }
          }
          catch (Exception e)
@@ -677,6 +829,18 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
             {
                producer.send(dest, message);
 
+               if (isBatching())
+               {
+                  // the large message is committed with the batch it belongs to straight away, no other
+                  // message could be sent while it was being sent
+                  synchronized (BridgeImpl.this)
+                  {
+                     batchCount++;
+                  }
+
+                  commitBatch();
+               }
+
                // as soon as we are done sending the large message
                // we unset the delivery flag and we will call the deliveryAsync on the queue
                // so the bridge will be able to resume work
@@ -788,6 +952,17 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
          }
       }
 
+      synchronized (this)
+      {
+         // the transaction of the session is gone with it, its references are cancelled below
+         for (int i = 0; i < batchCount; i++)
+         {
+            pendingAcks.countDown();
+         }
+
+         batchCount = 0;
+      }
+
       cancelRefs();
       if (queue != null)
       {
@@ -894,8 +1069,9 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
                   scheduleRetryConnect();
                   return;
                }
-               // Session is pre-acknowledge
-               session = (ClientSessionInternal)csf.createSession(user, password, false, true, true, true, 1);
+               // Session is pre-acknowledge, a batching bridge commits its sends instead of
+               // waiting for each of them to be confirmed
+               session = (ClientSessionInternal)csf.createSession(user, password, false, !isBatching(), true, true, 1);
             }
 
             if (forwardingAddress != null)
@@ -937,7 +1113,10 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
             producer = session.createProducer();
             session.addFailureListener(BridgeImpl.this);
 
-            session.setSendAcknowledgementHandler(BridgeImpl.this);
+            if (!isBatching())
+            {
+               session.setSendAcknowledgementHandler(BridgeImpl.this);
+            }
 
             afterConnect();
 
@@ -1118,6 +1297,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
             HornetQServerLogger.LOGGER.debug("stopping bridge " + BridgeImpl.this);
             queue.removeConsumer(BridgeImpl.this);
 
+            commitBatch();
+
             if (!pendingAcks.await(10, TimeUnit.SECONDS))
             {
                HornetQServerLogger.LOGGER.timedOutWaitingCompletions(BridgeImpl.this.toString(),
@@ -1186,6 +1367,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
          {
             queue.removeConsumer(BridgeImpl.this);
 
+            commitBatch();
+
             if (!pendingAcks.await(60, TimeUnit.SECONDS))
             {
                HornetQServerLogger.LOGGER.timedOutWaitingCompletions(BridgeImpl.this.toString(),
@@ -1210,6 +1393,32 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
    }
 
+   /**
+    * Commits a batch that did not fill up within the batch time.
+    */
+   private class BatchTimer implements Runnable
+   {
+      public void run()
+      {
+         synchronized (BridgeImpl.this)
+         {
+            // a large message being sent is using the session, it commits the batch itself once sent
+            if (active && !deliveringLargeMessage)
+            {
+               scheduleCommit();
+            }
+         }
+      }
+   }
+
+   private class BatchCommitter implements Runnable
+   {
+      public void run()
+      {
+         commitBatch();
+      }
+   }
+
    private class TopologyListener implements ClusterTopologyListener
    {
 
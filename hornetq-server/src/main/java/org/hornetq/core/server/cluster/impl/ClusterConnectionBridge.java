@@ -34,6 +34,7 @@ import org.hornetq.core.filter.Filter;
 import org.hornetq.core.message.impl.MessageImpl;
 import org.hornetq.core.persistence.StorageManager;
 import org.hornetq.core.postoffice.BindingType;
+import org.hornetq.core.postoffice.impl.PostOfficeImpl;
 import org.hornetq.core.remoting.FailureListener;
 import org.hornetq.core.server.HornetQServerLogger;
 import org.hornetq.core.server.Queue;
@@ -92,6 +93,8 @@ public class ClusterConnectionBridge extends BridgeImpl
                                   final boolean useDuplicateDetection,
                                   final String user,
                                   final String password,
+                                  final int batchSize,
+                                  final long batchTime,
                                   final boolean activated,
                                   final StorageManager storageManager,
                                   final SimpleString managementAddress,
@@ -116,6 +119,8 @@ public class ClusterConnectionBridge extends BridgeImpl
             useDuplicateDetection,
             user,
             password,
+            batchSize,
+            batchTime,
             activated,
             storageManager);
 
@@ -248,7 +253,9 @@ public class ClusterConnectionBridge extends BridgeImpl
 
          // Get the queue data
 
-         String qName = "notif." + UUIDGenerator.getInstance().generateStringUUID() +
+         // the prefix tells the other node this one reads the number of consumers of its consumer notifications
+         String qName = PostOfficeImpl.COUNTED_NOTIFICATION_QUEUE_PREFIX +
+                        UUIDGenerator.getInstance().generateStringUUID() +
                         "." +
                         clusterConnection.getServer();
 
@@ -270,6 +277,8 @@ public class ClusterConnectionBridge extends BridgeImpl
                                                 NotificationType.PROPOSAL +
                                                 "','" +
                                                 NotificationType.PROPOSAL_RESPONSE +
+                                                "','" +
+                                                NotificationType.QUEUE_LOAD +
                                                 "') AND " +
                                                 ManagementHelper.HDR_DISTANCE +
                                                 "<" +
@@ -29,6 +29,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.hornetq.api.core.DiscoveryGroupConfiguration;
@@ -50,6 +51,7 @@ import org.hornetq.core.client.impl.TopologyMemberImpl;
 import org.hornetq.core.postoffice.Binding;
 import org.hornetq.core.postoffice.Bindings;
 import org.hornetq.core.postoffice.PostOffice;
+import org.hornetq.core.postoffice.impl.LocalQueueBinding;
 import org.hornetq.core.postoffice.impl.PostOfficeImpl;
 import org.hornetq.core.protocol.core.impl.wireformat.NodeAnnounceMessage;
 import org.hornetq.core.server.HornetQMessageBundle;
@@ -67,6 +69,7 @@ import org.hornetq.core.server.group.impl.Proposal;
 import org.hornetq.core.server.group.impl.Response;
 import org.hornetq.core.server.management.ManagementService;
 import org.hornetq.core.server.management.Notification;
+import org.hornetq.core.settings.impl.AddressSettings;
 import org.hornetq.spi.core.protocol.RemotingConnection;
 import org.hornetq.utils.ExecutorFactory;
 import org.hornetq.utils.FutureLatch;
@@ -167,6 +170,12 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
    private LiveNotifier liveNotifier = null;
    private final long clusterNotificationInterval;
    private final int clusterNotificationAttempts;
+   private final long loadNotificationInterval;
+
+   private final int batchSize;
+
+   private final long batchTime;
+   private ScheduledFuture<?> loadNotifierFuture;
 
    /**
     * @param staticTranspConfigs notice if {@code null} this is a cluster which won't connect to
@@ -202,7 +211,10 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
                                 final String clusterPassword,
                                 final boolean allowDirectConnectionsOnly,
                                 final long clusterNotificationInterval,
-                                final int clusterNotificationAttempts) throws Exception
+                                final int clusterNotificationAttempts,
+                                final long loadNotificationInterval,
+                                final int batchSize,
+                                final long batchTime) throws Exception
    {
       this.nodeManager = nodeManager;
 
@@ -236,6 +248,12 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
       this.clusterNotificationAttempts = clusterNotificationAttempts;
 
+      this.loadNotificationInterval = loadNotificationInterval;
+
+      this.batchSize = batchSize;
+
+      this.batchTime = batchTime;
+
       this.executor = executorFactory.getExecutor();
 
       this.threadPool = threadPool;
@@ -331,7 +349,10 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
                                 final String clusterPassword,
                                 final boolean allowDirectConnectionsOnly,
                                 final long clusterNotificationInterval,
-                                final int clusterNotificationAttempts) throws Exception
+                                final int clusterNotificationAttempts,
+                                final long loadNotificationInterval,
+                                final int batchSize,
+                                final long batchTime) throws Exception
    {
       this.nodeManager = nodeManager;
 
@@ -371,6 +392,12 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
       this.clusterNotificationAttempts = clusterNotificationAttempts;
 
+      this.loadNotificationInterval = loadNotificationInterval;
+
+      this.batchSize = batchSize;
+
+      this.batchTime = batchTime;
+
       this.executor = executorFactory.getExecutor();
 
       this.threadPool = threadPool;
@@ -448,6 +475,16 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
          serverLocator.removeClusterTopologyListener(this);
       }
 
+      synchronized (this)
+      {
+         if (loadNotifierFuture != null)
+         {
+            loadNotifierFuture.cancel(false);
+
+            loadNotifierFuture = null;
+         }
+      }
+
       HornetQServerLogger.LOGGER.debug("Cluster connection being stopped for node" + nodeManager.getNodeId() +
                 ", server = " +
                 this.server +
@@ -712,6 +749,14 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
       liveNotifier.updateAsLive();
       liveNotifier.schedule();
 
+      if (loadNotificationInterval > 0 && loadNotifierFuture == null)
+      {
+         loadNotifierFuture = scheduledExecutor.scheduleWithFixedDelay(new LoadNotifier(),
+                                                                       loadNotificationInterval,
+                                                                       loadNotificationInterval,
+                                                                       TimeUnit.MILLISECONDS);
+      }
+
       if (backupServerLocator != null)
       {
          // todo we could use the topology of this to preempt it arriving from the cc
@@ -1034,6 +1079,8 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
                                                                    useDuplicateDetection,
                                                                    clusterUser,
                                                                    clusterPassword,
+                                                                   batchSize,
+                                                                   batchTime,
                                                                    !backup,
                                                                    server.getStorageManager(),
                                                                    managementService.getManagementAddress(),
@@ -1084,6 +1131,12 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
       private volatile boolean firstReset = false;
 
+      /** The bindings known before a reset that the queue info sent since has not mentioned yet */
+      private Set<SimpleString> staleBindings;
+
+      /** The consumers sent since a reset for the bindings that were kept */
+      private Map<SimpleString, Map<SimpleString, Integer>> resyncedConsumers;
+
       public MessageFlowRecordImpl(final ServerLocatorInternal targetLocator,
                                    final long eventUID,
                                    final String targetNodeID,
@@ -1245,13 +1298,28 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
             // Reset the bindings
             if (message.containsProperty(PostOfficeImpl.HDR_RESET_QUEUE_DATA))
             {
-               clearBindings();
+               if (message.containsProperty(PostOfficeImpl.HDR_RESET_QUEUE_DATA_RESYNC))
+               {
+                  startResync();
+               }
+               else
+               {
+                  // a node that does not mark the end of its queue info, the bindings are all sent again
+                  clearBindings();
+               }
 
                firstReset = true;
 
                return;
             }
 
+            if (message.containsProperty(PostOfficeImpl.HDR_RESET_QUEUE_DATA_COMPLETE))
+            {
+               completeResync();
+
+               return;
+            }
+
             if (!firstReset)
             {
                return;
@@ -1301,6 +1369,12 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
                   break;
                }
+               case QUEUE_LOAD:
+               {
+                  doQueueLoad(message);
+
+                  break;
+               }
                default:
                {
                   throw HornetQMessageBundle.BUNDLE.invalidType(ntype);
@@ -1364,6 +1438,107 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
          {
             removeBinding(binding.getClusterName());
          }
+
+         staleBindings = null;
+
+         resyncedConsumers = null;
+      }
+
+      /*
+      * The other node is about to send all its queues again. Rather than removing our bindings and adding them back,
+      * which would be propagated to the whole cluster, the bindings are kept until the end of the queue info and only
+      * the differences are applied
+      * */
+      private synchronized void startResync() throws Exception
+      {
+         if (staleBindings != null)
+         {
+            // the previous queue info never completed
+            completeResync();
+         }
+
+         if (isTrace)
+         {
+            HornetQServerLogger.LOGGER.trace(ClusterConnectionImpl.this + " resynchronizing " + bindings.size() + " bindings");
+         }
+
+         staleBindings = new HashSet<SimpleString>(bindings.keySet());
+
+         resyncedConsumers = new HashMap<SimpleString, Map<SimpleString, Integer>>();
+      }
+
+      private synchronized void completeResync() throws Exception
+      {
+         if (staleBindings == null)
+         {
+            return;
+         }
+
+         for (SimpleString clusterName : staleBindings)
+         {
+            if (bindings.containsKey(clusterName))
+            {
+               removeBinding(clusterName);
+            }
+         }
+
+         for (Map.Entry<SimpleString, Map<SimpleString, Integer>> entry : resyncedConsumers.entrySet())
+         {
+            RemoteQueueBinding binding = bindings.get(entry.getKey());
+
+            if (binding == null)
+            {
+               continue;
+            }
+
+            Map<SimpleString, Integer> before = binding.getConsumerCounts();
+
+            Map<SimpleString, Integer> after = entry.getValue();
+
+            Set<SimpleString> filterStrings = new HashSet<SimpleString>(before.keySet());
+
+            filterStrings.addAll(after.keySet());
+
+            for (SimpleString filterString : filterStrings)
+            {
+               int delta = getCount(after, filterString) - getCount(before, filterString);
+
+               for (int i = 0; i < delta; i++)
+               {
+                  binding.addConsumer(filterString);
+               }
+
+               for (int i = 0; i < -delta; i++)
+               {
+                  binding.removeConsumer(filterString);
+               }
+
+               if (delta != 0)
+               {
+                  sendConsumerNotification(delta > 0 ? CONSUMER_CREATED : CONSUMER_CLOSED,
+                                           binding,
+                                           filterString,
+                                           Math.abs(delta));
+               }
+            }
+         }
+
+         if (isTrace)
+         {
+            HornetQServerLogger.LOGGER.trace(ClusterConnectionImpl.this + " resynchronized bindings, kept " +
+                                             resyncedConsumers.size() + " and removed " + staleBindings.size());
+         }
+
+         staleBindings = null;
+
+         resyncedConsumers = null;
+      }
+
+      private int getCount(final Map<SimpleString, Integer> counts, final SimpleString filterString)
+      {
+         Integer count = counts.get(filterString);
+
+         return count == null ? 0 : count;
       }
 
       private synchronized void doBindingAdded(final ClientMessage message) throws Exception
@@ -1409,6 +1584,25 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
          Long queueID = message.getLongProperty(ManagementHelper.HDR_BINDING_ID);
 
+         if (staleBindings != null && staleBindings.remove(clusterName))
+         {
+            RemoteQueueBinding existing = bindings.get(clusterName);
+
+            if (existing.getAddress().equals(queueAddress) && existing.getRoutingName().equals(routingName) &&
+                existing.getRemoteQueueID() == queueID &&
+                existing.getDistance() == distance + 1 &&
+                (existing.getFilter() == null ? filterString == null
+                                              : existing.getFilter().getFilterString().equals(filterString)))
+            {
+               // the queue did not change, its consumers are compared once the queue info is complete
+               resyncedConsumers.put(clusterName, new HashMap<SimpleString, Integer>());
+
+               return;
+            }
+
+            removeBinding(clusterName);
+         }
+
          RemoteQueueBinding binding = new RemoteQueueBindingImpl(server.getStorageManager().generateUniqueID(),
                                                                  queueAddress,
                                                                  clusterName,
@@ -1449,9 +1643,11 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
          theBindings.setRouteWhenNoConsumers(routeWhenNoConsumers);
 
+         theBindings.setLoadAware(loadNotificationInterval > 0);
+
       }
 
-      private void doBindingRemoved(final ClientMessage message) throws Exception
+      private synchronized void doBindingRemoved(final ClientMessage message) throws Exception
       {
          if (HornetQServerLogger.LOGGER.isTraceEnabled())
          {
@@ -1464,6 +1660,12 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
          SimpleString clusterName = message.getSimpleStringProperty(ManagementHelper.HDR_CLUSTER_NAME);
 
+         if (resyncedConsumers != null)
+         {
+            // a binding added again after this starts with no consumers
+            resyncedConsumers.remove(clusterName);
+         }
+
          removeBinding(clusterName);
       }
 
@@ -1503,6 +1705,18 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
          SimpleString filterString = message.getSimpleStringProperty(ManagementHelper.HDR_FILTERSTRING);
 
+         int numberOfConsumers = getNumberOfConsumers(message);
+
+         Map<SimpleString, Integer> consumers = resyncedConsumers == null ? null : resyncedConsumers.get(clusterName);
+
+         if (consumers != null)
+         {
+            // the binding was kept by a reset, its consumers are compared once the queue info is complete
+            consumers.put(filterString, getCount(consumers, filterString) + numberOfConsumers);
+
+            return;
+         }
+
          RemoteQueueBinding binding = bindings.get(clusterName);
 
          if (binding == null)
@@ -1512,39 +1726,147 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
                                             ClusterConnectionImpl.this);
          }
 
-         binding.addConsumer(filterString);
+         for (int i = 0; i < numberOfConsumers; i++)
+         {
+            binding.addConsumer(filterString);
+         }
 
          // Need to propagate the consumer add
+         sendConsumerNotification(CONSUMER_CREATED, binding, filterString, numberOfConsumers);
+      }
+
+      private synchronized void doConsumerClosed(final ClientMessage message) throws Exception
+      {
+         if (HornetQServerLogger.LOGGER.isTraceEnabled())
+         {
+            HornetQServerLogger.LOGGER.trace(ClusterConnectionImpl.this + " Consumer closed " + message);
+         }
+         if (!message.containsProperty(ManagementHelper.HDR_DISTANCE))
+         {
+            throw new IllegalStateException("distance is null");
+         }
+
+         if (!message.containsProperty(ManagementHelper.HDR_CLUSTER_NAME))
+         {
+            throw new IllegalStateException("clusterName is null");
+         }
+
+         Integer distance = message.getIntProperty(ManagementHelper.HDR_DISTANCE);
+
+         SimpleString clusterName = message.getSimpleStringProperty(ManagementHelper.HDR_CLUSTER_NAME);
+
+         message.putIntProperty(ManagementHelper.HDR_DISTANCE, distance + 1);
+
+         SimpleString filterString = message.getSimpleStringProperty(ManagementHelper.HDR_FILTERSTRING);
+
+         int numberOfConsumers = getNumberOfConsumers(message);
+
+         Map<SimpleString, Integer> consumers = resyncedConsumers == null ? null : resyncedConsumers.get(clusterName);
+
+         if (consumers != null)
+         {
+            // the binding was kept by a reset, the close is applied with the other consumers once the queue info is
+            // complete
+            consumers.put(filterString, Math.max(0, getCount(consumers, filterString) - numberOfConsumers));
+
+            return;
+         }
+
+         RemoteQueueBinding binding = bindings.get(clusterName);
+
+         if (binding == null)
+         {
+            throw new IllegalStateException("Cannot find binding for " + clusterName);
+         }
+
+         for (int i = 0; i < numberOfConsumers; i++)
+         {
+            binding.removeConsumer(filterString);
+         }
+
+         // Need to propagate the consumer close
+         sendConsumerNotification(CONSUMER_CLOSED, binding, filterString, numberOfConsumers);
+      }
+
+      private int getNumberOfConsumers(final ClientMessage message)
+      {
+         if (message.containsProperty(ManagementHelper.HDR_NUMBER_OF_CONSUMERS))
+         {
+            return message.getIntProperty(ManagementHelper.HDR_NUMBER_OF_CONSUMERS);
+         }
+
+         return 1;
+      }
+
+      private void sendConsumerNotification(final NotificationType type,
+                                            final RemoteQueueBinding binding,
+                                            final SimpleString filterString,
+                                            final int numberOfConsumers) throws Exception
+      {
+         if (numberOfConsumers != 1 && !isNumberOfConsumersRead())
+         {
+            for (int i = 0; i < numberOfConsumers; i++)
+            {
+               sendConsumerNotification(type, binding, filterString, 1);
+            }
+
+            return;
+         }
+
          TypedProperties props = new TypedProperties();
 
          props.putSimpleStringProperty(ManagementHelper.HDR_ADDRESS, binding.getAddress());
 
-         props.putSimpleStringProperty(ManagementHelper.HDR_CLUSTER_NAME, clusterName);
+         props.putSimpleStringProperty(ManagementHelper.HDR_CLUSTER_NAME, binding.getClusterName());
 
          props.putSimpleStringProperty(ManagementHelper.HDR_ROUTING_NAME, binding.getRoutingName());
 
-         props.putIntProperty(ManagementHelper.HDR_DISTANCE, distance + 1);
+         props.putIntProperty(ManagementHelper.HDR_DISTANCE, binding.getDistance());
 
          Queue theQueue = (Queue)binding.getBindable();
 
          props.putIntProperty(ManagementHelper.HDR_CONSUMER_COUNT, theQueue.getConsumerCount());
 
+         if (numberOfConsumers != 1)
+         {
+            props.putIntProperty(ManagementHelper.HDR_NUMBER_OF_CONSUMERS, numberOfConsumers);
+         }
+
          if (filterString != null)
          {
             props.putSimpleStringProperty(ManagementHelper.HDR_FILTERSTRING, filterString);
          }
 
-         Notification notification = new Notification(null, CONSUMER_CREATED, props);
+         Notification notification = new Notification(null, type, props);
 
          managementService.sendNotification(notification);
       }
 
-      private synchronized void doConsumerClosed(final ClientMessage message) throws Exception
+      /**
+       * @return false if the notifications of this node are also read by a cluster connection of a node that does
+       *         not read {@link ManagementHelper#HDR_NUMBER_OF_CONSUMERS}
+       */
+      private boolean isNumberOfConsumersRead() throws Exception
       {
-         if (HornetQServerLogger.LOGGER.isTraceEnabled())
+         Bindings notificationBindings = postOffice.getBindingsForAddress(server.getConfiguration()
+                                                                                .getManagementNotificationAddress());
+
+         for (Binding notificationBinding : notificationBindings.getBindings())
          {
-            HornetQServerLogger.LOGGER.trace(ClusterConnectionImpl.this + " Consumer closed " + message);
+            String queueName = notificationBinding.getUniqueName().toString();
+
+            if (queueName.startsWith(PostOfficeImpl.NOTIFICATION_QUEUE_PREFIX) &&
+                !queueName.startsWith(PostOfficeImpl.COUNTED_NOTIFICATION_QUEUE_PREFIX))
+            {
+               return false;
+            }
          }
+
+         return true;
+      }
+
+      private synchronized void doQueueLoad(final ClientMessage message) throws Exception
+      {
          if (!message.containsProperty(ManagementHelper.HDR_DISTANCE))
          {
             throw new IllegalStateException("distance is null");
@@ -1559,20 +1881,21 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
          SimpleString clusterName = message.getSimpleStringProperty(ManagementHelper.HDR_CLUSTER_NAME);
 
-         message.putIntProperty(ManagementHelper.HDR_DISTANCE, distance + 1);
+         long messageCount = message.getLongProperty(ManagementHelper.HDR_MESSAGE_COUNT);
 
-         SimpleString filterString = message.getSimpleStringProperty(ManagementHelper.HDR_FILTERSTRING);
+         long consumeRate = message.getLongProperty(ManagementHelper.HDR_CONSUME_RATE);
 
          RemoteQueueBinding binding = bindings.get(clusterName);
 
          if (binding == null)
          {
-            throw new IllegalStateException("Cannot find binding for " + clusterName);
+            // the load can be sent before the binding is added here, the next one will be taken into account
+            return;
          }
 
-         binding.removeConsumer(filterString);
+         binding.updateLoad(messageCount, consumeRate);
 
-         // Need to propagate the consumer close
+         // Need to propagate the load
          TypedProperties props = new TypedProperties();
 
          props.putSimpleStringProperty(ManagementHelper.HDR_ADDRESS, binding.getAddress());
@@ -1583,15 +1906,11 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
          props.putIntProperty(ManagementHelper.HDR_DISTANCE, distance + 1);
 
-         Queue theQueue = (Queue)binding.getBindable();
+         props.putLongProperty(ManagementHelper.HDR_MESSAGE_COUNT, messageCount);
 
-         props.putIntProperty(ManagementHelper.HDR_CONSUMER_COUNT, theQueue.getConsumerCount());
+         props.putLongProperty(ManagementHelper.HDR_CONSUME_RATE, consumeRate);
 
-         if (filterString != null)
-         {
-            props.putSimpleStringProperty(ManagementHelper.HDR_FILTERSTRING, filterString);
-         }
-         Notification notification = new Notification(null, CONSUMER_CLOSED, props);
+         Notification notification = new Notification(null, NotificationType.QUEUE_LOAD, props);
 
          managementService.sendNotification(notification);
       }
@@ -1733,4 +2052,171 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
          }
       }
    }
+
+   /**
+    * Sends the number of messages and the consume rate of the local queues bound to the cluster
+    * address to the other nodes, and lets backlogged queues redistribute their messages while there
+    * are nodes that are not backlogged.
+    */
+   private final class LoadNotifier implements Runnable
+   {
+      private final Map<Long, QueueLoad> loads = new HashMap<Long, QueueLoad>();
+
+      public void run()
+      {
+         if (stopping || !started)
+         {
+            return;
+         }
+
+         try
+         {
+            long now = System.currentTimeMillis();
+
+            Set<Long> queueIDs = new HashSet<Long>();
+
+            for (Binding binding : postOffice.getAllBindings().values())
+            {
+               if (!(binding instanceof LocalQueueBinding) || !binding.getAddress().startsWith(address))
+               {
+                  continue;
+               }
+
+               Queue queue = ((LocalQueueBinding)binding).getQueue();
+
+               queueIDs.add(queue.getID());
+
+               QueueLoad load = loads.get(queue.getID());
+
+               if (load == null)
+               {
+                  load = new QueueLoad();
+
+                  loads.put(queue.getID(), load);
+               }
+
+               // a queue that stays backlogged is sent again for the nodes that joined since
+               if (load.update(queue, now) || load.isBacklogged())
+               {
+                  sendLoad(binding, load);
+               }
+
+               redistributeBacklog(binding, queue, load);
+            }
+
+            loads.keySet().retainAll(queueIDs);
+         }
+         catch (Exception e)
+         {
+            HornetQServerLogger.LOGGER.errorSendingQueueLoad(name.toString(), e);
+         }
+      }
+
+      private void sendLoad(final Binding binding, final QueueLoad load) throws Exception
+      {
+         TypedProperties props = new TypedProperties();
+
+         props.putSimpleStringProperty(ManagementHelper.HDR_ADDRESS, binding.getAddress());
+
+         props.putSimpleStringProperty(ManagementHelper.HDR_CLUSTER_NAME, binding.getClusterName());
+
+         props.putSimpleStringProperty(ManagementHelper.HDR_ROUTING_NAME, binding.getRoutingName());
+
+         props.putIntProperty(ManagementHelper.HDR_DISTANCE, 0);
+
+         props.putLongProperty(ManagementHelper.HDR_MESSAGE_COUNT, load.messageCount);
+
+         props.putLongProperty(ManagementHelper.HDR_CONSUME_RATE, load.consumeRate);
+
+         managementService.sendNotification(new Notification(null, NotificationType.QUEUE_LOAD, props));
+      }
+
+      private void redistributeBacklog(final Binding binding, final Queue queue, final QueueLoad load) throws Exception
+      {
+         AddressSettings addressSettings = server.getAddressSettingsRepository()
+                                                 .getMatch(binding.getAddress().toString());
+
+         if (addressSettings.getRedistributionDelay() != -1 && load.isBacklogged() && canTakeBacklog(binding))
+         {
+            queue.addBacklogRedistributor();
+         }
+         else
+         {
+            queue.cancelBacklogRedistributor();
+         }
+      }
+
+      /**
+       * @return {@code true} if a remote queue of the same name has consumers and is not backlogged
+       */
+      private boolean canTakeBacklog(final Binding binding) throws Exception
+      {
+         Bindings bindings = postOffice.getBindingsForAddress(binding.getAddress());
+
+         for (Binding other : bindings.getBindings())
+         {
+            if (other instanceof RemoteQueueBinding && other.getRoutingName().equals(binding.getRoutingName()))
+            {
+               RemoteQueueBinding remoteBinding = (RemoteQueueBinding)other;
+
+               if (remoteBinding.consumerCount() > 0 && !remoteBinding.isBacklogged())
+               {
+                  return true;
+               }
+            }
+         }
+
+         return false;
+      }
+   }
+
+   private static final class QueueLoad
+   {
+      private long messageCount;
+
+      private long messagesAdded;
+
+      private long consumeRate;
+
+      private long time;
+
+      /**
+       * @return {@code true} if the load of the queue changed since the last update
+       */
+      boolean update(final Queue queue, final long now)
+      {
+         long count = queue.getInstantMessageCount();
+
+         long added = queue.getInstantMessagesAdded();
+
+         long rate = 0;
+
+         if (time > 0 && now > time)
+         {
+            long consumed = added - messagesAdded - (count - messageCount);
+
+            rate = Math.max(0, consumed) * 1000 / (now - time);
+         }
+
+         boolean changed = count != messageCount || rate != consumeRate;
+
+         messageCount = count;
+
+         messagesAdded = added;
+
+         consumeRate = rate;
+
+         time = now;
+
+         return changed;
+      }
+
+      /**
+       * @return {@code true} if the queue holds more messages than its consumers take in a second
+       */
+      boolean isBacklogged()
+      {
+         return messageCount > consumeRate;
+      }
+   }
 }
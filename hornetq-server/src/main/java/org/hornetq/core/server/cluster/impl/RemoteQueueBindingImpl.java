@@ -61,6 +61,8 @@ public class RemoteQueueBindingImpl implements RemoteQueueBinding
 
    private int consumerCount;
 
+   private volatile boolean backlogged;
+
    private final SimpleString idsHeaderName;
 
    private final long id;
@@ -245,12 +247,48 @@ public class RemoteQueueBindingImpl implements RemoteQueueBinding
       return consumerCount;
    }
 
+   public synchronized Map<SimpleString, Integer> getConsumerCounts()
+   {
+      Map<SimpleString, Integer> counts = new HashMap<SimpleString, Integer>(filterCounts);
+
+      int withoutFilter = consumerCount;
+
+      for (Integer count : filterCounts.values())
+      {
+         withoutFilter -= count;
+      }
+
+      if (withoutFilter > 0)
+      {
+         counts.put(null, withoutFilter);
+      }
+
+      return counts;
+   }
+
+   public long getRemoteQueueID()
+   {
+      return remoteQueueID;
+   }
+
+   public void updateLoad(final long messageCount, final long consumeRate)
+   {
+      backlogged = messageCount > consumeRate;
+   }
+
+   public boolean isBacklogged()
+   {
+      return backlogged;
+   }
+
    @Override
    public String toString()
    {
       return "RemoteQueueBindingImpl [address=" + address +
              ", consumerCount=" +
              consumerCount +
+             ", backlogged=" +
+             backlogged +
              ", distance=" +
              distance +
              ", filters=" +
@@ -36,4 +36,10 @@ public interface GroupingHandler extends NotificationListener
    void addGroupBinding(GroupBinding groupBinding);
 
    Response getProposal(SimpleString fullID);
+
+   /**
+    * @return the ID the group is bound under, which is shared by other groups when the handler
+    *         hashes groups to buckets
+    */
+   SimpleString getGroupKey(SimpleString groupId);
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.core.server.group.impl;
+
+import org.hornetq.api.core.SimpleString;
+
+/**
+ * Hashes group IDs to a fixed number of buckets, the grouping handlers then bind buckets rather
+ * than individual groups so a node only needs a proposal the first time it sees a bucket.
+ * <p>
+ * All the nodes of a cluster must use the same number of buckets.
+ */
+final class GroupBuckets
+{
+   private final SimpleString[] bucketIDs;
+
+   GroupBuckets(final int buckets)
+   {
+      if (buckets > 0)
+      {
+         bucketIDs = new SimpleString[buckets];
+         for (int i = 0; i < buckets; i++)
+         {
+            bucketIDs[i] = new SimpleString("bucket." + i);
+         }
+      }
+      else
+      {
+         bucketIDs = null;
+      }
+   }
+
+   SimpleString getGroupKey(final SimpleString groupId)
+   {
+      if (bucketIDs == null)
+      {
+         return groupId;
+      }
+
+      return bucketIDs[(groupId.hashCode() & Integer.MAX_VALUE) % bucketIDs.length];
+   }
+}
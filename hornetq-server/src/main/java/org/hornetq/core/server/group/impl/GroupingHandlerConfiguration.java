@@ -33,8 +33,12 @@ public final class GroupingHandlerConfiguration implements Serializable
 
    private final long timeout;
 
+   private final int groupBuckets;
+
    public static final int DEFAULT_TIMEOUT = 5000;
 
+   public static final int DEFAULT_GROUP_BUCKETS = -1;
+
    public GroupingHandlerConfiguration(final SimpleString name, final TYPE type, final SimpleString address)
    {
       this(name, type, address, GroupingHandlerConfiguration.DEFAULT_TIMEOUT);
@@ -44,11 +48,21 @@ public final class GroupingHandlerConfiguration implements Serializable
                                        final TYPE type,
                                        final SimpleString address,
                                        final int timeout)
+   {
+      this(name, type, address, timeout, GroupingHandlerConfiguration.DEFAULT_GROUP_BUCKETS);
+   }
+
+   public GroupingHandlerConfiguration(final SimpleString name,
+                                       final TYPE type,
+                                       final SimpleString address,
+                                       final int timeout,
+                                       final int groupBuckets)
    {
       this.type = type;
       this.name = name;
       this.address = address;
       this.timeout = timeout;
+      this.groupBuckets = groupBuckets;
    }
 
    public SimpleString getName()
@@ -71,6 +85,11 @@ public final class GroupingHandlerConfiguration implements Serializable
       return timeout;
    }
 
+   public int getGroupBuckets()
+   {
+      return groupBuckets;
+   }
+
    public enum TYPE
    {
       LOCAL("LOCAL"), REMOTE("REMOTE");
@@ -96,6 +115,7 @@ public final class GroupingHandlerConfiguration implements Serializable
       result = prime * result + ((address == null) ? 0 : address.hashCode());
       result = prime * result + ((name == null) ? 0 : name.hashCode());
       result = prime * result + (int) (timeout ^ (timeout >>> 32));
+      result = prime * result + groupBuckets;
       result = prime * result + ((type == null) ? 0 : type.hashCode());
       return result;
    }
@@ -126,6 +146,8 @@ public final class GroupingHandlerConfiguration implements Serializable
          return false;
       if (timeout != other.timeout)
          return false;
+      if (groupBuckets != other.groupBuckets)
+         return false;
       if (type != other.type)
          return false;
       return true;
@@ -50,17 +50,21 @@ public final class LocalGroupingHandler implements GroupingHandler
 
    private final long timeout;
 
+   private final GroupBuckets groupBuckets;
+
    public LocalGroupingHandler(final ManagementService managementService,
                                final SimpleString name,
                                final SimpleString address,
                                final StorageManager storageManager,
-                               final long timeout)
+                               final long timeout,
+                               final int groupBuckets)
    {
       this.managementService = managementService;
       this.name = name;
       this.address = address;
       this.storageManager = storageManager;
       this.timeout = timeout;
+      this.groupBuckets = new GroupBuckets(groupBuckets);
    }
 
    public SimpleString getName()
@@ -68,6 +72,11 @@ public final class LocalGroupingHandler implements GroupingHandler
       return name;
    }
 
+   public SimpleString getGroupKey(final SimpleString groupId)
+   {
+      return groupBuckets.getGroupKey(groupId);
+   }
+
    public Response propose(final Proposal proposal) throws Exception
    {
       OperationContext originalCtx = storageManager.getContext();
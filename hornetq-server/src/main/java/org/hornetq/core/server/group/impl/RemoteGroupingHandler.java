@@ -17,8 +17,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -37,6 +37,9 @@ import org.hornetq.utils.TypedProperties;
  * <p>
  * This will use management notifications to communicate with the node that has the Local Grouping
  * handler to make proposals.
+ * <p>
+ * Proposals for different groups are in flight at the same time, and threads proposing a group that
+ * is already being proposed wait for the same response instead of sending another proposal.
  * @author <a href="mailto:andy.taylor@jboss.org">Andy Taylor</a>
  */
 public final class RemoteGroupingHandler implements GroupingHandler
@@ -49,23 +52,27 @@ public final class RemoteGroupingHandler implements GroupingHandler
 
    private final Map<SimpleString, Response> responses = new ConcurrentHashMap<SimpleString, Response>();
 
-   private final Lock lock = new ReentrantLock();
+   private final ConcurrentMap<SimpleString, CountDownLatch> pendingProposals = new ConcurrentHashMap<SimpleString, CountDownLatch>();
 
-   private final Condition sendCondition = lock.newCondition();
+   private final Lock lock = new ReentrantLock();
 
    private final long timeout;
 
+   private final GroupBuckets groupBuckets;
+
    private final ConcurrentMap<SimpleString, List<SimpleString>> groupMap = new ConcurrentHashMap<SimpleString, List<SimpleString>>();
 
    public RemoteGroupingHandler(final ManagementService managementService,
                                 final SimpleString name,
                                 final SimpleString address,
-                                final long timeout)
+                                final long timeout,
+                                final int groupBuckets)
    {
       this.name = name;
       this.address = address;
       this.managementService = managementService;
       this.timeout = timeout;
+      this.groupBuckets = new GroupBuckets(groupBuckets);
    }
 
    public SimpleString getName()
@@ -73,6 +80,11 @@ public final class RemoteGroupingHandler implements GroupingHandler
       return name;
    }
 
+   public SimpleString getGroupKey(final SimpleString groupId)
+   {
+      return groupBuckets.getGroupKey(groupId);
+   }
+
    public Response propose(final Proposal proposal) throws Exception
    {
       // sanity check in case it is already selected
@@ -82,34 +94,51 @@ public final class RemoteGroupingHandler implements GroupingHandler
          return response;
       }
 
+      CountDownLatch pending = new CountDownLatch(1);
+
+      CountDownLatch inFlight = pendingProposals.putIfAbsent(proposal.getGroupId(), pending);
+
       try
       {
-         lock.lock();
-
-         TypedProperties props = new TypedProperties();
+         if (inFlight != null)
+         {
+            // another thread is proposing the same group, its response will do for us too
+            pending = inFlight;
+         }
+         else if (responses.get(proposal.getGroupId()) == null)
+         {
+            TypedProperties props = new TypedProperties();
 
-         props.putSimpleStringProperty(ManagementHelper.HDR_PROPOSAL_GROUP_ID, proposal.getGroupId());
+            props.putSimpleStringProperty(ManagementHelper.HDR_PROPOSAL_GROUP_ID, proposal.getGroupId());
 
-         props.putSimpleStringProperty(ManagementHelper.HDR_PROPOSAL_VALUE, proposal.getClusterName());
+            props.putSimpleStringProperty(ManagementHelper.HDR_PROPOSAL_VALUE, proposal.getClusterName());
 
-         props.putIntProperty(ManagementHelper.HDR_BINDING_TYPE, BindingType.LOCAL_QUEUE_INDEX);
+            props.putIntProperty(ManagementHelper.HDR_BINDING_TYPE, BindingType.LOCAL_QUEUE_INDEX);
 
-         props.putSimpleStringProperty(ManagementHelper.HDR_ADDRESS, address);
+            props.putSimpleStringProperty(ManagementHelper.HDR_ADDRESS, address);
 
-         props.putIntProperty(ManagementHelper.HDR_DISTANCE, 0);
+            props.putIntProperty(ManagementHelper.HDR_DISTANCE, 0);
 
-         Notification notification = new Notification(null, NotificationType.PROPOSAL, props);
+            Notification notification = new Notification(null, NotificationType.PROPOSAL, props);
 
-         managementService.sendNotification(notification);
+            managementService.sendNotification(notification);
+         }
+         else
+         {
+            // the response arrived before the proposal was registered
+            pending.countDown();
+         }
 
-         if (!sendCondition.await(timeout, TimeUnit.MILLISECONDS))
+         if (!pending.await(timeout, TimeUnit.MILLISECONDS))
             HornetQServerLogger.LOGGER.groupHandlerSendTimeout();
          response = responses.get(proposal.getGroupId());
-
       }
       finally
       {
-         lock.unlock();
+         if (inFlight == null)
+         {
+            pendingProposals.remove(proposal.getGroupId(), pending);
+         }
       }
       if (response == null)
       {
@@ -136,12 +165,17 @@ public final class RemoteGroupingHandler implements GroupingHandler
             newList = oldList;
          }
          newList.add(response.getGroupId());
-         sendCondition.signal();
       }
       finally
       {
          lock.unlock();
       }
+
+      CountDownLatch pending = pendingProposals.get(response.getGroupId());
+      if (pending != null)
+      {
+         pending.countDown();
+      }
    }
 
    public Response receive(final Proposal proposal, final int distance) throws Exception
@@ -1001,7 +1001,7 @@ public class HornetQServerImpl implements HornetQServer
             context);
    }
 
-   protected SecurityStore getSecurityStore()
+   public SecurityStore getSecurityStore()
    {
       return securityStore;
    }
@@ -1503,6 +1503,8 @@ public class HornetQServerImpl implements HornetQServer
       securityStore = new SecurityStoreImpl(securityRepository,
          securityManager,
          configuration.getSecurityInvalidationInterval(),
+         configuration.getSecurityNegativeInvalidationInterval(),
+         configuration.getSecurityCacheSize(),
          configuration.isSecurityEnabled(),
          configuration.getClusterUser(),
          configuration.getClusterPassword(),
@@ -1965,7 +1967,8 @@ public class HornetQServerImpl implements HornetQServer
                config.getName(),
                config.getAddress(),
                getStorageManager(),
-               config.getTimeout());
+               config.getTimeout(),
+               config.getGroupBuckets());
          }
          else
          {
@@ -1973,7 +1976,8 @@ public class HornetQServerImpl implements HornetQServer
                      new RemoteGroupingHandler(managementService,
                config.getName(),
                config.getAddress(),
-               config.getTimeout());
+               config.getTimeout(),
+               config.getGroupBuckets());
          }
 
          this.groupingHandler = groupingHandler1;
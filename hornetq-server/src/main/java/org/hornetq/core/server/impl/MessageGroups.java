@@ -0,0 +1,208 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.core.server.impl;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.core.server.Consumer;
+
+/**
+ * Binds the message groups of a queue to its consumers.
+ * <p>
+ * Groups are kept in access order so the ones that have been idle for longer than the group
+ * timeout are evicted from the head of the table as it is used, and each consumer keeps the set of
+ * its groups so closing it does not need to scan the whole table. When a number of buckets is
+ * configured the group IDs are hashed to buckets, and consumers are bound to the buckets.
+ * <p>
+ * This class is not thread safe, the queue accesses it while holding its lock.
+ */
+public class MessageGroups
+{
+   private final Map<Object, Group> groups = new LinkedHashMap<Object, Group>(16, 0.75f, true);
+
+   private final Map<Consumer, Set<Object>> consumerGroups = new IdentityHashMap<Consumer, Set<Object>>();
+
+   private long timeout;
+
+   private int buckets;
+
+   public MessageGroups(final long timeout, final int buckets)
+   {
+      this.timeout = timeout;
+      this.buckets = buckets;
+   }
+
+   /**
+    * Applies new settings, changing the number of buckets unbinds all the groups.
+    */
+   public void configure(final long timeout, final int buckets)
+   {
+      this.timeout = timeout;
+
+      if (this.buckets != buckets)
+      {
+         this.buckets = buckets;
+
+         clear();
+      }
+   }
+
+   public Consumer get(final SimpleString groupID)
+   {
+      expire();
+
+      Group group = groups.get(key(groupID));
+
+      if (group == null)
+      {
+         return null;
+      }
+
+      group.lastUsed = System.currentTimeMillis();
+
+      return group.consumer;
+   }
+
+   public void put(final SimpleString groupID, final Consumer consumer)
+   {
+      Object key = key(groupID);
+
+      Group group = groups.get(key);
+
+      if (group == null)
+      {
+         group = new Group(key);
+
+         groups.put(key, group);
+      }
+      else if (group.consumer != consumer)
+      {
+         unbind(group);
+      }
+
+      group.consumer = consumer;
+
+      group.lastUsed = System.currentTimeMillis();
+
+      Set<Object> keys = consumerGroups.get(consumer);
+
+      if (keys == null)
+      {
+         keys = new HashSet<Object>();
+
+         consumerGroups.put(consumer, keys);
+      }
+
+      keys.add(key);
+   }
+
+   /**
+    * Unbinds all the groups of a consumer.
+    */
+   public void removeConsumer(final Consumer consumer)
+   {
+      Set<Object> keys = consumerGroups.remove(consumer);
+
+      if (keys != null)
+      {
+         for (Object key : keys)
+         {
+            groups.remove(key);
+         }
+      }
+   }
+
+   public void clear()
+   {
+      groups.clear();
+
+      consumerGroups.clear();
+   }
+
+   public int size()
+   {
+      return groups.size();
+   }
+
+   private Object key(final SimpleString groupID)
+   {
+      if (buckets > 0)
+      {
+         return (groupID.hashCode() & Integer.MAX_VALUE) % buckets;
+      }
+
+      return groupID;
+   }
+
+   private void expire()
+   {
+      if (timeout <= 0 || groups.isEmpty())
+      {
+         return;
+      }
+
+      long expiry = System.currentTimeMillis() - timeout;
+
+      // groups are in access order, so the idle ones are at the head
+      Iterator<Group> iterator = groups.values().iterator();
+
+      while (iterator.hasNext())
+      {
+         Group group = iterator.next();
+
+         if (group.lastUsed > expiry)
+         {
+            break;
+         }
+
+         iterator.remove();
+
+         unbind(group);
+      }
+   }
+
+   private void unbind(final Group group)
+   {
+      Set<Object> keys = consumerGroups.get(group.consumer);
+
+      if (keys != null)
+      {
+         keys.remove(group.key);
+
+         if (keys.isEmpty())
+         {
+            consumerGroups.remove(group.consumer);
+         }
+      }
+   }
+
+   private static final class Group
+   {
+      final Object key;
+
+      Consumer consumer;
+
+      long lastUsed;
+
+      Group(final Object key)
+      {
+         this.key = key;
+      }
+   }
+}
@@ -177,10 +177,14 @@ public class QueueImpl implements Queue
 
    private final Set<Consumer> consumerSet = new HashSet<Consumer>();
 
-   private final Map<SimpleString, Consumer> groups = new HashMap<SimpleString, Consumer>();
+   private final MessageGroups groups;
+
+   private volatile boolean groupRebalance;
 
    private volatile SimpleString expiryAddress;
 
+   private volatile long lazyBodyThresholdBytes = AddressSettings.DEFAULT_LAZY_BODY_THRESHOLD_BYTES;
+
    private int pos;
 
    private final Executor executor;
@@ -314,13 +318,18 @@ public class QueueImpl implements Queue
 
       if (addressSettingsRepository != null)
       {
-         expiryAddress = addressSettingsRepository.getMatch(address.toString()).getExpiryAddress();
+         AddressSettings settings = addressSettingsRepository.getMatch(address.toString());
+         expiryAddress = settings.getExpiryAddress();
+         lazyBodyThresholdBytes = settings.getLazyBodyThresholdBytes();
+         groupRebalance = settings.isGroupRebalance();
+         groups = new MessageGroups(settings.getGroupTimeout(), settings.getGroupBuckets());
          addressSettingsRepositoryListener = new AddressSettingsRepositoryListener();
          addressSettingsRepository.registerListener(addressSettingsRepositoryListener);
       }
       else
       {
          expiryAddress = null;
+         groups = new MessageGroups(AddressSettings.DEFAULT_GROUP_TIMEOUT, AddressSettings.DEFAULT_GROUP_BUCKETS);
       }
 
       if (pageSubscription != null)
@@ -500,7 +509,12 @@ public class QueueImpl implements Queue
       }
 
       // We only add queueMemorySize if not being delivered directly
-      queueMemorySize.addAndGet(ref.getMessageMemoryEstimate());
+      int memorySize = queueMemorySize.addAndGet(ref.getMessageMemoryEstimate());
+
+      if (lazyBodyThresholdBytes >= 0 && memorySize > lazyBodyThresholdBytes)
+      {
+         releaseBody(ref);
+      }
 
       intermediateMessageReferences.add(ref);
 
@@ -510,6 +524,22 @@ public class QueueImpl implements Queue
       deliverAsync();
    }
 
+   /**
+    * Deep queues only keep the headers and properties of durable messages in memory, their bodies
+    * are read back from the journal when they are delivered.
+    */
+   private void releaseBody(final MessageReference ref)
+   {
+      ServerMessage message = ref.getMessage();
+
+      // the message must not be visible anywhere else yet, see ServerMessage#releaseBody
+      if (durable && message.isDurable() && !ref.isPaged() && message.getRefCount() == 1)
+      {
+         // the message estimate no longer counts the body, and it is taken out of the queue with that estimate
+         queueMemorySize.addAndGet(-storageManager.releaseMessageBody(message));
+      }
+   }
+
    /**
     * This will wait for any pending deliveries to finish
     */
@@ -668,6 +698,11 @@ public class QueueImpl implements Queue
 
          consumerSet.add(consumer);
 
+         if (groupRebalance)
+         {
+            groups.clear();
+         }
+
          if (refCountForConsumers != null)
          {
             refCountForConsumers.increment();
@@ -699,30 +734,7 @@ public class QueueImpl implements Queue
 
          consumerSet.remove(consumer);
 
-         LinkedList<SimpleString> groupsToRemove = null;
-
-         for (SimpleString groupID : groups.keySet())
-         {
-            if (consumer == groups.get(groupID))
-            {
-               if (groupsToRemove == null)
-               {
-                  groupsToRemove = new LinkedList<SimpleString>();
-               }
-               groupsToRemove.add(groupID);
-            }
-         }
-
-         // We use an auxiliary List here to avoid concurrent modification exceptions on the keySet
-         // while the iteration is being done.
-         // Since that's a simple HashMap there's no Iterator's support with a remove operation
-         if (groupsToRemove != null)
-         {
-            for (SimpleString groupID: groupsToRemove)
-            {
-               groups.remove(groupID);
-            }
-         }
+         groups.removeConsumer(consumer);
 
          if (refCountForConsumers != null)
          {
@@ -763,6 +775,22 @@ public class QueueImpl implements Queue
       }
    }
 
+   public synchronized void addBacklogRedistributor()
+   {
+      if (!consumerSet.isEmpty() && redistributor == null)
+      {
+         createRedistributor(executor);
+      }
+   }
+
+   public synchronized void cancelBacklogRedistributor() throws Exception
+   {
+      if (!consumerSet.isEmpty())
+      {
+         cancelRedistributor();
+      }
+   }
+
    public synchronized void cancelRedistributor() throws Exception
    {
       if (redistributor != null)
@@ -997,6 +1025,66 @@ public class QueueImpl implements Queue
 
    }
 
+   public void acknowledge(final List<MessageReference> refs) throws Exception
+   {
+      List<MessageReference> durableRefs = new ArrayList<MessageReference>(refs.size());
+
+      for (MessageReference ref : refs)
+      {
+         if (ref.getMessage().isDurable() && ref.getQueue().isDurable())
+         {
+            durableRefs.add(ref);
+         }
+      }
+
+      if (durableRefs.size() == 1)
+      {
+         MessageReference ref = durableRefs.get(0);
+
+         storageManager.storeAcknowledge(ref.getQueue().getID(), ref.getMessage().getMessageID());
+      }
+      else if (durableRefs.size() > 1)
+      {
+         // a journal transaction, not a Transaction: there is nothing to do on commit or rollback
+         long txID = storageManager.generateUniqueID();
+
+         try
+         {
+            for (MessageReference ref : durableRefs)
+            {
+               storageManager.storeAcknowledgeTransactional(txID, ref.getQueue().getID(), ref.getMessage()
+                  .getMessageID());
+            }
+         }
+         catch (Exception e)
+         {
+            storageManager.rollback(txID);
+            throw e;
+         }
+
+         storageManager.commit(txID);
+      }
+
+      List<Long> deletedMessages = new ArrayList<Long>();
+
+      for (MessageReference ref : refs)
+      {
+         postAcknowledge(ref, deletedMessages);
+      }
+
+      if (!deletedMessages.isEmpty())
+      {
+         try
+         {
+            storageManager.deleteMessages(deletedMessages);
+         }
+         catch (Exception e)
+         {
+            HornetQServerLogger.LOGGER.errorRemovingMessage(e, deletedMessages.get(0));
+         }
+      }
+   }
+
    public void acknowledge(final Transaction tx, final MessageReference ref) throws Exception
    {
       if (ref.isPaged())
@@ -2167,20 +2255,25 @@ public class QueueImpl implements Queue
       // create the redistributor only once if there are no local consumers
       if (consumerSet.isEmpty() && redistributor == null)
       {
-         redistributor = new Redistributor(this,
-                                           storageManager,
-                                           postOffice,
-                                           executor,
-                                           QueueImpl.REDISTRIBUTOR_BATCH_SIZE);
+         createRedistributor(executor);
+      }
+   }
 
-         consumerList.add(new ConsumerHolder(redistributor));
+   private void createRedistributor(final Executor executor)
+   {
+      redistributor = new Redistributor(this,
+                                        storageManager,
+                                        postOffice,
+                                        executor,
+                                        QueueImpl.REDISTRIBUTOR_BATCH_SIZE);
 
-         consumersChanged = true;
+      consumerList.add(new ConsumerHolder(redistributor));
 
-         redistributor.start();
+      consumersChanged = true;
 
-         deliverAsync();
-      }
+      redistributor.start();
+
+      deliverAsync();
    }
 
    public boolean checkRedelivery(final MessageReference reference, final long timeBase, final boolean ignoreRedeliveryDelay) throws Exception
@@ -2536,6 +2629,14 @@ public class QueueImpl implements Queue
 
    // Protected as testcases may change this behaviour
    protected void postAcknowledge(final MessageReference ref)
+   {
+      postAcknowledge(ref, null);
+   }
+
+   /**
+    * @param deletedMessages collects the messages to delete instead of deleting them one by one if not null
+    */
+   private void postAcknowledge(final MessageReference ref, final List<Long> deletedMessages)
    {
       QueueImpl queue = (QueueImpl)ref.getQueue();
 
@@ -2580,13 +2681,20 @@ public class QueueImpl implements Queue
             // Also note that this delete shouldn't sync to disk, or else we would build up the executor's queue
             // as we can't delete each messaging with sync=true while adding messages transactionally.
             // There is a startup check to remove non referenced messages case these deletes fail
-            try
+            if (deletedMessages != null)
             {
-               storageManager.deleteMessage(message.getMessageID());
+               deletedMessages.add(message.getMessageID());
             }
-            catch (Exception e)
+            else
             {
-               HornetQServerLogger.LOGGER.errorRemovingMessage(e, message.getMessageID());
+               try
+               {
+                  storageManager.deleteMessage(message.getMessageID());
+               }
+               catch (Exception e)
+               {
+                  HornetQServerLogger.LOGGER.errorRemovingMessage(e, message.getMessageID());
+               }
             }
          }
       }
@@ -2961,7 +3069,14 @@ public class QueueImpl implements Queue
       @Override
       public void onChange()
       {
-         expiryAddress = addressSettingsRepository.getMatch(address.toString()).getExpiryAddress();
+         AddressSettings settings = addressSettingsRepository.getMatch(address.toString());
+         expiryAddress = settings.getExpiryAddress();
+         lazyBodyThresholdBytes = settings.getLazyBodyThresholdBytes();
+         groupRebalance = settings.isGroupRebalance();
+         synchronized (QueueImpl.this)
+         {
+            groups.configure(settings.getGroupTimeout(), settings.getGroupBuckets());
+         }
       }
    }
 }
@@ -13,6 +13,8 @@
 
 package org.hornetq.core.server.impl;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -31,6 +33,7 @@ import org.hornetq.api.core.management.ManagementHelper;
 import org.hornetq.api.core.management.NotificationType;
 import org.hornetq.core.client.impl.ClientConsumerImpl;
 import org.hornetq.core.filter.Filter;
+import org.hornetq.core.journal.SequentialFile;
 import org.hornetq.core.message.BodyEncoder;
 import org.hornetq.core.persistence.StorageManager;
 import org.hornetq.core.postoffice.Binding;
@@ -695,6 +698,11 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener
       // Acknowledge acknowledges all refs delivered by the consumer up to and including the one explicitly
       // acknowledged
 
+      if ((tx == null || autoCommitAcks) && acknowledgeDirect(messageID))
+      {
+         return;
+      }
+
       // We use a transaction here as if the message is not found, we should rollback anything done
       // This could eventually happen on retries during transactions, and we need to make sure we don't ACK things we are not supposed to acknowledge
 
@@ -761,6 +769,67 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener
       }
    }
 
+   /**
+    * Acknowledges the refs up to and including messageID without a Transaction, as auto-commit acks
+    * do not need one unless the message is missing or some of the refs are paged.
+    * <p>
+    * The acks are stored together by the queue, in a single journal transaction when several of them
+    * are durable, and the refs are only acknowledged once their acks are stored.
+    * @return false if nothing was acknowledged and the transactional path must be used instead
+    */
+   private boolean acknowledgeDirect(final long messageID) throws Exception
+   {
+      List<MessageReference> refs = new ArrayList<MessageReference>();
+
+      boolean found = false;
+
+      // deliveringRefs is only removed from by the session, so the refs scanned here are those polled below
+      for (MessageReference ref : deliveringRefs)
+      {
+         if (ref.isPaged())
+         {
+            return false;
+         }
+
+         refs.add(ref);
+
+         if (ref.getMessage().getMessageID() == messageID)
+         {
+            found = true;
+            break;
+         }
+      }
+
+      if (!found)
+      {
+         return false;
+      }
+
+      if (HornetQServerLogger.LOGGER.isTraceEnabled())
+      {
+         HornetQServerLogger.LOGGER.trace("ACKing refs " + refs + " with no tx, consumer=" + this);
+      }
+
+      try
+      {
+         messageQueue.acknowledge(refs);
+      }
+      catch (Exception e)
+      {
+         // none of the acks were stored, the transactional path acknowledges the refs or reports the failure
+         HornetQServerLogger.LOGGER.debug("Could not acknowledge " + refs + " with no tx", e);
+
+         return false;
+      }
+
+      for (int i = 0; i < refs.size(); i++)
+      {
+         deliveringRefs.poll();
+      }
+
+      return true;
+   }
+
    public void individualAcknowledge(final boolean autoCommitAcks, final Transaction tx, final long messageID) throws Exception
    {
       if (browseOnly)
@@ -967,6 +1036,9 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener
 
       private BodyEncoder context;
 
+      /** The file of the message while its chunks are sent straight from it, see {@link SessionCallback} */
+      private File bodyFile;
+
       public LargeMessageDeliverer(final LargeServerMessage message, final MessageReference ref) throws Exception
       {
          largeMessage = message;
@@ -1005,6 +1077,13 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener
 
                context.open();
 
+               SequentialFile file = largeMessage.getFile();
+
+               if (file != null)
+               {
+                  bodyFile = file.getJavaFile();
+               }
+
                sentInitialPacket = true;
 
                int packetSize = callback.sendLargeMessage(largeMessage,
@@ -1046,22 +1125,54 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener
                   return false;
                }
 
+               if (!writeReady.get())
+               {
+                  // readyForWriting will resume the delivery once the connection can take more data
+                  if (ServerConsumerImpl.isTrace)
+                  {
+                     HornetQServerLogger.LOGGER.trace(this + "::deliverLargeMessage Leaving loop of send LargeMessage as the connection is not ready for writing");
+                  }
+
+                  return false;
+               }
+
                int localChunkLen = 0;
 
                localChunkLen = (int)Math.min(sizePendingLargeMessage - positionPendingLargeMessage, minLargeMessageSize);
 
-               HornetQBuffer bodyBuffer = HornetQBuffers.fixedBuffer(localChunkLen);
+               boolean continues = positionPendingLargeMessage + localChunkLen < sizePendingLargeMessage;
+
+               int packetSize = -1;
 
-               context.encode(bodyBuffer, localChunkLen);
+               if (bodyFile != null)
+               {
+                  packetSize = callback.sendLargeMessageContinuation(id,
+                                                                     bodyFile,
+                                                                     positionPendingLargeMessage,
+                                                                     localChunkLen,
+                                                                     continues);
 
-               byte[] body = bodyBuffer.toByteBuffer().array();
+                  if (packetSize < 0)
+                  {
+                     // the connection can't write file regions (any more), copy the chunks from here on
+                     bodyFile = null;
 
-               int packetSize = callback.sendLargeMessageContinuation(id,
-                                                                      body,
-                                                                      positionPendingLargeMessage + localChunkLen < sizePendingLargeMessage,
-                                                                      false);
+                     skipBody(positionPendingLargeMessage);
+                  }
+               }
 
-               int chunkLen = body.length;
+               if (packetSize < 0)
+               {
+                  HornetQBuffer bodyBuffer = HornetQBuffers.fixedBuffer(localChunkLen);
+
+                  context.encode(bodyBuffer, localChunkLen);
+
+                  byte[] body = bodyBuffer.toByteBuffer().array();
+
+                  packetSize = callback.sendLargeMessageContinuation(id, body, continues, false);
+               }
+
+               int chunkLen = localChunkLen;
 
                if (availableCredits != null)
                {
@@ -1101,6 +1212,21 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener
          }
       }
 
+      /**
+       * Moves the body encoder over the chunks which were sent as file regions.
+       */
+      private void skipBody(final long bytes) throws HornetQException
+      {
+         HornetQBuffer skipped = HornetQBuffers.fixedBuffer(minLargeMessageSize);
+
+         for (long remaining = bytes; remaining > 0; remaining -= minLargeMessageSize)
+         {
+            skipped.clear();
+
+            context.encode(skipped, (int)Math.min(remaining, minLargeMessageSize));
+         }
+      }
+
       public void finish() throws Exception
       {
          synchronized (lock)
@@ -16,10 +16,14 @@ package org.hornetq.core.server.impl;
 import java.io.InputStream;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.hornetq.api.core.HornetQBuffer;
+import org.hornetq.api.core.HornetQException;
 import org.hornetq.api.core.Message;
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.message.impl.MessageImpl;
+import org.hornetq.core.message.BodyEncoder;
 import org.hornetq.core.paging.PagingStore;
+import org.hornetq.core.persistence.StorageManager;
 import org.hornetq.core.server.MessageReference;
 import org.hornetq.core.server.Queue;
 import org.hornetq.core.server.ServerMessage;
@@ -45,6 +49,14 @@ public class ServerMessageImpl extends MessageImpl implements ServerMessage
 
    private PagingStore pagingStore;
 
+   // guarded by this, its memory is counted against the paging store for as long as it is kept
+   private Object protocolData;
+
+   private int protocolDataSize;
+
+   // set while the body is released from memory, it is read back from there the next time it is needed
+   private volatile StorageManager bodyStorage;
+
    private static final int memoryOffset;
 
    static
@@ -143,6 +155,11 @@ public class ServerMessageImpl extends MessageImpl implements ServerMessage
    {
       int count = refCount.decrementAndGet();
 
+      if (count == 0)
+      {
+         clearProtocolData();
+      }
+
       if (pagingStore != null)
       {
          if (count == 0)
@@ -192,6 +209,8 @@ public class ServerMessageImpl extends MessageImpl implements ServerMessage
 
    public ServerMessage copy(final long newID)
    {
+      loadBody();
+
       ServerMessage m = new ServerMessageImpl(this);
 
       m.setMessageID(newID);
@@ -205,6 +224,8 @@ public class ServerMessageImpl extends MessageImpl implements ServerMessage
 
    public ServerMessage copy()
    {
+      loadBody();
+
       // This is a simple copy, used only to avoid changing original properties
       return new ServerMessageImpl(this);
    }
@@ -308,7 +329,8 @@ public class ServerMessageImpl extends MessageImpl implements ServerMessage
    @Override
    public String toString()
    {
-      return "ServerMessage[messageID=" + messageID + ",durable=" + isDurable() + ",userID=" + getUserID() + ",priority=" + this.getPriority() + ", bodySize=" + this.getBodyBuffer().capacity() +
+      // the body size is taken from the encoding so a released body isn't read back just for this
+      return "ServerMessage[messageID=" + messageID + ",durable=" + isDurable() + ",userID=" + getUserID() + ",priority=" + this.getPriority() + ", bodySize=" + (getEndOfBodyPosition() - BODY_OFFSET) +
           ",expiration=" + (this.getExpiration() != 0 ? new java.util.Date(this.getExpiration()) : 0) +
           ", durable=" + durable + ", address=" + getAddress()  + ",properties=" + properties.toString() + "]@" + System.identityHashCode(this);
    }
@@ -325,6 +347,17 @@ public class ServerMessageImpl extends MessageImpl implements ServerMessage
 
    public void encodeMessageIDToBuffer()
    {
+      loadBody();
+
+      if (isBufferUsed())
+      {
+         // The buffer is shared with the sender (see InVMConnection), the id gets written along with the
+         // rest of the headers once the message is encoded, on a copy
+         invalidateEncoding();
+
+         return;
+      }
+
       // We first set the message id - this needs to be set on the buffer since this buffer will be re-used
 
       buffer.setLong(buffer.getInt(MessageImpl.BUFFER_HEADER_SPACE) + DataConstants.SIZE_INT, messageID);
@@ -357,4 +390,201 @@ public class ServerMessageImpl extends MessageImpl implements ServerMessage
       return getObjectProperty(Message.HDR_DUPLICATE_DETECTION_ID);
    }
 
+   public synchronized Object getProtocolData()
+   {
+      return protocolData;
+   }
+
+   public synchronized void setProtocolData(final Object protocolData, final int memoryEstimate)
+   {
+      if (refCount.get() == 0)
+      {
+         // every reference is already gone, there is nobody left to share it with
+         return;
+      }
+
+      if (pagingStore != null)
+      {
+         pagingStore.addSize(memoryEstimate - protocolDataSize);
+      }
+
+      this.protocolData = protocolData;
+      this.protocolDataSize = memoryEstimate;
+   }
+
+   private synchronized void clearProtocolData()
+   {
+      if (protocolData != null)
+      {
+         if (pagingStore != null)
+         {
+            pagingStore.addSize(-protocolDataSize);
+         }
+
+         protocolData = null;
+         protocolDataSize = 0;
+      }
+   }
+
+   // Lazy body ------------------------------------------------------
+
+   public synchronized HornetQBuffer releaseBody(final StorageManager storageManager)
+   {
+      if (isLargeMessage() || buffer == null)
+      {
+         return null;
+      }
+
+      // this is computed from the buffer, make sure it is known before it goes
+      getEndOfBodyPosition();
+
+      int released = getMemoryEstimate() - (ServerMessageImpl.memoryOffset + properties.getMemoryOffset());
+
+      // the estimate stays without the body, so the message is taken out of the paging store with what it counts now
+      memoryEstimate -= released;
+
+      if (pagingStore != null && refCount.get() > 0)
+      {
+         pagingStore.addSize(-released);
+      }
+
+      HornetQBuffer releasedBuffer = buffer;
+
+      buffer = null;
+      bodyBuffer = null;
+      bodyStorage = storageManager;
+
+      return releasedBuffer;
+   }
+
+   private void loadBody()
+   {
+      StorageManager storageManager = bodyStorage;
+
+      if (storageManager == null)
+      {
+         return;
+      }
+
+      HornetQBuffer released = storageManager.takeReleasedBody(messageID);
+
+      if (released != null)
+      {
+         synchronized (this)
+         {
+            if (bodyStorage != null)
+            {
+               buffer = released;
+
+               // headers and properties may have changed since the body was released
+               bufferValid = false;
+
+               bodyStorage = null;
+            }
+         }
+
+         return;
+      }
+
+      // read outside of the lock as this message may be encoded while holding the journal locks
+      HornetQBuffer encoded;
+      try
+      {
+         encoded = storageManager.readMessage(messageID);
+      }
+      catch (Exception e)
+      {
+         throw new IllegalStateException("Cannot read the body of message " + messageID + " from storage", e);
+      }
+
+      if (encoded == null)
+      {
+         throw new IllegalStateException("Cannot find the body of message " + messageID + " in storage");
+      }
+
+      synchronized (this)
+      {
+         if (bodyStorage == null)
+         {
+            // loaded concurrently
+            return;
+         }
+
+         ServerMessageImpl stored = new ServerMessageImpl(messageID, encoded.readableBytes());
+
+         stored.decode(encoded);
+
+         buffer = stored.buffer;
+
+         // headers and properties may have changed since the message was stored
+         bufferValid = false;
+
+         bodyStorage = null;
+      }
+   }
+
+   @Override
+   public HornetQBuffer getBodyBuffer()
+   {
+      loadBody();
+
+      return super.getBodyBuffer();
+   }
+
+   @Override
+   public HornetQBuffer getBodyBufferCopy()
+   {
+      loadBody();
+
+      return super.getBodyBufferCopy();
+   }
+
+   @Override
+   public HornetQBuffer getEncodedBuffer()
+   {
+      loadBody();
+
+      return super.getEncodedBuffer();
+   }
+
+   @Override
+   public HornetQBuffer getWholeBuffer()
+   {
+      loadBody();
+
+      return super.getWholeBuffer();
+   }
+
+   @Override
+   public BodyEncoder getBodyEncoder() throws HornetQException
+   {
+      loadBody();
+
+      return super.getBodyEncoder();
+   }
+
+   @Override
+   public void encode(final HornetQBuffer buff)
+   {
+      loadBody();
+
+      super.encode(buff);
+   }
+
+   @Override
+   public void bodyChanged()
+   {
+      loadBody();
+
+      super.bodyChanged();
+   }
+
+   @Override
+   public void checkCopy()
+   {
+      loadBody();
+
+      super.checkCopy();
+   }
+
 }
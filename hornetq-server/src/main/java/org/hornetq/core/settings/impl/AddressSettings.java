@@ -59,6 +59,14 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    public static final boolean DEFAULT_SEND_TO_DLA_ON_NO_ROUTE = false;
 
+   public static final long DEFAULT_LAZY_BODY_THRESHOLD_BYTES = -1;
+
+   public static final long DEFAULT_GROUP_TIMEOUT = -1;
+
+   public static final int DEFAULT_GROUP_BUCKETS = -1;
+
+   public static final boolean DEFAULT_GROUP_REBALANCE = false;
+
    private AddressFullMessagePolicy addressFullMessagePolicy = null;
 
    private Long maxSizeBytes = null;
@@ -91,6 +99,14 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    private Boolean sendToDLAOnNoRoute = null;
 
+   private Long lazyBodyThresholdBytes = null;
+
+   private Long groupTimeout = null;
+
+   private Integer groupBuckets = null;
+
+   private Boolean groupRebalance = null;
+
    public boolean isLastValueQueue()
    {
       return lastValueQueue != null ? lastValueQueue : AddressSettings.DEFAULT_LAST_VALUE_QUEUE;
@@ -245,6 +261,63 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       this.redistributionDelay = redistributionDelay;
    }
 
+   public long getLazyBodyThresholdBytes()
+   {
+      return lazyBodyThresholdBytes != null ? lazyBodyThresholdBytes
+                                            : AddressSettings.DEFAULT_LAZY_BODY_THRESHOLD_BYTES;
+   }
+
+   /**
+    * Once the messages of a queue take more memory than this, the bodies of further durable
+    * messages are released from memory and read back from the journal when they are delivered.
+    */
+   public void setLazyBodyThresholdBytes(final long lazyBodyThresholdBytes)
+   {
+      this.lazyBodyThresholdBytes = lazyBodyThresholdBytes;
+   }
+
+   public long getGroupTimeout()
+   {
+      return groupTimeout != null ? groupTimeout : AddressSettings.DEFAULT_GROUP_TIMEOUT;
+   }
+
+   /**
+    * A message group that has not seen a message for this many milliseconds is unbound from its
+    * consumer, -1 keeps groups bound until their consumer is closed.
+    */
+   public void setGroupTimeout(final long groupTimeout)
+   {
+      this.groupTimeout = groupTimeout;
+   }
+
+   public int getGroupBuckets()
+   {
+      return groupBuckets != null ? groupBuckets : AddressSettings.DEFAULT_GROUP_BUCKETS;
+   }
+
+   /**
+    * When positive, group IDs are hashed to this many buckets and consumers are bound to buckets
+    * rather than to individual groups, which bounds the size of the group table.
+    */
+   public void setGroupBuckets(final int groupBuckets)
+   {
+      this.groupBuckets = groupBuckets;
+   }
+
+   public boolean isGroupRebalance()
+   {
+      return groupRebalance != null ? groupRebalance : AddressSettings.DEFAULT_GROUP_REBALANCE;
+   }
+
+   /**
+    * Whether the groups of a queue are unbound when a consumer is added, so they get spread over
+    * all the consumers again.
+    */
+   public void setGroupRebalance(final boolean groupRebalance)
+   {
+      this.groupRebalance = groupRebalance;
+   }
+
    /**
     * merge 2 objects in to 1
     * @param merged
@@ -311,6 +384,22 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       {
          addressFullMessagePolicy = merged.addressFullMessagePolicy;
       }
+      if (lazyBodyThresholdBytes == null)
+      {
+         lazyBodyThresholdBytes = merged.lazyBodyThresholdBytes;
+      }
+      if (groupTimeout == null)
+      {
+         groupTimeout = merged.groupTimeout;
+      }
+      if (groupBuckets == null)
+      {
+         groupBuckets = merged.groupBuckets;
+      }
+      if (groupRebalance == null)
+      {
+         groupRebalance = merged.groupRebalance;
+      }
    }
 
    @Override
@@ -356,6 +445,18 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       redistributionDelay = BufferHelper.readNullableLong(buffer);
 
       sendToDLAOnNoRoute = BufferHelper.readNullableBoolean(buffer);
+
+      // settings stored by previous versions end here
+      if (buffer.readableBytes() > 0)
+      {
+         lazyBodyThresholdBytes = BufferHelper.readNullableLong(buffer);
+
+         groupTimeout = BufferHelper.readNullableLong(buffer);
+
+         groupBuckets = BufferHelper.readNullableInteger(buffer);
+
+         groupRebalance = BufferHelper.readNullableBoolean(buffer);
+      }
    }
 
    @Override
@@ -377,7 +478,11 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
              BufferHelper.sizeOfNullableLong(expiryDelay) +
              BufferHelper.sizeOfNullableBoolean(lastValueQueue) +
              BufferHelper.sizeOfNullableLong(redistributionDelay) +
-             BufferHelper.sizeOfNullableBoolean(sendToDLAOnNoRoute);
+             BufferHelper.sizeOfNullableBoolean(sendToDLAOnNoRoute) +
+             BufferHelper.sizeOfNullableLong(lazyBodyThresholdBytes) +
+             BufferHelper.sizeOfNullableLong(groupTimeout) +
+             BufferHelper.sizeOfNullableInteger(groupBuckets) +
+             BufferHelper.sizeOfNullableBoolean(groupRebalance);
    }
 
    @Override
@@ -415,6 +520,14 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       BufferHelper.writeNullableLong(buffer, redistributionDelay);
 
       BufferHelper.writeNullableBoolean(buffer, sendToDLAOnNoRoute);
+
+      BufferHelper.writeNullableLong(buffer, lazyBodyThresholdBytes);
+
+      BufferHelper.writeNullableLong(buffer, groupTimeout);
+
+      BufferHelper.writeNullableInteger(buffer, groupBuckets);
+
+      BufferHelper.writeNullableBoolean(buffer, groupRebalance);
    }
 
    /* (non-Javadoc)
@@ -442,6 +555,10 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       result = prime * result + ((maxRedeliveryDelay == null) ? 0 : maxRedeliveryDelay.hashCode());
       result = prime * result + ((redistributionDelay == null) ? 0 : redistributionDelay.hashCode());
       result = prime * result + ((sendToDLAOnNoRoute == null) ? 0 : sendToDLAOnNoRoute.hashCode());
+      result = prime * result + ((lazyBodyThresholdBytes == null) ? 0 : lazyBodyThresholdBytes.hashCode());
+      result = prime * result + ((groupTimeout == null) ? 0 : groupTimeout.hashCode());
+      result = prime * result + ((groupBuckets == null) ? 0 : groupBuckets.hashCode());
+      result = prime * result + ((groupRebalance == null) ? 0 : groupRebalance.hashCode());
       return result;
    }
 
@@ -570,6 +687,34 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       }
       else if (!sendToDLAOnNoRoute.equals(other.sendToDLAOnNoRoute))
          return false;
+      if (lazyBodyThresholdBytes == null)
+      {
+         if (other.lazyBodyThresholdBytes != null)
+            return false;
+      }
+      else if (!lazyBodyThresholdBytes.equals(other.lazyBodyThresholdBytes))
+         return false;
+      if (groupTimeout == null)
+      {
+         if (other.groupTimeout != null)
+            return false;
+      }
+      else if (!groupTimeout.equals(other.groupTimeout))
+         return false;
+      if (groupBuckets == null)
+      {
+         if (other.groupBuckets != null)
+            return false;
+      }
+      else if (!groupBuckets.equals(other.groupBuckets))
+         return false;
+      if (groupRebalance == null)
+      {
+         if (other.groupRebalance != null)
+            return false;
+      }
+      else if (!groupRebalance.equals(other.groupRebalance))
+         return false;
       return true;
    }
 
@@ -610,6 +755,14 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
              redistributionDelay +
              ", sendToDLAOnNoRoute=" +
              sendToDLAOnNoRoute +
+             ", lazyBodyThresholdBytes=" +
+             lazyBodyThresholdBytes +
+             ", groupTimeout=" +
+             groupTimeout +
+             ", groupBuckets=" +
+             groupBuckets +
+             ", groupRebalance=" +
+             groupRebalance +
              "]";
    }
 }
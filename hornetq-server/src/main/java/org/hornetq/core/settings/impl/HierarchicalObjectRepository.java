@@ -20,9 +20,9 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -51,6 +51,11 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
     */
    private final Map<String, Match<T>> matches = new HashMap<String, Match<T>>();
 
+   /**
+    * the matches indexed by their words, to find the matches of an address
+    */
+   private final MatchTrie<T> trie = new MatchTrie<T>();
+
    /**
     * Certain values cannot be removed after installed.
     * This is because we read a few records from the main config.
@@ -66,7 +71,7 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
    private final MatchComparator matchComparator = new MatchComparator();
 
    /**
-    * a cache
+    * a cache, adding or removing a match only evicts the entries it matches
     */
    private final Map<String, T> cache = new ConcurrentHashMap<String, T>();
 
@@ -109,8 +114,6 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
       lock.writeLock().lock();
       try
       {
-         clearCache();
-
          if (immutableMatch)
          {
             immutables.add(match);
@@ -118,7 +121,9 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
          Match.verify(match);
          Match<T> match1 = new Match<T>(match);
          match1.setValue(value);
+         evict(match1);
          matches.put(match, match1);
+         trie.put(match1);
          onChange();
       }
       finally
@@ -227,11 +232,15 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
          else
          {
             /**
-             * clear the cache before removing the match. This will force any thread at
-             * {@link #getMatch(String)} to get the lock to recompute.
+             * evict the entries of the match from the cache before removing it. This will force any
+             * thread at {@link #getMatch(String)} to get the lock to recompute them.
              */
-            clearCache();
-            matches.remove(match);
+            Match<T> removed = matches.remove(match);
+            if (removed != null)
+            {
+               evict(removed);
+               trie.remove(match);
+            }
             onChange();
          }
       }
@@ -270,6 +279,7 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
          clearCache();
          listeners.clear();
          matches.clear();
+         trie.clear();
       }
       finally
       {
@@ -287,6 +297,22 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
       cache.clear();
    }
 
+   /**
+    * Removes the cached values of the addresses a match applies to, the others are not affected by
+    * adding or removing it.
+    */
+   private void evict(final Match<T> match)
+   {
+      Iterator<String> iterator = cache.keySet().iterator();
+      while (iterator.hasNext())
+      {
+         if (match.getPattern().matcher(iterator.next()).matches())
+         {
+            iterator.remove();
+         }
+      }
+   }
+
    private void onChange()
    {
       for (HierarchicalRepositoryChangeListener listener : listeners)
@@ -310,15 +336,7 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
    private Map<String, Match<T>> getPossibleMatches(final String match)
    {
       HashMap<String, Match<T>> possibleMatches = new HashMap<String, Match<T>>();
-
-      for (Entry<String, Match<T>> entry : matches.entrySet())
-      {
-         Match<T> entryMatch = entry.getValue();
-         if (entryMatch.getPattern().matcher(match).matches())
-         {
-            possibleMatches.put(entry.getKey(), entryMatch);
-         }
-      }
+      trie.find(match, possibleMatches);
       return possibleMatches;
    }
 
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.core.settings.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Indexes {@link Match}es by the words of their match string so finding the matches of an address
+ * only walks the words of that address instead of testing every pattern.
+ * <p>
+ * Words are separated by dots, a {@link Match#WORD_WILDCARD} word matches any non empty word and a
+ * trailing {@link Match#WILDCARD} matches any non empty remainder of the address, as the regular
+ * expression of the match would. Matches the trie can't represent, such as wildcards within a word,
+ * are kept aside and tested with their pattern.
+ * <p>
+ * This class is not thread safe, the repository accesses it while holding its lock.
+ */
+final class MatchTrie<T>
+{
+   private static final String DELIMITER_REGEX = "\\.";
+
+   private static final String REGEX_CHARACTERS = "\\[](){}^$|?+";
+
+   private final Node<T> root = new Node<T>();
+
+   private final Map<String, Match<T>> irregulars = new HashMap<String, Match<T>>();
+
+   public void put(final Match<T> match)
+   {
+      String[] words = split(match.getMatch());
+
+      if (words == null)
+      {
+         irregulars.put(match.getMatch(), match);
+
+         return;
+      }
+
+      Node<T> node = root;
+
+      int length = words.length;
+
+      boolean anyWords = words[length - 1].equals(Match.WILDCARD);
+
+      if (anyWords)
+      {
+         length--;
+      }
+
+      for (int i = 0; i < length; i++)
+      {
+         Node<T> child = node.children.get(words[i]);
+
+         if (child == null)
+         {
+            child = new Node<T>();
+
+            node.children.put(words[i], child);
+         }
+
+         node = child;
+      }
+
+      if (anyWords)
+      {
+         node.anyWords = match;
+      }
+      else
+      {
+         node.match = match;
+      }
+   }
+
+   public void remove(final String match)
+   {
+      String[] words = split(match);
+
+      if (words == null)
+      {
+         irregulars.remove(match);
+
+         return;
+      }
+
+      int length = words.length;
+
+      boolean anyWords = words[length - 1].equals(Match.WILDCARD);
+
+      if (anyWords)
+      {
+         length--;
+      }
+
+      remove(root, words, 0, length, anyWords);
+   }
+
+   public void clear()
+   {
+      root.children.clear();
+      root.match = null;
+      root.anyWords = null;
+
+      irregulars.clear();
+   }
+
+   /**
+    * Adds all the matches of an address to a map, keyed by their match string.
+    */
+   public void find(final String address, final Map<String, Match<T>> result)
+   {
+      find(root, address.split(DELIMITER_REGEX, -1), 0, result);
+
+      for (Map.Entry<String, Match<T>> entry : irregulars.entrySet())
+      {
+         if (entry.getValue().getPattern().matcher(address).matches())
+         {
+            result.put(entry.getKey(), entry.getValue());
+         }
+      }
+   }
+
+   private static <T> void find(final Node<T> node,
+                                final String[] words,
+                                final int depth,
+                                final Map<String, Match<T>> result)
+   {
+      // a trailing # needs at least one more character after the words matched so far
+      if (node.anyWords != null && (words.length > depth + 1 || words.length == depth + 1 &&
+         words[depth].length() > 0))
+      {
+         result.put(node.anyWords.getMatch(), node.anyWords);
+      }
+
+      if (depth == words.length)
+      {
+         if (node.match != null)
+         {
+            result.put(node.match.getMatch(), node.match);
+         }
+
+         return;
+      }
+
+      Node<T> child = node.children.get(words[depth]);
+
+      if (child != null)
+      {
+         find(child, words, depth + 1, result);
+      }
+
+      if (words[depth].length() > 0 && !words[depth].equals(Match.WORD_WILDCARD))
+      {
+         child = node.children.get(Match.WORD_WILDCARD);
+
+         if (child != null)
+         {
+            find(child, words, depth + 1, result);
+         }
+      }
+   }
+
+   /**
+    * @return whether the node can be pruned from its parent
+    */
+   private static <T> boolean remove(final Node<T> node,
+                                     final String[] words,
+                                     final int depth,
+                                     final int length,
+                                     final boolean anyWords)
+   {
+      if (depth == length)
+      {
+         if (anyWords)
+         {
+            node.anyWords = null;
+         }
+         else
+         {
+            node.match = null;
+         }
+      }
+      else
+      {
+         Node<T> child = node.children.get(words[depth]);
+
+         if (child != null && remove(child, words, depth + 1, length, anyWords))
+         {
+            node.children.remove(words[depth]);
+         }
+      }
+
+      return node.match == null && node.anyWords == null && node.children.isEmpty();
+   }
+
+   /**
+    * @return the words of a match string, or {@code null} if it can't be put in the trie
+    */
+   private static String[] split(final String match)
+   {
+      String[] words = match.split(DELIMITER_REGEX, -1);
+
+      for (int i = 0; i < words.length; i++)
+      {
+         String word = words[i];
+
+         if (word.equals(Match.WORD_WILDCARD) || word.equals(Match.WILDCARD) && i == words.length - 1)
+         {
+            continue;
+         }
+
+         if (word.contains(Match.WORD_WILDCARD) || word.contains(Match.WILDCARD))
+         {
+            return null;
+         }
+
+         for (int j = 0; j < word.length(); j++)
+         {
+            if (REGEX_CHARACTERS.indexOf(word.charAt(j)) >= 0)
+            {
+               return null;
+            }
+         }
+      }
+
+      return words;
+   }
+
+   private static final class Node<T>
+   {
+      final Map<String, Node<T>> children = new HashMap<String, Node<T>>();
+
+      /**
+       * the match ending at this node
+       */
+      Match<T> match;
+
+      /**
+       * the match ending at this node followed by a {@link Match#WILDCARD}
+       */
+      Match<T> anyWords;
+   }
+}
@@ -13,6 +13,9 @@
 
 package org.hornetq.spi.core.protocol;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.core.server.ServerMessage;
 import org.hornetq.spi.core.remoting.ReadyListener;
@@ -36,6 +39,16 @@ public interface SessionCallback
 
    int sendLargeMessageContinuation(long consumerID, byte[] body, boolean continues, boolean requiresResponse);
 
+   /**
+    * Sends a chunk of a large message body straight from the large message file, without reading
+    * it into memory first.
+    *
+    * @return the size of the packet sent, or -1 if nothing was sent because the connection can't do
+    *         it, the chunk must then be sent with
+    *         {@link #sendLargeMessageContinuation(long, byte[], boolean, boolean)}
+    */
+   int sendLargeMessageContinuation(long consumerID, File file, long position, int size, boolean continues) throws IOException;
+
    void closed();
 
    void addReadyListener(ReadyListener listener);
@@ -50,6 +50,9 @@ public class ConfigurationImplTest extends UnitTestCase
                           conf.getScheduledThreadPoolMaxSize());
       Assert.assertEquals(HornetQDefaultConfiguration.getDefaultSecurityInvalidationInterval(),
                           conf.getSecurityInvalidationInterval());
+      Assert.assertEquals(HornetQDefaultConfiguration.getDefaultSecurityNegativeInvalidationInterval(),
+                          conf.getSecurityNegativeInvalidationInterval());
+      Assert.assertEquals(HornetQDefaultConfiguration.getDefaultSecurityCacheSize(), conf.getSecurityCacheSize());
       Assert.assertEquals(HornetQDefaultConfiguration.isDefaultSecurityEnabled(), conf.isSecurityEnabled());
       Assert.assertEquals(HornetQDefaultConfiguration.getDefaultBindingsDirectory(), conf.getBindingsDirectory());
       Assert.assertEquals(HornetQDefaultConfiguration.isDefaultCreateBindingsDir(), conf.isCreateBindingsDir());
@@ -85,6 +88,8 @@ public class ConfigurationImplTest extends UnitTestCase
       Assert.assertEquals(HornetQDefaultConfiguration.getDefaultConnectionTtlOverride(), conf.getConnectionTTLOverride());
       Assert.assertEquals(HornetQDefaultConfiguration.isDefaultAsyncConnectionExecutionEnabled(),
                           conf.isAsyncConnectionExecutionEnabled());
+      Assert.assertEquals(HornetQDefaultConfiguration.isDefaultRemotingThreadExecutionEnabled(),
+                          conf.isRemotingThreadExecutionEnabled());
       Assert.assertEquals(HornetQDefaultConfiguration.getDefaultPagingDir(), conf.getPagingDirectory());
       Assert.assertEquals(HornetQDefaultConfiguration.getDefaultLargeMessagesDir(), conf.getLargeMessagesDirectory());
       Assert.assertEquals(HornetQDefaultConfiguration.getDefaultJournalCompactPercentage(), conf.getJournalCompactPercentage());
@@ -126,6 +131,14 @@ public class ConfigurationImplTest extends UnitTestCase
          conf.setSecurityInvalidationInterval(l);
          Assert.assertEquals(l, conf.getSecurityInvalidationInterval());
 
+         l = RandomUtil.randomLong();
+         conf.setSecurityNegativeInvalidationInterval(l);
+         Assert.assertEquals(l, conf.getSecurityNegativeInvalidationInterval());
+
+         i = RandomUtil.randomInt();
+         conf.setSecurityCacheSize(i);
+         Assert.assertEquals(i, conf.getSecurityCacheSize());
+
          b = RandomUtil.randomBoolean();
          conf.setSecurityEnabled(b);
          Assert.assertEquals(b, conf.isSecurityEnabled());
@@ -195,6 +208,10 @@ public class ConfigurationImplTest extends UnitTestCase
          conf.setEnabledAsyncConnectionExecution(b);
          Assert.assertEquals(b, conf.isAsyncConnectionExecutionEnabled());
 
+         b = RandomUtil.randomBoolean();
+         conf.setRemotingThreadExecutionEnabled(b);
+         Assert.assertEquals(b, conf.isRemotingThreadExecutionEnabled());
+
          b = RandomUtil.randomBoolean();
          conf.setFileDeploymentEnabled(b);
          Assert.assertEquals(b, conf.isFileDeploymentEnabled());
@@ -92,6 +92,8 @@ public class DefaultsFileConfigurationTest extends ConfigurationImplTest
 
       Assert.assertEquals(HornetQDefaultConfiguration.getDefaultJournalDir(), conf.getJournalDirectory());
 
+      Assert.assertTrue(conf.getJournalStripeDirectories().isEmpty());
+
       Assert.assertEquals(getDefaultJournalType(), conf.getJournalType());
 
       Assert.assertEquals(HornetQDefaultConfiguration.isDefaultJournalSyncTransactional(), conf.isJournalSyncTransactional());
@@ -15,6 +15,7 @@ package org.hornetq.core.config.impl;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.junit.Assert;
@@ -51,6 +52,8 @@ public class FileConfigurationTest extends ConfigurationImplTest
       Assert.assertEquals(54321, conf.getThreadPoolMaxSize());
       Assert.assertEquals(false, conf.isSecurityEnabled());
       Assert.assertEquals(5423, conf.getSecurityInvalidationInterval());
+      Assert.assertEquals(1234, conf.getSecurityNegativeInvalidationInterval());
+      Assert.assertEquals(987, conf.getSecurityCacheSize());
       Assert.assertEquals(true, conf.isWildcardRoutingEnabled());
       Assert.assertEquals(new SimpleString("Giraffe"), conf.getManagementAddress());
       Assert.assertEquals(new SimpleString("Whatever"), conf.getManagementNotificationAddress());
@@ -77,6 +80,7 @@ public class FileConfigurationTest extends ConfigurationImplTest
 
       Assert.assertEquals("max concurrent io", 17, conf.getPageMaxConcurrentIO());
       Assert.assertEquals("somedir2", conf.getJournalDirectory());
+      Assert.assertEquals(Arrays.asList("stripedir1", "stripedir2"), conf.getJournalStripeDirectories());
       Assert.assertEquals(false, conf.isCreateJournalDir());
       Assert.assertEquals(JournalType.NIO, conf.getJournalType());
       Assert.assertEquals(10000, conf.getJournalBufferSize_NIO());
@@ -83,6 +83,47 @@ public class AcknowledgeTest extends ServiceTestBase
          sendSession.close();
    }
 
+   @Test
+   public void testReceiveAckLastMessageOnlyDurable() throws Exception
+   {
+      HornetQServer server = createServer(true);
+      server.start();
+      ServerLocator locator = createInVMNonHALocator();
+      locator.setAckBatchSize(0);
+      locator.setBlockOnAcknowledge(true);
+      ClientSessionFactory cf = createSessionFactory(locator);
+      ClientSession sendSession = cf.createSession(false, true, true);
+      ClientSession session = cf.createSession(false, true, true);
+      sendSession.createQueue(addressA, queueA, true);
+      ClientProducer cp = sendSession.createProducer(addressA);
+      ClientConsumer cc = session.createConsumer(queueA);
+      int numMessages = 100;
+      for (int i = 0; i < numMessages; i++)
+      {
+         // mix non-durable messages in so the last ref acked is not always a durable one
+         cp.send(sendSession.createMessage(i % 3 != 2));
+      }
+      session.start();
+      ClientMessage cm = null;
+      for (int i = 0; i < numMessages; i++)
+      {
+         cm = cc.receive(5000);
+         Assert.assertNotNull(cm);
+      }
+      cm.acknowledge();
+      Queue q = (Queue)server.getPostOffice().getBinding(queueA).getBindable();
+
+      Assert.assertEquals(0, q.getDeliveringCount());
+      session.close();
+      sendSession.close();
+      locator.close();
+
+      server.stop();
+      server.start();
+
+      Assert.assertEquals(0, getMessageCount(server, addressA.toString()));
+   }
+
    @Test
    public void testAsyncConsumerNoAck() throws Exception
    {
@@ -17,6 +17,8 @@ import org.junit.After;
 
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.util.LinkedList;
 import java.util.concurrent.CountDownLatch;
@@ -585,6 +587,12 @@ public class HangConsumerTest extends ServiceTestBase
          return targetCallback.sendLargeMessageContinuation(consumerID, body, continues, requiresResponse);
       }
 
+      @Override
+      public int sendLargeMessageContinuation(long consumerID, File file, long position, int size, boolean continues) throws IOException
+      {
+         return targetCallback.sendLargeMessageContinuation(consumerID, file, position, size, continues);
+      }
+
       /* (non-Javadoc)
        * @see org.hornetq.spi.core.protocol.SessionCallback#closed()
        */
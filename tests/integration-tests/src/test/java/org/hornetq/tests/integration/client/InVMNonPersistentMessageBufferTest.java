@@ -223,6 +223,11 @@ public class InVMNonPersistentMessageBufferTest extends ServiceTestBase
       }
    }
 
+   protected HornetQServer createTestServer() throws Exception
+   {
+      return createServer(isPersistent(), isNetty());
+   }
+
    protected boolean isNetty()
    {
       return false;
@@ -239,7 +244,7 @@ public class InVMNonPersistentMessageBufferTest extends ServiceTestBase
    {
       super.setUp();
 
-      server = createServer(isPersistent(), isNetty());
+      server = createTestServer();
 
       server.start();
 
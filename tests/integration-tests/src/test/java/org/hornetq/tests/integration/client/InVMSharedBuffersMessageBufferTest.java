@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.tests.integration.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.api.core.client.ClientConsumer;
+import org.hornetq.api.core.client.ClientMessage;
+import org.hornetq.api.core.client.ClientProducer;
+import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.api.core.client.ClientSessionFactory;
+import org.hornetq.api.core.client.HornetQClient;
+import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.core.config.Configuration;
+import org.hornetq.core.remoting.impl.invm.TransportConstants;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.tests.util.RandomUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs the message buffer tests over InVM connections that hand buffers over without copying them.
+ */
+public class InVMSharedBuffersMessageBufferTest extends InVMNonPersistentMessageBufferTest
+{
+   @Test
+   public void testResendReceivedMessageWithNewProperty() throws Exception
+   {
+      ServerLocator locator = createFactory();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(true, true));
+      session.createQueue("source", "source", false);
+      session.createQueue("forwarded", "forwarded", false);
+      ClientProducer producer = session.createProducer("source");
+      ClientConsumer consumer = session.createConsumer("source");
+      ClientProducer forwarder = session.createProducer("forwarded");
+      ClientConsumer forwardedConsumer = session.createConsumer("forwarded");
+      session.start();
+
+      final String body = RandomUtil.randomString();
+
+      ClientMessage message = session.createMessage(false);
+      message.getBodyBuffer().writeString(body);
+      producer.send(message);
+
+      ClientMessage received = consumer.receive(10000);
+      Assert.assertNotNull(received);
+      received.putStringProperty("forwarded", "true");
+      forwarder.send(received);
+
+      ClientMessage forwarded = forwardedConsumer.receive(10000);
+      Assert.assertNotNull(forwarded);
+      Assert.assertEquals("true", forwarded.getStringProperty("forwarded"));
+      Assert.assertEquals(body, forwarded.getBodyBuffer().readString());
+
+      // neither side may have written into the buffers shared with the other
+      received.getBodyBuffer().resetReaderIndex();
+      Assert.assertEquals(body, received.getBodyBuffer().readString());
+      message.getBodyBuffer().resetReaderIndex();
+      Assert.assertEquals(body, message.getBodyBuffer().readString());
+
+      session.close();
+   }
+
+   @Override
+   protected HornetQServer createTestServer() throws Exception
+   {
+      Configuration config = createDefaultConfig(false);
+      config.getAcceptorConfigurations().clear();
+      config.getAcceptorConfigurations().add(new TransportConfiguration(INVM_ACCEPTOR_FACTORY, shareBuffers()));
+      return createServer(isPersistent(), config);
+   }
+
+   @Override
+   protected ServerLocator createFactory() throws Exception
+   {
+      return addServerLocator(HornetQClient.createServerLocatorWithoutHA(new TransportConfiguration(INVM_CONNECTOR_FACTORY,
+                                                                                                   shareBuffers())));
+   }
+
+   private static Map<String, Object> shareBuffers()
+   {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.SHARE_BUFFERS_PROP_NAME, true);
+      return params;
+   }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.integration.client;
+
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.api.core.client.ClientConsumer;
+import org.hornetq.api.core.client.ClientMessage;
+import org.hornetq.api.core.client.ClientProducer;
+import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.api.core.client.ClientSessionFactory;
+import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.core.paging.PagingStore;
+import org.hornetq.core.persistence.impl.journal.JournalStorageManager;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.core.settings.impl.AddressSettings;
+import org.hornetq.tests.util.ServiceTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Messages whose bodies were released by a deep queue must be delivered intact, also after the
+ * journal has been compacted, and the released bodies must no longer count against the address.
+ */
+public class LazyMessageBodyTest extends ServiceTestBase
+{
+   private static final SimpleString ADDRESS = new SimpleString("LazyMessageBodyTestAddress");
+
+   private static final int NUMBER_OF_MESSAGES = 200;
+
+   private HornetQServer server;
+
+   private ClientSessionFactory sf;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+      server = createServer(true);
+      AddressSettings settings = new AddressSettings();
+      settings.setLazyBodyThresholdBytes(0L);
+      server.getConfiguration().getAddressesSettings().put(ADDRESS.toString(), settings);
+      server.start();
+
+      ServerLocator locator = createInVMNonHALocator();
+      locator.setBlockOnDurableSend(true);
+      sf = createSessionFactory(locator);
+   }
+
+   @Test
+   public void testReceiveReleasedBodies() throws Exception
+   {
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(ADDRESS, ADDRESS, true);
+
+      ClientProducer producer = session.createProducer(ADDRESS);
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         ClientMessage message = session.createMessage(i % 10 != 9);
+         message.putIntProperty("i", i);
+         message.getBodyBuffer().writeBytes(getBody(i));
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer(ADDRESS);
+      session.start();
+
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         if (i == NUMBER_OF_MESSAGES / 2)
+         {
+            // compacting moves the records that still hold the released bodies
+            ((JournalStorageManager)server.getStorageManager()).getMessageJournal().testCompact();
+         }
+
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+
+         byte[] expected = getBody(i);
+         assertEquals(expected.length, message.getBodySize());
+         byte[] body = new byte[expected.length];
+         message.getBodyBuffer().readBytes(body);
+         assertEqualsByteArrays(expected, body);
+
+         message.acknowledge();
+      }
+
+      assertNull(consumer.receiveImmediate());
+      assertEquals(0, getMessageCount(server, ADDRESS.toString()));
+   }
+
+   @Test
+   public void testReceiveBodiesEvictedFromCache() throws Exception
+   {
+      // more than the bodies the storage manager keeps after releasing them, the first ones are read from the journal
+      final int numberOfMessages = 120;
+      final int bodySize = 100 * 1000;
+
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(ADDRESS, ADDRESS, true);
+
+      ClientProducer producer = session.createProducer(ADDRESS);
+      for (int i = 0; i < numberOfMessages; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         message.getBodyBuffer().writeBytes(getBody(i, bodySize));
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer(ADDRESS);
+      session.start();
+
+      for (int i = 0; i < numberOfMessages; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+
+         byte[] expected = getBody(i, bodySize);
+         byte[] body = new byte[message.getBodySize()];
+         message.getBodyBuffer().readBytes(body);
+         assertEqualsByteArrays(expected, body);
+
+         message.acknowledge();
+      }
+
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Test
+   public void testReleasedBodiesNotCountedAgainstAddress() throws Exception
+   {
+      final int numberOfMessages = 50;
+      final int bodySize = 10 * 1024;
+
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(ADDRESS, ADDRESS, true);
+
+      ClientProducer producer = session.createProducer(ADDRESS);
+      for (int i = 0; i < numberOfMessages; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.getBodyBuffer().writeBytes(getBody(i, bodySize));
+         producer.send(message);
+      }
+
+      PagingStore store = server.getPagingManager().getPageStore(ADDRESS);
+      assertTrue("address size " + store.getAddressSize(), store.getAddressSize() < numberOfMessages * bodySize);
+
+      ClientConsumer consumer = session.createConsumer(ADDRESS);
+      session.start();
+
+      for (int i = 0; i < numberOfMessages; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+
+      assertNull(consumer.receiveImmediate());
+
+      // the sizes given back when the messages go must match what they were counted with
+      long timeout = System.currentTimeMillis() + 5000;
+      while (store.getAddressSize() != 0 && System.currentTimeMillis() < timeout)
+      {
+         Thread.sleep(10);
+      }
+      assertEquals(0, store.getAddressSize());
+   }
+
+   private static byte[] getBody(final int i)
+   {
+      return getBody(i, 100 + i);
+   }
+
+   private static byte[] getBody(final int i, final int size)
+   {
+      byte[] body = new byte[size];
+      for (int j = 0; j < body.length; j++)
+      {
+         body[j] = getSamplebyte(i + j);
+      }
+      return body;
+   }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.tests.integration.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hornetq.api.core.HornetQException;
+import org.hornetq.api.core.Interceptor;
+import org.hornetq.api.core.Message;
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.api.core.client.ClientConsumer;
+import org.hornetq.api.core.client.ClientMessage;
+import org.hornetq.api.core.client.ClientProducer;
+import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.api.core.client.ClientSessionFactory;
+import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.core.compression.CompressionCodecs;
+import org.hornetq.core.protocol.core.Packet;
+import org.hornetq.core.protocol.core.impl.PacketImpl;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.spi.core.protocol.RemotingConnection;
+import org.hornetq.tests.util.RandomUtil;
+import org.hornetq.tests.util.ServiceTestBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the compression of regular message bodies through
+ * {@link ServerLocator#setMessageCompressionCodec(String)}.
+ */
+public class MessageCompressionTest extends ServiceTestBase
+{
+   private static final SimpleString QUEUE = new SimpleString("MessageCompressionTestQueue");
+
+   private static final int BODY_SIZE = 50 * 1024;
+
+   private HornetQServer server;
+
+   private final AtomicInteger sentPacketSize = new AtomicInteger();
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      server = createServer(true);
+
+      server.start();
+
+      server.getRemotingService().addIncomingInterceptor(new Interceptor()
+      {
+         public boolean intercept(final Packet packet, final RemotingConnection connection) throws HornetQException
+         {
+            if (packet.getType() == PacketImpl.SESS_SEND)
+            {
+               sentPacketSize.set(packet.getPacketSize());
+            }
+            return true;
+         }
+      });
+   }
+
+   @Test
+   public void testLZF() throws Exception
+   {
+      testCompression(CompressionCodecs.LZF, compressibleBody(), true);
+   }
+
+   @Test
+   public void testDeflate() throws Exception
+   {
+      testCompression(CompressionCodecs.DEFLATE, compressibleBody(), true);
+   }
+
+   @Test
+   public void testIncompressibleBodySentAsIs() throws Exception
+   {
+      testCompression(CompressionCodecs.LZF, RandomUtil.randomBytes(BODY_SIZE), false);
+   }
+
+   private void testCompression(final String codec, final byte[] body, final boolean compressed) throws Exception
+   {
+      ServerLocator locator = createInVMNonHALocator();
+      locator.setMinLargeMessageSize(BODY_SIZE * 2);
+      locator.setMessageCompressionCodec(codec);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(QUEUE, QUEUE, true);
+
+      ClientProducer producer = session.createProducer(QUEUE);
+      ClientMessage message = session.createMessage(true);
+      message.getBodyBuffer().writeBytes(body);
+      producer.send(message);
+
+      Assert.assertEquals(compressed, sentPacketSize.get() < BODY_SIZE);
+
+      // the message given to the producer is never changed
+      Assert.assertFalse(message.containsProperty(Message.HDR_BODY_CODEC));
+      Assert.assertEquals(BODY_SIZE, message.getBodySize());
+
+      // bodies are stored compressed, check they survive a restart
+      session.close();
+      sf.close();
+      server.stop();
+      server.start();
+
+      sf = createSessionFactory(locator);
+      session = addClientSession(sf.createSession(false, true, true));
+      session.start();
+
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      ClientMessage received = consumer.receive(5000);
+      Assert.assertNotNull(received);
+      Assert.assertFalse(received.containsProperty(Message.HDR_BODY_CODEC));
+      Assert.assertEquals(BODY_SIZE, received.getBodySize());
+
+      byte[] receivedBody = new byte[BODY_SIZE];
+      received.getBodyBuffer().readBytes(receivedBody);
+      assertEqualsByteArrays(body, receivedBody);
+
+      session.close();
+      sf.close();
+      locator.close();
+   }
+
+   private static byte[] compressibleBody()
+   {
+      byte[] body = new byte[BODY_SIZE];
+
+      for (int i = 0; i < BODY_SIZE; i++)
+      {
+         body[i] = getSamplebyte(i);
+      }
+
+      return body;
+   }
+}
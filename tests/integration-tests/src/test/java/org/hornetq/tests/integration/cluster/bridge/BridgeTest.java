@@ -44,6 +44,7 @@ import org.hornetq.core.config.CoreQueueConfiguration;
 import org.hornetq.core.postoffice.DuplicateIDCache;
 import org.hornetq.core.postoffice.impl.PostOfficeImpl;
 import org.hornetq.core.protocol.core.Packet;
+import org.hornetq.core.protocol.core.impl.PacketImpl;
 import org.hornetq.core.protocol.core.impl.wireformat.SessionSendContinuationMessage;
 import org.hornetq.core.protocol.core.impl.wireformat.SessionSendMessage;
 import org.hornetq.core.remoting.impl.invm.TransportConstants;
@@ -116,7 +117,24 @@ public class BridgeTest extends ServiceTestBase
       internaltestSimpleBridge(true, true);
    }
 
+   @Test
+   public void testSimpleBridgeBatched() throws Exception
+   {
+      internaltestSimpleBridge(false, true, 3);
+   }
+
+   @Test
+   public void testSimpleBridgeLargeMessageBatched() throws Exception
+   {
+      internaltestSimpleBridge(true, false, 3);
+   }
+
    public void internaltestSimpleBridge(final boolean largeMessage, final boolean useFiles) throws Exception
+   {
+      internaltestSimpleBridge(largeMessage, useFiles, -1);
+   }
+
+   private void internaltestSimpleBridge(final boolean largeMessage, final boolean useFiles, final int batchSize) throws Exception
    {
       Map<String, Object> server0Params = new HashMap<String, Object>();
       server0 = createClusteredServerWithParams(isNetty(), 0, useFiles, server0Params);
@@ -167,6 +185,8 @@ public class BridgeTest extends ServiceTestBase
          HornetQDefaultConfiguration.getDefaultClusterUser(),
          HornetQDefaultConfiguration.getDefaultClusterPassword());
 
+      bridgeConfiguration.setBatchSize(batchSize);
+
       List<BridgeConfiguration> bridgeConfigs = new ArrayList<BridgeConfiguration>();
       bridgeConfigs.add(bridgeConfiguration);
       server0.getConfiguration().setBridgeConfigurations(bridgeConfigs);
@@ -431,6 +451,145 @@ public class BridgeTest extends ServiceTestBase
       assertEquals("there should be no queues", 0, loadQueues(server0).size());
    }
 
+   /**
+    * The target ignores the first commits of a batching bridge, so they time out. The bridge has to
+    * fail over to a new session and send the batches again, without losing or duplicating messages.
+    */
+   @Test
+   public void testBatchCommitFailure() throws Exception
+   {
+      final CountDownLatch ignoredCommits = new CountDownLatch(2);
+
+      Interceptor commitIgnorer = new Interceptor()
+      {
+         public boolean intercept(final Packet packet, final RemotingConnection connection) throws HornetQException
+         {
+            if (packet.getType() == PacketImpl.SESS_COMMIT && ignoredCommits.getCount() > 0)
+            {
+               ignoredCommits.countDown();
+               return false;
+            }
+            return true;
+         }
+      };
+
+      Map<String, Object> server0Params = new HashMap<String, Object>();
+      server0 = createClusteredServerWithParams(isNetty(), 0, true, server0Params);
+
+      Map<String, Object> server1Params = new HashMap<String, Object>();
+      addTargetParameters(server1Params);
+      server1 = createClusteredServerWithParams(isNetty(), 1, true, server1Params);
+
+      final String testAddress = "testAddress";
+      final String queueName0 = "queue0";
+      final String forwardAddress = "forwardAddress";
+      final String queueName1 = "queue1";
+
+      TransportConfiguration server0tc = new TransportConfiguration(getConnector(), server0Params);
+      TransportConfiguration server1tc = new TransportConfiguration(getConnector(), server1Params);
+
+      HashMap<String, TransportConfiguration> connectors = new HashMap<String, TransportConfiguration>();
+      connectors.put(server1tc.getName(), server1tc);
+      server0.getConfiguration().setConnectorConfigurations(connectors);
+
+      final int numMessages = 20;
+
+      ArrayList<String> connectorConfig = new ArrayList<String>();
+      connectorConfig.add(server1tc.getName());
+      BridgeConfiguration bridgeConfiguration = new BridgeConfiguration("bridge1",
+         queueName0,
+         forwardAddress,
+         null,
+         null,
+         HornetQClient.DEFAULT_MIN_LARGE_MESSAGE_SIZE,
+         HornetQClient.DEFAULT_CLIENT_FAILURE_CHECK_PERIOD,
+         HornetQClient.DEFAULT_CONNECTION_TTL,
+         1000,
+         HornetQClient.DEFAULT_MAX_RETRY_INTERVAL,
+         1d,
+         -1,
+         -1,
+         true,
+         1024,
+         connectorConfig,
+         false,
+         HornetQDefaultConfiguration.getDefaultClusterUser(),
+         HornetQDefaultConfiguration.getDefaultClusterPassword());
+
+      bridgeConfiguration.setCallTimeout(500);
+      bridgeConfiguration.setBatchSize(5);
+
+      List<BridgeConfiguration> bridgeConfigs = new ArrayList<BridgeConfiguration>();
+      bridgeConfigs.add(bridgeConfiguration);
+      server0.getConfiguration().setBridgeConfigurations(bridgeConfigs);
+
+      CoreQueueConfiguration queueConfig0 = new CoreQueueConfiguration(testAddress, queueName0, null, true);
+      List<CoreQueueConfiguration> queueConfigs0 = new ArrayList<CoreQueueConfiguration>();
+      queueConfigs0.add(queueConfig0);
+      server0.getConfiguration().setQueueConfigurations(queueConfigs0);
+
+      CoreQueueConfiguration queueConfig1 = new CoreQueueConfiguration(forwardAddress, queueName1, null, true);
+      List<CoreQueueConfiguration> queueConfigs1 = new ArrayList<CoreQueueConfiguration>();
+      queueConfigs1.add(queueConfig1);
+      server1.getConfiguration().setQueueConfigurations(queueConfigs1);
+
+      server1.start();
+
+      server1.getRemotingService().addIncomingInterceptor(commitIgnorer);
+
+      server0.start();
+      locator = addServerLocator(HornetQClient.createServerLocatorWithoutHA(server0tc, server1tc));
+      ClientSessionFactory sf0 = addSessionFactory(locator.createSessionFactory(server0tc));
+
+      ClientSessionFactory sf1 = addSessionFactory(locator.createSessionFactory(server1tc));
+
+      ClientSession session0 = sf0.createSession(false, true, true);
+
+      ClientSession session1 = sf1.createSession(false, true, true);
+
+      ClientProducer producer0 = session0.createProducer(new SimpleString(testAddress));
+
+      ClientConsumer consumer1 = session1.createConsumer(queueName1);
+
+      session1.start();
+
+      final SimpleString propKey = new SimpleString("testkey");
+
+      for (int i = 0; i < numMessages; i++)
+      {
+         ClientMessage message = session0.createMessage(true);
+
+         message.putIntProperty(propKey, i);
+
+         producer0.send(message);
+      }
+
+      assertTrue("commits weren't ignored", ignoredCommits.await(30, TimeUnit.SECONDS));
+
+      for (int i = 0; i < numMessages; i++)
+      {
+         ClientMessage message = consumer1.receive(30000);
+
+         Assert.assertNotNull(message);
+
+         Assert.assertEquals(i, message.getObjectProperty(propKey));
+
+         message.acknowledge();
+      }
+
+      Assert.assertNull(consumer1.receive(1000));
+
+      session0.close();
+
+      session1.close();
+
+      sf0.close();
+
+      sf1.close();
+      closeFields();
+      assertEquals("there should be no queues", 0, loadQueues(server0).size());
+   }
+
    /**
     * @param server1Params
     */
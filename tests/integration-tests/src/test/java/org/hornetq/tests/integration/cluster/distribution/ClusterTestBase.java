@@ -848,12 +848,21 @@ public abstract class ClusterTestBase extends ServiceTestBase
    }
 
    protected void setUpGroupHandler(final GroupingHandlerConfiguration.TYPE type, final int node, final int timeout)
+   {
+      setUpGroupHandler(type, node, timeout, GroupingHandlerConfiguration.DEFAULT_GROUP_BUCKETS);
+   }
+
+   protected void setUpGroupHandler(final GroupingHandlerConfiguration.TYPE type,
+                                    final int node,
+                                    final int timeout,
+                                    final int groupBuckets)
    {
       servers[node].getConfiguration()
                    .setGroupingHandlerConfiguration(new GroupingHandlerConfiguration(new SimpleString("grouparbitrator"),
                                                                                      type,
                                                                                      new SimpleString("queues"),
-                                                                                     timeout));
+                                                                                     timeout,
+                                                                                     groupBuckets));
    }
 
    protected void setUpGroupHandler(final GroupingHandler groupingHandler, final int node)
@@ -84,6 +84,55 @@ public class ClusteredGroupingTest extends ClusterTestBase
 
    }
 
+   @Test
+   public void testGroupingWithBuckets() throws Exception
+   {
+      setupServer(0, isFileStorage(), isNetty());
+      setupServer(1, isFileStorage(), isNetty());
+      setupServer(2, isFileStorage(), isNetty());
+
+      setupClusterConnection("cluster0", "queues", false, 1, isNetty(), 0, 1, 2);
+
+      setupClusterConnection("cluster1", "queues", false, 1, isNetty(), 1, 0, 2);
+
+      setupClusterConnection("cluster2", "queues", false, 1, isNetty(), 2, 0, 1);
+
+      // a single bucket binds every group to the same queue
+      setUpGroupHandler(GroupingHandlerConfiguration.TYPE.LOCAL, 0, 5000, 1);
+      setUpGroupHandler(GroupingHandlerConfiguration.TYPE.REMOTE, 1, 5000, 1);
+      setUpGroupHandler(GroupingHandlerConfiguration.TYPE.REMOTE, 2, 5000, 1);
+
+      startServers(0, 1, 2);
+
+      setupSessionFactory(0, isNetty());
+      setupSessionFactory(1, isNetty());
+      setupSessionFactory(2, isNetty());
+
+      createQueue(0, "queues.testaddress", "queue0", null, false);
+      createQueue(1, "queues.testaddress", "queue0", null, false);
+      createQueue(2, "queues.testaddress", "queue0", null, false);
+
+      addConsumer(0, 0, "queue0", null);
+      addConsumer(1, 1, "queue0", null);
+      addConsumer(2, 2, "queue0", null);
+
+      waitForBindings(0, "queues.testaddress", 1, 1, true);
+      waitForBindings(1, "queues.testaddress", 1, 1, true);
+      waitForBindings(2, "queues.testaddress", 1, 1, true);
+
+      waitForBindings(0, "queues.testaddress", 2, 2, false);
+      waitForBindings(1, "queues.testaddress", 2, 2, false);
+      waitForBindings(2, "queues.testaddress", 2, 2, false);
+
+      sendInRange(1, "queues.testaddress", 0, 10, false, Message.HDR_GROUP_ID, new SimpleString("id1"));
+      sendInRange(2, "queues.testaddress", 10, 20, false, Message.HDR_GROUP_ID, new SimpleString("id2"));
+      sendInRange(0, "queues.testaddress", 20, 30, false, Message.HDR_GROUP_ID, new SimpleString("id3"));
+
+      int consumer = verifyReceiveAllOnSingleConsumer(0, 30, 0, 1, 2);
+      assertTrue(consumer != -1);
+      verifyNotReceive(0, 1, 2);
+   }
+
    @Test
    public void testGroupingTimeout() throws Exception
    {
@@ -110,6 +159,11 @@ public class ClusteredGroupingTest extends ClusterTestBase
             return null;
          }
 
+         public SimpleString getGroupKey(final SimpleString groupId)
+         {
+            return groupId;
+         }
+
          public Response propose(final Proposal proposal) throws Exception
          {
             return null;
@@ -29,6 +29,7 @@ import org.hornetq.api.core.client.ClientConsumer;
 import org.hornetq.api.core.client.ClientMessage;
 import org.hornetq.api.core.client.ClientProducer;
 import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.core.config.ClusterConnectionConfiguration;
 import org.hornetq.core.message.impl.MessageImpl;
 import org.hornetq.core.server.Bindable;
 import org.hornetq.core.server.cluster.impl.Redistributor;
@@ -253,6 +254,54 @@ public class MessageRedistributionTest extends ClusterTestBase
       MessageRedistributionTest.log.info("Test done");
    }
 
+   @Test
+   public void testRedistributionFromBackloggedQueue() throws Exception
+   {
+      setupCluster(false);
+
+      for (int node = 0; node < 2; node++)
+      {
+         for (ClusterConnectionConfiguration config : getServer(node).getConfiguration().getClusterConfigurations())
+         {
+            config.setLoadNotificationInterval(100);
+         }
+      }
+
+      startServers(0, 1);
+
+      setupSessionFactory(0, isNetty());
+      setupSessionFactory(1, isNetty());
+
+      createQueue(0, "queues.testaddress", "queue0", null, false);
+      createQueue(1, "queues.testaddress", "queue0", null, false);
+
+      // a consumer on node 0 that never takes any message
+      ClientSession slowSession = addClientSession(sfs[0].createSession(false, true, true));
+      addClientConsumer(slowSession.createConsumer("queue0", null, 0, -1, false));
+      slowSession.start();
+
+      ClientSession session = addClientSession(sfs[1].createSession(false, true, true, true));
+      ClientConsumer consumer = addClientConsumer(session.createConsumer("queue0"));
+      session.start();
+
+      waitForBindings(0, "queues.testaddress", 1, 1, true);
+      waitForBindings(1, "queues.testaddress", 1, 1, true);
+
+      waitForBindings(0, "queues.testaddress", 1, 1, false);
+      waitForBindings(1, "queues.testaddress", 1, 1, false);
+
+      send(0, "queues.testaddress", 20, false, null);
+
+      // half of the messages are load balanced to node 0, they are moved to node 1 once node 0 finds
+      // out its queue is backlogged
+      for (int i = 0; i < 20; i++)
+      {
+         assertNotNull("message " + i, consumer.receive(5000));
+      }
+
+      assertNull(consumer.receiveImmediate());
+   }
+
    @Test
    public void testRedistributionWhenConsumerIsClosedDifferentQueues() throws Exception
    {
@@ -17,6 +17,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 
+import org.hornetq.api.core.HornetQNotConnectedException;
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.core.postoffice.Binding;
+import org.hornetq.core.server.cluster.ClusterConnection;
+import org.hornetq.core.server.cluster.MessageFlowRecord;
+import org.hornetq.core.server.cluster.RemoteQueueBinding;
+import org.hornetq.core.server.cluster.impl.BridgeImpl;
+import org.hornetq.core.server.cluster.impl.ClusterConnectionImpl;
+import org.hornetq.spi.core.protocol.RemotingConnection;
 import org.hornetq.tests.integration.IntegrationTestLogger;
 
 /**
@@ -207,4 +216,73 @@ public class TwoWayTwoNodeClusterTest extends ClusterTestBase
 
       stopServers(0, 1);
    }
+
+   @Test
+   public void testReconnectKeepsRemoteBindings() throws Exception
+   {
+      startServers(0, 1);
+
+      setupSessionFactory(0, isNetty());
+      setupSessionFactory(1, isNetty());
+
+      createQueue(0, "queues", "queue0", null, false);
+      createQueue(1, "queues", "queue0", null, false);
+
+      addConsumer(0, 0, "queue0", null);
+      addConsumer(1, 1, "queue0", null);
+      addConsumer(2, 1, "queue0", null);
+
+      waitForBindings(0, "queues", 1, 1, true);
+      waitForBindings(0, "queues", 1, 2, false);
+
+      RemoteQueueBinding binding = getRemoteBinding(0, "queues");
+      assertNotNull(binding);
+
+      ClusterConnection clusterConnection = servers[0].getClusterManager().getClusterConnections().iterator().next();
+      MessageFlowRecord record = ((ClusterConnectionImpl)clusterConnection).getRecords().values().iterator().next();
+      BridgeImpl bridge = (BridgeImpl)record.getBridge();
+
+      RemotingConnection forwardingConnection = bridge.getForwardingConnection();
+      forwardingConnection.fail(new HornetQNotConnectedException());
+
+      // this consumer is either notified or sent with the queue info once the bridge reconnects
+      addConsumer(3, 1, "queue0", null);
+
+      long timeout = System.currentTimeMillis() + 5000;
+      while (System.currentTimeMillis() < timeout &&
+             (bridge.getForwardingConnection() == null || bridge.getForwardingConnection() == forwardingConnection))
+      {
+         Thread.sleep(10);
+      }
+      assertNotSame(forwardingConnection, bridge.getForwardingConnection());
+
+      waitForBindings(0, "queues", 1, 3, false);
+
+      // the binding was resynchronized rather than removed and added again
+      assertSame(binding, getRemoteBinding(0, "queues"));
+
+      removeConsumer(2);
+      removeConsumer(3);
+
+      waitForBindings(0, "queues", 1, 1, false);
+
+      send(0, "queues", 10, false, null);
+      verifyReceiveRoundRobin(10, 0, 1);
+      verifyNotReceive(0, 1);
+
+      stopServers(0, 1);
+   }
+
+   private RemoteQueueBinding getRemoteBinding(final int node, final String address) throws Exception
+   {
+      for (Binding binding : servers[node].getPostOffice().getBindingsForAddress(new SimpleString(address)).getBindings())
+      {
+         if (binding instanceof RemoteQueueBinding)
+         {
+            return (RemoteQueueBinding)binding;
+         }
+      }
+
+      return null;
+   }
 }
@@ -11,6 +11,7 @@ import org.hornetq.core.protocol.core.Channel;
 import org.hornetq.core.protocol.core.ChannelHandler;
 import org.hornetq.core.protocol.core.CommandConfirmationHandler;
 import org.hornetq.core.protocol.core.CoreRemotingConnection;
+import org.hornetq.core.protocol.core.FileRegionPacket;
 import org.hornetq.core.protocol.core.Packet;
 import org.hornetq.core.protocol.core.impl.PacketImpl;
 import org.hornetq.core.protocol.core.impl.wireformat.ReplicationResponseMessage;
@@ -239,6 +240,12 @@ public class BackupSyncDelay implements Interceptor
          throw new UnsupportedOperationException();
       }
 
+      @Override
+      public boolean sendFileRegion(FileRegionPacket packet)
+      {
+         throw new UnsupportedOperationException();
+      }
+
       @Override
       public Packet sendBlocking(Packet packet, byte expected) throws HornetQException
       {
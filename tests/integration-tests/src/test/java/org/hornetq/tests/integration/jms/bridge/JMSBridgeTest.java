@@ -378,6 +378,32 @@ public class JMSBridgeTest extends BridgeTestBase
       testStressSameServer(QualityOfServiceMode.ONCE_AND_ONLY_ONCE, false, 1);
    }
 
+   // Parallel workers ---------------------------------------------------------------------
+
+   @Test
+   public void testWorkers_AtMostOnce_P() throws Exception
+   {
+      testWorkers(QualityOfServiceMode.AT_MOST_ONCE, true);
+   }
+
+   @Test
+   public void testWorkers_DuplicatesOk_P() throws Exception
+   {
+      testWorkers(QualityOfServiceMode.DUPLICATES_OK, true);
+   }
+
+   @Test
+   public void testWorkers_OnceAndOnlyOnce_P() throws Exception
+   {
+      testWorkers(QualityOfServiceMode.ONCE_AND_ONLY_ONCE, true);
+   }
+
+   @Test
+   public void testWorkers_OnceAndOnlyOnce_NP() throws Exception
+   {
+      testWorkers(QualityOfServiceMode.ONCE_AND_ONLY_ONCE, false);
+   }
+
    @Test
    public void testStartBridgeFirst() throws Exception
    {
@@ -1789,6 +1815,123 @@ public class JMSBridgeTest extends BridgeTestBase
 
    // Private -------------------------------------------------------------------------------
 
+   private void testWorkers(final QualityOfServiceMode qosMode, final boolean persistent) throws Exception
+   {
+      final int NUM_MESSAGES = 300;
+
+      final int NUM_GROUPS = 7;
+
+      Connection connSource = null;
+
+      Connection connTarget = null;
+
+      JMSBridgeImpl bridge = null;
+
+      ConnectionFactoryFactory factInUse0 = cff0;
+      ConnectionFactoryFactory factInUse1 = cff1;
+      if (qosMode.equals(QualityOfServiceMode.ONCE_AND_ONLY_ONCE))
+      {
+         factInUse0 = cff0xa;
+         factInUse1 = cff1xa;
+      }
+
+      try
+      {
+         bridge = new JMSBridgeImpl(factInUse0,
+                                    factInUse1,
+                                    sourceQueueFactory,
+                                    targetQueueFactory,
+                                    null,
+                                    null,
+                                    null,
+                                    null,
+                                    null,
+                                    5000,
+                                    10,
+                                    qosMode,
+                                    50,
+                                    -1,
+                                    null,
+                                    null,
+                                    false);
+         bridge.setTransactionManager(newTransactionManager());
+         bridge.setWorkers(4);
+
+         connSource = cf0.createConnection();
+
+         Session sessSend = connSource.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+         MessageProducer prod = sessSend.createProducer(sourceQueue);
+
+         prod.setDeliveryMode(persistent ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT);
+
+         for (int i = 0; i < NUM_MESSAGES; i++)
+         {
+            TextMessage tm = sessSend.createTextMessage("message" + i);
+
+            tm.setStringProperty("JMSXGroupID", "group" + i % NUM_GROUPS);
+
+            tm.setIntProperty("count", i);
+
+            prod.send(tm);
+         }
+
+         bridge.start();
+
+         connTarget = cf1.createConnection();
+
+         Session sessRec = connTarget.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+         MessageConsumer cons = sessRec.createConsumer(targetQueue);
+
+         connTarget.start();
+
+         // messages of different groups may be interleaved, but each group must be in order
+         Map<String, Integer> lastCounts = new HashMap<String, Integer>();
+
+         for (int i = 0; i < NUM_MESSAGES; i++)
+         {
+            TextMessage tm = (TextMessage)cons.receive(10000);
+
+            Assert.assertNotNull(tm);
+
+            String group = tm.getStringProperty("JMSXGroupID");
+
+            int count = tm.getIntProperty("count");
+
+            Assert.assertEquals("group" + count % NUM_GROUPS, group);
+
+            Integer lastCount = lastCounts.put(group, count);
+
+            if (lastCount != null)
+            {
+               Assert.assertEquals(lastCount + NUM_GROUPS, count);
+            }
+         }
+
+         Assert.assertNull(cons.receiveNoWait());
+      }
+      finally
+      {
+         if (connSource != null)
+         {
+            connSource.close();
+         }
+
+         if (connTarget != null)
+         {
+            connTarget.close();
+         }
+
+         if (bridge != null)
+         {
+            bridge.stop();
+         }
+
+         removeAllMessages(sourceQueue.getQueueName(), 0);
+      }
+   }
+
    private void testStress(final QualityOfServiceMode qosMode, final boolean persistent, final int batchSize) throws Exception
    {
       Connection connSource = null;
@@ -294,6 +294,26 @@ public class HornetQServerControlUsingCoreTest extends HornetQServerControlTest
             return (Long)proxy.retrieveAttributeValue("securityInvalidationInterval", Long.class);
          }
 
+         public long getAuthenticationCacheHitCount()
+         {
+            return (Long)proxy.retrieveAttributeValue("authenticationCacheHitCount", Long.class);
+         }
+
+         public long getAuthenticationCacheMissCount()
+         {
+            return (Long)proxy.retrieveAttributeValue("authenticationCacheMissCount", Long.class);
+         }
+
+         public long getAuthorizationCacheHitCount()
+         {
+            return (Long)proxy.retrieveAttributeValue("authorizationCacheHitCount", Long.class);
+         }
+
+         public long getAuthorizationCacheMissCount()
+         {
+            return (Long)proxy.retrieveAttributeValue("authorizationCacheMissCount", Long.class);
+         }
+
          public long getTransactionTimeout()
          {
             return (Long)proxy.retrieveAttributeValue("transactionTimeout", Long.class);
@@ -4,6 +4,7 @@ import org.apache.qpid.amqp_1_0.jms.impl.ConnectionFactoryImpl;
 import org.apache.qpid.amqp_1_0.jms.impl.QueueImpl;
 import org.hornetq.api.core.SimpleString;
 import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.core.paging.PagingStore;
 import org.hornetq.core.remoting.impl.netty.TransportConstants;
 import org.hornetq.core.server.HornetQServer;
 import org.hornetq.core.server.Queue;
@@ -365,6 +366,78 @@ public class ProtonTest extends ServiceTestBase
       connection.close();
    }
 
+   @Test
+   public void testMessagesFannedOutToManyQueues() throws Exception
+   {
+      int numMessages = 20;
+      int numQueues = 3;
+      SimpleString fanout = new SimpleString("amqp_fanout");
+      server.createQueue(fanout, fanout, null, false, false);
+      for (int i = 1; i < numQueues; i++)
+      {
+         server.createQueue(fanout, new SimpleString("amqp_fanout" + i), null, false, false);
+      }
+      Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+      MessageProducer p = session.createProducer(new QueueImpl(fanout.toString()));
+      for (int i = 0; i < numMessages; i++)
+      {
+         TextMessage message = session.createTextMessage();
+         message.setText("msg:" + i);
+         message.setIntProperty("count", i);
+         message.setStringProperty("foo", "bar");
+         p.send(message);
+      }
+      for (int i = 0; i < numQueues; i++)
+      {
+         String queueName = i == 0 ? fanout.toString() : fanout.toString() + i;
+         MessageConsumer consumer = session.createConsumer(new QueueImpl(queueName));
+         for (int j = 0; j < numMessages; j++)
+         {
+            TextMessage m = (TextMessage) consumer.receive(5000);
+            assertNotNull(queueName + ":" + j, m);
+            assertEquals("msg:" + j, m.getText());
+            assertEquals(j, m.getIntProperty("count"));
+            assertEquals("bar", m.getStringProperty("foo"));
+         }
+         consumer.close();
+      }
+      connection.close();
+
+      // the shared encoding is dropped with the last reference to the message
+      PagingStore store = server.getPagingManager().getPageStore(fanout);
+      long timeout = System.currentTimeMillis() + 5000;
+      while (store.getAddressSize() != 0 && System.currentTimeMillis() < timeout)
+      {
+         Thread.sleep(10);
+      }
+      assertEquals(0, store.getAddressSize());
+   }
+
+   @Test
+   public void testCreditGivenBackToProducer() throws Exception
+   {
+      // more than a few credit windows so the producer stalls unless credit is given back in batches
+      int numMessages = 350;
+      QueueImpl queue = new QueueImpl(address);
+      Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+      MessageProducer p = session.createProducer(queue);
+      for (int i = 0; i < numMessages; i++)
+      {
+         TextMessage message = session.createTextMessage();
+         message.setText("msg:" + i);
+         p.send(message);
+      }
+      MessageConsumer consumer = session.createConsumer(queue);
+      for (int i = 0; i < numMessages; i++)
+      {
+         TextMessage m = (TextMessage) consumer.receive(5000);
+         assertNotNull("" + i, m);
+         assertEquals("msg:" + i, m.getText());
+      }
+      assertNull(consumer.receive(500));
+      connection.close();
+   }
+
    private javax.jms.Connection createConnection() throws JMSException
    {
       final ConnectionFactoryImpl factory = new ConnectionFactoryImpl("localhost", 5672, "guest", "guest");
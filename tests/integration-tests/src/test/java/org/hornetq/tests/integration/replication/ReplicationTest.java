@@ -911,5 +911,17 @@ public final class ReplicationTest extends ServiceTestBase
       {
          // no-op
       }
+
+      @Override
+      public boolean isRecordReadable(final long id)
+      {
+         return false;
+      }
+
+      @Override
+      public RecordInfo readAddRecord(final long id) throws Exception
+      {
+         return null;
+      }
    }
 }
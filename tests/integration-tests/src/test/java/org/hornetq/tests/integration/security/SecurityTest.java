@@ -707,6 +707,96 @@ public class SecurityTest extends ServiceTestBase
       senSession.close();
    }
 
+   @Test
+   public void testAuthenticationCached() throws Exception
+   {
+      HornetQServer server = createServer();
+      HornetQSecurityManager securityManager = server.getSecurityManager();
+      securityManager.addUser("newuser", "apass");
+      server.start();
+      ClientSessionFactory cf = createSessionFactory(locator);
+
+      cf.createSession("newuser", "apass", false, true, true, false, -1).close();
+      cf.createSession("newuser", "apass", false, true, true, false, -1).close();
+
+      Assert.assertEquals(1, server.getSecurityStore().getAuthenticationCacheMissCount());
+      Assert.assertEquals(1, server.getSecurityStore().getAuthenticationCacheHitCount());
+
+      // a different password is validated again
+      try
+      {
+         cf.createSession("newuser", "awrongpass", false, true, true, false, -1);
+         Assert.fail("should throw exception");
+      }
+      catch (HornetQSecurityException se)
+      {
+         //ok
+      }
+
+      Assert.assertEquals(2, server.getSecurityStore().getAuthenticationCacheMissCount());
+   }
+
+   @Test
+   public void testSendMessageUpdateRoleNegativeCached() throws Exception
+   {
+      Configuration configuration = createDefaultConfig(false);
+      configuration.setSecurityEnabled(true);
+      configuration.setSecurityNegativeInvalidationInterval(10000);
+      HornetQServer server = createServer(false, configuration);
+      server.start();
+      HierarchicalRepository<Set<Role>> securityRepository = server.getSecurityRepository();
+      HornetQSecurityManager securityManager = server.getSecurityManager();
+      securityManager.addUser("auser", "pass");
+      securityManager.addUser("guest", "guest");
+      securityManager.addRole("guest", "guest");
+      securityManager.setDefaultUser("guest");
+      Role role = new Role("arole", false, false, false, false, false, false, false);
+      Role sendRole = new Role("guest", true, false, true, false, false, false, false);
+      Role receiveRole = new Role("receiver", false, true, false, false, false, false, false);
+      Set<Role> roles = new HashSet<Role>();
+      roles.add(sendRole);
+      roles.add(role);
+      roles.add(receiveRole);
+      securityRepository.addMatch(SecurityTest.addressA, roles);
+      securityManager.addRole("auser", "arole");
+      ClientSessionFactory cf = createSessionFactory(locator);
+      ClientSession senSession = cf.createSession(false, true, true);
+      ClientSession session = cf.createSession("auser", "pass", false, true, true, false, -1);
+      senSession.createQueue(SecurityTest.addressA, SecurityTest.queueA, true);
+
+      try
+      {
+         session.createConsumer(SecurityTest.queueA);
+         Assert.fail("should throw exception");
+      }
+      catch (HornetQSecurityException se)
+      {
+         //ok
+      }
+
+      securityManager.addRole("auser", "receiver");
+
+      // the denial is cached
+      try
+      {
+         session.createConsumer(SecurityTest.queueA);
+         Assert.fail("should throw exception");
+      }
+      catch (HornetQSecurityException se)
+      {
+         //ok
+      }
+
+      // changing the roles of the address evicts its decisions
+      securityRepository.addMatch(SecurityTest.addressA, new HashSet<Role>(roles));
+
+      session.createConsumer(SecurityTest.queueA);
+
+      session.close();
+
+      senSession.close();
+   }
+
    @Test
    public void testSendMessageUpdateSender() throws Exception
    {
@@ -26,6 +26,8 @@ import java.net.SocketException;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
@@ -689,7 +691,155 @@ public class ExtraStompTest extends StompTestBase
       }
    }
 
+   //core sender -> large -> two stomp subscriptions on the same connection
+   @Test
+   public void testReceiveLargeMessagesOnTwoSubscriptions() throws Exception
+   {
+      try
+      {
+         server = createPersistentServerWithStompMinLargeSize(2048);
+         server.start();
+
+         setUpAfterServer();
+
+         String frame = "CONNECT\n" + "login: brianm\n"
+               + "passcode: wombats\n\n" + Stomp.NULL;
+         sendFrame(frame);
+         frame = receiveFrame(10000);
+
+         Assert.assertTrue(frame.startsWith("CONNECTED"));
+
+         frame = "SUBSCRIBE\n" + "destination:" + getTopicPrefix() + getTopicName() + "\n" + "id:topic-sub\n" + "ack:auto\n\n" + Stomp.NULL;
+         sendFrame(frame);
+
+         frame = "SUBSCRIBE\n" + "destination:" + getQueuePrefix() + getQueueName() + "\n" + "id:queue-sub\n" + "ack:auto\n\n" + Stomp.NULL;
+         sendFrame(frame);
+
+         waitForFrameToTakeEffect();
+
+         int msgSize = 3 * HornetQClient.DEFAULT_MIN_LARGE_MESSAGE_SIZE;
+         char[] queueContents = new char[msgSize];
+         char[] topicContents = new char[msgSize];
+         for (int i = 0; i < msgSize; i++)
+         {
+            queueContents[i] = 'C';
+            topicContents[i] = 'D';
+         }
+
+         int count = 10;
+         for (int i = 0; i < count; i++)
+         {
+            this.sendMessage(new String(queueContents), queue);
+            this.sendMessage(new String(topicContents), topic);
+         }
+
+         int queueMessages = 0;
+         int topicMessages = 0;
+         for (int i = 0; i < 2 * count; i++)
+         {
+            frame = receiveFrame(60000);
+            Assert.assertNotNull(frame);
+            Assert.assertTrue(frame.startsWith("MESSAGE"));
+
+            // the body of each frame must not be mixed with the body of the other subscription
+            String body = frame.substring(frame.indexOf("\n\n") + 2);
+            assertEquals(msgSize, body.length());
+            if (frame.indexOf("subscription:queue-sub") > 0)
+            {
+               assertEquals(new String(queueContents), body);
+               queueMessages++;
+            }
+            else
+            {
+               assertTrue(frame.indexOf("subscription:topic-sub") > 0);
+               assertEquals(new String(topicContents), body);
+               topicMessages++;
+            }
+         }
+
+         assertEquals(count, queueMessages);
+         assertEquals(count, topicMessages);
+
+         frame = "DISCONNECT\n" + "\n\n" + Stomp.NULL;
+         sendFrame(frame);
+      }
+      finally
+      {
+         cleanUp();
+         server.stop();
+      }
+   }
+
+   //core sender -> large -> stomp subscription with client ack, the messages are larger than the consumer credits
+   @Test
+   public void testReceiveLargeMessagesWithClientAck() throws Exception
+   {
+      try
+      {
+         server = createPersistentServerWithStompMinLargeSize(2048, TransportConstants.STOMP_DEFAULT_CONSUMERS_CREDIT);
+         server.start();
+
+         setUpAfterServer();
+
+         String frame = "CONNECT\n" + "login: brianm\n"
+               + "passcode: wombats\n\n" + Stomp.NULL;
+         sendFrame(frame);
+         frame = receiveFrame(10000);
+
+         Assert.assertTrue(frame.startsWith("CONNECTED"));
+
+         frame = "SUBSCRIBE\n" + "destination:" + getQueuePrefix() + getQueueName() + "\n" + "ack:client\n\n" + Stomp.NULL;
+         sendFrame(frame);
+
+         waitForFrameToTakeEffect();
+
+         int msgSize = 3 * HornetQClient.DEFAULT_MIN_LARGE_MESSAGE_SIZE;
+         char[] contents = new char[msgSize];
+         for (int i = 0; i < msgSize; i++)
+         {
+            contents[i] = 'E';
+         }
+
+         int count = 5;
+         for (int i = 0; i < count; i++)
+         {
+            this.sendMessage(new String(contents), queue);
+         }
+
+         Pattern messageIDPattern = Pattern.compile("message-id:\\s*(\\S+)", Pattern.CASE_INSENSITIVE);
+
+         for (int i = 0; i < count; i++)
+         {
+            frame = receiveFrame(60000);
+            Assert.assertNotNull(frame);
+            Assert.assertTrue(frame.startsWith("MESSAGE"));
+
+            String body = frame.substring(frame.indexOf("\n\n") + 2);
+            assertEquals(new String(contents), body);
+
+            Matcher matcher = messageIDPattern.matcher(frame);
+            Assert.assertTrue(matcher.find());
+
+            frame = "ACK\n" + "message-id: " + matcher.group(1) + "\n\n" + Stomp.NULL;
+            sendFrame(frame);
+         }
+
+         frame = "DISCONNECT\n" + "\n\n" + Stomp.NULL;
+         sendFrame(frame);
+      }
+      finally
+      {
+         cleanUp();
+         server.stop();
+      }
+   }
+
    protected JMSServerManager createPersistentServerWithStompMinLargeSize(int sz) throws Exception
+   {
+      return createPersistentServerWithStompMinLargeSize(sz, -1);
+   }
+
+   protected JMSServerManager createPersistentServerWithStompMinLargeSize(int sz, int consumerCredits) throws Exception
    {
       Configuration config = createBasicConfig();
       config.setSecurityEnabled(false);
@@ -698,7 +848,7 @@ public class ExtraStompTest extends StompTestBase
       Map<String, Object> params = new HashMap<String, Object>();
       params.put(TransportConstants.PROTOCOL_PROP_NAME, StompProtocolManagerFactory.STOMP_PROTOCOL_NAME);
       params.put(TransportConstants.PORT_PROP_NAME, TransportConstants.DEFAULT_STOMP_PORT);
-      params.put(TransportConstants.STOMP_CONSUMERS_CREDIT, "-1");
+      params.put(TransportConstants.STOMP_CONSUMERS_CREDIT, String.valueOf(consumerCredits));
       params.put(TransportConstants.STOMP_MIN_LARGE_MESSAGE_SIZE, sz);
       TransportConfiguration stompTransport = new TransportConfiguration(NettyAcceptorFactory.class.getName(), params);
       config.getAcceptorConfigurations().add(stompTransport);
@@ -39,6 +39,7 @@ import javax.jms.TextMessage;
 
 import org.junit.Assert;
 
+import org.hornetq.api.core.client.HornetQClient;
 import org.hornetq.tests.integration.IntegrationTestLogger;
 import org.hornetq.tests.integration.stomp.util.ClientStompFrame;
 import org.hornetq.tests.integration.stomp.util.StompClientConnection;
@@ -1385,6 +1386,64 @@ public class StompV12Test extends StompV11TestBase
       Assert.assertNull(message);
    }
 
+   @Test
+   public void testLargeMessageAckModeClientIndividual() throws Exception
+   {
+      connV12.connect(defUser, defPass);
+
+      subscribe(connV12, "sub1", "client-individual");
+
+      int msgSize = 3 * HornetQClient.DEFAULT_MIN_LARGE_MESSAGE_SIZE;
+      char[] contents = new char[msgSize];
+      for (int i = 0; i < msgSize; i++)
+      {
+         contents[i] = 'C';
+      }
+      String msg = new String(contents);
+
+      int num = 4;
+      for (int i = 0; i < num; i++)
+      {
+         this.sendMessage(msg);
+      }
+
+      ClientStompFrame frame = null;
+
+      for (int i = 0; i < num; i++)
+      {
+         frame = connV12.receiveFrame();
+         assertNotNull(frame);
+         assertEquals("MESSAGE", frame.getCommand());
+         assertNotNull(frame.getHeader("ack"));
+         assertEquals(msgSize, frame.getBody().length());
+
+         //ack on even numbers
+         if (i%2 == 0)
+         {
+            ack(connV12, frame);
+         }
+      }
+
+      unsubscribe(connV12, "sub1");
+
+      connV12.disconnect();
+
+      //only the unacked messages can be received.
+      MessageConsumer consumer = session.createConsumer(queue);
+
+      TextMessage message = null;
+      for (int i = 0; i < num/2; i++)
+      {
+         message = (TextMessage) consumer.receive(5000);
+         Assert.assertNotNull(message);
+         Assert.assertEquals(msgSize, message.getText().length());
+      }
+
+      message = (TextMessage) consumer.receive(1000);
+
+      Assert.assertNull(message);
+   }
+
    @Test
    public void testTwoSubscribers() throws Exception
    {
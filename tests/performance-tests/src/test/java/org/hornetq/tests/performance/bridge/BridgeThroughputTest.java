@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.tests.performance.bridge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hornetq.api.config.HornetQDefaultConfiguration;
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.api.core.client.ClientConsumer;
+import org.hornetq.api.core.client.ClientMessage;
+import org.hornetq.api.core.client.ClientProducer;
+import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.api.core.client.ClientSessionFactory;
+import org.hornetq.api.core.client.HornetQClient;
+import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.core.config.BridgeConfiguration;
+import org.hornetq.core.remoting.impl.invm.TransportConstants;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.tests.util.ServiceTestBase;
+import org.junit.Test;
+
+/**
+ * Measures how fast a core bridge forwards durable messages between two in-VM servers, with each
+ * message confirmed on its own and with batches.
+ */
+public class BridgeThroughputTest extends ServiceTestBase
+{
+   private static final int NUMBER_OF_MESSAGES = 20000;
+
+   private static final int MESSAGE_SIZE = 1024;
+
+   private static final SimpleString ADDRESS = new SimpleString("address");
+
+   private static final SimpleString QUEUE = new SimpleString("queue");
+
+   @Test
+   public void testThroughputWithoutBatches() throws Exception
+   {
+      long time = forward(-1);
+
+      System.out.println("forwarded " + NUMBER_OF_MESSAGES + " messages one by one in " + time +
+                         " milliseconds (" + NUMBER_OF_MESSAGES * 1000L / time + " messages per second)");
+   }
+
+   @Test
+   public void testThroughputWithBatches() throws Exception
+   {
+      long time = forward(500);
+
+      System.out.println("forwarded " + NUMBER_OF_MESSAGES + " messages in batches of 500 in " + time +
+                         " milliseconds (" + NUMBER_OF_MESSAGES * 1000L / time + " messages per second)");
+   }
+
+   /**
+    * Fills a queue on the first server, then deploys a bridge to the second one and times how long
+    * it takes for all the messages to be consumed there.
+    */
+   private long forward(final int batchSize) throws Exception
+   {
+      Map<String, Object> params0 = new HashMap<String, Object>();
+      HornetQServer server0 = createClusteredServerWithParams(false, 0, true, params0);
+
+      Map<String, Object> params1 = new HashMap<String, Object>();
+      params1.put(TransportConstants.SERVER_ID_PROP_NAME, 1);
+      HornetQServer server1 = createClusteredServerWithParams(false, 1, true, params1);
+
+      TransportConfiguration server0tc = new TransportConfiguration(INVM_CONNECTOR_FACTORY, params0);
+      TransportConfiguration server1tc = new TransportConfiguration(INVM_CONNECTOR_FACTORY, params1);
+
+      server0.getConfiguration().getConnectorConfigurations().put(server1tc.getName(), server1tc);
+
+      server1.start();
+      server0.start();
+
+      ServerLocator locator = addServerLocator(HornetQClient.createServerLocatorWithoutHA(server0tc, server1tc));
+      locator.setBlockOnDurableSend(false);
+
+      ClientSessionFactory sf0 = addSessionFactory(locator.createSessionFactory(server0tc));
+      ClientSessionFactory sf1 = addSessionFactory(locator.createSessionFactory(server1tc));
+
+      ClientSession session0 = addClientSession(sf0.createSession(false, true, true));
+      ClientSession session1 = addClientSession(sf1.createSession(false, true, true));
+
+      session0.createQueue(ADDRESS, QUEUE, true);
+      session1.createQueue(ADDRESS, QUEUE, true);
+
+      ClientProducer producer = session0.createProducer(ADDRESS);
+
+      byte[] body = new byte[MESSAGE_SIZE];
+
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         ClientMessage message = session0.createMessage(true);
+         message.getBodyBuffer().writeBytes(body);
+         producer.send(message);
+      }
+
+      ArrayList<String> connectors = new ArrayList<String>();
+      connectors.add(server1tc.getName());
+
+      BridgeConfiguration bridgeConfiguration = new BridgeConfiguration("bridge",
+                                                                        QUEUE.toString(),
+                                                                        null,
+                                                                        null,
+                                                                        null,
+                                                                        HornetQClient.DEFAULT_MIN_LARGE_MESSAGE_SIZE,
+                                                                        HornetQClient.DEFAULT_CLIENT_FAILURE_CHECK_PERIOD,
+                                                                        HornetQClient.DEFAULT_CONNECTION_TTL,
+                                                                        1000,
+                                                                        HornetQClient.DEFAULT_MAX_RETRY_INTERVAL,
+                                                                        1d,
+                                                                        -1,
+                                                                        -1,
+                                                                        true,
+                                                                        HornetQClient.DEFAULT_CONFIRMATION_WINDOW_SIZE,
+                                                                        connectors,
+                                                                        false,
+                                                                        HornetQDefaultConfiguration.getDefaultClusterUser(),
+                                                                        HornetQDefaultConfiguration.getDefaultClusterPassword());
+      bridgeConfiguration.setBatchSize(batchSize);
+
+      ClientConsumer consumer = session1.createConsumer(QUEUE);
+      session1.start();
+
+      long start = System.currentTimeMillis();
+
+      server0.deployBridge(bridgeConfiguration);
+
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull("message " + i + " was not forwarded", message);
+         message.acknowledge();
+      }
+
+      long time = System.currentTimeMillis() - start;
+
+      assertNull(consumer.receiveImmediate());
+
+      return time;
+   }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.performance.executor;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.hornetq.tests.util.UnitTestCase;
+import org.hornetq.utils.OrderedExecutorFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Pushes small tasks through ordered executors sharing one thread pool, the way sessions and queues
+ * share the server's pool, comparing {@link OrderedExecutorFactory} with the synchronized ordered
+ * executor it used before.
+ */
+public class OrderedExecutorBenchmarkTest extends UnitTestCase
+{
+   private static final int NUMBER_OF_EXECUTORS = 16;
+
+   private static final int NUMBER_OF_SUBMITTERS = 4;
+
+   private static final int TASKS_PER_SUBMITTER = 1000000;
+
+   private static final int ITERATIONS = 5;
+
+   private interface ExecutorCreator
+   {
+      Executor create(Executor parent);
+   }
+
+   @Test
+   public void testOrderedExecutorFactory() throws Exception
+   {
+      run("lock free", new ExecutorCreator()
+      {
+         public Executor create(final Executor parent)
+         {
+            return new OrderedExecutorFactory(parent).getExecutor();
+         }
+      });
+   }
+
+   @Test
+   public void testSynchronizedOrderedExecutor() throws Exception
+   {
+      run("synchronized", new ExecutorCreator()
+      {
+         public Executor create(final Executor parent)
+         {
+            return new SynchronizedOrderedExecutor(parent);
+         }
+      });
+   }
+
+   private void run(final String name, final ExecutorCreator creator) throws Exception
+   {
+      ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+      try
+      {
+         // the first iteration is warm up
+         for (int i = 0; i < ITERATIONS; i++)
+         {
+            long time = measure(pool, creator);
+
+            if (i > 0)
+            {
+               long tasks = (long)NUMBER_OF_SUBMITTERS * TASKS_PER_SUBMITTER;
+               System.out.println(name + ": " + tasks + " tasks in " + time + " ms, " + tasks * 1000 /
+                                  Math.max(time, 1) + " tasks/s");
+            }
+         }
+      }
+      finally
+      {
+         pool.shutdown();
+         pool.awaitTermination(10, TimeUnit.SECONDS);
+      }
+   }
+
+   /**
+    * @return the time taken for all the tasks to run, in milliseconds
+    */
+   private long measure(final Executor pool, final ExecutorCreator creator) throws Exception
+   {
+      final Executor[] executors = new Executor[NUMBER_OF_EXECUTORS];
+
+      for (int i = 0; i < NUMBER_OF_EXECUTORS; i++)
+      {
+         executors[i] = creator.create(pool);
+      }
+
+      final CountDownLatch done = new CountDownLatch(NUMBER_OF_SUBMITTERS);
+
+      final Runnable task = new Runnable()
+      {
+         public void run()
+         {
+         }
+      };
+
+      Thread[] submitters = new Thread[NUMBER_OF_SUBMITTERS];
+
+      for (int i = 0; i < NUMBER_OF_SUBMITTERS; i++)
+      {
+         final int submitter = i;
+
+         submitters[i] = new Thread()
+         {
+            @Override
+            public void run()
+            {
+               for (int j = 0; j < TASKS_PER_SUBMITTER; j++)
+               {
+                  executors[(submitter + j) % NUMBER_OF_EXECUTORS].execute(task);
+               }
+
+               // each executor runs in order, so once these ran so did everything this submitter sent
+               final CountDownLatch flushed = new CountDownLatch(NUMBER_OF_EXECUTORS);
+
+               for (Executor executor : executors)
+               {
+                  executor.execute(new Runnable()
+                  {
+                     public void run()
+                     {
+                        flushed.countDown();
+                     }
+                  });
+               }
+
+               try
+               {
+                  flushed.await();
+               }
+               catch (InterruptedException e)
+               {
+                  return;
+               }
+
+               done.countDown();
+            }
+         };
+      }
+
+      long start = System.currentTimeMillis();
+
+      for (Thread submitter : submitters)
+      {
+         submitter.start();
+      }
+
+      Assert.assertTrue(done.await(5, TimeUnit.MINUTES));
+
+      return System.currentTimeMillis() - start;
+   }
+
+   /**
+    * The ordered executor as it was, taking the lock on its queue on every execute and whenever it ran dry.
+    */
+   private static final class SynchronizedOrderedExecutor implements Executor
+   {
+      private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+      // @protected by tasks
+      private boolean running;
+
+      private final Executor parent;
+
+      private final Runnable runner = new Runnable()
+      {
+         public void run()
+         {
+            for (;;)
+            {
+               Runnable task = tasks.poll();
+               if (task == null)
+               {
+                  synchronized (tasks)
+                  {
+                     task = tasks.poll();
+                     if (task == null)
+                     {
+                        running = false;
+                        return;
+                     }
+                  }
+               }
+               task.run();
+            }
+         }
+      };
+
+      SynchronizedOrderedExecutor(final Executor parent)
+      {
+         this.parent = parent;
+      }
+
+      public void execute(final Runnable command)
+      {
+         synchronized (tasks)
+         {
+            tasks.add(command);
+            if (!running)
+            {
+               running = true;
+               parent.execute(runner);
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.performance.journal;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hornetq.tests.util.UnitTestCase;
+import org.hornetq.utils.ConcurrentLongHashMap;
+import org.junit.Test;
+
+/**
+ * Compares the memory and the time taken by the index of the live records of a journal, keyed by
+ * boxed IDs in a ConcurrentHashMap as it used to be and by primitive IDs in a ConcurrentLongHashMap.
+ */
+public class RecordIndexBenchmarkTest extends UnitTestCase
+{
+   private static final int NUMBER_OF_RECORDS = 2000000;
+
+   private static final Object RECORD = new Object();
+
+   @Test
+   public void testConcurrentHashMap() throws Exception
+   {
+      long memory = usedMemory();
+
+      ConcurrentHashMap<Long, Object> records = new ConcurrentHashMap<Long, Object>();
+
+      long start = System.currentTimeMillis();
+
+      for (long id = 0; id < NUMBER_OF_RECORDS; id++)
+      {
+         records.put(id, RECORD);
+      }
+
+      long added = System.currentTimeMillis();
+
+      memory = usedMemory() - memory;
+
+      long lookup = System.currentTimeMillis();
+
+      for (long id = 0; id < NUMBER_OF_RECORDS; id++)
+      {
+         assertNotNull(records.get(id));
+      }
+
+      for (long id = 0; id < NUMBER_OF_RECORDS; id++)
+      {
+         records.remove(id);
+      }
+
+      report("ConcurrentHashMap", memory, added - start, System.currentTimeMillis() - lookup);
+   }
+
+   @Test
+   public void testConcurrentLongHashMap() throws Exception
+   {
+      long memory = usedMemory();
+
+      ConcurrentLongHashMap<Object> records = new ConcurrentLongHashMap<Object>();
+
+      long start = System.currentTimeMillis();
+
+      for (long id = 0; id < NUMBER_OF_RECORDS; id++)
+      {
+         records.put(id, RECORD);
+      }
+
+      long added = System.currentTimeMillis();
+
+      memory = usedMemory() - memory;
+
+      long lookup = System.currentTimeMillis();
+
+      for (long id = 0; id < NUMBER_OF_RECORDS; id++)
+      {
+         assertNotNull(records.get(id));
+      }
+
+      for (long id = 0; id < NUMBER_OF_RECORDS; id++)
+      {
+         records.remove(id);
+      }
+
+      report("ConcurrentLongHashMap", memory, added - start, System.currentTimeMillis() - lookup);
+   }
+
+   private static void report(final String index, final long memory, final long addTime, final long getRemoveTime)
+   {
+      System.out.println(index + ": " + NUMBER_OF_RECORDS + " records take " + memory / NUMBER_OF_RECORDS +
+                         " bytes each, added in " + addTime + " ms, looked up and removed in " + getRemoveTime + " ms");
+   }
+
+   private static long usedMemory() throws Exception
+   {
+      for (int i = 0; i < 5; i++)
+      {
+         System.gc();
+         Thread.sleep(100);
+      }
+
+      return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+   }
+}
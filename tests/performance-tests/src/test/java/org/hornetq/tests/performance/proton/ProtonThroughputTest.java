@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.tests.performance.proton;
+
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.qpid.amqp_1_0.jms.impl.ConnectionFactoryImpl;
+import org.apache.qpid.amqp_1_0.jms.impl.QueueImpl;
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.core.remoting.impl.netty.TransportConstants;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.tests.util.ServiceTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures the AMQP messaging throughput of the server, with a single link and with many links on
+ * the same connection.
+ */
+public class ProtonThroughputTest extends ServiceTestBase
+{
+   private static final int NUMBER_OF_MESSAGES = 20000;
+
+   private static final int SIZE_OF_MESSAGE = 1024;
+
+   private static final int NUMBER_OF_LINKS = 200;
+
+   private static final String ADDRESS = "amqpThroughputQueue";
+
+   private HornetQServer server;
+
+   private Connection connection;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+      server = createServer(false, true);
+      HashMap<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.PORT_PROP_NAME, "5672");
+      params.put(TransportConstants.PROTOCOL_PROP_NAME, "AMQP");
+      server.getConfiguration().getAcceptorConfigurations().add(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY, params));
+      server.start();
+
+      for (int i = 0; i < NUMBER_OF_LINKS; i++)
+      {
+         server.createQueue(new SimpleString(ADDRESS + i), new SimpleString(ADDRESS + i), null, false, false);
+      }
+
+      connection = new ConnectionFactoryImpl("localhost", 5672, "guest", "guest").createConnection();
+      connection.start();
+   }
+
+   @Override
+   @After
+   public void tearDown() throws Exception
+   {
+      if (connection != null)
+      {
+         connection.close();
+      }
+      server.stop();
+      super.tearDown();
+   }
+
+   @Test
+   public void testSingleLinkThroughput() throws Exception
+   {
+      measure(1);
+   }
+
+   @Test
+   public void testManyLinksThroughput() throws Exception
+   {
+      measure(NUMBER_OF_LINKS);
+   }
+
+   private void measure(final int links) throws Exception
+   {
+      Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+      MessageProducer[] producers = new MessageProducer[links];
+      final CountDownLatch received = new CountDownLatch(NUMBER_OF_MESSAGES);
+      final AtomicInteger errors = new AtomicInteger(0);
+
+      for (int i = 0; i < links; i++)
+      {
+         QueueImpl queue = new QueueImpl(ADDRESS + i);
+         producers[i] = session.createProducer(queue);
+
+         Session consumerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+         MessageConsumer consumer = consumerSession.createConsumer(queue);
+         consumer.setMessageListener(new MessageListener()
+         {
+            public void onMessage(final Message message)
+            {
+               if (!(message instanceof BytesMessage))
+               {
+                  errors.incrementAndGet();
+               }
+               received.countDown();
+            }
+         });
+      }
+
+      byte[] body = new byte[SIZE_OF_MESSAGE];
+
+      long start = System.currentTimeMillis();
+
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         BytesMessage message = session.createBytesMessage();
+         message.writeBytes(body);
+         producers[i % links].send(message);
+      }
+
+      long sent = System.currentTimeMillis();
+
+      assertTrue(received.await(5, TimeUnit.MINUTES));
+
+      long end = System.currentTimeMillis();
+
+      assertEquals(0, errors.get());
+
+      System.out.println(links + " link(s): sent " + NUMBER_OF_MESSAGES + " messages of " + SIZE_OF_MESSAGE +
+                         " bytes in " + (sent - start) + " milliseconds (" +
+                         NUMBER_OF_MESSAGES * 1000L / Math.max(1, sent - start) + " per second), received all in " +
+                         (end - start) + " milliseconds (" +
+                         NUMBER_OF_MESSAGES * 1000L / Math.max(1, end - start) + " per second)");
+   }
+}
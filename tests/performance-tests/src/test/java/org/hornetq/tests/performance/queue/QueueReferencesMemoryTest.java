@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.tests.performance.queue;
+
+import org.hornetq.core.server.MessageReference;
+import org.hornetq.core.server.impl.MessageReferenceImpl;
+import org.hornetq.tests.util.UnitTestCase;
+import org.hornetq.utils.LinkedListIterator;
+import org.hornetq.utils.PriorityLinkedListImpl;
+import org.junit.Test;
+
+/**
+ * Measures the heap taken by the references of a very deep queue, excluding the messages
+ * themselves.
+ */
+public class QueueReferencesMemoryTest extends UnitTestCase
+{
+   private static final int NUMBER_OF_REFERENCES = 10000000;
+
+   // same as QueueImpl
+   private static final int NUM_PRIORITIES = 10;
+
+   @Test
+   public void testMemoryOfTenMillionReferences() throws Exception
+   {
+      MessageReferenceImpl template = new MessageReferenceImpl();
+
+      PriorityLinkedListImpl<MessageReference> references = new PriorityLinkedListImpl<MessageReference>(NUM_PRIORITIES);
+
+      long before = usedMemory();
+
+      long start = System.currentTimeMillis();
+
+      for (int i = 0; i < NUMBER_OF_REFERENCES; i++)
+      {
+         references.addTail(new MessageReferenceImpl(template, null), i % 4 == 0 ? 9 : 4);
+      }
+
+      long added = System.currentTimeMillis();
+
+      long after = usedMemory();
+
+      assertEquals(NUMBER_OF_REFERENCES, references.size());
+
+      System.out.println(NUMBER_OF_REFERENCES + " references take " + (after - before) / (1024 * 1024) + " MiB (" +
+                         (after - before) / NUMBER_OF_REFERENCES + " bytes per reference), added in " +
+                         (added - start) + " milliseconds");
+
+      LinkedListIterator<MessageReference> iterator = references.iterator();
+
+      start = System.currentTimeMillis();
+
+      int count = 0;
+
+      while (iterator.hasNext())
+      {
+         iterator.next();
+
+         // take every other reference out as consumers with filters would
+         if (count++ % 2 == 0)
+         {
+            iterator.remove();
+         }
+      }
+
+      iterator.close();
+
+      System.out.println("iterated over " + count + " references in " + (System.currentTimeMillis() - start) +
+                         " milliseconds");
+
+      assertEquals(NUMBER_OF_REFERENCES, count);
+
+      start = System.currentTimeMillis();
+
+      while (references.poll() != null)
+      {
+         count--;
+      }
+
+      System.out.println("polled the remaining references in " + (System.currentTimeMillis() - start) +
+                         " milliseconds");
+
+      assertEquals(NUMBER_OF_REFERENCES / 2, count);
+      assertTrue(references.isEmpty());
+   }
+
+   private static long usedMemory()
+   {
+      UnitTestCase.forceGC();
+      Runtime runtime = Runtime.getRuntime();
+      return runtime.totalMemory() - runtime.freeMemory();
+   }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.performance.remoting;
+
+import java.util.Arrays;
+
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.api.core.client.ClientMessage;
+import org.hornetq.api.core.client.ClientProducer;
+import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.api.core.client.ClientSessionFactory;
+import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.core.config.Configuration;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.tests.util.ServiceTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the round trip of committing transactions of non durable messages over Netty, with the
+ * commits handed off to the thread pool and with them handled on the remoting thread.
+ */
+public class ConnectionExecutionLatencyTest extends ServiceTestBase
+{
+   private static final int WARMUP = 5000;
+
+   private static final int NUMBER_OF_COMMITS = 20000;
+
+   private static final SimpleString QUEUE = new SimpleString("queue");
+
+   @Test
+   public void testThreadPoolExecution() throws Exception
+   {
+      report("thread pool", measure(false));
+   }
+
+   @Test
+   public void testRemotingThreadExecution() throws Exception
+   {
+      report("remoting thread", measure(true));
+   }
+
+   /**
+    * @return the time taken by each commit, in nanoseconds
+    */
+   private long[] measure(final boolean remotingThreadExecution) throws Exception
+   {
+      Configuration config = createDefaultConfig(true);
+      config.setEnabledAsyncConnectionExecution(true);
+      config.setRemotingThreadExecutionEnabled(remotingThreadExecution);
+      HornetQServer server = createServer(false, config);
+      server.start();
+
+      ServerLocator locator = createNettyNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, false, false));
+      session.createQueue(QUEUE, QUEUE, null, false);
+      ClientProducer producer = session.createProducer(QUEUE);
+
+      long[] times = new long[NUMBER_OF_COMMITS];
+
+      for (int i = 0; i < WARMUP + NUMBER_OF_COMMITS; i++)
+      {
+         ClientMessage message = session.createMessage(false);
+         message.getBodyBuffer().writeBytes(new byte[100]);
+         producer.send(message);
+
+         long start = System.nanoTime();
+
+         session.commit();
+
+         if (i >= WARMUP)
+         {
+            times[i - WARMUP] = System.nanoTime() - start;
+         }
+      }
+
+      session.close();
+      sf.close();
+      locator.close();
+      server.stop();
+
+      return times;
+   }
+
+   private static void report(final String mode, final long[] times)
+   {
+      Arrays.sort(times);
+
+      long total = 0;
+
+      for (long time : times)
+      {
+         total += time;
+      }
+
+      System.out.println("commits executed on the " + mode + ": average " + total / times.length / 1000 +
+                         " us, median " + times[times.length / 2] / 1000 +
+                         " us, 99th percentile " + times[times.length * 99 / 100] / 1000 + " us");
+   }
+}
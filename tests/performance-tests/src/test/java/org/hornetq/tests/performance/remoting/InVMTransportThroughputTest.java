@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.performance.remoting;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.api.core.client.ClientConsumer;
+import org.hornetq.api.core.client.ClientMessage;
+import org.hornetq.api.core.client.ClientProducer;
+import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.api.core.client.ClientSessionFactory;
+import org.hornetq.api.core.client.HornetQClient;
+import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.core.config.Configuration;
+import org.hornetq.core.remoting.impl.invm.TransportConstants;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.tests.util.ServiceTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Sends and receives small non durable messages through an embedded server over Netty, over InVM
+ * copying the buffers and over InVM sharing them.
+ */
+public class InVMTransportThroughputTest extends ServiceTestBase
+{
+   private static final int WARMUP = 20000;
+
+   private static final int NUMBER_OF_MESSAGES = 200000;
+
+   private static final int BODY_SIZE = 100;
+
+   private static final SimpleString QUEUE = new SimpleString("queue");
+
+   @Test
+   public void testNetty() throws Exception
+   {
+      report("Netty", measure(NETTY_ACCEPTOR_FACTORY, NETTY_CONNECTOR_FACTORY, new HashMap<String, Object>()));
+   }
+
+   @Test
+   public void testInVMCopyingBuffers() throws Exception
+   {
+      report("InVM copying buffers",
+             measure(INVM_ACCEPTOR_FACTORY, INVM_CONNECTOR_FACTORY, new HashMap<String, Object>()));
+   }
+
+   @Test
+   public void testInVMSharingBuffers() throws Exception
+   {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.SHARE_BUFFERS_PROP_NAME, true);
+
+      report("InVM sharing buffers", measure(INVM_ACCEPTOR_FACTORY, INVM_CONNECTOR_FACTORY, params));
+   }
+
+   /**
+    * @return the time taken to send and receive {@link #NUMBER_OF_MESSAGES}, in milliseconds
+    */
+   private long measure(final String acceptorFactory, final String connectorFactory, final Map<String, Object> params) throws Exception
+   {
+      Configuration config = createDefaultConfig(false);
+      config.getAcceptorConfigurations().clear();
+      config.getAcceptorConfigurations().add(new TransportConfiguration(acceptorFactory, params));
+      HornetQServer server = createServer(false, config);
+      server.start();
+
+      ServerLocator locator =
+               addServerLocator(HornetQClient.createServerLocatorWithoutHA(new TransportConfiguration(connectorFactory,
+                                                                                                      params)));
+      locator.setBlockOnNonDurableSend(false);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(true, true));
+      session.createQueue(QUEUE, QUEUE, null, false);
+      ClientProducer producer = session.createProducer(QUEUE);
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      session.start();
+
+      sendAndReceive(session, producer, consumer, WARMUP);
+
+      long start = System.currentTimeMillis();
+
+      sendAndReceive(session, producer, consumer, NUMBER_OF_MESSAGES);
+
+      long time = System.currentTimeMillis() - start;
+
+      session.close();
+      sf.close();
+      locator.close();
+      server.stop();
+
+      return time;
+   }
+
+   private static void sendAndReceive(final ClientSession session,
+                                      final ClientProducer producer,
+                                      final ClientConsumer consumer,
+                                      final int numberOfMessages) throws Exception
+   {
+      byte[] body = new byte[BODY_SIZE];
+
+      // in batches, so the consumer window doesn't throttle the producer
+      for (int i = 0; i < numberOfMessages; i += 1000)
+      {
+         for (int j = 0; j < 1000; j++)
+         {
+            ClientMessage message = session.createMessage(false);
+            message.getBodyBuffer().writeBytes(body);
+            producer.send(message);
+         }
+
+         for (int j = 0; j < 1000; j++)
+         {
+            ClientMessage message = consumer.receive(5000);
+            Assert.assertNotNull(message);
+            message.acknowledge();
+         }
+      }
+   }
+
+   private static void report(final String transport, final long time)
+   {
+      System.out.println(transport + ": " + NUMBER_OF_MESSAGES + " messages of " + BODY_SIZE + " bytes in " + time +
+                         " ms, " + NUMBER_OF_MESSAGES * 1000L / Math.max(time, 1) + " messages/s");
+   }
+}
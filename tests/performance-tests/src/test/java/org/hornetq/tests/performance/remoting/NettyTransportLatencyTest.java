@@ -0,0 +1,154 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.performance.remoting;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hornetq.api.core.HornetQException;
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.api.core.client.ClientConsumer;
+import org.hornetq.api.core.client.ClientMessage;
+import org.hornetq.api.core.client.ClientProducer;
+import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.api.core.client.ClientSessionFactory;
+import org.hornetq.api.core.client.HornetQClient;
+import org.hornetq.api.core.client.MessageHandler;
+import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.core.config.Configuration;
+import org.hornetq.core.remoting.impl.netty.TransportConstants;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.tests.util.ServiceTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Ping-pong round trip latency between two clients over Netty, with the acceptor and the
+ * connectors using NIO (backed by the JDK epoll selector on Linux) and using old blocking IO.
+ */
+public class NettyTransportLatencyTest extends ServiceTestBase
+{
+   private static final int WARMUP = 5000;
+
+   private static final int NUMBER_OF_PINGS = 20000;
+
+   private static final SimpleString PING = new SimpleString("ping");
+
+   private static final SimpleString PONG = new SimpleString("pong");
+
+   @Test
+   public void testNio() throws Exception
+   {
+      report("NIO", measure(true));
+   }
+
+   @Test
+   public void testOldIO() throws Exception
+   {
+      report("old IO", measure(false));
+   }
+
+   /**
+    * @return the round trip of each ping, in nanoseconds
+    */
+   private long[] measure(final boolean useNio) throws Exception
+   {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.USE_NIO_PROP_NAME, useNio);
+      params.put(TransportConstants.TCP_NODELAY_PROPNAME, true);
+
+      Configuration config = createDefaultConfig(false);
+      config.getAcceptorConfigurations().clear();
+      config.getAcceptorConfigurations().add(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY, params));
+      HornetQServer server = createServer(false, config);
+      server.start();
+
+      ServerLocator locator =
+               addServerLocator(HornetQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY,
+                                                                                                      params)));
+      ClientSessionFactory sf = createSessionFactory(locator);
+
+      ClientSession pingSession = addClientSession(sf.createSession(true, true));
+      pingSession.createQueue(PING, PING, null, false);
+      pingSession.createQueue(PONG, PONG, null, false);
+
+      final ClientSession pongSession = addClientSession(sf.createSession(true, true));
+      final ClientProducer pongProducer = pongSession.createProducer(PONG);
+      ClientConsumer pingConsumer = pongSession.createConsumer(PING);
+      pingConsumer.setMessageHandler(new MessageHandler()
+      {
+         public void onMessage(final ClientMessage message)
+         {
+            try
+            {
+               ClientMessage pong = pongSession.createMessage(false);
+               pong.getBodyBuffer().writeBytes(new byte[100]);
+               pongProducer.send(pong);
+            }
+            catch (HornetQException e)
+            {
+               e.printStackTrace();
+            }
+         }
+      });
+      pongSession.start();
+
+      ClientProducer pingProducer = pingSession.createProducer(PING);
+      ClientConsumer pongConsumer = pingSession.createConsumer(PONG);
+      pingSession.start();
+
+      long[] times = new long[NUMBER_OF_PINGS];
+
+      for (int i = 0; i < WARMUP + NUMBER_OF_PINGS; i++)
+      {
+         ClientMessage ping = pingSession.createMessage(false);
+         ping.getBodyBuffer().writeBytes(new byte[100]);
+
+         long start = System.nanoTime();
+
+         pingProducer.send(ping);
+         Assert.assertNotNull(pongConsumer.receive(5000));
+
+         if (i >= WARMUP)
+         {
+            times[i - WARMUP] = System.nanoTime() - start;
+         }
+      }
+
+      pingSession.close();
+      pongSession.close();
+      sf.close();
+      locator.close();
+      server.stop();
+
+      return times;
+   }
+
+   private static void report(final String transport, final long[] times)
+   {
+      Arrays.sort(times);
+
+      long total = 0;
+
+      for (long time : times)
+      {
+         total += time;
+      }
+
+      System.out.println("ping-pong over " + transport + ": average " + total / times.length / 1000 +
+                         " us, median " + times[times.length / 2] / 1000 +
+                         " us, 99th percentile " + times[times.length * 99 / 100] / 1000 + " us");
+   }
+}
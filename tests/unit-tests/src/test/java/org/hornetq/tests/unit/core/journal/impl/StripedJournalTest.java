@@ -0,0 +1,425 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.unit.core.journal.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hornetq.core.journal.IOCompletion;
+import org.hornetq.core.journal.PreparedTransactionInfo;
+import org.hornetq.core.journal.RecordInfo;
+import org.hornetq.core.journal.impl.JournalImpl;
+import org.hornetq.core.journal.impl.StripedJournal;
+import org.hornetq.core.journal.impl.dataformat.ByteArrayEncoding;
+import org.hornetq.tests.unit.core.journal.impl.fakes.FakeSequentialFileFactory;
+import org.hornetq.tests.util.UnitTestCase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StripedJournalTest extends UnitTestCase
+{
+   private static final int NUMBER_OF_STRIPES = 3;
+
+   private static final int NUMBER_OF_RECORDS = 30;
+
+   private static final byte RECORD_TYPE = 1;
+
+   private FakeSequentialFileFactory[] factories;
+
+   private JournalImpl[] stripes;
+
+   private StripedJournal journal;
+
+   private final List<RecordInfo> records = new ArrayList<RecordInfo>();
+
+   private final List<PreparedTransactionInfo> transactions = new ArrayList<PreparedTransactionInfo>();
+
+   @Test
+   public void testRecordsSpreadOverStripes() throws Exception
+   {
+      load();
+
+      for (long id = 1; id <= NUMBER_OF_RECORDS; id++)
+      {
+         journal.appendAddRecord(id, RECORD_TYPE, new byte[] { (byte)id }, false);
+      }
+
+      for (long id = 1; id <= NUMBER_OF_RECORDS; id += 2)
+      {
+         journal.appendUpdateRecord(id, RECORD_TYPE, new byte[] { 0 }, false);
+      }
+
+      for (long id = 1; id <= NUMBER_OF_RECORDS; id += 3)
+      {
+         journal.appendDeleteRecord(id, true);
+      }
+
+      for (JournalImpl stripe : stripes)
+      {
+         Assert.assertTrue(stripe.getNumberOfRecords() > 0);
+      }
+
+      Assert.assertEquals(NUMBER_OF_RECORDS - NUMBER_OF_RECORDS / 3, journal.getNumberOfRecords());
+
+      load();
+
+      Set<Long> expected = new HashSet<Long>();
+
+      for (long id = 1; id <= NUMBER_OF_RECORDS; id++)
+      {
+         if (id % 3 != 1)
+         {
+            expected.add(id);
+         }
+      }
+
+      Assert.assertEquals(expected, getAddedIDs());
+      Assert.assertTrue(transactions.isEmpty());
+   }
+
+   @Test
+   public void testCommitSpanningStripes() throws Exception
+   {
+      addRecords();
+
+      long txID = 1000;
+
+      for (long id = 1; id <= NUMBER_OF_RECORDS; id++)
+      {
+         journal.appendDeleteRecordTransactional(txID, id);
+      }
+
+      journal.appendAddRecordTransactional(txID, 2000, RECORD_TYPE, new byte[] { 1 });
+
+      journal.appendCommitRecord(txID, true);
+
+      load();
+
+      Set<Long> expected = new HashSet<Long>();
+      expected.add(2000L);
+
+      Assert.assertEquals(expected, getAddedIDs());
+      Assert.assertTrue(transactions.isEmpty());
+
+      // the outcome record of the transaction is gone
+      load();
+
+      Assert.assertEquals(1, journal.getNumberOfRecords());
+   }
+
+   @Test
+   public void testRollbackSpanningStripes() throws Exception
+   {
+      addRecords();
+
+      long txID = 1000;
+
+      for (long id = 1; id <= NUMBER_OF_RECORDS; id++)
+      {
+         journal.appendDeleteRecordTransactional(txID, id);
+      }
+
+      journal.appendRollbackRecord(txID, true);
+
+      load();
+
+      Assert.assertEquals(NUMBER_OF_RECORDS, getAddedIDs().size());
+      Assert.assertTrue(transactions.isEmpty());
+   }
+
+   @Test
+   public void testPreparedTransactionMergedOnLoad() throws Exception
+   {
+      addRecords();
+
+      long txID = 1000;
+
+      for (long id = 1; id <= NUMBER_OF_RECORDS; id++)
+      {
+         journal.appendDeleteRecordTransactional(txID, id);
+      }
+
+      byte[] xid = new byte[] { 1, 2, 3 };
+
+      journal.appendPrepareRecord(txID, xid, true);
+
+      load();
+
+      Assert.assertEquals(NUMBER_OF_RECORDS, getAddedIDs().size());
+      Assert.assertEquals(1, transactions.size());
+      Assert.assertEquals(txID, transactions.get(0).id);
+      Assert.assertArrayEquals(xid, transactions.get(0).extraData);
+      Assert.assertEquals(NUMBER_OF_RECORDS, transactions.get(0).recordsToDelete.size());
+
+      journal.appendCommitRecord(txID, true);
+
+      load();
+
+      Assert.assertTrue(getAddedIDs().isEmpty());
+      Assert.assertTrue(transactions.isEmpty());
+   }
+
+   @Test
+   public void testLinedUpCommitCompletedInOrder() throws Exception
+   {
+      load();
+
+      long txID = 1000;
+
+      int commitStripe = stripeOf(txID);
+
+      long id = 1;
+
+      while (stripeOf(id) == commitStripe)
+      {
+         id++;
+      }
+
+      int addStripe = stripeOf(id);
+
+      journal.appendAddRecordTransactional(txID, 2000, RECORD_TYPE, new byte[] { 1 });
+
+      for (FakeSequentialFileFactory factory : factories)
+      {
+         factory.setHoldCallbacks(true, null);
+      }
+
+      CountingCompletion completion = new CountingCompletion();
+
+      // lined up before the commit is appended, as for a transaction waiting on paging
+      journal.lineUpContext(completion);
+
+      journal.appendAddRecord(id, RECORD_TYPE, new ByteArrayEncoding(new byte[] { 1 }), true, completion);
+
+      journal.appendCommitRecord(txID, true, completion, false);
+
+      Assert.assertEquals(2, completion.linedUp.get());
+
+      // the stripe of the add completes first, its completion waits for the commit lined up before
+      factories[addStripe].flushAllCallbacks();
+
+      Assert.assertEquals(0, completion.done.get());
+
+      factories[commitStripe].flushAllCallbacks();
+
+      Assert.assertEquals(2, completion.done.get());
+   }
+
+   @Test
+   public void testInterruptedCommitRolledBackOnLoad() throws Exception
+   {
+      long txID = 1000;
+
+      startStripes();
+
+      // the parts of a commit were prepared but its outcome was never written
+      stripes[0].appendAddRecordTransactional(txID, 1, RECORD_TYPE, new byte[] { 1 });
+      stripes[0].appendPrepareRecord(txID, StripedJournal.COMMIT_PREPARE_DATA, true);
+      stripes[1].appendAddRecordTransactional(txID, 2, RECORD_TYPE, new byte[] { 2 });
+      stripes[1].appendPrepareRecord(txID, StripedJournal.COMMIT_PREPARE_DATA, true);
+
+      stopStripes();
+
+      load();
+
+      Assert.assertTrue(getAddedIDs().isEmpty());
+      Assert.assertTrue(transactions.isEmpty());
+
+      load();
+
+      Assert.assertTrue(getAddedIDs().isEmpty());
+      Assert.assertTrue(transactions.isEmpty());
+   }
+
+   @Test
+   public void testInterruptedCommitCompletedOnLoad() throws Exception
+   {
+      long txID = 1000;
+
+      startStripes();
+
+      // the outcome of a commit was written but only one of its parts was committed
+      stripes[0].appendAddRecordTransactional(txID, 1, RECORD_TYPE, new byte[] { 1 });
+      stripes[0].appendPrepareRecord(txID, StripedJournal.COMMIT_PREPARE_DATA, true);
+      stripes[1].appendAddRecordTransactional(txID, 2, RECORD_TYPE, new byte[] { 2 });
+      stripes[1].appendPrepareRecord(txID, StripedJournal.COMMIT_PREPARE_DATA, true);
+      stripes[2].appendAddRecord(txID, StripedJournal.OUTCOME_RECORD, new byte[0], true);
+      stripes[0].appendCommitRecord(txID, true);
+
+      stopStripes();
+
+      Set<Long> expected = new HashSet<Long>();
+      expected.add(1L);
+      expected.add(2L);
+
+      load();
+
+      Assert.assertEquals(expected, getAddedIDs());
+      Assert.assertTrue(transactions.isEmpty());
+
+      load();
+
+      Assert.assertEquals(expected, getAddedIDs());
+      Assert.assertEquals(2, journal.getNumberOfRecords());
+   }
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      factories = new FakeSequentialFileFactory[NUMBER_OF_STRIPES];
+
+      for (int i = 0; i < NUMBER_OF_STRIPES; i++)
+      {
+         factories[i] = new FakeSequentialFileFactory(1, true);
+      }
+   }
+
+   @Override
+   @After
+   public void tearDown() throws Exception
+   {
+      stopComponent(journal);
+
+      journal = null;
+
+      super.tearDown();
+   }
+
+   private void addRecords() throws Exception
+   {
+      load();
+
+      for (long id = 1; id <= NUMBER_OF_RECORDS; id++)
+      {
+         journal.appendAddRecord(id, RECORD_TYPE, new byte[] { (byte)id }, false);
+      }
+   }
+
+   /**
+    * Finds the stripe of an ID by adding and deleting a record with that ID, the stripes must not
+    * hold any other record.
+    */
+   private int stripeOf(final long id) throws Exception
+   {
+      int stripe = -1;
+
+      journal.appendAddRecord(id, RECORD_TYPE, new byte[] { 0 }, false);
+
+      for (int i = 0; i < NUMBER_OF_STRIPES; i++)
+      {
+         if (stripes[i].getNumberOfRecords() > 0)
+         {
+            stripe = i;
+         }
+      }
+
+      journal.appendDeleteRecord(id, false);
+
+      return stripe;
+   }
+
+   private Set<Long> getAddedIDs()
+   {
+      Set<Long> ids = new HashSet<Long>();
+
+      for (RecordInfo record : records)
+      {
+         if (!record.isUpdate)
+         {
+            ids.add(record.id);
+         }
+      }
+
+      return ids;
+   }
+
+   /**
+    * Stops the current journal if any, then creates and loads a new one on the same files.
+    */
+   private void load() throws Exception
+   {
+      stopComponent(journal);
+
+      createStripes();
+
+      journal = new StripedJournal(stripes);
+
+      journal.start();
+
+      records.clear();
+
+      transactions.clear();
+
+      journal.load(records, transactions, null);
+   }
+
+   private void createStripes()
+   {
+      stripes = new JournalImpl[NUMBER_OF_STRIPES];
+
+      for (int i = 0; i < NUMBER_OF_STRIPES; i++)
+      {
+         stripes[i] = new JournalImpl(10 * 1024, 2, 0, 0, factories[i], "hq", "hq", 1000);
+      }
+   }
+
+   private void startStripes() throws Exception
+   {
+      createStripes();
+
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.start();
+
+         stripe.load(new ArrayList<RecordInfo>(), new ArrayList<PreparedTransactionInfo>(), null);
+      }
+   }
+
+   private void stopStripes() throws Exception
+   {
+      for (JournalImpl stripe : stripes)
+      {
+         stripe.stop();
+      }
+   }
+
+   private static final class CountingCompletion implements IOCompletion
+   {
+      private final AtomicInteger linedUp = new AtomicInteger();
+
+      private final AtomicInteger done = new AtomicInteger();
+
+      public void storeLineUp()
+      {
+         linedUp.incrementAndGet();
+      }
+
+      public void done()
+      {
+         done.incrementAndGet();
+      }
+
+      public void onError(final int errorCode, final String errorMessage)
+      {
+         Assert.fail(errorMessage);
+      }
+   }
+}
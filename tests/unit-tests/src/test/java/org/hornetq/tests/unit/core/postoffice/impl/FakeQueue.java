@@ -150,6 +150,13 @@ public class FakeQueue implements Queue
 
    }
 
+   @Override
+   public void acknowledge(final List<MessageReference> refs) throws Exception
+   {
+      // no-op
+
+   }
+
    @Override
    public void acknowledge(final Transaction tx, final MessageReference ref) throws Exception
    {
@@ -192,6 +199,20 @@ public class FakeQueue implements Queue
 
    }
 
+   @Override
+   public void addBacklogRedistributor()
+   {
+      // no-op
+
+   }
+
+   @Override
+   public void cancelBacklogRedistributor() throws Exception
+   {
+      // no-op
+
+   }
+
    @Override
    public boolean changeReferencePriority(final long messageID, final byte newPriority) throws Exception
    {
@@ -215,6 +215,12 @@ public class WildcardAddressManagerUnitTest extends UnitTestCase
 
       }
 
+      @Override
+      public void setLoadAware(boolean loadAware)
+      {
+
+      }
+
       @Override
       public boolean redistribute(ServerMessage message, Queue originatingQueue, RoutingContext context) throws Exception
       {
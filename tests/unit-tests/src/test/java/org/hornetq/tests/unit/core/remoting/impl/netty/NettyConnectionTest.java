@@ -14,6 +14,8 @@ package org.hornetq.tests.unit.core.remoting.impl.netty;
 
 import org.junit.Test;
 
+import java.io.File;
+import java.io.RandomAccessFile;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.util.Collections;
@@ -21,6 +23,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+
 import org.junit.Assert;
 
 import org.hornetq.api.core.HornetQBuffer;
@@ -32,11 +37,15 @@ import org.hornetq.spi.core.remoting.Connection;
 import org.hornetq.spi.core.remoting.ConnectionLifeCycleListener;
 import org.hornetq.tests.util.RandomUtil;
 import org.hornetq.tests.util.UnitTestCase;
+import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelConfig;
 import org.jboss.netty.channel.ChannelFactory;
 import org.jboss.netty.channel.ChannelFuture;
 import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.FileRegion;
+import org.jboss.netty.handler.ssl.SslHandler;
 
 /**
  *
@@ -72,6 +81,106 @@ public class NettyConnectionTest extends UnitTestCase
       Assert.assertEquals(1, channel.getWritten().size());
    }
 
+   @Test
+   public void testWriteFileRegion() throws Exception
+   {
+      File file = temporaryFolder.newFile();
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      raf.write(new byte[128]);
+      raf.close();
+
+      HornetQBuffer buff = HornetQBuffers.wrappedBuffer(ByteBuffer.allocate(16));
+      SimpleChannel channel = new SimpleChannel(RandomUtil.randomInt());
+
+      NettyConnection conn = new NettyConnection(emptyMap, channel, new MyListener(), false, false);
+      Assert.assertTrue(conn.writeFileRegion(buff, 10, file, 32, 64));
+
+      Assert.assertEquals(3, channel.getWritten().size());
+      Assert.assertEquals(10, ((ChannelBuffer)channel.getWritten().get(0)).readableBytes());
+      FileRegion region = (FileRegion)channel.getWritten().get(1);
+      Assert.assertEquals(32, region.getPosition());
+      Assert.assertEquals(64, region.getCount());
+      Assert.assertEquals(6, ((ChannelBuffer)channel.getWritten().get(2)).readableBytes());
+      region.releaseExternalResources();
+   }
+
+   @Test
+   public void testWriteFileRegionNotSupportedWithSSL() throws Exception
+   {
+      HornetQBuffer buff = HornetQBuffers.wrappedBuffer(ByteBuffer.allocate(16));
+      SimpleChannel channel = new SimpleChannel(RandomUtil.randomInt());
+      SSLEngine engine = SSLContext.getDefault().createSSLEngine();
+      channel.getPipeline().addLast("ssl", new SslHandler(engine));
+
+      NettyConnection conn = new NettyConnection(emptyMap, channel, new MyListener(), false, false);
+      Assert.assertFalse(conn.writeFileRegion(buff, 10, temporaryFolder.newFile(), 0, 0));
+
+      Assert.assertEquals(0, channel.getWritten().size());
+   }
+
+   @Test
+   public void testBatchedWrites() throws Exception
+   {
+      SimpleChannel channel = new SimpleChannel(RandomUtil.randomInt());
+
+      NettyConnection conn = new NettyConnection(emptyMap, channel, new MyListener(), true, false, 4096, false);
+
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[100]), false, true);
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[2000]), false, true);
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[100]), false, true);
+
+      Assert.assertEquals(0, channel.getWritten().size());
+
+      conn.checkFlushBatchBuffer();
+
+      Assert.assertEquals(1, channel.getWritten().size());
+      Assert.assertEquals(2200, ((ChannelBuffer)channel.getWritten().get(0)).readableBytes());
+
+      // reaching the batch size writes the batch straight away
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[3000]), false, true);
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[3000]), false, true);
+
+      Assert.assertEquals(2, channel.getWritten().size());
+      Assert.assertEquals(6000, ((ChannelBuffer)channel.getWritten().get(1)).readableBytes());
+
+      // as does a write that is not batched, keeping the order
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[100]), false, true);
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[10]), false, false);
+
+      Assert.assertEquals(3, channel.getWritten().size());
+      Assert.assertEquals(110, ((ChannelBuffer)channel.getWritten().get(2)).readableBytes());
+   }
+
+   @Test
+   public void testAdaptiveBatching() throws Exception
+   {
+      SimpleChannel channel = new SimpleChannel(RandomUtil.randomInt());
+
+      NettyConnection conn = new NettyConnection(emptyMap, channel, new MyListener(), true, false, 4096, true);
+
+      // nothing waiting for the socket, so no reason to wait
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[100]), false, true);
+
+      Assert.assertEquals(1, channel.getWritten().size());
+
+      // the first write hasn't completed, so these are held
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[100]), false, true);
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[2000]), false, true);
+
+      Assert.assertEquals(1, channel.getWritten().size());
+
+      channel.getFutures().get(0).setSuccess();
+
+      Assert.assertEquals(2, channel.getWritten().size());
+      Assert.assertEquals(2100, ((ChannelBuffer)channel.getWritten().get(1)).readableBytes());
+
+      channel.getFutures().get(1).setSuccess();
+
+      conn.write(HornetQBuffers.wrappedBuffer(new byte[100]), false, true);
+
+      Assert.assertEquals(3, channel.getWritten().size());
+   }
+
    @Test
    public void testCreateBuffer() throws Exception
    {
@@ -92,6 +201,10 @@ public class NettyConnectionTest extends UnitTestCase
 
       private final List<Object> written = new LinkedList<Object>();
 
+      private final List<ChannelFuture> futures = new LinkedList<ChannelFuture>();
+
+      private final ChannelPipeline pipeline = Channels.pipeline();
+
       private SimpleChannel(final int id)
       {
          this.id = id;
@@ -102,6 +215,11 @@ public class NettyConnectionTest extends UnitTestCase
          return written;
       }
 
+      public List<ChannelFuture> getFutures()
+      {
+         return futures;
+      }
+
       public int compareTo(final Channel arg0)
       {
          return 0;
@@ -109,14 +227,15 @@ public class NettyConnectionTest extends UnitTestCase
 
       public ChannelFuture write(final Object arg0, final SocketAddress arg1)
       {
-         written.add(arg0);
-         return null;
+         return write(arg0);
       }
 
       public ChannelFuture write(final Object arg0)
       {
          written.add(arg0);
-         return null;
+         ChannelFuture future = Channels.future(this);
+         futures.add(future);
+         return future;
       }
 
       public ChannelFuture unbind()
@@ -166,7 +285,7 @@ public class NettyConnectionTest extends UnitTestCase
 
       public ChannelPipeline getPipeline()
       {
-         return null;
+         return pipeline;
       }
 
       public Channel getParent()
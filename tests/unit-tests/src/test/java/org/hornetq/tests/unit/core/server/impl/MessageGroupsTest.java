@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.unit.core.server.impl;
+
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.core.server.Consumer;
+import org.hornetq.core.server.impl.MessageGroups;
+import org.hornetq.tests.unit.core.server.impl.fakes.FakeConsumer;
+import org.hornetq.tests.util.UnitTestCase;
+import org.junit.Test;
+
+public class MessageGroupsTest extends UnitTestCase
+{
+   @Test
+   public void testRemoveConsumer()
+   {
+      MessageGroups groups = new MessageGroups(-1, -1);
+
+      Consumer consumer1 = new FakeConsumer();
+      Consumer consumer2 = new FakeConsumer();
+
+      for (int i = 0; i < 100; i++)
+      {
+         groups.put(new SimpleString("group" + i), i % 2 == 0 ? consumer1 : consumer2);
+      }
+
+      assertEquals(100, groups.size());
+      assertSame(consumer1, groups.get(new SimpleString("group0")));
+      assertSame(consumer2, groups.get(new SimpleString("group1")));
+
+      groups.removeConsumer(consumer1);
+
+      assertEquals(50, groups.size());
+      assertNull(groups.get(new SimpleString("group0")));
+      assertSame(consumer2, groups.get(new SimpleString("group1")));
+
+      // a group moved to another consumer is no longer removed with its previous consumer
+      groups.put(new SimpleString("group1"), consumer1);
+      groups.removeConsumer(consumer2);
+
+      assertEquals(1, groups.size());
+      assertSame(consumer1, groups.get(new SimpleString("group1")));
+   }
+
+   @Test
+   public void testIdleGroupsExpire() throws Exception
+   {
+      MessageGroups groups = new MessageGroups(100, -1);
+
+      Consumer consumer = new FakeConsumer();
+
+      SimpleString idle = new SimpleString("idle");
+      SimpleString active = new SimpleString("active");
+
+      groups.put(idle, consumer);
+      groups.put(active, consumer);
+
+      for (int i = 0; i < 10; i++)
+      {
+         Thread.sleep(20);
+         assertSame(consumer, groups.get(active));
+      }
+
+      assertNull(groups.get(idle));
+      assertEquals(1, groups.size());
+
+      groups.removeConsumer(consumer);
+      assertEquals(0, groups.size());
+   }
+
+   @Test
+   public void testBuckets()
+   {
+      MessageGroups groups = new MessageGroups(-1, 4);
+
+      Consumer consumer = new FakeConsumer();
+
+      for (int i = 0; i < 1000; i++)
+      {
+         SimpleString groupID = new SimpleString("group" + i);
+         if (groups.get(groupID) == null)
+         {
+            groups.put(groupID, consumer);
+         }
+         assertSame(consumer, groups.get(groupID));
+      }
+
+      assertTrue(groups.size() <= 4);
+
+      groups.configure(-1, -1);
+
+      assertEquals(0, groups.size());
+   }
+}
@@ -25,6 +25,7 @@ import org.hornetq.core.security.Role;
 import org.hornetq.core.settings.HierarchicalRepository;
 import org.hornetq.core.settings.Mergeable;
 import org.hornetq.core.settings.impl.HierarchicalObjectRepository;
+import org.hornetq.core.settings.impl.Match;
 import org.hornetq.tests.util.UnitTestCase;
 
 /**
@@ -166,6 +167,48 @@ public class RepositoryTest extends UnitTestCase
       DummyMergeable.reset();
    }
 
+   @Test
+   public void testMatchesAgreeWithPatterns()
+   {
+      String[] matches = {"#", "*", "a", "a.#", "a.*", "*.b", "a.*.c", "*.*.#", "a.b#", "a*.b", "a.b?", ".#"};
+      String[] addresses = {"a", "b", "a.b", "a.", "a..", ".a", "a.b.c", "a.bb", "a.b.c.d", "ax.b", "a.*", "*.b"};
+      for (String address : addresses)
+      {
+         HierarchicalRepository<MatchSet> repository = new HierarchicalObjectRepository<MatchSet>();
+         HashSet<String> expected = new HashSet<String>();
+         for (String match : matches)
+         {
+            repository.addMatch(match, new MatchSet(match));
+            if (new Match<String>(match).getPattern().matcher(address).matches())
+            {
+               expected.add(match);
+            }
+         }
+         Assert.assertEquals(address, expected, repository.getMatch(address).matches);
+      }
+   }
+
+   @Test
+   public void testChangeOnlyEvictsMatchingEntries()
+   {
+      HierarchicalObjectRepository<String> repository = new HierarchicalObjectRepository<String>();
+      repository.addMatch("#", "#");
+      repository.addMatch("a.#", "a.#");
+      Assert.assertEquals("a.#", repository.getMatch("a.b"));
+      Assert.assertEquals("#", repository.getMatch("c.d"));
+      Assert.assertEquals(2, repository.getCacheSize());
+
+      repository.addMatch("c.*", "c.*");
+      Assert.assertEquals(1, repository.getCacheSize());
+      Assert.assertEquals("a.#", repository.getMatch("a.b"));
+      Assert.assertEquals("c.*", repository.getMatch("c.d"));
+
+      repository.removeMatch("a.#");
+      Assert.assertEquals(1, repository.getCacheSize());
+      Assert.assertEquals("#", repository.getMatch("a.b"));
+      Assert.assertEquals("c.*", repository.getMatch("c.d"));
+   }
+
    @Test
    public void testIllegalMatches()
    {
@@ -190,6 +233,21 @@ public class RepositoryTest extends UnitTestCase
       }
    }
 
+   static class MatchSet implements Mergeable
+   {
+      final HashSet<String> matches = new HashSet<String>();
+
+      MatchSet(final String match)
+      {
+         matches.add(match);
+      }
+
+      public void merge(final Object merged)
+      {
+         matches.addAll(((MatchSet)merged).matches);
+      }
+   }
+
    static class DummyMergeable implements Mergeable
    {
       static int timesMerged = 0;
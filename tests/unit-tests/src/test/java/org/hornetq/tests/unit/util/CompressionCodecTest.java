@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.tests.unit.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.hornetq.core.compression.CompressionCodecs;
+import org.hornetq.core.compression.DeflateCompressionCodec;
+import org.hornetq.core.compression.LZFCompressionCodec;
+import org.hornetq.spi.core.compression.CompressionCodec;
+import org.hornetq.tests.util.UnitTestCase;
+import org.junit.Test;
+
+/**
+ * Round trips of the message body {@link CompressionCodec}s.
+ */
+public class CompressionCodecTest extends UnitTestCase
+{
+   @Test
+   public void testLookup() throws Exception
+   {
+      assertTrue(CompressionCodecs.getCodec(CompressionCodecs.DEFLATE) instanceof DeflateCompressionCodec);
+      assertTrue(CompressionCodecs.getCodec(CompressionCodecs.LZF) instanceof LZFCompressionCodec);
+      assertTrue(CompressionCodecs.getCodec(LZFCompressionCodec.class.getName()) instanceof LZFCompressionCodec);
+   }
+
+   @Test
+   public void testDeflateRoundTrip() throws Exception
+   {
+      testRoundTrip(new DeflateCompressionCodec(), -1);
+      testRoundTrip(new DeflateCompressionCodec(), 1);
+      testRoundTrip(new DeflateCompressionCodec(), 9);
+   }
+
+   @Test
+   public void testLZFRoundTrip() throws Exception
+   {
+      testRoundTrip(new LZFCompressionCodec(), -1);
+   }
+
+   @Test
+   public void testDeflateTruncated() throws Exception
+   {
+      testTruncated(new DeflateCompressionCodec());
+   }
+
+   @Test
+   public void testLZFTruncated() throws Exception
+   {
+      testTruncated(new LZFCompressionCodec());
+   }
+
+   @Test
+   public void testDeflateMaxDecompressedSize() throws Exception
+   {
+      testMaxDecompressedSize(new DeflateCompressionCodec(), 9);
+   }
+
+   @Test
+   public void testLZFMaxDecompressedSize() throws Exception
+   {
+      testMaxDecompressedSize(new LZFCompressionCodec(), -1);
+   }
+
+   private void testMaxDecompressedSize(final CompressionCodec codec, final int level) throws Exception
+   {
+      for (byte[] data : new byte[][] { new byte[1], new byte[1024 * 1024], text(100 * 1024), random(64 * 1024) })
+      {
+         byte[] compressed = codec.compress(data, level);
+
+         assertTrue(codec.getMaxDecompressedSize(compressed.length) >= data.length);
+      }
+
+      assertTrue(codec.getMaxDecompressedSize(16) < 1024 * 1024);
+   }
+
+   private void testRoundTrip(final CompressionCodec codec, final int level) throws Exception
+   {
+      for (byte[] data : new byte[][] { new byte[0], new byte[] { 1 }, text(100 * 1024), random(64 * 1024) })
+      {
+         byte[] compressed = codec.compress(data, level);
+
+         byte[] result = new byte[data.length];
+
+         codec.decompress(compressed, 0, compressed.length, result);
+
+         assertTrue(Arrays.equals(data, result));
+      }
+
+      assertTrue(codec.compress(text(100 * 1024), level).length < 100 * 1024 / 2);
+   }
+
+   private void testTruncated(final CompressionCodec codec) throws Exception
+   {
+      byte[] data = text(10 * 1024);
+
+      byte[] compressed = codec.compress(data, -1);
+
+      try
+      {
+         codec.decompress(compressed, 0, compressed.length / 2, new byte[data.length]);
+         fail("IOException expected");
+      }
+      catch (IOException expected)
+      {
+      }
+   }
+
+   private static byte[] text(final int size)
+   {
+      StringBuilder builder = new StringBuilder();
+
+      for (int i = 0; builder.length() < size; i++)
+      {
+         builder.append("{\"id\":").append(i).append(",\"name\":\"item").append(i % 17).append("\"}\n");
+      }
+
+      return builder.substring(0, size).getBytes();
+   }
+
+   private static byte[] random(final int size)
+   {
+      byte[] data = new byte[size];
+
+      new Random(1).nextBytes(data);
+
+      return data;
+   }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.hornetq.tests.unit.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hornetq.tests.util.UnitTestCase;
+import org.hornetq.utils.ConcurrentLongHashMap;
+import org.junit.Test;
+
+public class ConcurrentLongHashMapTest extends UnitTestCase
+{
+   @Test
+   public void testPutGetRemove()
+   {
+      ConcurrentLongHashMap<String> map = new ConcurrentLongHashMap<String>();
+
+      assertTrue(map.isEmpty());
+      assertNull(map.put(1, "one"));
+      assertNull(map.put(-1, "minus one"));
+      assertNull(map.put(Long.MAX_VALUE, "max"));
+      assertEquals("one", map.put(1, "uno"));
+
+      assertEquals(3, map.size());
+      assertEquals("uno", map.get(1));
+      assertEquals("minus one", map.get(-1));
+      assertEquals("max", map.get(Long.MAX_VALUE));
+      assertNull(map.get(2));
+      assertTrue(map.containsKey(1));
+      assertFalse(map.containsKey(2));
+
+      assertEquals("uno", map.remove(1));
+      assertNull(map.remove(1));
+      assertFalse(map.containsKey(1));
+      assertEquals(2, map.size());
+
+      long[] keys = map.keys();
+      Arrays.sort(keys);
+      assertTrue(Arrays.equals(new long[]{-1, Long.MAX_VALUE}, keys));
+
+      map.clear();
+      assertTrue(map.isEmpty());
+      assertEquals(0, map.keys().length);
+   }
+
+   @Test
+   public void testAgreesWithHashMap()
+   {
+      // a single segment and a small key range, so entries collide and are shifted back on removal
+      ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<Long>(1);
+      Map<Long, Long> expected = new HashMap<Long, Long>();
+
+      Random random = new Random(7);
+
+      for (int i = 0; i < 100000; i++)
+      {
+         long key = random.nextInt(1000);
+
+         switch (random.nextInt(3))
+         {
+            case 0:
+               assertEquals(expected.put(key, (long)i), map.put(key, (long)i));
+               break;
+            case 1:
+               assertEquals(expected.remove(key), map.remove(key));
+               break;
+            default:
+               assertEquals(expected.get(key), map.get(key));
+         }
+      }
+
+      assertEquals(expected.size(), map.size());
+
+      for (Map.Entry<Long, Long> entry : expected.entrySet())
+      {
+         assertEquals(entry.getValue(), map.get(entry.getKey()));
+      }
+   }
+
+   @Test
+   public void testConcurrentUpdates() throws Exception
+   {
+      final int threads = 8;
+      final int keysPerThread = 10000;
+
+      final ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<Long>();
+      final CountDownLatch start = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(threads);
+      final AtomicInteger errors = new AtomicInteger();
+
+      for (int t = 0; t < threads; t++)
+      {
+         final int offset = t;
+
+         new Thread()
+         {
+            @Override
+            public void run()
+            {
+               try
+               {
+                  start.await();
+
+                  for (long i = 0; i < keysPerThread; i++)
+                  {
+                     long key = i * threads + offset;
+
+                     map.put(key, key);
+
+                     if (map.get(key) != key)
+                     {
+                        errors.incrementAndGet();
+                     }
+
+                     if (i % 2 == 0)
+                     {
+                        map.remove(key);
+                     }
+                  }
+               }
+               catch (Throwable e)
+               {
+                  e.printStackTrace();
+                  errors.incrementAndGet();
+               }
+               finally
+               {
+                  done.countDown();
+               }
+            }
+         }.start();
+      }
+
+      start.countDown();
+
+      assertTrue(done.await(30, TimeUnit.SECONDS));
+      assertEquals(0, errors.get());
+      assertEquals(threads * keysPerThread / 2, map.size());
+   }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013 Red Hat, Inc.
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package org.hornetq.tests.unit.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hornetq.tests.util.UnitTestCase;
+import org.hornetq.utils.OrderedExecutorFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderedExecutorFactoryTest extends UnitTestCase
+{
+   private ExecutorService pool;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      pool = Executors.newFixedThreadPool(4);
+   }
+
+   @Override
+   @After
+   public void tearDown() throws Exception
+   {
+      pool.shutdown();
+
+      pool.awaitTermination(10, TimeUnit.SECONDS);
+
+      super.tearDown();
+   }
+
+   @Test
+   public void testTasksFromConcurrentSubmittersRunInOrderOneAtATime() throws Exception
+   {
+      final int numberOfSubmitters = 8;
+      final int tasksPerSubmitter = 10000;
+
+      final Executor executor = new OrderedExecutorFactory(pool).getExecutor();
+      final AtomicInteger concurrent = new AtomicInteger(0);
+      final AtomicInteger overlaps = new AtomicInteger(0);
+      final CountDownLatch done = new CountDownLatch(numberOfSubmitters * tasksPerSubmitter);
+
+      // only ever touched from inside the tasks, the executor is what guards it
+      final List<int[]> executed = new ArrayList<int[]>();
+
+      Thread[] submitters = new Thread[numberOfSubmitters];
+
+      for (int i = 0; i < numberOfSubmitters; i++)
+      {
+         final int submitter = i;
+
+         submitters[i] = new Thread()
+         {
+            @Override
+            public void run()
+            {
+               for (int j = 0; j < tasksPerSubmitter; j++)
+               {
+                  final int sequence = j;
+
+                  executor.execute(new Runnable()
+                  {
+                     public void run()
+                     {
+                        if (concurrent.incrementAndGet() != 1)
+                        {
+                           overlaps.incrementAndGet();
+                        }
+
+                        executed.add(new int[]{submitter, sequence});
+
+                        concurrent.decrementAndGet();
+
+                        done.countDown();
+                     }
+                  });
+               }
+            }
+         };
+      }
+
+      for (Thread submitter : submitters)
+      {
+         submitter.start();
+      }
+
+      for (Thread submitter : submitters)
+      {
+         submitter.join();
+      }
+
+      Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+
+      Assert.assertEquals(0, overlaps.get());
+
+      Assert.assertEquals(numberOfSubmitters * tasksPerSubmitter, executed.size());
+
+      int[] last = new int[numberOfSubmitters];
+
+      for (int[] task : executed)
+      {
+         Assert.assertEquals(last[task[0]]++, task[1]);
+      }
+   }
+
+   @Test
+   public void testTaskSubmittedAfterGoingIdleIsRun() throws Exception
+   {
+      Executor executor = new OrderedExecutorFactory(pool).getExecutor();
+
+      for (int i = 0; i < 10000; i++)
+      {
+         final CountDownLatch latch = new CountDownLatch(1);
+
+         executor.execute(new Runnable()
+         {
+            public void run()
+            {
+               latch.countDown();
+            }
+         });
+
+         Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+      }
+   }
+
+   @Test
+   public void testTaskSubmittedFromATaskIsRunAfterIt() throws Exception
+   {
+      final Executor executor = new OrderedExecutorFactory(pool).getExecutor();
+      final List<String> executed = new ArrayList<String>();
+      final CountDownLatch latch = new CountDownLatch(1);
+
+      executor.execute(new Runnable()
+      {
+         public void run()
+         {
+            executor.execute(new Runnable()
+            {
+               public void run()
+               {
+                  executed.add("inner");
+                  latch.countDown();
+               }
+            });
+
+            executed.add("outer");
+         }
+      });
+
+      Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+      Assert.assertEquals("outer", executed.get(0));
+      Assert.assertEquals("inner", executed.get(1));
+   }
+}